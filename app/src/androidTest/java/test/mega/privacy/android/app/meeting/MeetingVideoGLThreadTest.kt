@@ -0,0 +1,139 @@
+package test.mega.privacy.android.app.meeting
+
+import android.opengl.EGL14
+import android.opengl.EGLConfig
+import android.opengl.EGLDisplay
+import android.opengl.GLES20
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.meeting.MeetingVideoGLThread
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+@RunWith(AndroidJUnit4::class)
+class MeetingVideoGLThreadTest {
+
+    @Test
+    fun test_programIsCreatedOnTheGlThread() {
+        val underTest = MeetingVideoGLThread.acquire()
+        try {
+            assertThat(underTest.runOnGlThread { underTest.program }).isNotNull()
+        } finally {
+            MeetingVideoGLThread.release()
+        }
+    }
+
+    @Test
+    fun test_threadIsSharedUntilTheLastUserReleasesIt() {
+        val first = MeetingVideoGLThread.acquire()
+        val second = MeetingVideoGLThread.acquire()
+        assertThat(second).isSameInstanceAs(first)
+
+        MeetingVideoGLThread.release()
+        val third = MeetingVideoGLThread.acquire()
+        assertThat(third).isSameInstanceAs(first)
+
+        MeetingVideoGLThread.release()
+        MeetingVideoGLThread.release()
+        first.join()
+
+        val restarted = MeetingVideoGLThread.acquire()
+        try {
+            assertThat(restarted).isNotSameInstanceAs(first)
+            assertThat(restarted.runOnGlThread { restarted.program }).isNotNull()
+        } finally {
+            MeetingVideoGLThread.release()
+        }
+    }
+
+    @Test
+    fun test_releasingTheThreadKeepsTheDisplayOfTheOtherEglUsers() {
+        val display = EGL14.eglGetDisplay(EGL14.EGL_DEFAULT_DISPLAY)
+        val version = IntArray(2)
+        assertThat(EGL14.eglInitialize(display, version, 0, version, 1)).isTrue()
+        val config = chooseConfig(display)
+        val context = EGL14.eglCreateContext(
+            display,
+            config,
+            EGL14.EGL_NO_CONTEXT,
+            intArrayOf(EGL14.EGL_CONTEXT_CLIENT_VERSION, 2, EGL14.EGL_NONE),
+            0
+        )
+        val surface = EGL14.eglCreatePbufferSurface(
+            display,
+            config,
+            intArrayOf(EGL14.EGL_WIDTH, 1, EGL14.EGL_HEIGHT, 1, EGL14.EGL_NONE),
+            0
+        )
+
+        val glThread = MeetingVideoGLThread.acquire()
+        glThread.runOnGlThread { glThread.program }
+        MeetingVideoGLThread.release()
+        glThread.join()
+
+        try {
+            assertThat(EGL14.eglMakeCurrent(display, surface, surface, context)).isTrue()
+            GLES20.glClearColor(1f, 0f, 0f, 1f)
+            GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT)
+            assertThat(GLES20.glGetError()).isEqualTo(GLES20.GL_NO_ERROR)
+        } finally {
+            EGL14.eglMakeCurrent(
+                display,
+                EGL14.EGL_NO_SURFACE,
+                EGL14.EGL_NO_SURFACE,
+                EGL14.EGL_NO_CONTEXT
+            )
+            EGL14.eglDestroySurface(display, surface)
+            EGL14.eglDestroyContext(display, context)
+            EGL14.eglReleaseThread()
+        }
+    }
+
+    private fun chooseConfig(display: EGLDisplay): EGLConfig {
+        val configs = arrayOfNulls<EGLConfig>(1)
+        val numConfigs = IntArray(1)
+        EGL14.eglChooseConfig(
+            display,
+            intArrayOf(
+                EGL14.EGL_RENDERABLE_TYPE, EGL14.EGL_OPENGL_ES2_BIT,
+                EGL14.EGL_SURFACE_TYPE, EGL14.EGL_PBUFFER_BIT,
+                EGL14.EGL_NONE
+            ),
+            0,
+            configs,
+            0,
+            1,
+            numConfigs,
+            0
+        )
+        assertThat(numConfigs[0]).isGreaterThan(0)
+        return requireNotNull(configs[0])
+    }
+}
+
+/**
+ * Run [block] on the GL thread, after its EGL initialisation, and wait for its result
+ */
+internal fun <T> MeetingVideoGLThread.runOnGlThread(block: () -> T): T {
+    val result = AtomicReference<Result<T>>()
+    val done = CountDownLatch(1)
+    handler.post {
+        result.set(runCatching(block))
+        done.countDown()
+    }
+    assertThat(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue()
+    return result.get().getOrThrow()
+}
+
+/**
+ * Wait for a released GL thread to finish its EGL release
+ */
+internal fun MeetingVideoGLThread.join() {
+    handler.looper.thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS))
+    assertThat(handler.looper.thread.isAlive).isFalse()
+}
+
+private const val TIMEOUT_SECONDS = 5L
@@ -0,0 +1,121 @@
+package test.mega.privacy.android.app.meeting
+
+import android.graphics.SurfaceTexture
+import android.opengl.GLES20
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.meeting.MeetingVideoGLThread
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+@RunWith(AndroidJUnit4::class)
+class MeetingVideoProgramTest {
+
+    private lateinit var glThread: MeetingVideoGLThread
+    private lateinit var surfaceTexture: SurfaceTexture
+
+    @Before
+    fun setUp() {
+        glThread = MeetingVideoGLThread.acquire()
+        surfaceTexture = SurfaceTexture(0).apply { setDefaultBufferSize(SIZE, SIZE) }
+    }
+
+    @After
+    fun tearDown() {
+        MeetingVideoGLThread.release()
+        glThread.join()
+        surfaceTexture.release()
+    }
+
+    @Test
+    fun test_frameFillsTheSurface() {
+        val pixels = drawRedFrame(scaleX = 1f, scaleY = 1f, radius = 0f)
+
+        assertThat(pixels.at(SIZE / 2, SIZE / 2)).isEqualTo(RED)
+        assertThat(pixels.at(0, 0)).isEqualTo(RED)
+        assertThat(pixels.at(SIZE - 1, SIZE - 1)).isEqualTo(RED)
+    }
+
+    @Test
+    fun test_scaledFrameLeavesTheBordersEmpty() {
+        val pixels = drawRedFrame(scaleX = 0.5f, scaleY = 1f, radius = 0f)
+
+        assertThat(pixels.at(SIZE / 2, SIZE / 2)).isEqualTo(RED)
+        assertThat(pixels.at(0, SIZE / 2)).isEqualTo(TRANSPARENT)
+        assertThat(pixels.at(SIZE - 1, SIZE / 2)).isEqualTo(TRANSPARENT)
+    }
+
+    @Test
+    fun test_roundedCornersAreMasked() {
+        val pixels = drawRedFrame(scaleX = 1f, scaleY = 1f, radius = SIZE / 4f)
+
+        assertThat(pixels.at(SIZE / 2, SIZE / 2)).isEqualTo(RED)
+        assertThat(pixels.at(0, 0)).isEqualTo(TRANSPARENT)
+        assertThat(pixels.at(SIZE / 2, 0)).isEqualTo(RED)
+    }
+
+    /**
+     * Draw a red frame on a window surface and read back its pixels, before posting them
+     */
+    private fun drawRedFrame(scaleX: Float, scaleY: Float, radius: Float): ByteBuffer =
+        glThread.runOnGlThread {
+            val program = requireNotNull(glThread.program)
+            val surface = requireNotNull(glThread.createWindowSurface(surfaceTexture))
+            val texture = IntArray(1)
+            try {
+                assertThat(glThread.makeCurrent(surface)).isTrue()
+                GLES20.glGenTextures(1, texture, 0)
+                GLES20.glActiveTexture(GLES20.GL_TEXTURE0)
+                GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, texture[0])
+                listOf(GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_TEXTURE_MAG_FILTER).forEach {
+                    GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, it, GLES20.GL_NEAREST)
+                }
+                val frame = directBuffer(4).put(RED.toByteArray()).rewind()
+                GLES20.glTexImage2D(
+                    GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGBA, 1, 1, 0,
+                    GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, frame
+                )
+                GLES20.glViewport(0, 0, SIZE, SIZE)
+                GLES20.glClearColor(0f, 0f, 0f, 0f)
+                GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT)
+
+                program.draw(
+                    scaleX = scaleX,
+                    scaleY = scaleY,
+                    mirror = false,
+                    quadWidth = SIZE * scaleX,
+                    quadHeight = SIZE * scaleY,
+                    radius = radius,
+                    alpha = 1f,
+                )
+
+                directBuffer(SIZE * SIZE * 4).also {
+                    GLES20.glReadPixels(
+                        0, 0, SIZE, SIZE, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, it
+                    )
+                    assertThat(GLES20.glGetError()).isEqualTo(GLES20.GL_NO_ERROR)
+                }
+            } finally {
+                GLES20.glDeleteTextures(1, texture, 0)
+                glThread.destroySurface(surface)
+            }
+        }
+
+    private fun directBuffer(size: Int) = ByteBuffer.allocateDirect(size)
+        .order(ByteOrder.nativeOrder())
+
+    private fun ByteBuffer.at(x: Int, y: Int) = ByteArray(4).also { pixel ->
+        val offset = (y * SIZE + x) * 4
+        for (i in pixel.indices) pixel[i] = get(offset + i)
+    }.toList()
+
+    private companion object {
+        const val SIZE = 64
+        val RED = listOf<Byte>(-1, 0, 0, -1)
+        val TRANSPARENT = listOf<Byte>(0, 0, 0, 0)
+    }
+}
@@ -0,0 +1,121 @@
+package mega.privacy.android.app
+
+import android.graphics.Bitmap
+import androidx.collection.LruCache
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Memory tier of the thumbnail and preview caches, bounded by the bytes used by the bitmaps
+ *
+ * Keys known to have no bitmap are remembered apart, so they are not requested again.
+ * Evicted bitmaps are not recycled, as they may still be displayed by a view.
+ *
+ * Only the legacy adapters use it, through [ThumbnailCache] and [PreviewCache]. Coil keeps its
+ * own memory cache, and only its fetchers go through the disk tier of the data module, which
+ * shares the downloads in progress.
+ *
+ * @param maxBytes maximum bytes used by the cached bitmaps
+ */
+class BitmapMemoryCache<K : Any>(maxBytes: Int) {
+
+    /**
+     * Cache metrics
+     *
+     * @property hits       bitmaps found in the cache
+     * @property misses     bitmaps not found in the cache
+     * @property evictions  bitmaps evicted to keep the cache under its size
+     * @property size       bytes used by the cached bitmaps
+     * @property maxSize    maximum bytes used by the cached bitmaps
+     */
+    data class Metrics(
+        val hits: Long,
+        val misses: Long,
+        val evictions: Long,
+        val size: Int,
+        val maxSize: Int,
+    )
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+    private val evictions = AtomicLong()
+
+    private val cache = object : LruCache<K, Bitmap>(maxBytes.coerceAtLeast(1)) {
+        override fun sizeOf(key: K, value: Bitmap): Int = value.allocationByteCount
+
+        override fun entryRemoved(evicted: Boolean, key: K, oldValue: Bitmap, newValue: Bitmap?) {
+            if (evicted) evictions.incrementAndGet()
+        }
+    }
+
+    private val nulls: MutableSet<K> = HashSet()
+
+    /**
+     * Current metrics
+     */
+    val metrics: Metrics
+        get() = Metrics(
+            hits = hits.get(),
+            misses = misses.get(),
+            evictions = evictions.get(),
+            size = cache.size(),
+            maxSize = cache.maxSize(),
+        )
+
+    /**
+     * Put a bitmap into the cache
+     *
+     * @param key   the key
+     * @param value the bitmap, or null if the key has no bitmap
+     */
+    fun put(key: K, value: Bitmap?) {
+        if (value == null) {
+            synchronized(nulls) { nulls.add(key) }
+        } else {
+            cache.put(key, value)
+        }
+    }
+
+    /**
+     * Remove a key from the cache
+     */
+    fun remove(key: K) {
+        synchronized(nulls) { nulls.remove(key) }
+        cache.remove(key)
+    }
+
+    /**
+     * Get a bitmap from the cache
+     *
+     * @return the bitmap, or null if it is not cached
+     */
+    operator fun get(key: K): Bitmap? = cache[key].also {
+        if (it != null) hits.incrementAndGet() else misses.incrementAndGet()
+    }
+
+    /**
+     * Check if the cache contains a bitmap for a key, or knows it has no bitmap
+     */
+    fun containsKey(key: K): Boolean =
+        cache[key] != null || synchronized(nulls) { key in nulls }
+
+    /**
+     * Remove all the bitmaps
+     */
+    fun clear() {
+        synchronized(nulls) { nulls.clear() }
+        cache.evictAll()
+    }
+
+    companion object {
+
+        /**
+         * Get a cache size as a fraction of the memory available to the app
+         *
+         * @param divisor the fraction of the memory, e.g. 8 for 1/8
+         */
+        @JvmStatic
+        fun maxBytesFraction(divisor: Int): Int =
+            (Runtime.getRuntime().maxMemory() / divisor).coerceAtMost(Int.MAX_VALUE.toLong())
+                .toInt()
+    }
+}
@@ -8,6 +8,7 @@ import mega.privacy.android.app.logging.LegacyLoggingSettings
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.PasscodeUtil
 import mega.privacy.android.app.utils.TextUtil
+import mega.privacy.android.data.cryptography.AesFieldCipher
 import mega.privacy.android.data.database.LegacyDatabaseMigration
 import mega.privacy.android.data.database.MegaDatabaseConstant
 import mega.privacy.android.data.mapper.StorageStateIntMapper
@@ -25,6 +26,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
     private val storageStateMapper: StorageStateMapper,
     private val storageStateIntMapper: StorageStateIntMapper,
     private val legacyLoggingSettings: LegacyLoggingSettings,
+    private val aesFieldCipher: AesFieldCipher,
 ) : LegacyDatabaseMigration {
     override fun onCreate(db: SupportSQLiteDatabase) {
         Timber.d("onCreate")
@@ -82,7 +84,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                     "${SqliteDatabaseHandler.KEY_FIRST_LOGIN_CHAT} BOOLEAN, " +                 //27
                     "${SqliteDatabaseHandler.KEY_AUTO_PLAY} BOOLEAN," +                         //28
                     "${SqliteDatabaseHandler.KEY_UPLOAD_VIDEO_QUALITY} TEXT DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             VideoQuality.ORIGINAL.value.toString()
                         )
                     }'," +  //29
@@ -100,11 +102,11 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                     "${SqliteDatabaseHandler.KEY_URI_MEDIA_EXTERNAL_SD_CARD} TEXT," +           //41
                     "${SqliteDatabaseHandler.KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD} BOOLEAN," +     //42
                     "${SqliteDatabaseHandler.KEY_PASSCODE_LOCK_REQUIRE_TIME} TEXT DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             Constants.REQUIRE_PASSCODE_INVALID.toString()
                         )
                     }', " + //43
-                    "${SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK} BOOLEAN DEFAULT '" + SqliteDatabaseHandler.encrypt(
+                    "${SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK} BOOLEAN DEFAULT '" + encrypt(
                 "false"
             ) + "'" + //44
                     ")"
@@ -128,22 +130,22 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                     "${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE} TEXT, " +                              //13
                     "${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TIMESTAMP} TEXT, " +                    //14
                     "${SqliteDatabaseHandler.KEY_STORAGE_STATE} INTEGER DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             storageStateIntMapper(StorageState.Unknown).toString()
                         )
                     }'," +              //15
                     "${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TYPE} INTEGER DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             MegaApiJava.AFFILIATE_TYPE_INVALID.toString()
                         )
                     }', " +  //16
                     "${SqliteDatabaseHandler.KEY_MY_CHAT_FILES_FOLDER_HANDLE} TEXT DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             MegaApiJava.INVALID_HANDLE.toString()
                         )
                     }', " +         //17
                     "${SqliteDatabaseHandler.KEY_TRANSFER_QUEUE_STATUS} BOOLEAN DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             "false"
                         )
                     }')"  //18 - True if the queue is paused, false otherwise
@@ -187,7 +189,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                     "${SqliteDatabaseHandler.KEY_CHAT_SOUND_NOTIFICATIONS} TEXT, " +
                     "${SqliteDatabaseHandler.KEY_CHAT_VIBRATION_ENABLED} BOOLEAN, " +
                     "${SqliteDatabaseHandler.KEY_CHAT_VIDEO_QUALITY} TEXT DEFAULT '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             VideoQuality.MEDIUM.value.toString()
                         )
                     }')"
@@ -254,7 +256,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         if (oldVersion <= 8) {
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_LAST_UPLOAD_FOLDER} TEXT;")
             db.execSQL(
-                "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_LAST_UPLOAD_FOLDER} = '" + SqliteDatabaseHandler.encrypt(
+                "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_LAST_UPLOAD_FOLDER} = '" + encrypt(
                     ""
                 ) + "';"
             )
@@ -262,7 +264,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         if (oldVersion <= 9) {
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_LAST_CLOUD_FOLDER_HANDLE} TEXT;")
             db.execSQL(
-                "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_LAST_CLOUD_FOLDER_HANDLE} = '" + SqliteDatabaseHandler.encrypt(
+                "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_LAST_CLOUD_FOLDER_HANDLE} = '" + encrypt(
                     ""
                 ) + "';"
             )
@@ -275,35 +277,35 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_KEEP_FILE_NAMES} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_SEC_FOLDER_ENABLED} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
             )
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_SEC_FOLDER_LOCAL_PATH} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "-1"
                     )
                 }';"
             )
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_SEC_FOLDER_HANDLE} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "-1"
                     )
                 }';"
             )
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_SEC_SYNC_TIMESTAMP} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "0"
                     )
                 }';"
             )
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_KEEP_FILE_NAMES} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -313,7 +315,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_STORAGE_ADVANCED_DEVICES} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_STORAGE_ADVANCED_DEVICES} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -323,7 +325,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_ATTR_INTENTS} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_ATTR_INTENTS} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "0"
                     )
                 }';"
@@ -333,7 +335,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_PREFERRED_VIEW_LIST} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_PREFERRED_VIEW_LIST} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -341,7 +343,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_PREFERRED_VIEW_LIST_CAMERA} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_PREFERRED_VIEW_LIST_CAMERA} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -351,7 +353,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_ATTR_ASK_SIZE_DOWNLOAD} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_ATTR_ASK_SIZE_DOWNLOAD} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -359,7 +361,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_ATTR_ASK_NOAPP_DOWNLOAD} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_ATTR_ASK_NOAPP_DOWNLOAD} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -367,7 +369,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_URI_EXTERNAL_SD_CARD} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_URI_EXTERNAL_SD_CARD} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -375,7 +377,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD} = '${
-                    SqliteDatabaseHandler.encrypt("false")
+                    encrypt("false")
                 }';"
             )
         }
@@ -411,14 +413,14 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                 Timber.d("PIN enabled!")
                 db.execSQL(
                     "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_PASSCODE_LOCK_TYPE} = '${
-                        SqliteDatabaseHandler.encrypt(Constants.PIN_4)
+                        encrypt(Constants.PIN_4)
                     }';"
                 )
             } else {
                 Timber.d("PIN NOT enabled!")
                 db.execSQL(
                     "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_PASSCODE_LOCK_TYPE} = '${
-                        SqliteDatabaseHandler.encrypt(
+                        encrypt(
                             ""
                         )
                     }';"
@@ -430,12 +432,12 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_PREFERRED_SORT_OTHERS} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_PREFERRED_SORT_CLOUD} = '${
-                    SqliteDatabaseHandler.encrypt(MegaApiJava.ORDER_DEFAULT_ASC.toString())
+                    encrypt(MegaApiJava.ORDER_DEFAULT_ASC.toString())
                 }';"
             )
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_PREFERRED_SORT_OTHERS} = '${
-                    SqliteDatabaseHandler.encrypt(MegaApiJava.ORDER_DEFAULT_ASC.toString())
+                    encrypt(MegaApiJava.ORDER_DEFAULT_ASC.toString())
                 }';"
             )
         }
@@ -443,7 +445,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_ACCOUNT_DETAILS_TIMESTAMP} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_ACCOUNT_DETAILS_TIMESTAMP} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -451,7 +453,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_PAYMENT_METHODS_TIMESTAMP} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_PAYMENT_METHODS_TIMESTAMP} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -459,7 +461,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_PRICING_TIMESTAMP} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_PRICING_TIMESTAMP} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -467,7 +469,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP} = '${
-                    SqliteDatabaseHandler.encrypt("")
+                    encrypt("")
                 }';"
             )
         }
@@ -498,7 +500,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_CREDENTIALS} ADD COLUMN ${SqliteDatabaseHandler.KEY_FIRST_NAME} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_CREDENTIALS} SET ${SqliteDatabaseHandler.KEY_FIRST_NAME} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -506,7 +508,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_CREDENTIALS} ADD COLUMN ${SqliteDatabaseHandler.KEY_LAST_NAME} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_CREDENTIALS} SET ${SqliteDatabaseHandler.KEY_LAST_NAME} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -516,7 +518,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_NON_CONTACTS} ADD COLUMN ${SqliteDatabaseHandler.KEY_NONCONTACT_FIRSTNAME} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_NON_CONTACTS} SET ${SqliteDatabaseHandler.KEY_NONCONTACT_FIRSTNAME} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -524,7 +526,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_NON_CONTACTS} ADD COLUMN ${SqliteDatabaseHandler.KEY_NONCONTACT_LASTNAME} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_NON_CONTACTS} SET ${SqliteDatabaseHandler.KEY_NONCONTACT_LASTNAME} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -534,7 +536,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_INVALIDATE_SDK_CACHE} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_INVALIDATE_SDK_CACHE} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -544,7 +546,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_NON_CONTACTS} ADD COLUMN ${SqliteDatabaseHandler.KEY_NONCONTACT_EMAIL} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_NON_CONTACTS} SET ${SqliteDatabaseHandler.KEY_NONCONTACT_EMAIL} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -554,7 +556,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_CREDENTIALS} ADD COLUMN ${SqliteDatabaseHandler.KEY_MY_HANDLE} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_CREDENTIALS} SET ${SqliteDatabaseHandler.KEY_MY_HANDLE} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -575,7 +577,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_FIRST_LOGIN_CHAT} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_FIRST_LOGIN_CHAT} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -596,7 +598,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_USE_HTTPS_ONLY} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_USE_HTTPS_ONLY} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -606,7 +608,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_SHOW_COPYRIGHT} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_SHOW_COPYRIGHT} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -620,7 +622,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_SHOW_NOTIF_OFF} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_SHOW_NOTIF_OFF} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -630,7 +632,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "-1"
                     )
                 }';"
@@ -638,7 +640,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TIMESTAMP} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TIMESTAMP} = '${
-                    SqliteDatabaseHandler.encrypt("-1")
+                    encrypt("-1")
                 }';"
             )
         }
@@ -661,7 +663,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_AUTO_PLAY} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_AUTO_PLAY} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -679,7 +681,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         if (oldVersion <= 45) {
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_REMOVE_GPS} TEXT;")
             db.execSQL(
-                "UPDATE " + SqliteDatabaseHandler.TABLE_PREFERENCES + " SET " + SqliteDatabaseHandler.KEY_REMOVE_GPS + " = '" + SqliteDatabaseHandler.encrypt(
+                "UPDATE " + SqliteDatabaseHandler.TABLE_PREFERENCES + " SET " + SqliteDatabaseHandler.KEY_REMOVE_GPS + " = '" + encrypt(
                     "true"
                 ) + "';"
             )
@@ -688,7 +690,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_STORAGE_STATE} INTEGER;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_STORAGE_STATE} = '${
-                    SqliteDatabaseHandler.encrypt(storageStateIntMapper(StorageState.Unknown).toString())
+                    encrypt(storageStateIntMapper(StorageState.Unknown).toString())
                 }';"
             )
         }
@@ -696,7 +698,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_SHOW_INVITE_BANNER} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_SHOW_INVITE_BANNER} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -707,7 +709,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} " +
                         "SET ${SqliteDatabaseHandler.KEY_PREFERRED_SORT_CAMERA_UPLOAD} = " +
-                        "'${SqliteDatabaseHandler.encrypt(MegaApiJava.ORDER_MODIFICATION_DESC.toString())}';"
+                        "'${encrypt(MegaApiJava.ORDER_MODIFICATION_DESC.toString())}';"
             )
         }
         if (oldVersion <= 49) {
@@ -717,7 +719,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_ASK_FOR_DISPLAY_OVER} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_ASK_FOR_DISPLAY_OVER} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -728,7 +730,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} " +
                         "SET ${SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TYPE} = " +
-                        "'${SqliteDatabaseHandler.encrypt(MegaApiJava.AFFILIATE_TYPE_INVALID.toString())}';"
+                        "'${encrypt(MegaApiJava.AFFILIATE_TYPE_INVALID.toString())}';"
             )
         }
         if (oldVersion <= 52) {
@@ -739,14 +741,14 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_ASK_SET_DOWNLOAD_LOCATION} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_ASK_SET_DOWNLOAD_LOCATION} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
             )
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_STORAGE_ASK_ALWAYS} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "true"
                     )
                 }';"
@@ -758,7 +760,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} " +
                         "SET ${SqliteDatabaseHandler.KEY_MY_CHAT_FILES_FOLDER_HANDLE} = '${
-                            SqliteDatabaseHandler.encrypt(
+                            encrypt(
                                 MegaApiJava.INVALID_HANDLE.toString()
                             )
                         }';"
@@ -775,7 +777,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_URI_MEDIA_EXTERNAL_SD_CARD} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_URI_MEDIA_EXTERNAL_SD_CARD} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -784,7 +786,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} " +
                         "SET ${SqliteDatabaseHandler.KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD} = '${
-                            SqliteDatabaseHandler.encrypt(
+                            encrypt(
                                 "false"
                             )
                         }';"
@@ -792,7 +794,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} ADD COLUMN ${SqliteDatabaseHandler.KEY_TRANSFER_OFFLINE} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} SET ${SqliteDatabaseHandler.KEY_TRANSFER_OFFLINE} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -801,13 +803,13 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} " +
                         "SET ${SqliteDatabaseHandler.KEY_TRANSFER_TIMESTAMP} = '${
-                            SqliteDatabaseHandler.encrypt(System.currentTimeMillis().toString())
+                            encrypt(System.currentTimeMillis().toString())
                         }';"
             )
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} ADD COLUMN ${SqliteDatabaseHandler.KEY_TRANSFER_ERROR} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} SET ${SqliteDatabaseHandler.KEY_TRANSFER_ERROR} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         ""
                     )
                 }';"
@@ -815,13 +817,13 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} ADD COLUMN ${SqliteDatabaseHandler.KEY_TRANSFER_ORIGINAL_PATH} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} SET ${SqliteDatabaseHandler.KEY_TRANSFER_ORIGINAL_PATH} = '${
-                    SqliteDatabaseHandler.encrypt("")
+                    encrypt("")
                 }';"
             )
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} ADD COLUMN ${SqliteDatabaseHandler.KEY_TRANSFER_PARENT_HANDLE} TEXT;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_COMPLETED_TRANSFERS} SET ${SqliteDatabaseHandler.KEY_TRANSFER_PARENT_HANDLE} = '${
-                    SqliteDatabaseHandler.encrypt(MegaApiJava.INVALID_HANDLE.toString())
+                    encrypt(MegaApiJava.INVALID_HANDLE.toString())
                 }';"
             )
         }
@@ -829,7 +831,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} ADD COLUMN ${SqliteDatabaseHandler.KEY_TRANSFER_QUEUE_STATUS} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_ATTRIBUTES} SET ${SqliteDatabaseHandler.KEY_TRANSFER_QUEUE_STATUS} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -841,7 +843,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} " +
                         "SET ${SqliteDatabaseHandler.KEY_PASSCODE_LOCK_REQUIRE_TIME} = '${
-                            SqliteDatabaseHandler.encrypt("" + if (isPasscodeLockEnabled(db)) PasscodeUtil.REQUIRE_PASSCODE_IMMEDIATE else Constants.REQUIRE_PASSCODE_INVALID)
+                            encrypt("" + if (isPasscodeLockEnabled(db)) PasscodeUtil.REQUIRE_PASSCODE_IMMEDIATE else Constants.REQUIRE_PASSCODE_INVALID)
                         }';"
             )
         }
@@ -860,7 +862,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.execSQL("ALTER TABLE ${SqliteDatabaseHandler.TABLE_PREFERENCES} ADD COLUMN ${SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK} BOOLEAN;")
             db.execSQL(
                 "UPDATE ${SqliteDatabaseHandler.TABLE_PREFERENCES} SET ${SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK} = '${
-                    SqliteDatabaseHandler.encrypt(
+                    encrypt(
                         "false"
                     )
                 }';"
@@ -956,7 +958,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.query(selectQuery)?.use { cursor ->
                 if (cursor.moveToFirst()) {
                     //get pinLockEnabled
-                    SqliteDatabaseHandler.decrypt(cursor.getString(7))?.let { pinLockEnabled ->
+                    decrypt(cursor.getString(7))?.let { pinLockEnabled ->
                         result = pinLockEnabled.toBooleanStrictOrNull() ?: false
                     }
                 }
@@ -982,71 +984,71 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         val values = ContentValues()
         values.put(
             SqliteDatabaseHandler.KEY_ATTR_ONLINE,
-            SqliteDatabaseHandler.encrypt(attr.online)
+            encrypt(attr.online)
         )
         values.put(
             SqliteDatabaseHandler.KEY_ATTR_INTENTS,
-            SqliteDatabaseHandler.encrypt(Integer.toString(attr.attempts))
+            encrypt(Integer.toString(attr.attempts))
         )
         values.put(
             SqliteDatabaseHandler.KEY_ATTR_ASK_SIZE_DOWNLOAD,
-            SqliteDatabaseHandler.encrypt(attr.askSizeDownload)
+            encrypt(attr.askSizeDownload)
         )
         values.put(
             SqliteDatabaseHandler.KEY_ATTR_ASK_NOAPP_DOWNLOAD,
-            SqliteDatabaseHandler.encrypt(attr.askNoAppDownload)
+            encrypt(attr.askNoAppDownload)
         )
         values.put(
             SqliteDatabaseHandler.KEY_ACCOUNT_DETAILS_TIMESTAMP,
-            SqliteDatabaseHandler.encrypt(attr.accountDetailsTimeStamp)
+            encrypt(attr.accountDetailsTimeStamp)
         )
         values.put(
             SqliteDatabaseHandler.KEY_EXTENDED_ACCOUNT_DETAILS_TIMESTAMP,
-            SqliteDatabaseHandler.encrypt(attr.extendedAccountDetailsTimeStamp)
+            encrypt(attr.extendedAccountDetailsTimeStamp)
         )
         values.put(
             SqliteDatabaseHandler.KEY_INVALIDATE_SDK_CACHE,
-            SqliteDatabaseHandler.encrypt(attr.invalidateSdkCache)
+            encrypt(attr.invalidateSdkCache)
         )
         values.put(
             SqliteDatabaseHandler.KEY_USE_HTTPS_ONLY,
-            SqliteDatabaseHandler.encrypt(attr.useHttpsOnly)
+            encrypt(attr.useHttpsOnly)
         )
         values.put(
             SqliteDatabaseHandler.KEY_USE_HTTPS_ONLY,
-            SqliteDatabaseHandler.encrypt(attr.useHttpsOnly)
+            encrypt(attr.useHttpsOnly)
         )
         values.put(
             SqliteDatabaseHandler.KEY_SHOW_COPYRIGHT,
-            SqliteDatabaseHandler.encrypt(attr.showCopyright)
+            encrypt(attr.showCopyright)
         )
         values.put(
             SqliteDatabaseHandler.KEY_SHOW_NOTIF_OFF,
-            SqliteDatabaseHandler.encrypt(attr.showNotifOff)
+            encrypt(attr.showNotifOff)
         )
         values.put(
             SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE,
-            SqliteDatabaseHandler.encrypt(attr.lastPublicHandle.toString())
+            encrypt(attr.lastPublicHandle.toString())
         )
         values.put(
             SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TIMESTAMP,
-            SqliteDatabaseHandler.encrypt(attr.lastPublicHandleTimeStamp.toString())
+            encrypt(attr.lastPublicHandleTimeStamp.toString())
         )
         values.put(
             SqliteDatabaseHandler.KEY_STORAGE_STATE,
-            SqliteDatabaseHandler.encrypt(storageStateIntMapper(attr.storageState).toString())
+            encrypt(storageStateIntMapper(attr.storageState).toString())
         )
         values.put(
             SqliteDatabaseHandler.KEY_LAST_PUBLIC_HANDLE_TYPE,
-            SqliteDatabaseHandler.encrypt(attr.lastPublicHandleType.toString())
+            encrypt(attr.lastPublicHandleType.toString())
         )
         values.put(
             SqliteDatabaseHandler.KEY_MY_CHAT_FILES_FOLDER_HANDLE,
-            SqliteDatabaseHandler.encrypt(attr.myChatFilesFolderHandle.toString())
+            encrypt(attr.myChatFilesFolderHandle.toString())
         )
         values.put(
             SqliteDatabaseHandler.KEY_TRANSFER_QUEUE_STATUS,
-            SqliteDatabaseHandler.encrypt(attr.transferQueueStatus)
+            encrypt(attr.transferQueueStatus)
         )
         db.insert(SqliteDatabaseHandler.TABLE_ATTRIBUTES, SQLiteDatabase.CONFLICT_NONE, values)
     }
@@ -1063,7 +1065,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         try {
             db.query(selectQuery)?.use { cursor ->
                 if (cursor.moveToFirst()) {
-                    val online = SqliteDatabaseHandler.decrypt(
+                    val online = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1072,7 +1074,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val intents =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1080,7 +1082,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val askSizeDownload = SqliteDatabaseHandler.decrypt(
+                    val askSizeDownload = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1088,7 +1090,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val askNoAppDownload = SqliteDatabaseHandler.decrypt(
+                    val askNoAppDownload = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1101,7 +1103,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         ) != Constants.INVALID_VALUE
                     ) {
                         val fileLoggerSDK =
-                            SqliteDatabaseHandler.decrypt(
+                            decrypt(
                                 cursor.getString(
                                     getColumnIndex(
                                         cursor,
@@ -1115,7 +1117,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     }
-                    val accountDetailsTimeStamp = SqliteDatabaseHandler.decrypt(
+                    val accountDetailsTimeStamp = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1123,7 +1125,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val extendedAccountDetailsTimeStamp = SqliteDatabaseHandler.decrypt(
+                    val extendedAccountDetailsTimeStamp = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1132,7 +1134,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val invalidateSdkCache =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1144,7 +1146,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             SqliteDatabaseHandler.KEY_FILE_LOGGER_KARERE
                         ) != Constants.INVALID_VALUE
                     ) {
-                        val fileLoggerKarere = SqliteDatabaseHandler.decrypt(
+                        val fileLoggerKarere = decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1159,7 +1161,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     }
                     val useHttpsOnly =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1168,7 +1170,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val showCopyright =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1177,7 +1179,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val showNotifOff =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1186,7 +1188,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val lastPublicHandle =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1194,7 +1196,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val lastPublicHandleTimeStamp = SqliteDatabaseHandler.decrypt(
+                    val lastPublicHandleTimeStamp = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1203,7 +1205,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val storageState =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1211,7 +1213,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val lastPublicHandleType = SqliteDatabaseHandler.decrypt(
+                    val lastPublicHandleType = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1219,7 +1221,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val myChatFilesFolderHandle = SqliteDatabaseHandler.decrypt(
+                    val myChatFilesFolderHandle = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1228,7 +1230,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val transferQueueStatus =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1283,25 +1285,25 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         if (checkInsert == null) {
             values.put(
                 SqliteDatabaseHandler.KEY_OFF_HANDLE,
-                SqliteDatabaseHandler.encrypt(offline.handle)
+                encrypt(offline.handle)
             )
             values.put(
                 SqliteDatabaseHandler.KEY_OFF_PATH,
-                SqliteDatabaseHandler.encrypt(offline.path)
+                encrypt(offline.path)
             )
             values.put(
                 SqliteDatabaseHandler.KEY_OFF_NAME,
-                SqliteDatabaseHandler.encrypt(offline.name)
+                encrypt(offline.name)
             )
             values.put(SqliteDatabaseHandler.KEY_OFF_PARENT, offline.parentId)
             values.put(
                 SqliteDatabaseHandler.KEY_OFF_TYPE,
-                SqliteDatabaseHandler.encrypt(offline.type)
+                encrypt(offline.type)
             )
             values.put(SqliteDatabaseHandler.KEY_OFF_INCOMING, offline.origin)
             values.put(
                 SqliteDatabaseHandler.KEY_OFF_HANDLE_INCOMING,
-                SqliteDatabaseHandler.encrypt(offline.handleIncoming)
+                encrypt(offline.handleIncoming)
             )
             return db.insert(
                 SqliteDatabaseHandler.TABLE_OFFLINE,
@@ -1342,7 +1344,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         //Get the foreign key of the node
         val selectQuery =
             "SELECT * FROM ${SqliteDatabaseHandler.TABLE_OFFLINE} WHERE ${SqliteDatabaseHandler.KEY_OFF_HANDLE} = '${
-                SqliteDatabaseHandler.encrypt(
+                encrypt(
                     handle
                 )
             }'"
@@ -1350,13 +1352,13 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     val id = cursor.getString(0).toInt()
-                    val nodeHandle = SqliteDatabaseHandler.decrypt(cursor.getString(1))
-                    val path = SqliteDatabaseHandler.decrypt(cursor.getString(2))
-                    val name = SqliteDatabaseHandler.decrypt(cursor.getString(3))
+                    val nodeHandle = decrypt(cursor.getString(1))
+                    val path = decrypt(cursor.getString(2))
+                    val name = decrypt(cursor.getString(3))
                     val parent = cursor.getInt(4)
-                    val type = SqliteDatabaseHandler.decrypt(cursor.getString(5))
+                    val type = decrypt(cursor.getString(5))
                     val incoming = cursor.getInt(6)
-                    val handleIncoming = SqliteDatabaseHandler.decrypt(cursor.getString(7))
+                    val handleIncoming = decrypt(cursor.getString(7))
                     return MegaOffline(
                         id,
                         nodeHandle.toString(),
@@ -1409,9 +1411,9 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         try {
             db.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
-                    val notificationSound = SqliteDatabaseHandler.decrypt(cursor.getString(3))
-                    val vibrationEnabled = SqliteDatabaseHandler.decrypt(cursor.getString(4))
-                    val sendOriginalAttachments = SqliteDatabaseHandler.decrypt(cursor.getString(6))
+                    val notificationSound = decrypt(cursor.getString(3))
+                    val vibrationEnabled = decrypt(cursor.getString(4))
+                    val sendOriginalAttachments = decrypt(cursor.getString(6))
                     val videoQuality =
                         if (sendOriginalAttachments.toBoolean()) VideoQuality.ORIGINAL.value.toString() else VideoQuality.MEDIUM.value.toString()
                     chatSettings =
@@ -1442,9 +1444,9 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         try {
             db.query(selectQuery)?.use { cursor ->
                 if (cursor.moveToFirst()) {
-                    val notificationSound = SqliteDatabaseHandler.decrypt(cursor.getString(2))
-                    val vibrationEnabled = SqliteDatabaseHandler.decrypt(cursor.getString(3))
-                    val sendOriginalAttachments = SqliteDatabaseHandler.decrypt(cursor.getString(4))
+                    val notificationSound = decrypt(cursor.getString(2))
+                    val vibrationEnabled = decrypt(cursor.getString(3))
+                    val sendOriginalAttachments = decrypt(cursor.getString(4))
                     val videoQuality =
                         if (sendOriginalAttachments.toBoolean()) VideoQuality.ORIGINAL.value.toString() else VideoQuality.MEDIUM.value.toString()
                     chatSettings =
@@ -1494,7 +1496,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             db.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     val firstTime =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1503,7 +1505,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val camSyncEnabled =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1512,7 +1514,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val camSyncHandle =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1521,7 +1523,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val camSyncLocalPath =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1529,7 +1531,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val wifi = SqliteDatabaseHandler.decrypt(
+                    val wifi = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1538,7 +1540,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val fileUpload =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1547,7 +1549,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val pinLockEnabled =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1556,7 +1558,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val pinLockCode =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1565,7 +1567,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val askAlways =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1573,7 +1575,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val downloadLocation = SqliteDatabaseHandler.decrypt(
+                    val downloadLocation = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1582,7 +1584,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val camSyncTimeStamp =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1591,7 +1593,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val lastFolderUpload =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1599,7 +1601,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val lastFolderCloud = SqliteDatabaseHandler.decrypt(
+                    val lastFolderCloud = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1608,7 +1610,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val secondaryFolderEnabled =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1617,7 +1619,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val secondaryPath =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1626,7 +1628,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val secondaryHandle =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1635,7 +1637,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val secSyncTimeStamp =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1644,7 +1646,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val keepFileNames =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1652,7 +1654,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val storageAdvancedDevices = SqliteDatabaseHandler.decrypt(
+                    val storageAdvancedDevices = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1661,7 +1663,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val preferredViewList =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1669,7 +1671,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val preferredViewListCamera = SqliteDatabaseHandler.decrypt(
+                    val preferredViewListCamera = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1678,7 +1680,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val uriExternalSDCard =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1686,7 +1688,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val cameraFolderExternalSDCard = SqliteDatabaseHandler.decrypt(
+                    val cameraFolderExternalSDCard = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1695,7 +1697,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val pinLockType =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1704,7 +1706,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val preferredSortCloud =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1713,7 +1715,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val preferredSortOthers =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1722,7 +1724,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val firstTimeChat =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1731,7 +1733,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val isAutoPlayEnabled =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1740,7 +1742,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val uploadVideoQuality =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1748,7 +1750,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val conversionOnCharging = SqliteDatabaseHandler.decrypt(
+                    val conversionOnCharging = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1757,7 +1759,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val chargingOnSize =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1765,7 +1767,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val shouldClearCameraSyncRecords = SqliteDatabaseHandler.decrypt(
+                    val shouldClearCameraSyncRecords = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1773,7 +1775,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val camVideoSyncTimeStamp = SqliteDatabaseHandler.decrypt(
+                    val camVideoSyncTimeStamp = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1781,7 +1783,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val secVideoSyncTimeStamp = SqliteDatabaseHandler.decrypt(
+                    val secVideoSyncTimeStamp = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1790,7 +1792,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val removeGPS =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1799,7 +1801,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val closeInviteBanner =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1807,7 +1809,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val preferredSortCameraUpload = SqliteDatabaseHandler.decrypt(
+                    val preferredSortCameraUpload = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1816,7 +1818,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val sdCardUri =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1825,7 +1827,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     val askForDisplayOver =
-                        SqliteDatabaseHandler.decrypt(
+                        decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1833,7 +1835,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                                 )
                             )
                         )
-                    val askForSetDownloadLocation = SqliteDatabaseHandler.decrypt(
+                    val askForSetDownloadLocation = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1841,7 +1843,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val mediaSDCardUri = SqliteDatabaseHandler.decrypt(
+                    val mediaSDCardUri = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1849,7 +1851,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val isMediaOnSDCard = SqliteDatabaseHandler.decrypt(
+                    val isMediaOnSDCard = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1857,7 +1859,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                             )
                         )
                     )
-                    val passcodeLockRequireTime = SqliteDatabaseHandler.decrypt(
+                    val passcodeLockRequireTime = decrypt(
                         cursor.getString(
                             getColumnIndex(
                                 cursor,
@@ -1866,7 +1868,7 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
                         )
                     )
                     val fingerprintLock =
-                        if (cursor.getColumnIndex(SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK) != Constants.INVALID_VALUE) SqliteDatabaseHandler.decrypt(
+                        if (cursor.getColumnIndex(SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK) != Constants.INVALID_VALUE) decrypt(
                             cursor.getString(
                                 getColumnIndex(
                                     cursor,
@@ -1938,179 +1940,179 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         val values = ContentValues().apply {
             put(
                 SqliteDatabaseHandler.KEY_FIRST_LOGIN,
-                SqliteDatabaseHandler.encrypt(prefs.getFirstTime())
+                encrypt(prefs.getFirstTime())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_SYNC_WIFI,
-                SqliteDatabaseHandler.encrypt(prefs.getCamSyncWifi())
+                encrypt(prefs.getCamSyncWifi())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_SYNC_ENABLED,
-                SqliteDatabaseHandler.encrypt(prefs.getCamSyncEnabled())
+                encrypt(prefs.getCamSyncEnabled())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_SYNC_HANDLE,
-                SqliteDatabaseHandler.encrypt(prefs.getCamSyncHandle())
+                encrypt(prefs.getCamSyncHandle())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_SYNC_LOCAL_PATH,
-                SqliteDatabaseHandler.encrypt(prefs.getCamSyncLocalPath())
+                encrypt(prefs.getCamSyncLocalPath())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_SYNC_FILE_UPLOAD,
-                SqliteDatabaseHandler.encrypt(prefs.getCamSyncFileUpload())
+                encrypt(prefs.getCamSyncFileUpload())
             )
             put(
                 SqliteDatabaseHandler.KEY_PASSCODE_LOCK_ENABLED,
-                SqliteDatabaseHandler.encrypt(prefs.getPasscodeLockEnabled())
+                encrypt(prefs.getPasscodeLockEnabled())
             )
             put(
                 SqliteDatabaseHandler.KEY_PASSCODE_LOCK_CODE,
-                SqliteDatabaseHandler.encrypt(prefs.getPasscodeLockCode())
+                encrypt(prefs.getPasscodeLockCode())
             )
             put(
                 SqliteDatabaseHandler.KEY_STORAGE_ASK_ALWAYS,
-                SqliteDatabaseHandler.encrypt(prefs.getStorageAskAlways())
+                encrypt(prefs.getStorageAskAlways())
             )
             put(
                 SqliteDatabaseHandler.KEY_STORAGE_DOWNLOAD_LOCATION,
-                SqliteDatabaseHandler.encrypt(prefs.getStorageDownloadLocation())
+                encrypt(prefs.getStorageDownloadLocation())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_SYNC_TIMESTAMP,
-                SqliteDatabaseHandler.encrypt(prefs.getCamSyncTimeStamp())
+                encrypt(prefs.getCamSyncTimeStamp())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAM_VIDEO_SYNC_TIMESTAMP,
-                SqliteDatabaseHandler.encrypt(prefs.getCamVideoSyncTimeStamp())
+                encrypt(prefs.getCamVideoSyncTimeStamp())
             )
             put(
                 SqliteDatabaseHandler.KEY_LAST_UPLOAD_FOLDER,
-                SqliteDatabaseHandler.encrypt(prefs.getLastFolderUpload())
+                encrypt(prefs.getLastFolderUpload())
             )
             put(
                 SqliteDatabaseHandler.KEY_LAST_CLOUD_FOLDER_HANDLE,
-                SqliteDatabaseHandler.encrypt(prefs.getLastFolderCloud())
+                encrypt(prefs.getLastFolderCloud())
             )
             put(
                 SqliteDatabaseHandler.KEY_SEC_FOLDER_ENABLED,
-                SqliteDatabaseHandler.encrypt(prefs.getSecondaryMediaFolderEnabled())
+                encrypt(prefs.getSecondaryMediaFolderEnabled())
             )
             put(
                 SqliteDatabaseHandler.KEY_SEC_FOLDER_LOCAL_PATH,
-                SqliteDatabaseHandler.encrypt(prefs.getLocalPathSecondaryFolder())
+                encrypt(prefs.getLocalPathSecondaryFolder())
             )
             put(
                 SqliteDatabaseHandler.KEY_SEC_FOLDER_HANDLE,
-                SqliteDatabaseHandler.encrypt(prefs.getMegaHandleSecondaryFolder())
+                encrypt(prefs.getMegaHandleSecondaryFolder())
             )
             put(
                 SqliteDatabaseHandler.KEY_SEC_SYNC_TIMESTAMP,
-                SqliteDatabaseHandler.encrypt(prefs.getSecSyncTimeStamp())
+                encrypt(prefs.getSecSyncTimeStamp())
             )
             put(
                 SqliteDatabaseHandler.KEY_SEC_VIDEO_SYNC_TIMESTAMP,
-                SqliteDatabaseHandler.encrypt(prefs.getSecVideoSyncTimeStamp())
+                encrypt(prefs.getSecVideoSyncTimeStamp())
             )
             put(
                 SqliteDatabaseHandler.KEY_STORAGE_ADVANCED_DEVICES,
-                SqliteDatabaseHandler.encrypt(prefs.getStorageAdvancedDevices())
+                encrypt(prefs.getStorageAdvancedDevices())
             )
             put(
                 SqliteDatabaseHandler.KEY_PREFERRED_VIEW_LIST,
-                SqliteDatabaseHandler.encrypt(prefs.getPreferredViewList())
+                encrypt(prefs.getPreferredViewList())
             )
             put(
                 SqliteDatabaseHandler.KEY_PREFERRED_VIEW_LIST_CAMERA,
-                SqliteDatabaseHandler.encrypt(prefs.getPreferredViewListCameraUploads())
+                encrypt(prefs.getPreferredViewListCameraUploads())
             )
             put(
                 SqliteDatabaseHandler.KEY_URI_EXTERNAL_SD_CARD,
-                SqliteDatabaseHandler.encrypt(prefs.getUriExternalSDCard())
+                encrypt(prefs.getUriExternalSDCard())
             )
             put(
                 SqliteDatabaseHandler.KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD,
-                SqliteDatabaseHandler.encrypt(prefs.getCameraFolderExternalSDCard())
+                encrypt(prefs.getCameraFolderExternalSDCard())
             )
             put(
                 SqliteDatabaseHandler.KEY_PASSCODE_LOCK_TYPE,
-                SqliteDatabaseHandler.encrypt(prefs.getPasscodeLockType())
+                encrypt(prefs.getPasscodeLockType())
             )
             put(
                 SqliteDatabaseHandler.KEY_PREFERRED_SORT_CLOUD,
-                SqliteDatabaseHandler.encrypt(prefs.getPreferredSortCloud())
+                encrypt(prefs.getPreferredSortCloud())
             )
             put(
                 SqliteDatabaseHandler.KEY_PREFERRED_SORT_CAMERA_UPLOAD,
-                SqliteDatabaseHandler.encrypt(prefs.preferredSortCameraUpload)
+                encrypt(prefs.preferredSortCameraUpload)
             )
             put(
                 SqliteDatabaseHandler.KEY_PREFERRED_SORT_OTHERS,
-                SqliteDatabaseHandler.encrypt(prefs.getPreferredSortOthers())
+                encrypt(prefs.getPreferredSortOthers())
             )
             put(
                 SqliteDatabaseHandler.KEY_FIRST_LOGIN_CHAT,
-                SqliteDatabaseHandler.encrypt(prefs.getFirstTimeChat())
+                encrypt(prefs.getFirstTimeChat())
             )
             put(
                 SqliteDatabaseHandler.KEY_REMOVE_GPS,
-                SqliteDatabaseHandler.encrypt(prefs.removeGPS)
+                encrypt(prefs.removeGPS)
             )
             put(
                 SqliteDatabaseHandler.KEY_KEEP_FILE_NAMES,
-                SqliteDatabaseHandler.encrypt(prefs.getKeepFileNames())
+                encrypt(prefs.getKeepFileNames())
             )
             put(
                 SqliteDatabaseHandler.KEY_AUTO_PLAY,
-                SqliteDatabaseHandler.encrypt(prefs.isAutoPlayEnabled().toString())
+                encrypt(prefs.isAutoPlayEnabled().toString())
             )
             put(
                 SqliteDatabaseHandler.KEY_UPLOAD_VIDEO_QUALITY,
-                SqliteDatabaseHandler.encrypt(prefs.getUploadVideoQuality())
+                encrypt(prefs.getUploadVideoQuality())
             )
             put(
                 SqliteDatabaseHandler.KEY_CONVERSION_ON_CHARGING,
-                SqliteDatabaseHandler.encrypt(prefs.getConversionOnCharging())
+                encrypt(prefs.getConversionOnCharging())
             )
             put(
                 SqliteDatabaseHandler.KEY_CHARGING_ON_SIZE,
-                SqliteDatabaseHandler.encrypt(prefs.getChargingOnSize())
+                encrypt(prefs.getChargingOnSize())
             )
             put(
                 SqliteDatabaseHandler.KEY_SHOULD_CLEAR_CAMSYNC_RECORDS,
-                SqliteDatabaseHandler.encrypt(prefs.getShouldClearCameraSyncRecords())
+                encrypt(prefs.getShouldClearCameraSyncRecords())
             )
             put(
                 SqliteDatabaseHandler.KEY_SHOW_INVITE_BANNER,
-                SqliteDatabaseHandler.encrypt(prefs.showInviteBanner)
+                encrypt(prefs.showInviteBanner)
             )
             put(
                 SqliteDatabaseHandler.KEY_SD_CARD_URI,
-                SqliteDatabaseHandler.encrypt(prefs.getSdCardUri())
+                encrypt(prefs.getSdCardUri())
             )
             put(
                 SqliteDatabaseHandler.KEY_ASK_FOR_DISPLAY_OVER,
-                SqliteDatabaseHandler.encrypt(prefs.askForDisplayOver)
+                encrypt(prefs.askForDisplayOver)
             )
             put(
                 SqliteDatabaseHandler.KEY_ASK_SET_DOWNLOAD_LOCATION,
-                SqliteDatabaseHandler.encrypt(prefs.askForSetDownloadLocation)
+                encrypt(prefs.askForSetDownloadLocation)
             )
             put(
                 SqliteDatabaseHandler.KEY_URI_MEDIA_EXTERNAL_SD_CARD,
-                SqliteDatabaseHandler.encrypt(prefs.mediaSDCardUri)
+                encrypt(prefs.mediaSDCardUri)
             )
             put(
                 SqliteDatabaseHandler.KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD,
-                SqliteDatabaseHandler.encrypt(prefs.isMediaOnSDCard)
+                encrypt(prefs.isMediaOnSDCard)
             )
             put(
                 SqliteDatabaseHandler.KEY_PASSCODE_LOCK_REQUIRE_TIME,
-                SqliteDatabaseHandler.encrypt(prefs.passcodeLockRequireTime)
+                encrypt(prefs.passcodeLockRequireTime)
             )
             put(
                 SqliteDatabaseHandler.KEY_FINGERPRINT_LOCK,
-                SqliteDatabaseHandler.encrypt(prefs.fingerprintLock)
+                encrypt(prefs.fingerprintLock)
             )
         }
 
@@ -2134,15 +2136,15 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
             put(SqliteDatabaseHandler.KEY_CHAT_NOTIFICATIONS_ENABLED, "")
             put(
                 SqliteDatabaseHandler.KEY_CHAT_SOUND_NOTIFICATIONS,
-                SqliteDatabaseHandler.encrypt(chatSettings.notificationsSound)
+                encrypt(chatSettings.notificationsSound)
             )
             put(
                 SqliteDatabaseHandler.KEY_CHAT_VIBRATION_ENABLED,
-                SqliteDatabaseHandler.encrypt(chatSettings.vibrationEnabled)
+                encrypt(chatSettings.vibrationEnabled)
             )
             put(
                 SqliteDatabaseHandler.KEY_CHAT_VIDEO_QUALITY,
-                SqliteDatabaseHandler.encrypt(chatSettings.videoQuality)
+                encrypt(chatSettings.videoQuality)
             )
         }
 
@@ -2163,9 +2165,9 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         try {
             db.query(selectQuery)?.use { cursor ->
                 if (cursor.moveToFirst()) {
-                    val notificationSound = SqliteDatabaseHandler.decrypt(cursor.getString(2))
-                    val vibrationEnabled = SqliteDatabaseHandler.decrypt(cursor.getString(3))
-                    val videoQuality = SqliteDatabaseHandler.decrypt(cursor.getString(4))
+                    val notificationSound = decrypt(cursor.getString(2))
+                    val vibrationEnabled = decrypt(cursor.getString(3))
+                    val videoQuality = decrypt(cursor.getString(4))
                     chatSettings =
                         ChatSettings(
                             notificationSound.orEmpty(),
@@ -2179,4 +2181,8 @@ class LegacyDatabaseMigrationImpl @Inject constructor(
         }
         return chatSettings
     }
+
+    private fun encrypt(original: String?): String? = aesFieldCipher.encrypt(original)
+
+    private fun decrypt(encodedString: String?): String? = aesFieldCipher.decrypt(encodedString)
 }
\ No newline at end of file
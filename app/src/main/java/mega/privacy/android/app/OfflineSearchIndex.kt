@@ -0,0 +1,101 @@
+package mega.privacy.android.app
+
+import java.io.File
+import java.util.Locale
+
+/**
+ * In-memory index of the decrypted offline nodes.
+ *
+ * It answers a name query over a whole offline subtree in a single pass, instead of querying
+ * and decrypting the offline table folder by folder. The nodes are loaded on first use and
+ * the index is then kept up to date with every change made to the offline table.
+ *
+ * @param loader Loads all the offline nodes, or returns null if they cannot be read.
+ */
+internal class OfflineSearchIndex(private val loader: () -> List<MegaOffline>?) {
+
+    private class Entry(val offline: MegaOffline) {
+        val lowercaseName: String = offline.name.lowercase(Locale.ROOT)
+        val folderPath: String = offline.path.withTrailingSeparator()
+    }
+
+    private val lock = Any()
+
+    /**
+     * Entries by offline id, null until loaded.
+     */
+    private var entries: LinkedHashMap<Int, Entry>? = null
+
+    /**
+     * Searches the nodes of a subtree whose name contains a query, ignoring case.
+     *
+     * @param path  Path of the root folder of the subtree.
+     * @param query Text to search.
+     * @return Copies of the matching nodes.
+     */
+    fun search(path: String, query: String): List<MegaOffline> {
+        val rootPath = path.withTrailingSeparator()
+        val lowercaseQuery = query.lowercase(Locale.ROOT)
+        return synchronized(lock) {
+            getEntries().values
+                .filter { it.folderPath.startsWith(rootPath) }
+                .filter { it.lowercaseName.contains(lowercaseQuery) }
+                .map { it.offline.copy() }
+        }
+    }
+
+    /**
+     * Adds a node that has been inserted in the offline table.
+     *
+     * @param offline Node inserted, with its row id.
+     */
+    fun add(offline: MegaOffline) = synchronized(lock) {
+        entries?.put(offline.id, Entry(offline.copy()))
+        Unit
+    }
+
+    /**
+     * Removes the nodes deleted from the offline table by handle.
+     *
+     * @param handle Handle of the node.
+     */
+    fun removeByHandle(handle: String) = synchronized(lock) {
+        entries?.values?.removeAll { it.offline.handle == handle }
+        Unit
+    }
+
+    /**
+     * Removes a node deleted from the offline table by id.
+     *
+     * @param id Id of the node.
+     */
+    fun removeById(id: Int) = synchronized(lock) {
+        entries?.remove(id)
+        Unit
+    }
+
+    /**
+     * Empties the index after the offline table has been cleared.
+     */
+    fun clear() = synchronized(lock) {
+        entries = LinkedHashMap()
+    }
+
+    /**
+     * Discards the index, so it is loaded again on next use.
+     */
+    fun invalidate() = synchronized(lock) {
+        entries = null
+    }
+
+    private fun getEntries(): Map<Int, Entry> =
+        entries ?: loader()?.let { nodes ->
+            nodes.associateTo(LinkedHashMap()) { it.id to Entry(it.copy()) }
+                .also { entries = it }
+        } ?: emptyMap()
+
+    private companion object {
+        fun String.withTrailingSeparator() =
+            if (endsWith(File.separator)) this else this + File.separator
+    }
+}
@@ -1,40 +1,37 @@
 package mega.privacy.android.app;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import android.graphics.Bitmap;
-import androidx.collection.LruCache;
 
 /*
- * LRU thumbnails cache to display in list
+ * LRU previews cache to display in list
  */
 public class PreviewCache {
-	
-	List<Long>nulls;
-	LruPreviewCache cache;
+
+	/*
+	 * Fraction of the app memory used by the cache
+	 *
+	 * A full screen preview takes a few MB, so with a 256 MB heap 1/16 keeps the previews around
+	 * the one being displayed. The 50 entries kept before could take most of the heap.
+	 */
+	private static final int MEMORY_DIVISOR = 16;
+
+	BitmapMemoryCache<Long> cache;
 	
 	public PreviewCache() {
-		cache = new LruPreviewCache(50);
-		nulls = new ArrayList<Long>();
+		cache = new BitmapMemoryCache<>(BitmapMemoryCache.maxBytesFraction(MEMORY_DIVISOR));
 	}
 	
 	/*
 	 * Put new item into cache
 	 */
 	public void put(Long key, Bitmap value) {
-		if (value == null) {
-			nulls.add(key);
-		} else {
-			cache.put(key, value);
-		}
+		cache.put(key, value);
 	}
 	
 	/*
 	 * Remove item from the cache
 	 */
 	public void remove(Long key) {
-		nulls.remove(key);
 		cache.remove(key);
 	}
 	
@@ -49,26 +46,13 @@ public class PreviewCache {
 	 * Check is cache contains key
 	 */
 	public boolean containsKey(Long key) {
-		if (cache.get(key) != null) {
-			return true;
-		}
-		if (nulls.contains(key)) {
-			return true;
-		}
-		return false;
+		return cache.containsKey(key);
 	}
-	
-	private static class LruPreviewCache extends LruCache<Long, Bitmap> {
 
-		public LruPreviewCache(int maxSize) {
-			super(maxSize);
-		}
-	
-		protected void entryRemoved (boolean evicted, String key, Bitmap oldValue, Bitmap newValue)
-		{
-			try {
-				oldValue.recycle();
-			}catch(Exception e) {}
-		}
+	/*
+	 * Get the metrics of the cache
+	 */
+	public BitmapMemoryCache.Metrics getMetrics() {
+		return cache.getMetrics();
 	}
 }
@@ -4,12 +4,14 @@ import android.content.ContentValues
 import android.database.Cursor
 import android.database.sqlite.SQLiteDatabase
 import android.database.sqlite.SQLiteException
-import android.provider.Settings
 import android.text.TextUtils
-import android.util.Base64
 import androidx.sqlite.db.SupportSQLiteDatabase
 import androidx.sqlite.db.SupportSQLiteOpenHelper
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.runBlocking
 import mega.privacy.android.app.logging.LegacyLoggingSettings
@@ -19,7 +21,7 @@ import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.FileUtil
 import mega.privacy.android.app.utils.OfflineUtils
 import mega.privacy.android.app.utils.TextUtil
-import mega.privacy.android.app.utils.Util
+import mega.privacy.android.data.cryptography.AesFieldCipher
 import mega.privacy.android.data.database.DatabaseHandler.Companion.MAX_TRANSFERS
 import mega.privacy.android.data.database.LegacyDatabaseMigration
 import mega.privacy.android.data.database.MegaDatabaseConstant.TABLE_SD_TRANSFERS
@@ -44,9 +46,7 @@ import mega.privacy.android.domain.entity.user.UserCredentials
 import mega.privacy.android.domain.qualifier.ApplicationScope
 import nz.mega.sdk.MegaApiJava
 import timber.log.Timber
-import java.io.File
 import java.util.Collections
-import java.util.Locale
 import javax.inject.Inject
 
 
@@ -62,10 +62,21 @@ class SqliteDatabaseHandler @Inject constructor(
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
     private val sqLiteOpenHelper: SupportSQLiteOpenHelper,
     private val legacyDatabaseMigration: LegacyDatabaseMigration,
+    private val aesFieldCipher: AesFieldCipher,
 ) : LegacyDatabaseHandler {
     private val writableDatabase: SupportSQLiteDatabase by lazy { sqLiteOpenHelper.writableDatabase }
     private val readableDatabase: SupportSQLiteDatabase by lazy { sqLiteOpenHelper.readableDatabase }
 
+    /**
+     * Decrypted values of the preferences row by column name. They are loaded once and updated
+     * on every write, so reading a preference does not query the DB.
+     * Null until loaded, empty if there is no preferences row.
+     */
+    private val preferenceValues = MutableStateFlow<Map<String, String?>?>(null)
+    private val preferencesLock = Any()
+
+    private val offlineSearchIndex = OfflineSearchIndex(::loadOfflineNodes)
+
     override fun saveCredentials(userCredentials: UserCredentials) {
         val values = ContentValues().apply {
             with(userCredentials) {
@@ -78,35 +89,16 @@ class SqliteDatabaseHandler @Inject constructor(
         writableDatabase.insert(TABLE_CREDENTIALS, SQLiteDatabase.CONFLICT_REPLACE, values)
     }
 
-    override fun shouldClearCamsyncRecords(): Boolean {
-        val selectQuery =
-            "SELECT $KEY_SHOULD_CLEAR_CAMSYNC_RECORDS FROM $TABLE_PREFERENCES"
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    var should = cursor.getString(
-                        cursor.getColumnIndexOrThrow(
-                            KEY_SHOULD_CLEAR_CAMSYNC_RECORDS
-                        )
-                    )
-                    should = decrypt(should)
-                    return if (should.isNullOrEmpty()) {
-                        false
-                    } else {
-                        java.lang.Boolean.valueOf(should)
-                    }
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-        return false
-    }
+    override fun shouldClearCamsyncRecords(): Boolean =
+        getPreferenceValues()[KEY_SHOULD_CLEAR_CAMSYNC_RECORDS].toBoolean()
 
     override fun saveShouldClearCamsyncRecords(should: Boolean) {
         val sql =
             "UPDATE $TABLE_PREFERENCES SET $KEY_SHOULD_CLEAR_CAMSYNC_RECORDS = '${encrypt(should.toString())}'"
-        writableDatabase.execSQL(sql)
+        synchronized(preferencesLock) {
+            writableDatabase.execSQL(sql)
+            cachePreferenceValue(KEY_SHOULD_CLEAR_CAMSYNC_RECORDS, should.toString())
+        }
     }
 
     override fun findMaxTimestamp(isSecondary: Boolean, fileType: Int): Long? {
@@ -144,81 +136,19 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun setCameraUploadVideoQuality(quality: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_UPLOAD_VIDEO_QUALITY= '${encrypt(quality.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_UPLOAD_VIDEO_QUALITY, encrypt(quality.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_UPLOAD_VIDEO_QUALITY, quality.toString())
     }
 
     override fun setConversionOnCharging(onCharging: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CONVERSION_ON_CHARGING= '${
-                            encrypt(onCharging.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CONVERSION_ON_CHARGING, encrypt(onCharging.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CONVERSION_ON_CHARGING, onCharging.toString())
     }
 
     override fun setChargingOnSize(size: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CHARGING_ON_SIZE= '${encrypt(size.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CHARGING_ON_SIZE, encrypt(size.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CHARGING_ON_SIZE, size.toString())
     }
 
     override fun setRemoveGPS(removeGPS: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_REMOVE_GPS= '${encrypt(removeGPS.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_REMOVE_GPS, encrypt(removeGPS.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_REMOVE_GPS, removeGPS.toString())
     }
 
     override fun saveMyEmail(email: String?) {
@@ -355,13 +285,12 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun dontAskForDisplayOver() {
-        writableDatabase.execSQL(
-            "UPDATE $TABLE_PREFERENCES SET $KEY_ASK_FOR_DISPLAY_OVER = '${
-                encrypt(
-                    "false"
-                )
-            }';"
-        )
+        synchronized(preferencesLock) {
+            writableDatabase.execSQL(
+                "UPDATE $TABLE_PREFERENCES SET $KEY_ASK_FOR_DISPLAY_OVER = '${encrypt("false")}';"
+            )
+            cachePreferenceValue(KEY_ASK_FOR_DISPLAY_OVER, "false")
+        }
     }
 
     /**
@@ -370,250 +299,168 @@ class SqliteDatabaseHandler @Inject constructor(
      * @return Preferences.
      */
     override val preferences: MegaPreferences?
-        get() = getPreferences(writableDatabase)
+        get() = toMegaPreferences(getPreferenceValues())
 
     /**
-     * Gets preferences.
+     * Monitors preferences. The values are loaded on collection if they were not loaded yet, so
+     * a collector gets null preferences instead of waiting if they cannot be read.
+     */
+    override val monitorPreferences: Flow<MegaPreferences?>
+        get() = preferenceValues.map { toMegaPreferences(it ?: getPreferenceValues()) }
+
+    /**
+     * Gets the decrypted values of the preferences row, loading them from the DB only once.
      *
-     * @param db Current DB.
-     * @return Preferences.
+     * @return Values by column name, empty if there are no preferences.
+     */
+    private fun getPreferenceValues(): Map<String, String?> =
+        preferenceValues.value ?: synchronized(preferencesLock) {
+            preferenceValues.value ?: loadPreferenceValues()?.also { preferenceValues.value = it }
+        } ?: emptyMap()
+
+    /**
+     * Reads and decrypts all the columns of the preferences row.
+     *
+     * @return Values by column name, empty if there is no preferences row or null if it cannot
+     * be read.
      */
-    private fun getPreferences(db: SupportSQLiteDatabase): MegaPreferences? {
-        var prefs: MegaPreferences? = null
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
+    private fun loadPreferenceValues(): Map<String, String?>? {
         try {
-            db.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val firstTime =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_FIRST_LOGIN)))
-                    val camSyncEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_ENABLED)))
-                    val camSyncHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_HANDLE)))
-                    val camSyncLocalPath =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_LOCAL_PATH)))
-                    val wifi = decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_WIFI)))
-                    val fileUpload =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_FILE_UPLOAD)))
-                    val pinLockEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_ENABLED)))
-                    val pinLockCode =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_CODE)))
-                    val askAlways =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_STORAGE_ASK_ALWAYS)))
-                    val downloadLocation = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_STORAGE_DOWNLOAD_LOCATION
-                            )
-                        )
-                    )
-                    val camSyncTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CAM_SYNC_TIMESTAMP)))
-                    val lastFolderUpload =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_LAST_UPLOAD_FOLDER)))
-                    val lastFolderCloud = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_LAST_CLOUD_FOLDER_HANDLE
-                            )
-                        )
-                    )
-                    val secondaryFolderEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_ENABLED)))
-                    val secondaryPath =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_LOCAL_PATH)))
-                    val secondaryHandle =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_FOLDER_HANDLE)))
-                    val secSyncTimeStamp =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SEC_SYNC_TIMESTAMP)))
-                    val keepFileNames =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_KEEP_FILE_NAMES)))
-                    val storageAdvancedDevices = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_STORAGE_ADVANCED_DEVICES
-                            )
-                        )
-                    )
-                    val preferredViewList =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_VIEW_LIST)))
-                    val preferredViewListCamera = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_PREFERRED_VIEW_LIST_CAMERA
-                            )
-                        )
-                    )
-                    val uriExternalSDCard =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_URI_EXTERNAL_SD_CARD)))
-                    val cameraFolderExternalSDCard = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD
-                            )
-                        )
-                    )
-                    val pinLockType =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PASSCODE_LOCK_TYPE)))
-                    val preferredSortCloud =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_SORT_CLOUD)))
-                    val preferredSortOthers =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_PREFERRED_SORT_OTHERS)))
-                    val firstTimeChat =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_FIRST_LOGIN_CHAT)))
-                    val isAutoPlayEnabled =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_AUTO_PLAY)))
-                    val uploadVideoQuality =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_UPLOAD_VIDEO_QUALITY)))
-                    val conversionOnCharging = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_CONVERSION_ON_CHARGING
-                            )
-                        )
-                    )
-                    val chargingOnSize =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_CHARGING_ON_SIZE)))
-                    val shouldClearCameraSyncRecords = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_SHOULD_CLEAR_CAMSYNC_RECORDS
-                            )
-                        )
-                    )
-                    val camVideoSyncTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_CAM_VIDEO_SYNC_TIMESTAMP
-                            )
-                        )
-                    )
-                    val secVideoSyncTimeStamp = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_SEC_VIDEO_SYNC_TIMESTAMP
-                            )
-                        )
-                    )
-                    val removeGPS =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_REMOVE_GPS)))
-                    val closeInviteBanner =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SHOW_INVITE_BANNER)))
-                    val preferredSortCameraUpload = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_PREFERRED_SORT_CAMERA_UPLOAD
-                            )
-                        )
-                    )
-                    val sdCardUri =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_SD_CARD_URI)))
-                    val askForDisplayOver =
-                        decrypt(cursor.getString(getColumnIndex(cursor, KEY_ASK_FOR_DISPLAY_OVER)))
-                    val askForSetDownloadLocation = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_ASK_SET_DOWNLOAD_LOCATION
-                            )
-                        )
-                    )
-                    val mediaSDCardUri = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_URI_MEDIA_EXTERNAL_SD_CARD
-                            )
-                        )
-                    )
-                    val isMediaOnSDCard = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD
-                            )
-                        )
-                    )
-                    val passcodeLockRequireTime = decrypt(
-                        cursor.getString(
-                            getColumnIndex(
-                                cursor,
-                                KEY_PASSCODE_LOCK_REQUIRE_TIME
-                            )
-                        )
-                    )
-                    val fingerprintLock =
-                        if (cursor.getColumnIndex(KEY_FINGERPRINT_LOCK) != Constants.INVALID_VALUE) decrypt(
-                            cursor.getString(
-                                getColumnIndex(
-                                    cursor,
-                                    KEY_FINGERPRINT_LOCK
-                                )
-                            )
-                        ) else "false"
-                    prefs = MegaPreferences(
-                        firstTime,
-                        wifi,
-                        camSyncEnabled,
-                        camSyncHandle,
-                        camSyncLocalPath,
-                        fileUpload,
-                        camSyncTimeStamp,
-                        pinLockEnabled,
-                        pinLockCode,
-                        askAlways,
-                        downloadLocation,
-                        lastFolderUpload,
-                        lastFolderCloud,
-                        secondaryFolderEnabled,
-                        secondaryPath,
-                        secondaryHandle,
-                        secSyncTimeStamp,
-                        keepFileNames,
-                        storageAdvancedDevices,
-                        preferredViewList,
-                        preferredViewListCamera,
-                        uriExternalSDCard,
-                        cameraFolderExternalSDCard,
-                        pinLockType,
-                        preferredSortCloud,
-                        preferredSortOthers,
-                        firstTimeChat,
-                        uploadVideoQuality,
-                        conversionOnCharging,
-                        chargingOnSize,
-                        shouldClearCameraSyncRecords,
-                        camVideoSyncTimeStamp,
-                        secVideoSyncTimeStamp,
-                        isAutoPlayEnabled,
-                        removeGPS,
-                        closeInviteBanner,
-                        preferredSortCameraUpload,
-                        sdCardUri,
-                        askForDisplayOver,
-                        askForSetDownloadLocation,
-                        mediaSDCardUri,
-                        isMediaOnSDCard,
-                        passcodeLockRequireTime,
-                        fingerprintLock
-                    )
-                }
+            writableDatabase.query("SELECT * FROM $TABLE_PREFERENCES").use { cursor ->
+                if (!cursor.moveToFirst()) return emptyMap()
+                val columns = cursor.columnNames.filter { it != KEY_ID }
+                val values =
+                    decryptAll(columns.map { cursor.getString(getColumnIndex(cursor, it)) })
+                return columns.zip(values).toMap()
             }
         } catch (e: Exception) {
             Timber.e(e, "Exception opening or managing DB cursor")
         }
-        return prefs
+        return null
+    }
+
+    /**
+     * Updates a cached preference after it has been written to the DB.
+     *
+     * @param columnName Name of the preferences column.
+     * @param value      Value written.
+     */
+    private fun cachePreferenceValue(columnName: String, value: String?) {
+        preferenceValues.update { values ->
+            if (values.isNullOrEmpty()) values else values + (columnName to value)
+        }
+    }
+
+    /**
+     * Reloads the cached preferences if they were already loaded.
+     */
+    private fun reloadPreferenceValues() {
+        synchronized(preferencesLock) {
+            if (preferenceValues.value != null) {
+                preferenceValues.value = loadPreferenceValues()
+            }
+        }
+    }
+
+    /**
+     * Maps the values of the preferences row.
+     *
+     * @param values Values by column name.
+     * @return Preferences, or null if there are no preferences.
+     */
+    private fun toMegaPreferences(values: Map<String, String?>): MegaPreferences? {
+        if (values.isEmpty()) return null
+        val firstTime = values[KEY_FIRST_LOGIN]
+        val camSyncEnabled = values[KEY_CAM_SYNC_ENABLED]
+        val camSyncHandle = values[KEY_CAM_SYNC_HANDLE]
+        val camSyncLocalPath = values[KEY_CAM_SYNC_LOCAL_PATH]
+        val wifi = values[KEY_CAM_SYNC_WIFI]
+        val fileUpload = values[KEY_CAM_SYNC_FILE_UPLOAD]
+        val pinLockEnabled = values[KEY_PASSCODE_LOCK_ENABLED]
+        val pinLockCode = values[KEY_PASSCODE_LOCK_CODE]
+        val askAlways = values[KEY_STORAGE_ASK_ALWAYS]
+        val downloadLocation = values[KEY_STORAGE_DOWNLOAD_LOCATION]
+        val camSyncTimeStamp = values[KEY_CAM_SYNC_TIMESTAMP]
+        val lastFolderUpload = values[KEY_LAST_UPLOAD_FOLDER]
+        val lastFolderCloud = values[KEY_LAST_CLOUD_FOLDER_HANDLE]
+        val secondaryFolderEnabled = values[KEY_SEC_FOLDER_ENABLED]
+        val secondaryPath = values[KEY_SEC_FOLDER_LOCAL_PATH]
+        val secondaryHandle = values[KEY_SEC_FOLDER_HANDLE]
+        val secSyncTimeStamp = values[KEY_SEC_SYNC_TIMESTAMP]
+        val keepFileNames = values[KEY_KEEP_FILE_NAMES]
+        val storageAdvancedDevices = values[KEY_STORAGE_ADVANCED_DEVICES]
+        val preferredViewList = values[KEY_PREFERRED_VIEW_LIST]
+        val preferredViewListCamera = values[KEY_PREFERRED_VIEW_LIST_CAMERA]
+        val uriExternalSDCard = values[KEY_URI_EXTERNAL_SD_CARD]
+        val cameraFolderExternalSDCard = values[KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD]
+        val pinLockType = values[KEY_PASSCODE_LOCK_TYPE]
+        val preferredSortCloud = values[KEY_PREFERRED_SORT_CLOUD]
+        val preferredSortOthers = values[KEY_PREFERRED_SORT_OTHERS]
+        val firstTimeChat = values[KEY_FIRST_LOGIN_CHAT]
+        val isAutoPlayEnabled = values[KEY_AUTO_PLAY]
+        val uploadVideoQuality = values[KEY_UPLOAD_VIDEO_QUALITY]
+        val conversionOnCharging = values[KEY_CONVERSION_ON_CHARGING]
+        val chargingOnSize = values[KEY_CHARGING_ON_SIZE]
+        val shouldClearCameraSyncRecords = values[KEY_SHOULD_CLEAR_CAMSYNC_RECORDS]
+        val camVideoSyncTimeStamp = values[KEY_CAM_VIDEO_SYNC_TIMESTAMP]
+        val secVideoSyncTimeStamp = values[KEY_SEC_VIDEO_SYNC_TIMESTAMP]
+        val removeGPS = values[KEY_REMOVE_GPS]
+        val closeInviteBanner = values[KEY_SHOW_INVITE_BANNER]
+        val preferredSortCameraUpload = values[KEY_PREFERRED_SORT_CAMERA_UPLOAD]
+        val sdCardUri = values[KEY_SD_CARD_URI]
+        val askForDisplayOver = values[KEY_ASK_FOR_DISPLAY_OVER]
+        val askForSetDownloadLocation = values[KEY_ASK_SET_DOWNLOAD_LOCATION]
+        val mediaSDCardUri = values[KEY_URI_MEDIA_EXTERNAL_SD_CARD]
+        val isMediaOnSDCard = values[KEY_MEDIA_FOLDER_EXTERNAL_SD_CARD]
+        val passcodeLockRequireTime = values[KEY_PASSCODE_LOCK_REQUIRE_TIME]
+        val fingerprintLock =
+            if (values.containsKey(KEY_FINGERPRINT_LOCK)) values[KEY_FINGERPRINT_LOCK] else "false"
+        return MegaPreferences(
+            firstTime,
+            wifi,
+            camSyncEnabled,
+            camSyncHandle,
+            camSyncLocalPath,
+            fileUpload,
+            camSyncTimeStamp,
+            pinLockEnabled,
+            pinLockCode,
+            askAlways,
+            downloadLocation,
+            lastFolderUpload,
+            lastFolderCloud,
+            secondaryFolderEnabled,
+            secondaryPath,
+            secondaryHandle,
+            secSyncTimeStamp,
+            keepFileNames,
+            storageAdvancedDevices,
+            preferredViewList,
+            preferredViewListCamera,
+            uriExternalSDCard,
+            cameraFolderExternalSDCard,
+            pinLockType,
+            preferredSortCloud,
+            preferredSortOthers,
+            firstTimeChat,
+            uploadVideoQuality,
+            conversionOnCharging,
+            chargingOnSize,
+            shouldClearCameraSyncRecords,
+            camVideoSyncTimeStamp,
+            secVideoSyncTimeStamp,
+            isAutoPlayEnabled,
+            removeGPS,
+            closeInviteBanner,
+            preferredSortCameraUpload,
+            sdCardUri,
+            askForDisplayOver,
+            askForSetDownloadLocation,
+            mediaSDCardUri,
+            isMediaOnSDCard,
+            passcodeLockRequireTime,
+            fingerprintLock
+        )
     }
 
     /**
@@ -1221,6 +1068,7 @@ class SqliteDatabaseHandler @Inject constructor(
             values.put(KEY_OFF_INCOMING, offline.origin)
             values.put(KEY_OFF_HANDLE_INCOMING, encrypt(offline.handleIncoming))
             return writableDatabase.insert(TABLE_OFFLINE, SQLiteDatabase.CONFLICT_NONE, values)
+                .also { id -> if (id != -1L) offlineSearchIndex.add(offline.copy(id = id.toInt())) }
         }
         return -1
     }
@@ -1237,6 +1085,7 @@ class SqliteDatabaseHandler @Inject constructor(
             values.put(KEY_OFF_INCOMING, offline.origin)
             values.put(KEY_OFF_HANDLE_INCOMING, offline.handleIncoming)
             return writableDatabase.insert(TABLE_OFFLINE, SQLiteDatabase.CONFLICT_NONE, values)
+                .also { offlineSearchIndex.invalidate() }
         }
         return -1
     }
@@ -1249,25 +1098,7 @@ class SqliteDatabaseHandler @Inject constructor(
                 readableDatabase.query(selectQuery).use { cursor ->
                     if (cursor.moveToFirst()) {
                         do {
-                            val id = cursor.getString(0).toInt()
-                            val handle = decrypt(cursor.getString(1))
-                            val path = decrypt(cursor.getString(2))
-                            val name = decrypt(cursor.getString(3))
-                            val parent = cursor.getInt(4)
-                            val type = decrypt(cursor.getString(5))
-                            val incoming = cursor.getInt(6)
-                            val handleIncoming = decrypt(cursor.getString(7))
-                            val offline = MegaOffline(
-                                id,
-                                handle.toString(),
-                                path.toString(),
-                                name.toString(),
-                                parent,
-                                type,
-                                incoming,
-                                handleIncoming.toString()
-                            )
-                            listOffline.add(offline)
+                            listOffline.add(cursor.toMegaOffline())
                         } while (cursor.moveToNext())
                     }
                 }
@@ -1345,26 +1176,7 @@ class SqliteDatabaseHandler @Inject constructor(
             readableDatabase.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     do {
-                        val _id = cursor.getString(0).toInt()
-                        val _handle = decrypt(cursor.getString(1))
-                        val _path = decrypt(cursor.getString(2))
-                        val _name = decrypt(cursor.getString(3))
-                        val _parent = cursor.getInt(4)
-                        val _type = decrypt(cursor.getString(5))
-                        val _incoming = cursor.getInt(6)
-                        val _handleIncoming = decrypt(cursor.getString(7))
-                        listOffline.add(
-                            MegaOffline(
-                                _id,
-                                _handle.toString(),
-                                _path.toString(),
-                                _name.toString(),
-                                _parent,
-                                _type,
-                                _incoming,
-                                _handleIncoming.toString()
-                            )
-                        )
+                        listOffline.add(cursor.toMegaOffline())
                     } while (cursor.moveToNext())
                 }
             }
@@ -1381,24 +1193,7 @@ class SqliteDatabaseHandler @Inject constructor(
             readableDatabase.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     do {
-                        val _id = cursor.getString(0).toInt()
-                        val _handle = decrypt(cursor.getString(1))
-                        val _path = decrypt(cursor.getString(2))
-                        val _name = decrypt(cursor.getString(3))
-                        val _parent = cursor.getInt(4)
-                        val _type = decrypt(cursor.getString(5))
-                        val _incoming = cursor.getInt(6)
-                        val _handleIncoming = decrypt(cursor.getString(7))
-                        offline = MegaOffline(
-                            _id,
-                            _handle.toString(),
-                            _path.toString(),
-                            _name.toString(),
-                            _parent,
-                            _type,
-                            _incoming,
-                            _handleIncoming.toString()
-                        )
+                        offline = cursor.toMegaOffline()
                     } while (cursor.moveToNext())
                 }
             }
@@ -1410,6 +1205,7 @@ class SqliteDatabaseHandler @Inject constructor(
 
     override fun removeById(id: Int): Int {
         return writableDatabase.delete(TABLE_OFFLINE, "$KEY_ID=$id", null)
+            .also { offlineSearchIndex.removeById(id) }
     }
 
     override fun findByPath(path: String?): ArrayList<MegaOffline> {
@@ -1421,26 +1217,7 @@ class SqliteDatabaseHandler @Inject constructor(
             readableDatabase.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     do {
-                        val _id = cursor.getString(0).toInt()
-                        val _handle = decrypt(cursor.getString(1))
-                        val _path = decrypt(cursor.getString(2))
-                        val _name = decrypt(cursor.getString(3))
-                        val _parent = cursor.getInt(4)
-                        val _type = decrypt(cursor.getString(5))
-                        val _incoming = cursor.getInt(6)
-                        val _handleIncoming = decrypt(cursor.getString(7))
-                        listOffline.add(
-                            MegaOffline(
-                                _id,
-                                _handle.toString(),
-                                _path.toString(),
-                                _name.toString(),
-                                _parent,
-                                _type,
-                                _incoming,
-                                _handleIncoming.toString()
-                            )
-                        )
+                        listOffline.add(cursor.toMegaOffline())
                     } while (cursor.moveToNext())
                 }
             }
@@ -1461,24 +1238,7 @@ class SqliteDatabaseHandler @Inject constructor(
             readableDatabase.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     do {
-                        val _id = cursor.getString(0).toInt()
-                        val _handle = decrypt(cursor.getString(1))
-                        val _path = decrypt(cursor.getString(2))
-                        val _name = decrypt(cursor.getString(3))
-                        val _parent = cursor.getInt(4)
-                        val _type = decrypt(cursor.getString(5))
-                        val _incoming = cursor.getInt(6)
-                        val _handleIncoming = decrypt(cursor.getString(7))
-                        offline = MegaOffline(
-                            _id,
-                            _handle.toString(),
-                            _path.toString(),
-                            _name.toString(),
-                            _parent,
-                            _type,
-                            _incoming,
-                            _handleIncoming.toString()
-                        )
+                        offline = cursor.toMegaOffline()
                     } while (cursor.moveToNext())
                 }
             }
@@ -1488,109 +1248,50 @@ class SqliteDatabaseHandler @Inject constructor(
         return offline
     }
 
+    /**
+     * Maps the current row of an offline cursor, decrypting all its fields at once
+     */
+    private fun Cursor.toMegaOffline(): MegaOffline {
+        val (handle, path, name, type, handleIncoming) =
+            decryptAll(listOf(getString(1), getString(2), getString(3), getString(5), getString(7)))
+        return MegaOffline(
+            getString(0).toInt(),
+            handle.toString(),
+            path.toString(),
+            name.toString(),
+            getInt(4),
+            type,
+            getInt(6),
+            handleIncoming.toString()
+        )
+    }
+
     override fun deleteOfflineFile(mOff: MegaOffline): Int {
         return writableDatabase.delete(
             TABLE_OFFLINE,
             "$KEY_OFF_HANDLE = ?",
             arrayOf(encrypt(mOff.handle.toString()))
-        )
+        ).also { offlineSearchIndex.removeByHandle(mOff.handle) }
     }
 
     override fun setFirstTime(firstTime: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_FIRST_LOGIN= '${encrypt(firstTime.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_FIRST_LOGIN, encrypt(firstTime.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_FIRST_LOGIN, firstTime.toString())
     }
 
     override fun setCamSyncWifi(wifi: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_WIFI= '${encrypt(wifi.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_WIFI, encrypt(wifi.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_WIFI, wifi.toString())
     }
 
     override fun setPreferredViewList(list: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_VIEW_LIST= '${encrypt(list.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_VIEW_LIST, encrypt(list.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_VIEW_LIST, list.toString())
     }
 
     override fun setPreferredViewListCamera(list: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_VIEW_LIST_CAMERA= '${
-                            encrypt(list.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_VIEW_LIST_CAMERA, encrypt(list.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_VIEW_LIST_CAMERA, list.toString())
     }
 
     override fun setPreferredSortCloud(order: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_SORT_CLOUD= '${encrypt(order)}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_SORT_CLOUD, encrypt(order))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_SORT_CLOUD, order)
     }
 
     override fun setPreferredSortCameraUpload(order: String?) {
@@ -1599,211 +1300,49 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun setPreferredSortOthers(order: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_PREFERRED_SORT_OTHERS= '${encrypt(order)}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_PREFERRED_SORT_OTHERS, encrypt(order))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_PREFERRED_SORT_OTHERS, order)
     }
 
     override fun setLastUploadFolder(folderPath: String) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_LAST_UPLOAD_FOLDER= '${
-                            encrypt(folderPath)
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_LAST_UPLOAD_FOLDER, encrypt(folderPath))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_LAST_UPLOAD_FOLDER, folderPath)
     }
-
-    override fun setLastCloudFolder(folderHandle: String) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_LAST_CLOUD_FOLDER_HANDLE= '${
-                            encrypt(folderHandle)
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                    Timber.d(
-                        "KEY_LAST_CLOUD_FOLDER_HANDLE UPLOAD FOLDER: %s",
-                        UPDATE_PREFERENCES_TABLE
-                    )
-                } else {
-                    values.put(KEY_LAST_CLOUD_FOLDER_HANDLE, encrypt(folderHandle))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
-    }
-
-    override fun setKeepFileNames(charging: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_KEEP_FILE_NAMES= '${encrypt(charging.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_KEEP_FILE_NAMES, encrypt(charging.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+
+    override fun setLastCloudFolder(folderHandle: String) {
+        setStringValue(TABLE_PREFERENCES, KEY_LAST_CLOUD_FOLDER_HANDLE, folderHandle)
+        Timber.d("KEY_LAST_CLOUD_FOLDER_HANDLE UPLOAD FOLDER: %s", folderHandle)
+    }
+
+    override fun setKeepFileNames(charging: Boolean) {
+        setStringValue(TABLE_PREFERENCES, KEY_KEEP_FILE_NAMES, charging.toString())
     }
 
     override fun setCamSyncEnabled(enabled: Boolean) {
         Timber.d("setCamSyncEnabled: %s", enabled)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_ENABLED= '${encrypt(enabled.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_ENABLED, encrypt(enabled.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_ENABLED, enabled.toString())
     }
 
     override fun setSecondaryUploadEnabled(enabled: Boolean) {
         Timber.d("setSecondaryUploadEnabled: %s", enabled)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_ENABLED= '${encrypt(enabled.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_SEC_FOLDER_ENABLED, encrypt(enabled.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SEC_FOLDER_ENABLED, enabled.toString())
     }
 
     override fun setCamSyncHandle(handle: Long) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_HANDLE, encrypt(handle.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-                Timber.d("Set new primary handle: %s", handle)
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_HANDLE, handle.toString())
+        Timber.d("Set new primary handle: %s", handle)
     }
 
     override fun setSecondaryFolderHandle(handle: Long) {
         Timber.d("setSecondaryFolderHandle: %s", handle)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_HANDLE= '${encrypt(handle.toString())}' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_SEC_FOLDER_HANDLE, encrypt(handle.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-                Timber.d("Set new secondary handle: %s", handle)
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SEC_FOLDER_HANDLE, handle.toString())
     }
 
     override fun setCamSyncLocalPath(localPath: String) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_LOCAL_PATH= '${
-                            encrypt(localPath)
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_LOCAL_PATH, encrypt(localPath))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_LOCAL_PATH, localPath)
     }
 
     override fun setUriExternalSDCard(uriExternalSDCard: String?) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_URI_EXTERNAL_SD_CARD= '${
-                            encrypt(uriExternalSDCard)
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                    Timber.d("KEY_URI_EXTERNAL_SD_CARD URI: %s", UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_URI_EXTERNAL_SD_CARD, encrypt(uriExternalSDCard))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_URI_EXTERNAL_SD_CARD, uriExternalSDCard)
+        Timber.d("KEY_URI_EXTERNAL_SD_CARD URI: %s", uriExternalSDCard)
     }
     /**
      * Gets the local path selected in an external SD card as Media Uploads local folder.
@@ -1826,27 +1365,11 @@ class SqliteDatabaseHandler @Inject constructor(
         }
 
     override fun setCameraFolderExternalSDCard(cameraFolderExternalSDCard: Boolean) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD= '${
-                            encrypt(cameraFolderExternalSDCard.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(
-                        KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD,
-                        encrypt(cameraFolderExternalSDCard.toString())
-                    )
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(
+            TABLE_PREFERENCES,
+            KEY_CAMERA_FOLDER_EXTERNAL_SD_CARD,
+            cameraFolderExternalSDCard.toString()
+        )
     }
     /**
      * Gets the flag which indicates if the local path selected as Media Uploads local folder belongs to an external SD card.
@@ -1872,71 +1395,16 @@ class SqliteDatabaseHandler @Inject constructor(
         get() = getStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_TYPE, "")
         set(passcodeLockType) {
             Timber.d("setPasscodeLockType")
-            val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-            val values = ContentValues()
-            try {
-                readableDatabase.query(selectQuery).use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        val UPDATE_PREFERENCES_TABLE =
-                            "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_TYPE= '${
-                                encrypt(passcodeLockType)
-                            }' WHERE $KEY_ID = '1'"
-                        writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                    } else {
-                        values.put(KEY_PASSCODE_LOCK_TYPE, encrypt(passcodeLockType))
-                        writableDatabase.insert(
-                            TABLE_PREFERENCES,
-                            SQLiteDatabase.CONFLICT_NONE,
-                            values
-                        )
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
+            setStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_TYPE, passcodeLockType)
         }
 
     override fun setSecondaryFolderPath(localPath: String?) {
         Timber.d("setSecondaryFolderPath: %s", localPath)
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SEC_FOLDER_LOCAL_PATH= '${
-                            encrypt(localPath)
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_SEC_FOLDER_LOCAL_PATH, encrypt(localPath))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SEC_FOLDER_LOCAL_PATH, localPath)
     }
 
     override fun setCamSyncFileUpload(fileUpload: Int) {
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_CAM_SYNC_FILE_UPLOAD= '${
-                            encrypt(fileUpload.toString())
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_CAM_SYNC_FILE_UPLOAD, encrypt(fileUpload.toString()))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_CAM_SYNC_FILE_UPLOAD, fileUpload.toString())
     }
 
     override fun setAccountDetailsTimeStamp() {
@@ -2109,17 +1577,37 @@ class SqliteDatabaseHandler @Inject constructor(
         if (TextUtil.isTextEmpty(value)) {
             Timber.w("Set %s with empty value!", columnName)
         }
+        if (tableName == TABLE_PREFERENCES) {
+            synchronized(preferencesLock) { writeStringValue(tableName, columnName, value) }
+        } else {
+            writeStringValue(tableName, columnName, value)
+        }
+    }
+
+    /**
+     * Write a String value into the database, updating the cached preferences if needed.
+     *
+     * @param tableName  Name of the database's table.
+     * @param columnName Name of the table's column.
+     * @param value      Value to set.
+     */
+    private fun writeStringValue(tableName: String, columnName: String, value: String?) {
         val selectQuery = "SELECT * FROM $tableName"
+        val encryptedValue = encrypt(value)
         try {
             readableDatabase.query(selectQuery).use { cursor ->
                 if (cursor.moveToFirst()) {
                     val UPDATE_TABLE =
-                        "UPDATE $tableName SET $columnName= '${encrypt(value)}' WHERE $KEY_ID = '1'"
+                        "UPDATE $tableName SET $columnName= '$encryptedValue' WHERE $KEY_ID = '1'"
                     writableDatabase.execSQL(UPDATE_TABLE)
+                    if (tableName == TABLE_PREFERENCES) {
+                        cachePreferenceValue(columnName, value.takeIf { encryptedValue != null })
+                    }
                 } else {
                     val values = ContentValues()
-                    values.put(columnName, encrypt(value))
+                    values.put(columnName, encryptedValue)
                     writableDatabase.insert(tableName, SQLiteDatabase.CONFLICT_NONE, values)
+                    if (tableName == TABLE_PREFERENCES) reloadPreferenceValues()
                 }
             }
         } catch (e: Exception) {
@@ -2140,6 +1628,12 @@ class SqliteDatabaseHandler @Inject constructor(
         columnName: String,
         defaultValue: String,
     ): String? {
+        if (tableName == TABLE_PREFERENCES) {
+            val values = getPreferenceValues()
+            if (values.isNotEmpty()) {
+                return if (values.containsKey(columnName)) values[columnName] else defaultValue
+            }
+        }
         var value: String? = defaultValue
         val selectQuery =
             "SELECT $columnName FROM $tableName WHERE $KEY_ID = '1'"
@@ -2154,6 +1648,7 @@ class SqliteDatabaseHandler @Inject constructor(
                     values.put(columnName, encrypt(defaultValue))
                     writableDatabase.insert(tableName, SQLiteDatabase.CONFLICT_NONE, values)
                     Timber.d("Default value: %s", defaultValue)
+                    if (tableName == TABLE_PREFERENCES) reloadPreferenceValues()
                 }
             }
         } catch (e: Exception) {
@@ -2181,60 +1676,17 @@ class SqliteDatabaseHandler @Inject constructor(
     override var isPasscodeLockEnabled: Boolean
         get() = getBooleanValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_ENABLED, false)
         set(passcodeLockEnabled) {
-            val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-            val values = ContentValues()
-            try {
-                readableDatabase.query(selectQuery).use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        val UPDATE_PREFERENCES_TABLE =
-                            "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_ENABLED= '${
-                                encrypt(passcodeLockEnabled.toString())
-                            }' WHERE $KEY_ID = '1'"
-                        writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                    } else {
-                        values.put(
-                            KEY_PASSCODE_LOCK_ENABLED,
-                            encrypt(passcodeLockEnabled.toString())
-                        )
-                        writableDatabase.insert(
-                            TABLE_PREFERENCES,
-                            SQLiteDatabase.CONFLICT_NONE,
-                            values
-                        )
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
+            setStringValue(
+                TABLE_PREFERENCES,
+                KEY_PASSCODE_LOCK_ENABLED,
+                passcodeLockEnabled.toString()
+            )
         }
 
     override var passcodeLockCode: String
         get() = getStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_CODE, "")!!
         set(passcodeLockCode: String) {
-            val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-            val values = ContentValues()
-            try {
-                readableDatabase.query(selectQuery).use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        val UPDATE_PREFERENCES_TABLE =
-                            "UPDATE $TABLE_PREFERENCES SET $KEY_PASSCODE_LOCK_CODE= '${
-                                encrypt(
-                                    passcodeLockCode
-                                )
-                            }' WHERE $KEY_ID = '1'"
-                        writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                    } else {
-                        values.put(KEY_PASSCODE_LOCK_CODE, encrypt(passcodeLockCode))
-                        writableDatabase.insert(
-                            TABLE_PREFERENCES,
-                            SQLiteDatabase.CONFLICT_NONE,
-                            values
-                        )
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
+            setStringValue(TABLE_PREFERENCES, KEY_PASSCODE_LOCK_CODE, passcodeLockCode)
         }
     /**
      * Gets the time required before ask for the passcode.
@@ -2302,24 +1754,7 @@ class SqliteDatabaseHandler @Inject constructor(
     override fun setStorageDownloadLocation(storageDownloadLocation: String?) {
         if (storageDownloadLocation == null) return
 
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_PREFERENCES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_STORAGE_DOWNLOAD_LOCATION= '${
-                            encrypt(storageDownloadLocation)
-                        }' WHERE $KEY_ID = '1'"
-                    writableDatabase.execSQL(UPDATE_PREFERENCES_TABLE)
-                } else {
-                    values.put(KEY_STORAGE_DOWNLOAD_LOCATION, encrypt(storageDownloadLocation))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_STORAGE_DOWNLOAD_LOCATION, storageDownloadLocation)
     }
 
     override fun setAttrAskSizeDownload(askSizeDownload: String?) {
@@ -2675,8 +2110,11 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override fun clearPreferences() {
-        writableDatabase.execSQL("DROP TABLE IF EXISTS $TABLE_PREFERENCES")
-        legacyDatabaseMigration.onCreate(writableDatabase)
+        synchronized(preferencesLock) {
+            writableDatabase.execSQL("DROP TABLE IF EXISTS $TABLE_PREFERENCES")
+            legacyDatabaseMigration.onCreate(writableDatabase)
+            preferenceValues.value = emptyMap()
+        }
     }
 
     override fun clearAttributes() {
@@ -2729,6 +2167,7 @@ class SqliteDatabaseHandler @Inject constructor(
     override fun clearOffline() {
         writableDatabase.execSQL("DROP TABLE IF EXISTS $TABLE_OFFLINE")
         legacyDatabaseMigration.onCreate(writableDatabase)
+        offlineSearchIndex.clear()
     }
 
     /**
@@ -3002,19 +2441,8 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     override val autoPlayEnabled: String?
-        get() {
-            val selectQuery =
-                "SELECT $KEY_AUTO_PLAY FROM $TABLE_PREFERENCES WHERE $KEY_ID = '1'"
-            try {
-                readableDatabase.query(selectQuery).use { cursor ->
-                    if (cursor.moveToFirst()) {
-                        return decrypt(cursor.getString(0))
-                    }
-                }
-            } catch (e: Exception) {
-                Timber.e(e, "Exception opening or managing DB cursor")
-            }
-            return "false"
+        get() = getPreferenceValues().let { values ->
+            if (values.isEmpty()) "false" else values[KEY_AUTO_PLAY]
         }
     override var sdCardUri: String?
         get() = getStringValue(TABLE_PREFERENCES, KEY_SD_CARD_URI, "")
@@ -3024,42 +2452,12 @@ class SqliteDatabaseHandler @Inject constructor(
 
     override fun setAutoPlayEnabled(enabled: String) {
         Timber.d("setAutoPlayEnabled")
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_AUTO_PLAY='${encrypt(enabled)}' WHERE $KEY_ID ='1'"
-                    writableDatabase.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_AUTO_PLAY, encrypt(enabled))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_AUTO_PLAY, enabled)
     }
 
     override fun setShowInviteBanner(show: String) {
         Timber.d("setCloseInviteBanner")
-        val selectQuery = "SELECT * FROM $TABLE_PREFERENCES"
-        val values = ContentValues()
-        try {
-            readableDatabase.query(selectQuery).use { cursor ->
-                if (cursor.moveToFirst()) {
-                    val UPDATE_ATTRIBUTES_TABLE =
-                        "UPDATE $TABLE_PREFERENCES SET $KEY_SHOW_INVITE_BANNER='${encrypt(show)}' WHERE $KEY_ID ='1'"
-                    writableDatabase.execSQL(UPDATE_ATTRIBUTES_TABLE)
-                } else {
-                    values.put(KEY_SHOW_INVITE_BANNER, encrypt(show))
-                    writableDatabase.insert(TABLE_PREFERENCES, SQLiteDatabase.CONFLICT_NONE, values)
-                }
-            }
-        } catch (e: Exception) {
-            Timber.e(e, "Exception opening or managing DB cursor")
-        }
+        setStringValue(TABLE_PREFERENCES, KEY_SHOW_INVITE_BANNER, show)
     }
 
     override suspend fun getOfflineInformation(handle: Long): OfflineInformation? {
@@ -3104,6 +2502,24 @@ class SqliteDatabaseHandler @Inject constructor(
         values.put(KEY_OFF_INCOMING, offlineInformation.origin)
         values.put(KEY_OFF_HANDLE_INCOMING, encrypt(offlineInformation.handleIncoming))
         return writableDatabase.insert(TABLE_OFFLINE, SQLiteDatabase.CONFLICT_NONE, values)
+            .also { id ->
+                if (id != -1L) {
+                    offlineSearchIndex.add(
+                        with(offlineInformation) {
+                            MegaOffline(
+                                id.toInt(),
+                                handle,
+                                path,
+                                name,
+                                parentId,
+                                type,
+                                origin,
+                                handleIncoming
+                            )
+                        }
+                    )
+                }
+            }
     }
 
     override suspend fun getOfflineInformationList(
@@ -3162,7 +2578,10 @@ class SqliteDatabaseHandler @Inject constructor(
     }
 
     /**
-     * Search [OfflineInformation] by query
+     * Search [OfflineInformation] by query in the whole subtree of a path
+     *
+     * The nodes are matched in memory by [OfflineSearchIndex] and only the matching ones are
+     * checked on disk.
      *
      * @param path
      * @param searchQuery
@@ -3172,54 +2591,52 @@ class SqliteDatabaseHandler @Inject constructor(
         path: String,
         searchQuery: String,
     ): List<OfflineInformation> {
-        val offlineInformationList = mutableListOf<OfflineInformation>()
-        val nodes = findByPath(path)
-        for (node in nodes) {
-            if (node.isFolder) {
-                offlineInformationList.addAll(
-                    searchOfflineInformationByQuery(
-                        getChildPath(node),
-                        searchQuery
-                    )
+        val context = MegaApplication.getInstance()
+        return offlineSearchIndex.search(path, searchQuery)
+            .filter { FileUtil.isFileAvailable(OfflineUtils.getOfflineFile(context, it)) }
+            .map { node ->
+                OfflineInformation(
+                    node.id,
+                    node.handle,
+                    node.path,
+                    node.name,
+                    node.parentId,
+                    node.type,
+                    node.origin,
+                    node.handleIncoming
                 )
             }
+    }
 
-            if (node.name.lowercase(Locale.ROOT).contains(searchQuery.lowercase(Locale.ROOT)) &&
-                FileUtil.isFileAvailable(
-                    OfflineUtils.getOfflineFile(
-                        MegaApplication.getInstance(),
-                        node
-                    )
-                )
-            ) {
-                offlineInformationList.add(
-                    OfflineInformation(
-                        node.id,
-                        node.handle,
-                        node.path,
-                        node.name,
-                        node.parentId,
-                        node.type,
-                        node.origin,
-                        node.handleIncoming
-                    )
-                )
+    /**
+     * Loads all the offline nodes for [OfflineSearchIndex]
+     *
+     * @return list of [MegaOffline], or null if the offline table cannot be read
+     */
+    private fun loadOfflineNodes(): List<MegaOffline>? {
+        try {
+            readableDatabase.query("SELECT * FROM $TABLE_OFFLINE").use { cursor ->
+                val nodes = ArrayList<MegaOffline>(cursor.count)
+                while (cursor.moveToNext()) {
+                    nodes.add(cursor.toMegaOffline())
+                }
+                return nodes
             }
+        } catch (e: Exception) {
+            Timber.e(e, "Exception opening or managing DB cursor")
         }
-        return offlineInformationList
+        return null
     }
 
+    private fun encrypt(original: String?): String? = aesFieldCipher.encrypt(original)
+
+    private fun decrypt(encodedString: String?): String? = aesFieldCipher.decrypt(encodedString)
+
     /**
-     * Get  path of the node
-     * @param offline : [MegaOffline]
+     * Decrypt all the fields of a row at once
      */
-    private fun getChildPath(offline: MegaOffline): String {
-        return if (offline.path.endsWith(File.separator)) {
-            offline.path + offline.name + File.separator
-        } else {
-            offline.path + File.separator + offline.name + File.separator
-        }
-    }
+    private fun decryptAll(encodedStrings: List<String?>): List<String?> =
+        aesFieldCipher.decryptAll(encodedStrings)
 
     /**
      * Get the index of a column in a cursor.
@@ -3416,37 +2833,5 @@ class SqliteDatabaseHandler @Inject constructor(
                     "$KEY_SD_TRANSFERS_PATH TEXT, " +                     // 5
                     "$KEY_SD_TRANSFERS_APP_DATA TEXT)"                    // 6
         const val OLD_VIDEO_QUALITY_ORIGINAL = 0
-
-        fun encrypt(original: String?): String? =
-            original?.let {
-                try {
-                    val encrypted = Util.aes_encrypt(aesKey, it.toByteArray())
-                    Base64.encodeToString(encrypted, Base64.DEFAULT)
-                } catch (e: Exception) {
-                    Timber.e(e, "Error encrypting DB field")
-                    e.printStackTrace()
-                    null
-                }
-            }
-
-        private val aesKey: ByteArray
-            get() {
-                val key = Settings.Secure.ANDROID_ID + "fkvn8 w4y*(NC\$G*(G($*GR*(#)*huio4h389\$G"
-                return key.toByteArray().copyOfRange(0, 32)
-            }
-
-        fun decrypt(encodedString: String?): String? =
-            encodedString?.let {
-                try {
-                    val encoded = Base64.decode(encodedString, Base64.DEFAULT)
-                    val original = Util.aes_decrypt(aesKey, encoded)
-                    String(original)
-                } catch (e: Exception) {
-                    Timber.e(e, "Error decrypting DB field")
-                    e.printStackTrace()
-                    null
-                }
-            }
-
     }
 }
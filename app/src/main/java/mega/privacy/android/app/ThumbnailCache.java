@@ -1,33 +1,36 @@
 package mega.privacy.android.app;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import android.graphics.Bitmap;
-import androidx.collection.LruCache;
 
 /*
  * LRU thumbnails cache to display in list
  */
 public class ThumbnailCache {
-	
-	List<Long>nulls;
-	LruThumbnailCache cache;
-	LruThumbnailCachePath cachePath;
+
+	/*
+	 * Fractions of the app memory used by the handle and path caches
+	 *
+	 * A thumbnail is at most 200x200 ARGB pixels, 160 KB. With a 256 MB heap, 1/32 keeps about
+	 * 50 thumbnails, close to the 70 entries kept before. Together with the path caches and the
+	 * previews, the bitmap caches use at most 1/8 of the heap.
+	 */
+	private static final int HANDLE_CACHE_MEMORY_DIVISOR = 32;
+	private static final int PATH_CACHE_MEMORY_DIVISOR = 64;
+
+	BitmapMemoryCache<Long> cache;
+	BitmapMemoryCache<String> cachePath;
 	
 	public ThumbnailCache() {
-		cache = new LruThumbnailCache(70);
-		cachePath = new LruThumbnailCachePath(70);
-		nulls = new ArrayList<Long>();
+		cache = new BitmapMemoryCache<>(BitmapMemoryCache.maxBytesFraction(HANDLE_CACHE_MEMORY_DIVISOR));
+		cachePath = new BitmapMemoryCache<>(BitmapMemoryCache.maxBytesFraction(PATH_CACHE_MEMORY_DIVISOR));
 	}
 	
 	public ThumbnailCache(int value){
 		if (value == 0){
-			cache = new LruThumbnailCache(70);
-			nulls = new ArrayList<Long>();
+			cache = new BitmapMemoryCache<>(BitmapMemoryCache.maxBytesFraction(HANDLE_CACHE_MEMORY_DIVISOR));
 		}
 		else{
-			cachePath = new LruThumbnailCachePath(70);
+			cachePath = new BitmapMemoryCache<>(BitmapMemoryCache.maxBytesFraction(PATH_CACHE_MEMORY_DIVISOR));
 		}
 	}
 	
@@ -35,22 +38,19 @@ public class ThumbnailCache {
 	 * Put new item into cache
 	 */
 	public void put(Long key, Bitmap value) {
-		if (value == null) {
-			nulls.add(key);
-		} else {
-			cache.put(key, value);
-		}
+		cache.put(key, value);
 	}
 	
 	public void put(String key, Bitmap value){
-		cachePath.put(key, value);
+		if (value != null) {
+			cachePath.put(key, value);
+		}
 	}
 	
 	/*
 	 * Remove item from the cache
 	 */
 	public void remove(Long key) {
-		nulls.remove(key);
 		cache.remove(key);
 	}
 	
@@ -73,47 +73,17 @@ public class ThumbnailCache {
 	 * Check is cache contains key
 	 */
 	public boolean containsKey(Long key) {
-		if (cache.get(key) != null) {
-			return true;
-		}
-		if (nulls.contains(key)) {
-			return true;
-		}
-		return false;
+		return cache.containsKey(key);
 	}
 	
 	public boolean containsKey(String key){
-		if (cachePath.get(key) != null){
-			return true;
-		}
-		return false;
+		return cachePath.get(key) != null;
 	}
-	
-	private static class LruThumbnailCache extends LruCache<Long, Bitmap> {
 
-		public LruThumbnailCache(int maxSize) {
-			super(maxSize);
-		}
-	
-		protected void entryRemoved (boolean evicted, String key, Bitmap oldValue, Bitmap newValue)
-		{
-			try {
-				oldValue.recycle();
-			}catch(Exception e) {}
-		}
-	}
-	
-	private static class LruThumbnailCachePath extends LruCache<String, Bitmap> {
-
-		public LruThumbnailCachePath(int maxSize) {
-			super(maxSize);
-		}
-	
-		protected void entryRemoved (boolean evicted, String key, Bitmap oldValue, Bitmap newValue)
-		{
-			try {
-				oldValue.recycle();
-			}catch(Exception e) {}
-		}
+	/*
+	 * Get the metrics of the handle cache
+	 */
+	public BitmapMemoryCache.Metrics getMetrics() {
+		return cache.getMetrics();
 	}
 }
@@ -0,0 +1,99 @@
+package mega.privacy.android.app.cameraupload
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * A stage of the Camera Uploads pipeline
+ *
+ * Items sent to the stage are queued in a bounded channel of [capacity] items, so a fast
+ * producer is suspended instead of filling the memory, and are processed by [concurrency]
+ * workers at the same time.
+ *
+ * @property name the name of the stage, used for logging
+ * @param capacity the maximum number of queued items
+ * @param concurrency the maximum number of items processed at the same time
+ */
+class CameraUploadsPipelineStage<T>(
+    val name: String,
+    capacity: Int,
+    private val concurrency: Int,
+) {
+    private val channel = Channel<T>(capacity)
+
+    private val queued = AtomicInteger(0)
+    private val inProgress = AtomicInteger(0)
+    private val processed = AtomicInteger(0)
+    private val maxQueueDepth = AtomicInteger(0)
+
+    /**
+     * Send an item to the stage, suspending while the queue is full
+     */
+    suspend fun send(item: T) {
+        val depth = queued.incrementAndGet()
+        maxQueueDepth.accumulateAndGet(depth, ::maxOf)
+        channel.send(item)
+    }
+
+    /**
+     * Signal that no more items will be sent, the workers finish once the queue is drained
+     */
+    fun close() {
+        channel.close()
+    }
+
+    /**
+     * Launch the workers of the stage
+     *
+     * @param process the action to execute for each item
+     * @return the [Job] that completes when the stage is closed and all the items are processed
+     */
+    fun launchIn(scope: CoroutineScope, process: suspend (T) -> Unit): Job = scope.launch {
+        repeat(concurrency) {
+            launch {
+                for (item in channel) {
+                    queued.decrementAndGet()
+                    inProgress.incrementAndGet()
+                    try {
+                        process(item)
+                    } finally {
+                        inProgress.decrementAndGet()
+                        processed.incrementAndGet()
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Current metrics of the stage
+     */
+    val metrics: Metrics
+        get() = Metrics(
+            name = name,
+            queueDepth = queued.get(),
+            maxQueueDepth = maxQueueDepth.get(),
+            inProgress = inProgress.get(),
+            processed = processed.get(),
+        )
+
+    /**
+     * Metrics of a pipeline stage
+     *
+     * @property name the name of the stage
+     * @property queueDepth the number of items waiting to be processed
+     * @property maxQueueDepth the highest number of items that waited at the same time
+     * @property inProgress the number of items being processed
+     * @property processed the number of items already processed
+     */
+    data class Metrics(
+        val name: String,
+        val queueDepth: Int,
+        val maxQueueDepth: Int,
+        val inProgress: Int,
+        val processed: Int,
+    )
+}
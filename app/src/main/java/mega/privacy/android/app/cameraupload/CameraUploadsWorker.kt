@@ -23,10 +23,8 @@ import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.retryWhen
 import kotlinx.coroutines.flow.update
-import kotlinx.coroutines.joinAll
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.R
@@ -241,12 +239,13 @@ class CameraUploadsWorker @AssistedInject constructor(
         private const val LOW_BATTERY_LEVEL = 20
         private const val ON_TRANSFER_UPDATE_REFRESH_MILLIS = 1000
         private const val CONCURRENT_UPLOADS_LIMIT = 16
+        private const val CONCURRENT_TEMPORARY_FILES_LIMIT = 4
+        private const val UPLOAD_QUEUE_CAPACITY = 32
+        private const val TEMPORARY_FILE_QUEUE_CAPACITY = 16
 
         private const val PerfUploadFilesTrace = "camera_uploads_upload_files"
         private const val PerfScanFilesTrace = "camera_uploads_scan_files"
         private const val PerfCompressVideosTrace = "camera_uploads_compress_videos"
-        private const val PerfUploadCompressedVideosTrace =
-            "camera_uploads_upload_compressed_videos"
         private const val APP_DATA_CU = "CU_UPLOAD"
         private const val INVALID_NON_NULL_VALUE = "-1"
     }
@@ -338,12 +337,6 @@ class CameraUploadsWorker @AssistedInject constructor(
      */
     private var areUploadsPaused: Boolean = false
 
-    /**
-     * In order to not overload the memory of the app,
-     * limit the number of concurrent uploads to [CONCURRENT_UPLOADS_LIMIT]
-     */
-    private val semaphore = Semaphore(CONCURRENT_UPLOADS_LIMIT)
-
     /**
      * Flag to check if performance benchmark is enabled
      */
@@ -367,8 +360,6 @@ class CameraUploadsWorker @AssistedInject constructor(
 
                     tracePerformance(PerfScanFilesTrace) { checkUploadNodes() }
                     tracePerformance(PerfUploadFilesTrace) { upload() }
-                    tracePerformance(PerfCompressVideosTrace) { compressVideos() }
-                    tracePerformance(PerfUploadCompressedVideosTrace) { uploadCompressedVideos() }
 
                     endService()
                     Result.success()
@@ -386,7 +377,6 @@ class CameraUploadsWorker @AssistedInject constructor(
                     PerfScanFilesTrace,
                     PerfUploadFilesTrace,
                     PerfCompressVideosTrace,
-                    PerfUploadCompressedVideosTrace
                 )
             )
             Result.failure()
@@ -696,90 +686,122 @@ class CameraUploadsWorker @AssistedInject constructor(
         )
     }
 
-    private suspend fun upload() {
+    /**
+     * Upload the pending records and compress the videos at the same time
+     *
+     * Records flow through bounded pipeline stages: the temporary file stage removes the GPS
+     * coordinates of the photos and the upload stage uploads or copies the records.
+     * Videos are compressed in parallel and each one is sent to the upload stage as soon as
+     * its compression finishes.
+     */
+    private suspend fun upload() = coroutineScope {
         val finalList = getPendingSyncRecords().also {
             Timber.d("Total File to upload ${it.size}")
         }
+        areUploadsPaused = areTransfersPausedUseCase()
         startHeartbeat()
-        if (finalList.isNotEmpty()) {
-            startParallelUpload(finalList, isCompressedVideo = false)
+
+        val primaryUploadNodeId =
+            getNodeByIdUseCase(NodeId(getUploadFolderHandleUseCase(CameraUploadFolderType.Primary)))?.id
+        val secondaryUploadNodeId =
+            getNodeByIdUseCase(NodeId(getUploadFolderHandleUseCase(CameraUploadFolderType.Secondary)))?.id
+
+        // In order to not overload the memory of the app,
+        // limit the number of concurrent uploads to [CONCURRENT_UPLOADS_LIMIT]
+        val uploadStage = CameraUploadsPipelineStage<Pair<SyncRecord, Boolean>>(
+            name = "upload",
+            capacity = UPLOAD_QUEUE_CAPACITY,
+            concurrency = CONCURRENT_UPLOADS_LIMIT,
+        )
+        val temporaryFileStage = CameraUploadsPipelineStage<SyncRecord>(
+            name = "temporary file",
+            capacity = TEMPORARY_FILE_QUEUE_CAPACITY,
+            concurrency = CONCURRENT_TEMPORARY_FILES_LIMIT,
+        )
+
+        val uploadJob = uploadStage.launchIn(this) { (record, isCompressedVideo) ->
+            val parentNodeId =
+                (if (record.isSecondary) secondaryUploadNodeId else primaryUploadNodeId)
+                    ?: return@launchIn
+            uploadRecord(record, parentNodeId, isCompressedVideo)
+        }
+        val temporaryFileJob = temporaryFileStage.launchIn(this) { record ->
+            val shouldBeSkipped = createTemporaryFileIfNeeded(record)
+            if (!shouldBeSkipped) uploadStage.send(record to false)
+        }
+        val compressionJob = launch {
+            tracePerformance(PerfCompressVideosTrace) {
+                compressVideos { record -> uploadStage.send(record to true) }
+            }
         }
-    }
 
-    private suspend fun compressVideos() {
-        if (compressedVideoPending()) {
-            startVideoCompression()
+        for (record in finalList) {
+            val parentNodeId =
+                if (record.isSecondary) secondaryUploadNodeId else primaryUploadNodeId
+            if (parentNodeId == null) continue
+            if (record.isCopyOnly) {
+                updateToUploadCount(record)
+                uploadStage.send(record to false)
+            } else {
+                temporaryFileStage.send(record)
+            }
         }
+        temporaryFileStage.close()
+        temporaryFileJob.join()
+        compressionJob.join()
+        uploadStage.close()
+        uploadJob.join()
+
+        Timber.d("Camera Uploads pipeline: ${temporaryFileStage.metrics} ${uploadStage.metrics}")
     }
 
-    private suspend fun uploadCompressedVideos() {
-        val compressedList = getVideoSyncRecordsByStatus(SyncStatus.STATUS_PENDING)
-        if (compressedList.isNotEmpty()) {
-            Timber.d("Start to upload ${compressedList.size} compressed videos.")
-            startParallelUpload(compressedList, isCompressedVideo = true)
+    /**
+     * Compress the videos waiting for compression
+     *
+     * @param onReadyToUpload invoked for each video that can be uploaded, either because it has
+     * been compressed or because it can not be compressed and the original file is uploaded
+     */
+    private suspend fun compressVideos(onReadyToUpload: suspend (SyncRecord) -> Unit) {
+        if (compressedVideoPending()) {
+            startVideoCompression(onReadyToUpload)
         }
     }
 
-    private suspend fun startParallelUpload(
-        finalList: List<SyncRecord>,
+    /**
+     * Upload or copy a single record
+     */
+    private suspend fun uploadRecord(
+        record: SyncRecord,
+        parentNodeId: NodeId,
         isCompressedVideo: Boolean,
-    ) = coroutineScope {
-        areUploadsPaused = areTransfersPausedUseCase()
-
-        val primaryUploadNode =
-            getNodeByIdUseCase(NodeId(getUploadFolderHandleUseCase(CameraUploadFolderType.Primary)))
-        val secondaryUploadNode =
-            getNodeByIdUseCase(NodeId(getUploadFolderHandleUseCase(CameraUploadFolderType.Secondary)))
-
-        val uploadFileAsyncList = mutableListOf<Job>()
-        for (record in finalList) {
-            val parentNodeId =
-                (if (record.isSecondary) secondaryUploadNode?.id else primaryUploadNode?.id)
-                    ?: continue
-            val shouldBeSkipped = createTemporaryFileIfNeeded(record)
-            if (shouldBeSkipped) continue
-            if (record.isCopyOnly) {
+    ) {
+        if (record.isCopyOnly) {
+            Timber.d("Copy from node, file timestamp is: ${record.timestamp}")
+            updateToUploadCount(record)
+            copyNode(
+                record = record,
+                parentNodeId = parentNodeId,
+            )
+        } else {
+            getFileToUpload(record, isCompressedVideo)?.let {
                 updateToUploadCount(record)
-                uploadFileAsyncList.add(launch {
-                    semaphore.acquire()
-                    Timber.d("Copy from node, file timestamp is: ${record.timestamp}")
-                    updateToUploadCount(record)
-                    copyNode(
-                        record = record,
-                        parentNodeId = parentNodeId,
-                    )
-                    semaphore.release()
-                })
-            } else {
-                uploadFileAsyncList.add(launch {
-                    semaphore.acquire()
-                    getFileToUpload(record, isCompressedVideo)?.let {
-                        updateToUploadCount(record)
-                        val lastModified = getLastModifiedTime(record)
-                        startUploadUseCase(
-                            localPath = it.path,
-                            parentNodeId = parentNodeId,
-                            fileName = record.fileName,
-                            modificationTime = lastModified / 1000,
-                            appData = APP_DATA_CU,
-                            isSourceTemporary = false,
-                            shouldStartFirst = false,
-                        ).collect { globalTransfer ->
-                            onGlobalTransferUpdated(globalTransfer, record)
-
-                            if (globalTransfer is TransferEvent.TransferFinishEvent) {
-                                semaphore.release()
-                            }
-                        }
-                    } ?: run {
-                        Timber.d("Local file is unavailable, delete record from database.")
-                        deleteSyncRecord(record.localPath, record.isSecondary)
-                        semaphore.release()
-                    }
-                })
+                val lastModified = getLastModifiedTime(record)
+                startUploadUseCase(
+                    localPath = it.path,
+                    parentNodeId = parentNodeId,
+                    fileName = record.fileName,
+                    modificationTime = lastModified / 1000,
+                    appData = APP_DATA_CU,
+                    isSourceTemporary = false,
+                    shouldStartFirst = false,
+                ).collect { globalTransfer ->
+                    onGlobalTransferUpdated(globalTransfer, record)
+                }
+            } ?: run {
+                Timber.d("Local file is unavailable, delete record from database.")
+                deleteSyncRecord(record.localPath, record.isSecondary)
             }
         }
-        uploadFileAsyncList.joinAll()
     }
 
     private suspend fun getFileToUpload(record: SyncRecord, isCompressedVideo: Boolean): File? {
@@ -1367,11 +1389,11 @@ class CameraUploadsWorker @AssistedInject constructor(
         broadcastCameraUploadProgress(progress, pending)
     }
 
-    private suspend fun startVideoCompression() = coroutineScope {
+    private suspend fun startVideoCompression(
+        onReadyToUpload: suspend (SyncRecord) -> Unit,
+    ) = coroutineScope {
         val fullList = getVideoSyncRecordsByStatus(SyncStatus.STATUS_TO_COMPRESS)
         if (fullList.isNotEmpty()) {
-            resetTotalUploadsUseCase()
-            resetUploadsCounts()
             totalVideoSize = getTotalVideoSizeInMB(fullList)
             Timber.d("Total videos count are ${fullList.size}, $totalVideoSize MB to Conversion")
             if (shouldStartVideoCompression(totalVideoSize)) {
@@ -1384,7 +1406,8 @@ class CameraUploadsWorker @AssistedInject constructor(
                         .collect {
                             when (it) {
                                 is VideoCompressionState.Failed -> {
-                                    onCompressFailed(fullList.first { record -> record.id == it.id })
+                                    val record = fullList.first { record -> record.id == it.id }
+                                    if (onCompressFailed(record)) onReadyToUpload(record)
                                 }
 
                                 VideoCompressionState.Finished -> {
@@ -1412,7 +1435,9 @@ class CameraUploadsWorker @AssistedInject constructor(
                                 }
 
                                 is VideoCompressionState.Successful -> {
-                                    onCompressSuccessful(fullList.first { record -> record.id == it.id })
+                                    val record = fullList.first { record -> record.id == it.id }
+                                    onCompressSuccessful(record)
+                                    onReadyToUpload(record)
                                 }
                             }
                         }
@@ -1468,12 +1493,13 @@ class CameraUploadsWorker @AssistedInject constructor(
 
     /**
      * Compression failed
+     *
+     * @return true if the original file is still available and can be uploaded
      */
-    private suspend fun onCompressFailed(record: SyncRecord) {
+    private suspend fun onCompressFailed(record: SyncRecord) =
         setRecordPendingOrRemove(record)
-    }
 
-    private suspend fun setRecordPendingOrRemove(record: SyncRecord) {
+    private suspend fun setRecordPendingOrRemove(record: SyncRecord): Boolean {
         val localPath = record.localPath
         val isSecondary = record.isSecondary
         Timber.w("Compression failed for file with timestamp: ${record.timestamp}")
@@ -1488,6 +1514,7 @@ class CameraUploadsWorker @AssistedInject constructor(
                     }
                 }
                 // record will remain in DB and will be re-compressed next launch
+                return true
             } catch (ex: Exception) {
                 Timber.e(ex)
             }
@@ -1495,6 +1522,7 @@ class CameraUploadsWorker @AssistedInject constructor(
             Timber.w("Compressed video not exists, remove from DB")
             deleteSyncRecordByLocalPath(localPath, isSecondary)
         }
+        return false
     }
 
     private suspend fun displayUploadProgress() {
@@ -0,0 +1,117 @@
+package mega.privacy.android.app.fetcher
+
+import androidx.compose.foundation.lazy.LazyListState
+import androidx.compose.foundation.lazy.grid.LazyGridState
+import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
+import kotlinx.coroutines.flow.distinctUntilChanged
+
+/**
+ * Prefetch the thumbnails of the visible and upcoming items of a lazy list
+ *
+ * Compose counterpart of [ThumbnailPrefetchScrollListener]. The prefetches are cancelled when
+ * the list leaves the composition.
+ *
+ * @param prefetcher [ThumbnailPrefetcher]
+ * @param state      state of the list
+ * @param itemAt     gets the item of a list index, called on the main thread
+ * @param handleOf   gets the node handle of an item, or null if it has no thumbnail, called
+ *                   on a background thread
+ */
+@Composable
+fun <T> ThumbnailPrefetchEffect(
+    prefetcher: ThumbnailPrefetcher,
+    state: LazyListState,
+    itemAt: (Int) -> T?,
+    handleOf: (T) -> Long?,
+) = ThumbnailPrefetchEffect(
+    prefetcher = prefetcher,
+    state = state,
+    visibleItems = {
+        val layoutInfo = state.layoutInfo
+        VisibleItems(
+            range = layoutInfo.visibleItemsInfo.let { items ->
+                if (items.isEmpty()) IntRange.EMPTY else items.first().index..items.last().index
+            },
+            itemCount = layoutInfo.totalItemsCount,
+        )
+    },
+    itemAt = itemAt,
+    handleOf = handleOf,
+)
+
+/**
+ * Prefetch the thumbnails of the visible and upcoming items of a lazy grid
+ *
+ * Compose counterpart of [ThumbnailPrefetchScrollListener]. The prefetches are cancelled when
+ * the grid leaves the composition.
+ *
+ * @param prefetcher [ThumbnailPrefetcher]
+ * @param state      state of the grid
+ * @param itemAt     gets the item of a grid index, called on the main thread
+ * @param handleOf   gets the node handle of an item, or null if it has no thumbnail, called
+ *                   on a background thread
+ */
+@Composable
+fun <T> ThumbnailPrefetchEffect(
+    prefetcher: ThumbnailPrefetcher,
+    state: LazyGridState,
+    itemAt: (Int) -> T?,
+    handleOf: (T) -> Long?,
+) = ThumbnailPrefetchEffect(
+    prefetcher = prefetcher,
+    state = state,
+    visibleItems = {
+        val layoutInfo = state.layoutInfo
+        VisibleItems(
+            range = layoutInfo.visibleItemsInfo.let { items ->
+                if (items.isEmpty()) IntRange.EMPTY else items.first().index..items.last().index
+            },
+            itemCount = layoutInfo.totalItemsCount,
+        )
+    },
+    itemAt = itemAt,
+    handleOf = handleOf,
+)
+
+private data class VisibleItems(val range: IntRange, val itemCount: Int)
+
+@Composable
+private fun <T> ThumbnailPrefetchEffect(
+    prefetcher: ThumbnailPrefetcher,
+    state: Any,
+    visibleItems: () -> VisibleItems,
+    itemAt: (Int) -> T?,
+    handleOf: (T) -> Long?,
+) {
+    val currentItemAt by rememberUpdatedState(itemAt)
+    val currentHandleOf by rememberUpdatedState(handleOf)
+
+    LaunchedEffect(prefetcher, state) {
+        var lastRange = IntRange.EMPTY
+        var scrollingForward = true
+        try {
+            snapshotFlow(visibleItems)
+                .distinctUntilChanged()
+                .collect { (range, itemCount) ->
+                    if (range.isEmpty()) return@collect
+                    if (!lastRange.isEmpty() && range.first != lastRange.first) {
+                        scrollingForward = range.first > lastRange.first
+                    }
+                    lastRange = range
+                    prefetcher.prefetch(
+                        visibleRange = range,
+                        itemCount = itemCount,
+                        scrollingForward = scrollingForward,
+                        itemAt = currentItemAt,
+                        handleOf = currentHandleOf,
+                    )
+                }
+        } finally {
+            prefetcher.cancel()
+        }
+    }
+}
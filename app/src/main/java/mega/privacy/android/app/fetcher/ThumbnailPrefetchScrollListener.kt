@@ -0,0 +1,47 @@
+package mega.privacy.android.app.fetcher
+
+import androidx.recyclerview.widget.LinearLayoutManager
+import androidx.recyclerview.widget.RecyclerView
+
+/**
+ * Scroll listener feeding the visible range of a [RecyclerView] to a [ThumbnailPrefetcher]
+ *
+ * Works with any [LinearLayoutManager], including grids.
+ *
+ * @property prefetcher [ThumbnailPrefetcher]
+ * @property itemAt     gets the item of an adapter position, called on the main thread
+ * @property handleOf   gets the node handle of an item, or null if it has no thumbnail, called
+ *                      on a background thread
+ */
+class ThumbnailPrefetchScrollListener<T>(
+    private val prefetcher: ThumbnailPrefetcher,
+    private val itemAt: (Int) -> T?,
+    private val handleOf: (T) -> Long?,
+) : RecyclerView.OnScrollListener() {
+
+    private var lastRange = IntRange.EMPTY
+    private var lastScrollingForward = true
+
+    override fun onScrolled(recyclerView: RecyclerView, dx: Int, dy: Int) {
+        super.onScrolled(recyclerView, dx, dy)
+        val layoutManager = recyclerView.layoutManager as? LinearLayoutManager ?: return
+        val first = layoutManager.findFirstVisibleItemPosition()
+        val last = layoutManager.findLastVisibleItemPosition()
+        if (first == RecyclerView.NO_POSITION || last == RecyclerView.NO_POSITION) return
+
+        val delta = if (layoutManager.orientation == RecyclerView.VERTICAL) dy else dx
+        val scrollingForward = if (delta == 0) lastScrollingForward else delta > 0
+        val range = first..last
+        if (range == lastRange && scrollingForward == lastScrollingForward) return
+
+        lastRange = range
+        lastScrollingForward = scrollingForward
+        prefetcher.prefetch(
+            visibleRange = range,
+            itemCount = recyclerView.adapter?.itemCount ?: 0,
+            scrollingForward = scrollingForward,
+            itemAt = itemAt,
+            handleOf = handleOf,
+        )
+    }
+}
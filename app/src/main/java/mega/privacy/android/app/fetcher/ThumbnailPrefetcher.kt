@@ -0,0 +1,150 @@
+package mega.privacy.android.app.fetcher
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailsToDownloadUseCase
+import timber.log.Timber
+import javax.inject.Inject
+
+/**
+ * Prefetches the thumbnails of the visible and upcoming items of a list or grid
+ *
+ * Each call replaces the previous range: the nodes of the range are resolved in a single batch,
+ * the visible items are downloaded first and then the ones ahead in the scroll direction, with
+ * at most [MAX_DOWNLOADS] downloads at the same time. Downloads of items that are no longer in
+ * the range are cancelled.
+ *
+ * The downloads go through the same disk cache as the Coil [MegaThumbnailFetcher], so an image
+ * request for a thumbnail being prefetched joins the prefetch download instead of starting
+ * a new one.
+ *
+ * Every list gets its own instance, so cancelling the prefetches of a list does not affect the
+ * others.
+ */
+class ThumbnailPrefetcher @Inject constructor(
+    private val getThumbnailsToDownloadUseCase: GetThumbnailsToDownloadUseCase,
+    private val getThumbnailUseCase: GetThumbnailUseCase,
+    @ApplicationScope private val applicationScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+    private val lock = Any()
+    private var generation = 0L
+    private var resolveJob: Job? = null
+    private val pending = ArrayDeque<Long>()
+    private val downloads = HashMap<Long, Job>()
+
+    /**
+     * Prefetch the thumbnails of a range of items
+     *
+     * @param visibleRange     positions of the visible items
+     * @param itemCount        number of items of the list
+     * @param scrollingForward true if the list is scrolling towards the end
+     * @param itemAt           gets the item of a position, called on the caller thread
+     * @param handleOf         gets the node handle of an item, or null if it has no thumbnail,
+     *                         called on the IO dispatcher as it may query the SDK
+     */
+    fun <T> prefetch(
+        visibleRange: IntRange,
+        itemCount: Int,
+        scrollingForward: Boolean,
+        itemAt: (Int) -> T?,
+        handleOf: (T) -> Long?,
+    ) {
+        val items = getPrefetchPositions(visibleRange, itemCount, scrollingForward)
+            .mapNotNull(itemAt)
+
+        synchronized(lock) {
+            val prefetchGeneration = ++generation
+            pending.clear()
+            resolveJob?.cancel()
+            resolveJob = applicationScope.launch(ioDispatcher) {
+                val handles = items.mapNotNull(handleOf).distinct()
+                val toDownload = runCatching { getThumbnailsToDownloadUseCase(handles) }
+                    .onFailure { Timber.w(it, "Unable to resolve the thumbnails to prefetch") }
+                    .getOrDefault(emptyList())
+                synchronized(lock) {
+                    if (generation != prefetchGeneration) return@launch
+                    val wantedHandles = handles.toSet()
+                    downloads.entries.removeAll { (handle, job) ->
+                        (handle !in wantedHandles).also { if (it) job.cancel() }
+                    }
+                    pending.addAll(toDownload.filterNot { it in downloads })
+                    startDownloads()
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancel all the pending and running prefetches
+     */
+    fun cancel() = synchronized(lock) {
+        generation++
+        pending.clear()
+        resolveJob?.cancel()
+        resolveJob = null
+        downloads.values.forEach { it.cancel() }
+        downloads.clear()
+    }
+
+    /**
+     * Start the pending downloads in priority order, must be called holding [lock]
+     */
+    private fun startDownloads() {
+        while (downloads.size < MAX_DOWNLOADS) {
+            val handle = pending.removeFirstOrNull() ?: return
+            val job = applicationScope.launch(start = CoroutineStart.LAZY) {
+                getThumbnailUseCase(handle)
+                synchronized(lock) {
+                    if (downloads[handle] == coroutineContext[Job]) downloads.remove(handle)
+                    startDownloads()
+                }
+            }
+            downloads[handle] = job
+            job.start()
+        }
+    }
+
+    companion object {
+        /**
+         * Maximum number of thumbnails downloaded at the same time
+         */
+        const val MAX_DOWNLOADS = 6
+
+        /**
+         * Number of screens prefetched ahead of the visible items
+         */
+        const val LOOKAHEAD_SCREENS = 2
+
+        /**
+         * Get the positions to prefetch in priority order: the visible ones first and then the
+         * ones ahead in the scroll direction
+         *
+         * @param visibleRange     positions of the visible items
+         * @param itemCount        number of items of the list
+         * @param scrollingForward true if the list is scrolling towards the end
+         */
+        fun getPrefetchPositions(
+            visibleRange: IntRange,
+            itemCount: Int,
+            scrollingForward: Boolean,
+        ): List<Int> {
+            if (itemCount <= 0 || visibleRange.isEmpty()) return emptyList()
+            val first = visibleRange.first.coerceIn(0, itemCount - 1)
+            val last = visibleRange.last.coerceIn(first, itemCount - 1)
+            val lookahead = (last - first + 1) * LOOKAHEAD_SCREENS
+            val ahead = if (scrollingForward) {
+                (last + 1..(last + lookahead).coerceAtMost(itemCount - 1))
+            } else {
+                ((first - 1) downTo (first - lookahead).coerceAtLeast(0))
+            }
+            return (first..last) + ahead
+        }
+    }
+}
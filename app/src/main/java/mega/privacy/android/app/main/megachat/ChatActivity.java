@@ -301,6 +301,7 @@ import javax.inject.Inject;
 
 import dagger.hilt.android.AndroidEntryPoint;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
 import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
@@ -480,7 +481,6 @@ public class ChatActivity extends PasscodeActivity
     private static final String ERROR_REACTION_DIALOG = "ERROR_REACTION_DIALOG";
     private static final String TYPE_ERROR_REACTION = "TYPE_ERROR_REACTION";
     private static final String NUM_MSGS_RECEIVED_AND_UNREAD = "NUM_MSGS_RECEIVED_AND_UNREAD";
-    private final static int NUMBER_MESSAGES_TO_LOAD = 32;
     private final static int MAX_NUMBER_MESSAGES_TO_LOAD_NOT_SEEN = 256;
     private final static int NUMBER_MESSAGES_BEFORE_LOAD = 8;
     public static final int REPEAT_INTERVAL = 40;
@@ -585,6 +585,8 @@ public class ChatActivity extends PasscodeActivity
     private boolean isLoadingHistory;
     private AlertDialog errorOpenChatDialog;
     private long numberToLoad;
+    private int historyBatchSize;
+    private final ChatHistoryLoader historyLoader = new ChatHistoryLoader();
     private ArrayList<Integer> recoveredSelectedPositions = null;
 
     private AlertDialog chatAlertDialog;
@@ -748,9 +750,9 @@ public class ChatActivity extends PasscodeActivity
     MegaChatAdapter adapter;
     int stateHistory;
 
-    private ArrayList<AndroidMegaChatMessage> messages = new ArrayList<>();
-    private ArrayList<AndroidMegaChatMessage> bufferMessages = new ArrayList<>();
-    private ArrayList<AndroidMegaChatMessage> bufferSending = new ArrayList<>();
+    private ChatMessageList messages = new ChatMessageList();
+    private ChatMessageList bufferMessages = new ChatMessageList();
+    private ChatMessageList bufferSending = new ChatMessageList();
     private ArrayList<MessageVoiceClip> messagesPlaying = new ArrayList<>();
     private ArrayList<RemovedMessage> removedMessages = new ArrayList<>();
 
@@ -1308,7 +1310,7 @@ public class ChatActivity extends PasscodeActivity
             if (intent.getAction().equals(ACTION_UPDATE_NICKNAME)
                     || intent.getAction().equals(ACTION_UPDATE_FIRST_NAME)
                     || intent.getAction().equals(ACTION_UPDATE_LAST_NAME)) {
-                updateUserNameInChat();
+                updateUserNameInChat(intent.getLongExtra(EXTRA_USER_HANDLE, INVALID_HANDLE));
             }
         }
     };
@@ -1974,8 +1976,10 @@ public class ChatActivity extends PasscodeActivity
 
                 if (stateHistory != MegaChatApi.SOURCE_NONE) {
                     scrollingUp = dy > 0;
+                    int firstVisibleItemPosition = mLayoutManager.findFirstVisibleItemPosition();
+                    historyLoader.onScrolled(firstVisibleItemPosition);
 
-                    if (!scrollingUp && mLayoutManager.findFirstVisibleItemPosition() <= NUMBER_MESSAGES_BEFORE_LOAD && getMoreHistory) {
+                    if (!scrollingUp && historyLoader.shouldLoadMore(firstVisibleItemPosition) && getMoreHistory) {
                         askForMoreMessages();
                         positionToScroll = INVALID_VALUE;
                     }
@@ -2324,12 +2328,12 @@ public class ChatActivity extends PasscodeActivity
         }
     }
 
-    public void updateUserNameInChat() {
+    public void updateUserNameInChat(long userHandle) {
         if (chatRoom != null && chatRoom.isGroup()) {
             setChatSubtitle();
         }
         if (adapter != null) {
-            adapter.notifyDataSetChanged();
+            adapter.notifyUserNameChanged(userHandle);
         }
     }
 
@@ -6249,21 +6253,7 @@ public class ChatActivity extends PasscodeActivity
     public void setRichLinkInfo(long msgId, AndroidMegaRichLinkMessage richLinkMessage) {
         Timber.d("setRichLinkInfo");
 
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (!messageToCheck.isUploading()) {
-                if (messageToCheck.getMessage().getMsgId() == msgId) {
-                    indexToChange = itr.nextIndex();
-                    Timber.d("Found index to change: %s", indexToChange);
-                    break;
-                }
-            }
-        }
+        int indexToChange = messages.indexOfMsgId(msgId);
 
         if (indexToChange != -1) {
 
@@ -6287,21 +6277,7 @@ public class ChatActivity extends PasscodeActivity
     public void setRichLinkImage(long msgId) {
         Timber.d("setRichLinkImage");
 
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (!messageToCheck.isUploading()) {
-                if (messageToCheck.getMessage().getMsgId() == msgId) {
-                    indexToChange = itr.nextIndex();
-                    Timber.d("Found index to change: %s", indexToChange);
-                    break;
-                }
-            }
-        }
+        int indexToChange = messages.indexOfMsgId(msgId);
 
         if (indexToChange != -1) {
 
@@ -6341,8 +6317,27 @@ public class ChatActivity extends PasscodeActivity
         //Check if it is a MEGA link
         if (msg.getType() != MegaChatMessage.TYPE_NORMAL || msg.getContent() == null) return -1;
 
-        String link = extractMegaLink(msg.getContent());
+        return checkMegaLink(msg, extractMegaLink(msg.getContent()));
+    }
+
+    /**
+     * Checks if a loaded message contains a MEGA link, extracting the link in background
+     * so the content of the history messages is not parsed on the main thread.
+     *
+     * @param msg The loaded message.
+     */
+    private void checkMegaLinkInBackground(MegaChatMessage msg) {
+        if (msg.getType() != MegaChatMessage.TYPE_NORMAL || msg.getContent() == null) return;
+
+        String content = msg.getContent();
+        internalComposite.add(Maybe.fromCallable(() -> extractMegaLink(content))
+                .subscribeOn(Schedulers.computation())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(link -> checkMegaLink(msg, link),
+                        throwable -> Timber.e(throwable, "Error extracting the MEGA link")));
+    }
 
+    private int checkMegaLink(MegaChatMessage msg, String link) {
         if (Util.matchRegexs(link, Constants.CHAT_LINK_REGEXS)) {
             ChatLinkInfoListener listener = new ChatLinkInfoListener(this, msg.getMsgId(), megaApi);
             megaChatApi.checkChatLink(link, listener);
@@ -6412,7 +6407,7 @@ public class ChatActivity extends PasscodeActivity
                 return;
             }
 
-            checkMegaLink(msg);
+            checkMegaLinkInBackground(msg);
 
             if (msg.getType() == MegaChatMessage.TYPE_NODE_ATTACHMENT) {
                 Timber.d("TYPE_NODE_ATTACHMENT MESSAGE!!!!");
@@ -6539,12 +6534,12 @@ public class ChatActivity extends PasscodeActivity
             } else if (thereAreNotMoreMessages()) {
                 Timber.d("SOURCE_NONE: there are no more messages");
                 fullHistoryReceivedOnLoad();
-            } else if (bufferMessages.size() == NUMBER_MESSAGES_TO_LOAD) {
+            } else if (bufferMessages.size() == historyBatchSize) {
                 allMessagesRequestedAreLoaded();
             } else {
                 long pendingMessagesCount = numberToLoad - bufferMessages.size();
                 if (pendingMessagesCount > 0) {
-                    Timber.d("Fewer messages received (%d) than asked (%d): ask for the rest of messages (%d)", bufferMessages.size(), NUMBER_MESSAGES_TO_LOAD, pendingMessagesCount);
+                    Timber.d("Fewer messages received (%d) than asked (%d): ask for the rest of messages (%d)", bufferMessages.size(), historyBatchSize, pendingMessagesCount);
                     askForMoreMessages(pendingMessagesCount);
 
                     if (thereAreNotMoreMessages()) {
@@ -6574,10 +6569,11 @@ public class ChatActivity extends PasscodeActivity
     }
 
     /**
-     * Initiates fetching 32 messages more of the current ChatRoom.
+     * Initiates fetching messages more of the current ChatRoom, as many as the scroll speed needs.
      */
     private void askForMoreMessages() {
-        askForMoreMessages(NUMBER_MESSAGES_TO_LOAD);
+        historyBatchSize = historyLoader.getBatchSize();
+        askForMoreMessages(historyBatchSize);
     }
 
     /**
@@ -6881,29 +6877,29 @@ public class ChatActivity extends PasscodeActivity
      * @param msgId Message ID from which the messages are to be deleted.
      */
     private void updateHistoryByRetentionTime(long msgId) {
-        if (messages != null && !messages.isEmpty()) {
-            for (AndroidMegaChatMessage message : messages) {
-                if (message != null && message.getMessage() != null &&
-                        message.getMessage().getMsgId() == msgId) {
-
-                    int position = messages.indexOf(message);
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
 
-                    if (position < messages.size() - 1) {
-                        List<AndroidMegaChatMessage> messagesCopy = new ArrayList<>(messages);
-                        messages.clear();
+        int position = messages.indexOfMsgId(msgId);
+        if (position == INVALID_POSITION) {
+            return;
+        }
 
-                        for (int i = position + 1; i < messagesCopy.size(); i++) {
-                            messages.add(messagesCopy.get(i));
-                        }
-                    } else {
-                        messages.clear();
-                    }
+        messages.subList(0, position + 1).clear();
+        if (adapter == null) {
+            return;
+        }
 
-                    updateMessages();
-                    break;
-                }
-            }
+        if (messages.isEmpty()) {
+            updateMessages();
+            return;
         }
+
+        messages.get(0).setInfoToShow(AndroidMegaChatMessage.CHAT_ADAPTER_SHOW_ALL);
+        messages.get(0).setShowAvatar(true);
+        checkSelectOption();
+        adapter.removeMessages(1, position + 1, messages);
     }
 
     @Override
@@ -6926,6 +6922,7 @@ public class ChatActivity extends PasscodeActivity
     public void onHistoryReloaded(MegaChatApiJava api, MegaChatRoom chat) {
         Timber.d("onHistoryReloaded");
         cleanBuffers();
+        historyLoader.reset();
         invalidateOptionsMenu();
         Timber.d("Load new history");
 
@@ -6947,31 +6944,9 @@ public class ChatActivity extends PasscodeActivity
     }
 
     public void deleteMessage(MegaChatMessage msg, boolean rejected) {
-        int indexToChange = -1;
-
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-            Timber.d("Index: %s", itr.nextIndex());
-
-            if (!messageToCheck.isUploading()) {
-                if (rejected) {
-                    if (messageToCheck.getMessage().getTempId() == msg.getTempId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                } else {
-                    if (messageToCheck.getMessage().getMsgId() == msg.getMsgId()
-                            || (msg.getTempId() != -1
-                            && messageToCheck.getMessage().getTempId() == msg.getTempId())) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                }
-            }
-        }
+        int indexToChange = rejected
+                ? messages.indexOfTempId(msg.getTempId())
+                : Math.max(messages.indexOfMsgId(msg.getMsgId()), messages.indexOfTempId(msg.getTempId()));
 
         if (indexToChange != -1) {
             messages.remove(indexToChange);
@@ -7018,23 +6993,7 @@ public class ChatActivity extends PasscodeActivity
 
     public int modifyAttachmentReceived(AndroidMegaChatMessage msg, long idPendMsg) {
         Timber.d("ID: %d, tempID: %d, Status: %d", msg.getMessage().getMsgId(), msg.getMessage().getTempId(), msg.getMessage().getStatus());
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (messageToCheck.getPendingMessage() != null) {
-                Timber.d("Pending ID: %d, other: %d", messageToCheck.getPendingMessage().getId(), idPendMsg);
-
-                if (messageToCheck.getPendingMessage().getId() == idPendMsg) {
-                    indexToChange = itr.nextIndex();
-                    Timber.d("Found index to change: %s", indexToChange);
-                    break;
-                }
-            }
-        }
+        int indexToChange = messages.indexOfPendingMessage(idPendMsg);
 
         if (indexToChange != -1) {
 
@@ -7060,40 +7019,6 @@ public class ChatActivity extends PasscodeActivity
         return indexToChange;
     }
 
-    /**
-     * Checks on the provided list if the message to update exists.
-     * If so, returns its index on list.
-     *
-     * @param msg         The updated AndroidMegaChatMessage.
-     * @param checkTempId True if has to check the temp id instead of final id.
-     * @param itr         ListIterator containing the list of messages to check.
-     * @return The index to change if successful, INVALID_POSITION otherwise.
-     */
-    private int getIndexToUpdate(AndroidMegaChatMessage msg, boolean checkTempId, ListIterator<AndroidMegaChatMessage> itr) {
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (!messageToCheck.isUploading()) {
-                Timber.d("Checking with Msg ID: %d and Msg TEMP ID: %d", messageToCheck.getMessage().getMsgId(), messageToCheck.getMessage().getTempId());
-
-                if (checkTempId && msg.getMessage().getTempId() != MEGACHAT_INVALID_HANDLE
-                        && msg.getMessage().getTempId() == messageToCheck.getMessage().getTempId()) {
-                    Timber.d("Modify received message with idTemp");
-                    return itr.nextIndex();
-                } else if (msg.getMessage().getMsgId() != MEGACHAT_INVALID_HANDLE
-                        && msg.getMessage().getMsgId() == messageToCheck.getMessage().getMsgId()) {
-                    Timber.d("modifyMessageReceived");
-                    return itr.nextIndex();
-                }
-            } else {
-                Timber.d("This message is uploading");
-            }
-        }
-
-        return INVALID_POSITION;
-    }
-
     /**
      * Modifies a message on UI (messages list and adapter), on bufferMessages list
      * or on bufferSending list, if it has been already loaded.
@@ -7105,13 +7030,10 @@ public class ChatActivity extends PasscodeActivity
     public int modifyMessageReceived(AndroidMegaChatMessage msg, boolean checkTempId) {
         Timber.d("Msg ID: %dMsg TEMP ID: %dMsg status: %d", msg.getMessage().getMsgId(), msg.getMessage().getTempId(), msg.getMessage().getStatus());
 
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-        int indexToChange = getIndexToUpdate(msg, checkTempId, itr);
-
+        int indexToChange = messages.indexToUpdate(msg, checkTempId);
 
         if (indexToChange == INVALID_POSITION) {
-            itr = bufferMessages.listIterator(bufferMessages.size());
-            indexToChange = getIndexToUpdate(msg, checkTempId, itr);
+            indexToChange = bufferMessages.indexToUpdate(msg, checkTempId);
 
             if (indexToChange != INVALID_POSITION) {
                 bufferMessages.set(indexToChange, msg);
@@ -7120,8 +7042,7 @@ public class ChatActivity extends PasscodeActivity
         }
 
         if (indexToChange == INVALID_POSITION) {
-            itr = bufferSending.listIterator(bufferSending.size());
-            indexToChange = getIndexToUpdate(msg, checkTempId, itr);
+            indexToChange = bufferSending.indexToUpdate(msg, checkTempId);
 
             if (indexToChange != INVALID_POSITION) {
                 bufferSending.set(indexToChange, msg);
@@ -7151,9 +7072,7 @@ public class ChatActivity extends PasscodeActivity
                         if (previousMessage.getMessage().getStatus() == MegaChatMessage.STATUS_SENDING_MANUAL) {
                             Timber.d("More MANUAL SENDING in queue");
                             Timber.d("Removed index: %s", indexToChange);
-                            messages.remove(indexToChange);
-                            appendMessageAnotherMS(msg);
-                            adapter.notifyDataSetChanged();
+                            moveMessageToEnd(indexToChange, msg);
                             return indexToChange;
                         }
                     }
@@ -7206,39 +7125,9 @@ public class ChatActivity extends PasscodeActivity
         Timber.d("Edited Msg ID: %d, Old Msg ID: %d", editedMsg.getMessage().getMsgId(), messageToEdit.getMsgId());
         Timber.d("Edited Msg TEMP ID: %d, Old Msg TEMP ID: %d", editedMsg.getMessage().getTempId(), messageToEdit.getTempId());
         Timber.d("Edited Msg status: %d, Old Msg status: %d", editedMsg.getMessage().getStatus(), messageToEdit.getStatus());
-        int indexToChange = -1;
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
         boolean editedMsgHasTempId = editedMsg.getMessage().getTempId() != -1;
-
-        // Iterate in reverse.
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-            Timber.d("Index: %s", itr.nextIndex());
-
-            if (!messageToCheck.isUploading()) {
-                Timber.d("Checking with Msg ID: %d and Msg TEMP ID: %d", messageToCheck.getMessage().getMsgId(), messageToCheck.getMessage().getTempId());
-                if (hasTempId) {
-                    if (editedMsgHasTempId && messageToCheck.getMessage().getTempId() == editedMsg.getMessage().getTempId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    } else if (!editedMsgHasTempId && messageToCheck.getMessage().getTempId() == editedMsg.getMessage().getMsgId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                } else {
-                    if (editedMsgHasTempId && messageToCheck.getMessage().getMsgId() == editedMsg.getMessage().getTempId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    } else if (!editedMsgHasTempId && messageToCheck.getMessage().getMsgId() == editedMsg.getMessage().getMsgId()) {
-                        indexToChange = itr.nextIndex();
-                        break;
-                    }
-                }
-            } else {
-                Timber.d("This message is uploading");
-            }
-        }
+        long idToCheck = editedMsgHasTempId ? editedMsg.getMessage().getTempId() : editedMsg.getMessage().getMsgId();
+        int indexToChange = hasTempId ? messages.indexOfTempId(idToCheck) : messages.indexOfMsgId(idToCheck);
 
         Timber.d("Index to change = %s", indexToChange);
         if (indexToChange != -1) {
@@ -7259,9 +7148,8 @@ public class ChatActivity extends PasscodeActivity
                         } else if (previousMessage.getMessage().getStatus() == MegaChatMessage.STATUS_SENDING_MANUAL) {
                             Timber.d("More MANUAL SENDING in queue");
                             Timber.d("Removed index: %s", indexToChange);
-                            messages.remove(indexToChange);
-                            appendMessageAnotherMS(editedMsg);
-                            adapter.notifyDataSetChanged();
+                            moveMessageToEnd(indexToChange, editedMsg);
+                            return;
                         }
                     }
                 }
@@ -7304,11 +7192,18 @@ public class ChatActivity extends PasscodeActivity
 
     public void loadBufferMessages() {
         Timber.d("loadBufferMessages");
-        ListIterator<AndroidMegaChatMessage> itr = bufferMessages.listIterator();
-        while (itr.hasNext()) {
-            int currentIndex = itr.nextIndex();
-            AndroidMegaChatMessage messageToShow = itr.next();
-            loadMessage(messageToShow, currentIndex);
+        int count = bufferMessages.size();
+        List<AndroidMegaChatMessage> messagesToShow = new ArrayList<>(bufferMessages);
+        Collections.reverse(messagesToShow);
+        messages.addAll(0, messagesToShow);
+
+        messages.get(0).setInfoToShow(AndroidMegaChatMessage.CHAT_ADAPTER_SHOW_ALL);
+        for (int i = 1; i <= count && i < messages.size(); i++) {
+            adjustInfoToShow(i);
+        }
+
+        for (int i = 0; i < count; i++) {
+            setShowAvatar(i);
         }
 
         //Create adapter
@@ -7401,16 +7296,24 @@ public class ChatActivity extends PasscodeActivity
         appendMessagePosition(new AndroidMegaChatMessage(pendingMessage, true));
     }
 
-    public void loadMessage(AndroidMegaChatMessage messageToShow, int currentIndex) {
-        messageToShow.setInfoToShow(AndroidMegaChatMessage.CHAT_ADAPTER_SHOW_ALL);
-        messages.add(0, messageToShow);
+    /**
+     * Moves a message after the last one, as a manual sending message behind others in the queue.
+     * Only the move is notified, instead of rebinding the following messages.
+     *
+     * @param indexToChange current position of the message in messages.
+     * @param msg           the updated message.
+     */
+    private void moveMessageToEnd(int indexToChange, AndroidMegaChatMessage msg) {
+        messages.remove(indexToChange);
+        messages.add(msg);
+        int lastIndex = messages.size() - 1;
+        adjustInfoToShow(lastIndex);
 
-        if (messages.size() > 1) {
-            adjustInfoToShow(1);
+        if (adapter == null) {
+            createAdapter();
+        } else {
+            adapter.moveMessage(indexToChange + 1, lastIndex + 1, messages);
         }
-
-        setShowAvatar(0);
-
     }
 
     public void appendMessageAnotherMS(AndroidMegaChatMessage msg) {
@@ -7953,17 +7856,16 @@ public class ChatActivity extends PasscodeActivity
     }
 
     public void updatingRemovedMessage(MegaChatMessage message) {
-        for (int i = 0; i < messages.size(); i++) {
-            MegaChatMessage messageToCompare = messages.get(i).getMessage();
-            if (messageToCompare != null) {
-                if ((message.getMsgId() != MEGACHAT_INVALID_HANDLE && message.getMsgId() == messageToCompare.getMsgId()) ||
-                        (message.getTempId() != MEGACHAT_INVALID_HANDLE && message.getTempId() == messageToCompare.getTempId())) {
-                    RemovedMessage msg = new RemovedMessage(messageToCompare.getTempId(), messageToCompare.getMsgId());
-                    removedMessages.add(msg);
-                    adapter.notifyItemChanged(i + 1);
-                    break;
-                }
-            }
+        int position = messages.indexOfMsgId(message.getMsgId());
+        if (position == INVALID_POSITION) {
+            position = messages.indexOfTempId(message.getTempId());
+        }
+
+        if (position != INVALID_POSITION) {
+            MegaChatMessage messageToCompare = messages.get(position).getMessage();
+            RemovedMessage msg = new RemovedMessage(messageToCompare.getTempId(), messageToCompare.getMsgId());
+            removedMessages.add(msg);
+            adapter.notifyItemChanged(position + 1);
         }
     }
 
@@ -8004,16 +7906,7 @@ public class ChatActivity extends PasscodeActivity
      * @return The position of the pending message if exist, INVALID_POSITION otherwise.
      */
     public int findPendingMessagePosition(long pendingMsgId) {
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        while (itr.hasPrevious()) {
-            MegaChatMessage message = itr.previous().getMessage();
-            if (message != null && pendingMsgId == message.getTempId()) {
-                return itr.nextIndex();
-            }
-        }
-
-        return INVALID_POSITION;
+        return messages.indexOfTempId(pendingMsgId);
     }
 
     /**
@@ -8022,24 +7915,17 @@ public class ChatActivity extends PasscodeActivity
      * @param pendingMsg The pending message to update.
      */
     private void updatePendingMessage(PendingMessage pendingMsg) {
-        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-        while (itr.hasPrevious()) {
-            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-            if (messageToCheck.getPendingMessage() != null
-                    && messageToCheck.getPendingMessage().getId() == pendingMsg.getId()) {
-                int indexToChange = itr.nextIndex();
-                Timber.d("Found index to update: %s", indexToChange);
+        int indexToChange = messages.indexOfPendingMessage(pendingMsg.getId());
+        if (indexToChange == INVALID_POSITION) {
+            return;
+        }
 
-                messages.set(indexToChange, new AndroidMegaChatMessage(pendingMsg,
-                        pendingMsg.getState() >= PendingMessageState.PREPARING.getValue()
-                                && pendingMsg.getState() <= PendingMessageState.COMPRESSING.getValue()));
+        Timber.d("Found index to update: %s", indexToChange);
+        messages.set(indexToChange, new AndroidMegaChatMessage(pendingMsg,
+                pendingMsg.getState() >= PendingMessageState.PREPARING.getValue()
+                        && pendingMsg.getState() <= PendingMessageState.COMPRESSING.getValue()));
 
-                adapter.modifyMessage(messages, indexToChange + 1);
-                break;
-            }
-        }
+        adapter.modifyMessage(messages, indexToChange + 1);
     }
 
     public void showSnackbar(int type, String s, long idChat, String emailUser) {
@@ -8088,7 +7974,9 @@ public class ChatActivity extends PasscodeActivity
         if (dialog != null) {
             dialog.dismiss();
         }
-        this.messages = messages;
+        this.messages = messages instanceof ChatMessageList
+                ? (ChatMessageList) messages
+                : new ChatMessageList(messages);
         //Create adapter
         if (adapter == null) {
             createAdapter();
@@ -8435,20 +8323,9 @@ public class ChatActivity extends PasscodeActivity
 
                     long idPendMsg = intent.getLongExtra("ID_MSG", -1);
                     if (idPendMsg != -1) {
-                        int indexToChange = -1;
-                        ListIterator<AndroidMegaChatMessage> itr = messages.listIterator(messages.size());
-
-                        // Iterate in reverse.
-                        while (itr.hasPrevious()) {
-                            AndroidMegaChatMessage messageToCheck = itr.previous();
-
-                            if (messageToCheck.isUploading()) {
-                                if (messageToCheck.getPendingMessage().getId() == idPendMsg) {
-                                    indexToChange = itr.nextIndex();
-                                    Timber.d("Found index to change: %s", indexToChange);
-                                    break;
-                                }
-                            }
+                        int indexToChange = messages.indexOfPendingMessage(idPendMsg);
+                        if (indexToChange != -1 && !messages.get(indexToChange).isUploading()) {
+                            indexToChange = -1;
                         }
 
                         if (indexToChange != -1) {
@@ -8459,7 +8336,9 @@ public class ChatActivity extends PasscodeActivity
                                 pendingMsg = dbH.findPendingMessageById(idPendMsg);
 
                                 if (pendingMsg != null) {
-                                    messages.get(indexToChange).setPendingMessage(pendingMsg);
+                                    AndroidMegaChatMessage messageToChange = messages.get(indexToChange);
+                                    messageToChange.setPendingMessage(pendingMsg);
+                                    messages.set(indexToChange, messageToChange);
                                     adapter.modifyMessage(messages, indexToChange + 1);
                                 }
                             }
@@ -8777,18 +8656,7 @@ public class ChatActivity extends PasscodeActivity
                         lastIdMsgSeen = megaChatApi.getLastMessageSeenId(idChat);
 
                         //Find last message
-                        int positionLastMessage = -1;
-                        for (int i = messages.size() - 1; i >= 0; i--) {
-                            AndroidMegaChatMessage androidMessage = messages.get(i);
-
-                            if (!androidMessage.isUploading()) {
-                                MegaChatMessage msg = androidMessage.getMessage();
-                                if (msg.getMsgId() == lastIdMsgSeen) {
-                                    positionLastMessage = i;
-                                    break;
-                                }
-                            }
-                        }
+                        int positionLastMessage = messages.indexOfMsgId(lastIdMsgSeen);
 
                         if (positionLastMessage == -1) {
                             scrollToMessage(-1);
@@ -8843,17 +8711,10 @@ public class ChatActivity extends PasscodeActivity
         if (messages == null || messages.isEmpty())
             return;
 
-        for (int i = messages.size() - 1; i >= 0; i--) {
-            AndroidMegaChatMessage androidMessage = messages.get(i);
-
-            if (!androidMessage.isUploading()) {
-                MegaChatMessage msg = androidMessage.getMessage();
-                if (msg.getMsgId() == lastId) {
-                    Timber.d("Scroll to position: %s", i);
-                    mLayoutManager.scrollToPositionWithOffset(i + 1, scaleHeightPx(30, getOutMetrics()));
-                    break;
-                }
-            }
+        int position = messages.indexOfMsgId(lastId);
+        if (position != INVALID_POSITION) {
+            Timber.d("Scroll to position: %s", position);
+            mLayoutManager.scrollToPositionWithOffset(position + 1, scaleHeightPx(30, getOutMetrics()));
         }
 
     }
@@ -9638,13 +9499,13 @@ public class ChatActivity extends PasscodeActivity
         if (bufferSending.isEmpty()) {
             bufferSending.add(0, androidMsg);
         } else {
-            boolean isContained = false;
-            for (int i = 0; i < bufferSending.size(); i++) {
-                if ((bufferSending.get(i).getMessage().getMsgId() == androidMsg.getMessage().getMsgId()) && (bufferSending.get(i).getMessage().getTempId() == androidMsg.getMessage().getTempId())) {
-                    isContained = true;
-                    break;
-                }
-            }
+            MegaChatMessage message = androidMsg.getMessage();
+            int position = message.getTempId() != MEGACHAT_INVALID_HANDLE
+                    ? bufferSending.indexOfTempId(message.getTempId())
+                    : bufferSending.indexOfMsgId(message.getMsgId());
+            boolean isContained = position != INVALID_POSITION
+                    && bufferSending.get(position).getMessage().getMsgId() == message.getMsgId()
+                    && bufferSending.get(position).getMessage().getTempId() == message.getTempId();
             if (!isContained) {
                 bufferSending.add(0, androidMsg);
             }
@@ -10007,19 +9868,7 @@ public class ChatActivity extends PasscodeActivity
      * Method to find the appropriate position of unread messages. Taking into account the last received message that is read and the messages sent by me.
      */
     private void updateLocalLastSeenId() {
-        int positionLastMessage = -1;
-        for (int i = messages.size() - 1; i >= 0; i--) {
-            AndroidMegaChatMessage androidMessage = messages.get(i);
-            if (androidMessage != null && !androidMessage.isUploading()) {
-                MegaChatMessage msg = androidMessage.getMessage();
-                if (msg != null && msg.getMsgId() == lastIdMsgSeen) {
-                    positionLastMessage = i;
-                    break;
-                }
-            }
-        }
-
-        positionLastMessage = positionLastMessage + 1;
+        int positionLastMessage = messages.indexOfMsgId(lastIdMsgSeen) + 1;
         if (positionLastMessage >= messages.size())
             return;
 
@@ -0,0 +1,101 @@
+package mega.privacy.android.app.main.megachat
+
+import android.os.SystemClock
+import kotlin.math.roundToInt
+
+/**
+ * Sizes the history requests of a chat by how fast the user scrolls back through it
+ *
+ * The speed is measured in messages per second while scrolling towards older messages. The
+ * faster the scroll, the bigger the next batch and the earlier it is requested, so the next
+ * batch is usually loaded before the first message is reached.
+ *
+ * @property clock elapsed time in milliseconds
+ */
+class ChatHistoryLoader(private val clock: () -> Long = SystemClock::uptimeMillis) {
+
+    private var lastPosition = NO_POSITION
+    private var lastTime = 0L
+
+    /**
+     * Smoothed scroll speed towards older messages, in messages per second
+     */
+    var velocity = 0f
+        private set
+
+    /**
+     * Number of messages to request in the next batch
+     */
+    val batchSize: Int
+        get() = (velocity * BATCH_SECONDS)
+            .roundToInt()
+            .let { (it + MIN_BATCH_SIZE - 1) / MIN_BATCH_SIZE * MIN_BATCH_SIZE }
+            .coerceIn(MIN_BATCH_SIZE, MAX_BATCH_SIZE)
+
+    /**
+     * Number of messages before the first loaded one at which the next batch is requested
+     */
+    val prefetchDistance: Int
+        get() = (velocity * PREFETCH_SECONDS).roundToInt()
+            .coerceIn(MIN_PREFETCH_DISTANCE, MAX_BATCH_SIZE)
+
+    /**
+     * Update the scroll speed with the first visible position of the list
+     *
+     * @param firstVisiblePosition first visible position
+     */
+    fun onScrolled(firstVisiblePosition: Int) {
+        val now = clock()
+        if (lastPosition == NO_POSITION || now - lastTime > IDLE_MILLIS) {
+            velocity = 0f
+        } else if (now > lastTime) {
+            val current = (lastPosition - firstVisiblePosition).coerceAtLeast(0) * 1000f /
+                    (now - lastTime)
+            velocity += (current - velocity) * SMOOTHING
+        } else {
+            return
+        }
+        lastPosition = firstVisiblePosition
+        lastTime = now
+    }
+
+    /**
+     * Check if the next batch should be requested
+     *
+     * @param firstVisiblePosition first visible position
+     * @return true if the first visible position is within [prefetchDistance]
+     */
+    fun shouldLoadMore(firstVisiblePosition: Int) =
+        firstVisiblePosition != NO_POSITION && firstVisiblePosition <= prefetchDistance
+
+    /**
+     * Reset the scroll speed, when the list is replaced
+     */
+    fun reset() {
+        lastPosition = NO_POSITION
+        velocity = 0f
+    }
+
+    companion object {
+        /**
+         * Size of the batches when the list is not scrolling
+         */
+        const val MIN_BATCH_SIZE = 32
+
+        /**
+         * Maximum size of a batch
+         */
+        const val MAX_BATCH_SIZE = 256
+
+        /**
+         * Prefetch distance when the list is not scrolling
+         */
+        const val MIN_PREFETCH_DISTANCE = 8
+
+        private const val NO_POSITION = -1
+        private const val BATCH_SECONDS = 2f
+        private const val PREFETCH_SECONDS = 1f
+        private const val SMOOTHING = 0.5f
+        private const val IDLE_MILLIS = 500L
+    }
+}
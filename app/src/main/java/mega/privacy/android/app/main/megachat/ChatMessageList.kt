@@ -0,0 +1,215 @@
+package mega.privacy.android.app.main.megachat
+
+import mega.privacy.android.data.model.chat.AndroidMegaChatMessage
+import nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE
+import java.util.IdentityHashMap
+
+/**
+ * List of chat messages indexed by message id, temporal id and pending message id
+ *
+ * It keeps the order and the semantics of an [ArrayList], so it can be shared with the adapter,
+ * but finding a message by id or by instance does not scan the list. Positions are tracked
+ * relative to the first message, so adding or removing messages at both ends, which is what
+ * loading history and receiving messages do, keeps them valid. Any other change is detected
+ * on the next lookup and the positions are recomputed once.
+ *
+ * Messages being uploaded are only indexed by pending message id, as the id lookups of the chat
+ * always skip them.
+ *
+ * Messages are indexed by the ids they have when added or set; a message whose ids change must
+ * be set again.
+ */
+class ChatMessageList() : ArrayList<AndroidMegaChatMessage?>() {
+
+    constructor(messages: Collection<AndroidMegaChatMessage?>) : this() {
+        addAll(messages)
+    }
+
+    private class Entry(
+        var position: Int,
+        val msgId: Long,
+        val tempId: Long,
+        val pendingId: Long,
+    )
+
+    private val entries = IdentityHashMap<AndroidMegaChatMessage, Entry>()
+    private val byMsgId = HashMap<Long, MutableList<AndroidMegaChatMessage>>()
+    private val byTempId = HashMap<Long, MutableList<AndroidMegaChatMessage>>()
+    private val byPendingId = HashMap<Long, MutableList<AndroidMegaChatMessage>>()
+
+    /**
+     * Position of the first message in the tracked positions
+     */
+    private var base = 0
+
+    /**
+     * Get the position of the last message with a message id
+     *
+     * @return the position, or -1 if there is no message with that id
+     */
+    fun indexOfMsgId(msgId: Long): Int = lastPositionOf(byMsgId, msgId)
+
+    /**
+     * Get the position of the last message with a temporal id
+     *
+     * @return the position, or -1 if there is no message with that id
+     */
+    fun indexOfTempId(tempId: Long): Int = lastPositionOf(byTempId, tempId)
+
+    /**
+     * Get the position of the last message of a pending message, including the uploading ones
+     *
+     * @return the position, or -1 if there is no message for that pending message
+     */
+    fun indexOfPendingMessage(pendingMessageId: Long): Int = lastPositionOf(byPendingId, pendingMessageId)
+
+    /**
+     * Get the position of the message to replace with an updated one: the last message, not
+     * being uploaded, with the same temporal id if [checkTempId], or with the same message id
+     *
+     * @param msg         the updated message
+     * @param checkTempId true to also check the temporal id
+     * @return the position, or -1 if there is no message to update
+     */
+    fun indexToUpdate(msg: AndroidMegaChatMessage, checkTempId: Boolean): Int {
+        val message = msg.message ?: return -1
+        val byTemp = if (checkTempId) indexOfTempId(message.tempId) else -1
+        return maxOf(byTemp, indexOfMsgId(message.msgId))
+    }
+
+    override fun indexOf(element: AndroidMegaChatMessage?): Int =
+        element?.let { positionOf(it) }?.takeIf { it >= 0 } ?: super.indexOf(element)
+
+    override fun contains(element: AndroidMegaChatMessage?): Boolean = indexOf(element) >= 0
+
+    override fun add(element: AndroidMegaChatMessage?): Boolean {
+        element?.let { track(it, base + size) }
+        return super.add(element)
+    }
+
+    override fun add(index: Int, element: AndroidMegaChatMessage?) {
+        if (index == 0) base--
+        element?.let { track(it, base + index) }
+        super.add(index, element)
+    }
+
+    override fun addAll(elements: Collection<AndroidMegaChatMessage?>): Boolean {
+        elements.forEachIndexed { i, message -> message?.let { track(it, base + size + i) } }
+        return super.addAll(elements)
+    }
+
+    override fun addAll(index: Int, elements: Collection<AndroidMegaChatMessage?>): Boolean {
+        if (index == 0) base -= elements.size
+        elements.forEachIndexed { i, message -> message?.let { track(it, base + index + i) } }
+        return super.addAll(index, elements)
+    }
+
+    override fun set(index: Int, element: AndroidMegaChatMessage?): AndroidMegaChatMessage? {
+        val old = super.set(index, element)
+        old?.let { untrack(it) }
+        element?.let { track(it, base + index) }
+        return old
+    }
+
+    override fun removeAt(index: Int): AndroidMegaChatMessage? {
+        val old = super.removeAt(index)
+        if (index == 0) base++
+        old?.let { untrack(it) }
+        return old
+    }
+
+    override fun remove(element: AndroidMegaChatMessage?): Boolean {
+        val index = indexOf(element)
+        if (index < 0) return false
+        removeAt(index)
+        return true
+    }
+
+    override fun removeRange(fromIndex: Int, toIndex: Int) {
+        super.removeRange(fromIndex, toIndex)
+        reindex()
+    }
+
+    override fun removeAll(elements: Collection<AndroidMegaChatMessage?>): Boolean =
+        super.removeAll(elements.toSet()).also { if (it) reindex() }
+
+    override fun retainAll(elements: Collection<AndroidMegaChatMessage?>): Boolean =
+        super.retainAll(elements.toSet()).also { if (it) reindex() }
+
+    override fun clear() {
+        super.clear()
+        clearIndexes()
+    }
+
+    private fun positionOf(message: AndroidMegaChatMessage): Int {
+        val entry = entries[message] ?: return -1
+        val position = entry.position - base
+        if (position in indices && get(position) === message) return position
+
+        reindex()
+        return entries[message]?.let { it.position - base } ?: -1
+    }
+
+    private fun lastPositionOf(
+        map: HashMap<Long, MutableList<AndroidMegaChatMessage>>,
+        id: Long,
+    ): Int {
+        if (id == MEGACHAT_INVALID_HANDLE) return -1
+        return map[id]?.maxOfOrNull { positionOf(it) } ?: -1
+    }
+
+    private fun track(message: AndroidMegaChatMessage, position: Int) {
+        val chatMessage = message.message.takeUnless { message.isUploading }
+        val entry = Entry(
+            position = position,
+            msgId = chatMessage?.msgId ?: MEGACHAT_INVALID_HANDLE,
+            tempId = chatMessage?.tempId ?: MEGACHAT_INVALID_HANDLE,
+            pendingId = message.pendingMessage?.id ?: MEGACHAT_INVALID_HANDLE,
+        )
+        entries.put(message, entry)?.let { unindexIds(message, it) }
+        byMsgId.addMessage(entry.msgId, message)
+        byTempId.addMessage(entry.tempId, message)
+        byPendingId.addMessage(entry.pendingId, message)
+    }
+
+    private fun untrack(message: AndroidMegaChatMessage) {
+        entries.remove(message)?.let { unindexIds(message, it) }
+    }
+
+    private fun unindexIds(message: AndroidMegaChatMessage, entry: Entry) {
+        byMsgId.removeMessage(entry.msgId, message)
+        byTempId.removeMessage(entry.tempId, message)
+        byPendingId.removeMessage(entry.pendingId, message)
+    }
+
+    private fun reindex() {
+        clearIndexes()
+        forEachIndexed { i, message -> message?.let { track(it, i) } }
+    }
+
+    private fun clearIndexes() {
+        base = 0
+        entries.clear()
+        byMsgId.clear()
+        byTempId.clear()
+        byPendingId.clear()
+    }
+
+    private companion object {
+        fun HashMap<Long, MutableList<AndroidMegaChatMessage>>.addMessage(
+            id: Long,
+            message: AndroidMegaChatMessage,
+        ) {
+            if (id != MEGACHAT_INVALID_HANDLE) getOrPut(id) { ArrayList(1) }.add(message)
+        }
+
+        fun HashMap<Long, MutableList<AndroidMegaChatMessage>>.removeMessage(
+            id: Long,
+            message: AndroidMegaChatMessage,
+        ) {
+            val messages = get(id) ?: return
+            messages.removeAll { it === message }
+            if (messages.isEmpty()) remove(id)
+        }
+    }
+}
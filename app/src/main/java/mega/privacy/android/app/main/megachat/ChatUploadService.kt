@@ -16,6 +16,7 @@ import androidx.core.content.ContextCompat
 import androidx.lifecycle.LifecycleService
 import androidx.lifecycle.lifecycleScope
 import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.catch
@@ -28,7 +29,6 @@ import mega.privacy.android.app.LegacyDatabaseHandler
 import mega.privacy.android.app.MegaApplication
 import mega.privacy.android.app.MimeTypeList
 import mega.privacy.android.app.R
-import mega.privacy.android.app.VideoDownSampling
 import mega.privacy.android.app.constants.BroadcastConstants
 import mega.privacy.android.app.globalmanagement.TransfersManagement
 import mega.privacy.android.app.main.ManagerActivity
@@ -43,6 +43,10 @@ import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.FileUtil
 import mega.privacy.android.app.utils.TextUtil
 import mega.privacy.android.app.utils.Util
+import mega.privacy.android.data.compression.video.VideoTranscodingPriority
+import mega.privacy.android.data.compression.video.VideoTranscodingProfile
+import mega.privacy.android.data.compression.video.VideoTranscodingRequest
+import mega.privacy.android.data.gateway.VideoTranscodingGateway
 import mega.privacy.android.data.gateway.preferences.ChatPreferencesGateway
 import mega.privacy.android.data.qualifier.MegaApi
 import mega.privacy.android.domain.entity.ChatImageQuality
@@ -148,6 +152,9 @@ class ChatUploadService : LifecycleService() {
     @Inject
     lateinit var broadcastBusinessAccountExpiredUseCase: BroadcastBusinessAccountExpiredUseCase
 
+    @Inject
+    lateinit var videoTranscodingGateway: VideoTranscodingGateway
+
     private var isForeground = false
     private var canceled = false
     private var fileNames: HashMap<String, String>? = HashMap()
@@ -171,7 +178,6 @@ class ChatUploadService : LifecycleService() {
     private var totalUploads = 0
     private var type: String? = ""
     private var parentNode: MegaNode? = null
-    private var videoDownsampling: VideoDownSampling? = null
     private var mBuilder: Notification.Builder? = null
     private var mBuilderCompat: NotificationCompat.Builder? = null
     private var mNotificationManager: NotificationManager? = null
@@ -555,13 +561,7 @@ class ChatUploadService : LifecycleService() {
                         pendingMessages!!.add(pendMsg)
                     }
                     mapVideoDownsampling!![outFile.absolutePath] = 0
-                    if (videoDownsampling == null) {
-                        videoDownsampling = VideoDownSampling(this@ChatUploadService)
-                    }
-                    videoDownsampling!!.changeResolution(
-                        file, outFile.absolutePath,
-                        pendingMsg.id, dbH.chatVideoQuality
-                    )
+                    downsampleVideo(file, outFile.absolutePath, pendingMsg.id)
                 }
             } catch (throwable: Throwable) {
                 Timber.e("EXCEPTION: Video cannot be downsampled", throwable)
@@ -688,6 +688,42 @@ class ChatUploadService : LifecycleService() {
         }
     }
 
+    /**
+     * Downsample a video to send it to a chat, before any camera uploads video
+     *
+     * @param file             the original video
+     * @param outputPath       path of the downsampled video
+     * @param idPendingMessage id of the pending message of the video
+     */
+    private fun downsampleVideo(file: File, outputPath: String, idPendingMessage: Long) {
+        val quality = VideoQuality.values().firstOrNull { it.value == dbH.chatVideoQuality }
+            ?: VideoQuality.LOW
+        val request = VideoTranscodingRequest(
+            originalPath = file.absolutePath,
+            newPath = outputPath,
+            quality = quality,
+            priority = VideoTranscodingPriority.INTERACTIVE,
+            profile = VideoTranscodingProfile.CHAT,
+        )
+        lifecycleScope.launch {
+            var lastPercentage = -1
+            runCatching {
+                videoTranscodingGateway.transcode(request) { percentage, _ ->
+                    if (percentage != lastPercentage && percentage % 5 == 0) {
+                        lastPercentage = percentage
+                        lifecycleScope.launch { updateProgressDownsampling(percentage, outputPath) }
+                    }
+                }
+            }.onSuccess {
+                finishDownsampling(outputPath, true, idPendingMessage)
+            }.onFailure {
+                if (it is CancellationException) throw it
+                Timber.e(it, "Video not downsampled, uploading original video.")
+                finishDownsampling(outputPath, false, idPendingMessage)
+            }
+        }
+    }
+
     fun updateProgressDownsampling(percentage: Int, key: String) {
         mapVideoDownsampling!![key] = percentage
         lifecycleScope.launch { updateProgressNotification() }
@@ -169,6 +169,7 @@ import mega.privacy.android.app.main.adapters.RotatableAdapter;
 import mega.privacy.android.app.main.controllers.ChatController;
 import mega.privacy.android.app.main.listeners.ChatNonContactNameListener;
 import mega.privacy.android.app.main.megachat.ChatActivity;
+import mega.privacy.android.app.main.megachat.ChatMessageList;
 import mega.privacy.android.app.main.megachat.MessageVoiceClip;
 import mega.privacy.android.app.main.megachat.RemovedMessage;
 import mega.privacy.android.app.mediaplayer.service.AudioPlayerService;
@@ -6657,13 +6658,7 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
      */
     public void toggleSelection(long msgId) {
         Timber.d("The message selected is %s", msgId);
-        int position = INVALID_POSITION;
-        for (AndroidMegaChatMessage message : messages) {
-            if (message != null && message.getMessage() != null && message.getMessage().getMsgId() == msgId) {
-                position = messages.indexOf(message);
-            }
-        }
-
+        int position = getMessagePosition(msgId);
         if (position == INVALID_POSITION) {
             return;
         }
@@ -6827,6 +6822,95 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
         notifyRangeChanged(position);
     }
 
+    /**
+     * Notifies the adapter that several consecutive messages have been removed.
+     *
+     * @param position position in adapter of the first removed message.
+     * @param count    number of removed messages.
+     * @param messages the updated messages.
+     */
+    public void removeMessages(int position, int count, ArrayList<AndroidMegaChatMessage> messages) {
+        this.messages = messages;
+        notifyItemRangeRemoved(position, count);
+        if (position <= messages.size()) {
+            // Only the message now at the first removed position may show a different header
+            notifyItemChanged(position);
+        }
+    }
+
+    /**
+     * Notifies the adapter that a message has been moved.
+     * The moved message and the one now at its previous position are rebound,
+     * as their header may have changed.
+     *
+     * @param fromPosition previous position in adapter of the message.
+     * @param toPosition   new position in adapter of the message.
+     * @param messages     the updated messages.
+     */
+    public void moveMessage(int fromPosition, int toPosition, ArrayList<AndroidMegaChatMessage> messages) {
+        this.messages = messages;
+        notifyItemMoved(fromPosition, toPosition);
+        notifyItemChanged(fromPosition);
+        notifyItemChanged(toPosition);
+    }
+
+    /**
+     * Notifies the adapter that the name of a user has changed.
+     * Only the messages sent by the user or mentioning the user are rebound.
+     *
+     * @param userHandle handle of the user.
+     */
+    public void notifyUserNameChanged(long userHandle) {
+        if (messages == null) {
+            return;
+        }
+
+        for (int i = 0; i < messages.size(); i++) {
+            AndroidMegaChatMessage message = messages.get(i);
+            MegaChatMessage chatMessage = message != null ? message.getMessage() : null;
+            if (chatMessage != null && isAboutUser(chatMessage, userHandle)) {
+                notifyItemChanged(i + 1);
+            }
+        }
+    }
+
+    private boolean isAboutUser(MegaChatMessage chatMessage, long userHandle) {
+        if (chatMessage.getUserHandle() == userHandle
+                || chatMessage.getHandleOfAction() == userHandle) {
+            return true;
+        }
+
+        for (int i = 0; i < chatMessage.getUsersCount(); i++) {
+            if (chatMessage.getUserHandle(i) == userHandle) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the position of the last message with a message id.
+     *
+     * @param msgId The message ID.
+     * @return The position in messages array, INVALID_POSITION if not found.
+     */
+    private int getMessagePosition(long msgId) {
+        if (messages instanceof ChatMessageList) {
+            return ((ChatMessageList) messages).indexOfMsgId(msgId);
+        }
+
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            AndroidMegaChatMessage message = messages.get(i);
+            if (message != null && !message.isUploading() && message.getMessage() != null
+                    && message.getMessage().getMsgId() == msgId) {
+                return i;
+            }
+        }
+
+        return INVALID_POSITION;
+    }
+
     /**
      * Notifies the adapter if the range changed due to and addition or deletion in adapter.
      *
@@ -8358,27 +8442,15 @@ public class MegaChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             return;
         }
 
-        int positionInAdapter = INVALID_POSITION;
-        AndroidMegaChatMessage megaMessage = null;
-
-        for (AndroidMegaChatMessage msg : messages) {
-            if (msg == null || msg.getMessage() == null) {
-                Timber.w("The message is not valid");
-                continue;
-            }
-
-            if (msg.getMessage().getMsgId() == message.getMsgId()) {
-                positionInAdapter = messages.indexOf(msg) + 1;
-                megaMessage = msg;
-                break;
-            }
-        }
-
-        if (positionInAdapter == INVALID_POSITION) {
+        int positionInMessages = getMessagePosition(message.getMsgId());
+        if (positionInMessages == INVALID_POSITION) {
             Timber.e("Message doesn't exist ");
             return;
         }
 
+        int positionInAdapter = positionInMessages + 1;
+        AndroidMegaChatMessage megaMessage = messages.get(positionInMessages);
+
         ViewHolderMessageChat holder = (ViewHolderMessageChat) listFragment.findViewHolderForAdapterPosition(positionInAdapter);
         if (holder == null) {
             notifyItemChanged(positionInAdapter);
@@ -129,7 +129,7 @@ import mega.privacy.android.domain.usecase.mediaplayer.SetAudioRepeatModeUseCase
 import mega.privacy.android.domain.usecase.mediaplayer.SetAudioShuffleEnabledUseCase
 import mega.privacy.android.domain.usecase.network.IsConnectedToInternetUseCase
 import mega.privacy.android.domain.usecase.node.GetNodeByHandleUseCase
-import mega.privacy.android.domain.usecase.transfers.MonitorTransferEventsUseCase
+import mega.privacy.android.domain.usecase.transfers.MonitorTransferLifecycleEventsUseCase
 import nz.mega.sdk.MegaApiJava.INVALID_HANDLE
 import nz.mega.sdk.MegaCancelToken
 import timber.log.Timber
@@ -144,7 +144,7 @@ import javax.inject.Inject
 class AudioPlayerServiceViewModel @Inject constructor(
     @ApplicationContext private val context: Context,
     private val offlineThumbnailFileWrapper: GetOfflineThumbnailFileWrapper,
-    private val monitorTransferEventsUseCase: MonitorTransferEventsUseCase,
+    private val monitorTransferLifecycleEventsUseCase: MonitorTransferLifecycleEventsUseCase,
     @ApplicationScope private val sharingScope: CoroutineScope,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val playlistItemMapper: PlaylistItemMapper,
@@ -850,7 +850,7 @@ class AudioPlayerServiceViewModel @Inject constructor(
     private fun setupTransferListener() {
         cancellableJobs[JOB_KEY_MONITOR_TRANSFER]?.cancel()
         cancellableJobs[JOB_KEY_MONITOR_TRANSFER] = sharingScope.launch {
-            monitorTransferEventsUseCase()
+            monitorTransferLifecycleEventsUseCase()
                 .catch {
                     Timber.e(it)
                 }.collect { event ->
@@ -0,0 +1,207 @@
+package mega.privacy.android.app.meeting
+
+import android.graphics.SurfaceTexture
+import android.opengl.EGL14
+import android.opengl.EGLConfig
+import android.opengl.EGLContext
+import android.opengl.EGLDisplay
+import android.opengl.EGLSurface
+import android.opengl.GLES20
+import android.os.Handler
+import android.os.HandlerThread
+import android.os.Process
+import timber.log.Timber
+
+/**
+ * GL thread shared by all the meeting video tiles
+ *
+ * It owns a single EGL context and shader program, each tile only adds its own window surface
+ * and texture. The thread is started when the first tile is attached and stopped when the
+ * last one is detached.
+ *
+ * Every thread keeps its own EGL state, so the release posted to a stopping thread never touches
+ * the state of the one started after it. The new thread also waits for the previous one to finish
+ * before initialising EGL, so both never use EGL at the same time. The display is never
+ * terminated, as it is shared with the rest of the process.
+ *
+ * @property handler [Handler] of the GL thread
+ */
+internal class MeetingVideoGLThread private constructor(
+    private val thread: HandlerThread,
+    private val previous: HandlerThread?,
+) {
+    val handler = Handler(thread.looper)
+
+    private var eglDisplay: EGLDisplay = EGL14.EGL_NO_DISPLAY
+    private var eglContext: EGLContext = EGL14.EGL_NO_CONTEXT
+    private var eglConfig: EGLConfig? = null
+
+    /**
+     * Shader program drawing a video frame, available on the GL thread once initialised.
+     */
+    var program: MeetingVideoProgram? = null
+        private set
+
+    init {
+        handler.post {
+            previous?.join()
+            initEgl()
+        }
+    }
+
+    private fun quit() {
+        handler.post { releaseEgl() }
+        thread.quitSafely()
+    }
+
+    /**
+     * Create a window surface for [surfaceTexture], must be called on the GL thread
+     *
+     * @return the surface, or null if it cannot be created
+     */
+    fun createWindowSurface(surfaceTexture: SurfaceTexture): EGLSurface? {
+        val config = eglConfig ?: return null
+        val surface = EGL14.eglCreateWindowSurface(
+            eglDisplay,
+            config,
+            surfaceTexture,
+            intArrayOf(EGL14.EGL_NONE),
+            0
+        )
+        return surface.takeUnless { it == EGL14.EGL_NO_SURFACE }
+            ?: null.also { Timber.e("eglCreateWindowSurface failed: ${EGL14.eglGetError()}") }
+    }
+
+    /**
+     * Make [surface] the current drawing surface, must be called on the GL thread
+     */
+    fun makeCurrent(surface: EGLSurface): Boolean =
+        EGL14.eglMakeCurrent(eglDisplay, surface, surface, eglContext)
+
+    /**
+     * Post the drawn frame of [surface], must be called on the GL thread
+     */
+    fun swapBuffers(surface: EGLSurface): Boolean = EGL14.eglSwapBuffers(eglDisplay, surface)
+
+    /**
+     * Destroy a window surface, must be called on the GL thread
+     */
+    fun destroySurface(surface: EGLSurface) {
+        EGL14.eglMakeCurrent(
+            eglDisplay,
+            EGL14.EGL_NO_SURFACE,
+            EGL14.EGL_NO_SURFACE,
+            EGL14.EGL_NO_CONTEXT
+        )
+        EGL14.eglDestroySurface(eglDisplay, surface)
+    }
+
+    private fun initEgl() {
+        eglDisplay = EGL14.eglGetDisplay(EGL14.EGL_DEFAULT_DISPLAY)
+        val version = IntArray(2)
+        if (eglDisplay == EGL14.EGL_NO_DISPLAY || !EGL14.eglInitialize(eglDisplay, version, 0, version, 1)) {
+            Timber.e("Unable to initialise EGL: ${EGL14.eglGetError()}")
+            return
+        }
+        val configs = arrayOfNulls<EGLConfig>(1)
+        val numConfigs = IntArray(1)
+        EGL14.eglChooseConfig(eglDisplay, CONFIG_ATTRIBUTES, 0, configs, 0, 1, numConfigs, 0)
+        eglConfig = configs[0].takeIf { numConfigs[0] > 0 } ?: run {
+            Timber.e("No EGL config available")
+            return
+        }
+        eglContext = EGL14.eglCreateContext(
+            eglDisplay,
+            eglConfig,
+            EGL14.EGL_NO_CONTEXT,
+            intArrayOf(EGL14.EGL_CONTEXT_CLIENT_VERSION, 2, EGL14.EGL_NONE),
+            0
+        )
+        if (eglContext == EGL14.EGL_NO_CONTEXT) {
+            Timber.e("Unable to create EGL context: ${EGL14.eglGetError()}")
+            return
+        }
+        // A pbuffer surface makes the context current to compile the shaders before any tile
+        val pbuffer = EGL14.eglCreatePbufferSurface(
+            eglDisplay,
+            eglConfig,
+            intArrayOf(EGL14.EGL_WIDTH, 1, EGL14.EGL_HEIGHT, 1, EGL14.EGL_NONE),
+            0
+        )
+        if (makeCurrent(pbuffer)) {
+            program = runCatching { MeetingVideoProgram() }
+                .onFailure { Timber.e(it, "Unable to create the video shader program") }
+                .getOrNull()
+        }
+        destroySurface(pbuffer)
+    }
+
+    private fun releaseEgl() {
+        if (eglDisplay == EGL14.EGL_NO_DISPLAY) return
+        program?.let {
+            val pbuffer = EGL14.eglCreatePbufferSurface(
+                eglDisplay,
+                eglConfig,
+                intArrayOf(EGL14.EGL_WIDTH, 1, EGL14.EGL_HEIGHT, 1, EGL14.EGL_NONE),
+                0
+            )
+            if (makeCurrent(pbuffer)) GLES20.glDeleteProgram(it.id)
+            destroySurface(pbuffer)
+        }
+        program = null
+        EGL14.eglDestroyContext(eglDisplay, eglContext)
+        EGL14.eglReleaseThread()
+        // The default display is shared with the other EGL users of the process, such as the
+        // video transcoder, so only the context and surfaces created here are released
+        eglDisplay = EGL14.EGL_NO_DISPLAY
+        eglContext = EGL14.EGL_NO_CONTEXT
+        eglConfig = null
+    }
+
+    companion object {
+        private const val THREAD_NAME = "MeetingVideoGL"
+
+        private val CONFIG_ATTRIBUTES = intArrayOf(
+            EGL14.EGL_RED_SIZE, 8,
+            EGL14.EGL_GREEN_SIZE, 8,
+            EGL14.EGL_BLUE_SIZE, 8,
+            EGL14.EGL_ALPHA_SIZE, 8,
+            EGL14.EGL_RENDERABLE_TYPE, EGL14.EGL_OPENGL_ES2_BIT,
+            EGL14.EGL_SURFACE_TYPE, EGL14.EGL_WINDOW_BIT or EGL14.EGL_PBUFFER_BIT,
+            EGL14.EGL_NONE
+        )
+
+        private var current: MeetingVideoGLThread? = null
+        private var stopped: HandlerThread? = null
+        private var users = 0
+
+        /**
+         * Attach a user to the thread, starting it if needed
+         *
+         * @return the running GL thread
+         */
+        @Synchronized
+        fun acquire(): MeetingVideoGLThread {
+            users++
+            return current ?: HandlerThread(THREAD_NAME, Process.THREAD_PRIORITY_DISPLAY).let {
+                it.start()
+                MeetingVideoGLThread(it, stopped).also { glThread -> current = glThread }
+            }
+        }
+
+        /**
+         * Detach a user from the thread, stopping it after the last one
+         */
+        @Synchronized
+        fun release() {
+            if (users == 0) return
+            users--
+            if (users > 0) return
+            current?.let {
+                it.quit()
+                stopped = it.thread
+            }
+            current = null
+        }
+    }
+}
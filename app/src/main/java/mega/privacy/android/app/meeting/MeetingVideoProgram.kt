@@ -0,0 +1,150 @@
+package mega.privacy.android.app.meeting
+
+import android.opengl.GLES20
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.FloatBuffer
+
+/**
+ * Shader program drawing a meeting video frame from a texture
+ *
+ * The frame is scaled to fit or to fill the surface, mirrored if needed, and its corners are
+ * masked in the fragment shader, so no work is done on the CPU apart from uploading the frame.
+ * It must be created and used on the GL thread.
+ */
+internal class MeetingVideoProgram {
+
+    /**
+     * GL name of the program
+     */
+    val id: Int = createProgram()
+
+    private val positionLocation = GLES20.glGetAttribLocation(id, "aPosition")
+    private val scaleLocation = GLES20.glGetUniformLocation(id, "uScale")
+    private val mirrorLocation = GLES20.glGetUniformLocation(id, "uMirror")
+    private val textureLocation = GLES20.glGetUniformLocation(id, "uTexture")
+    private val quadSizeLocation = GLES20.glGetUniformLocation(id, "uQuadSize")
+    private val radiusLocation = GLES20.glGetUniformLocation(id, "uRadius")
+    private val alphaLocation = GLES20.glGetUniformLocation(id, "uAlpha")
+
+    private val quad: FloatBuffer = ByteBuffer.allocateDirect(QUAD.size * Float.SIZE_BYTES)
+        .order(ByteOrder.nativeOrder())
+        .asFloatBuffer()
+        .put(QUAD)
+        .apply { position(0) }
+
+    /**
+     * Draw the texture bound to unit 0
+     *
+     * @param scaleX      horizontal scale of the frame relative to the surface
+     * @param scaleY      vertical scale of the frame relative to the surface
+     * @param mirror      true to mirror the frame horizontally
+     * @param quadWidth   width in pixels of the drawn frame
+     * @param quadHeight  height in pixels of the drawn frame
+     * @param radius      radius in pixels of the rounded corners, 0 for square corners
+     * @param alpha       opacity of the frame, from 0 to 1
+     */
+    fun draw(
+        scaleX: Float,
+        scaleY: Float,
+        mirror: Boolean,
+        quadWidth: Float,
+        quadHeight: Float,
+        radius: Float,
+        alpha: Float,
+    ) {
+        GLES20.glUseProgram(id)
+        GLES20.glUniform2f(scaleLocation, scaleX, scaleY)
+        GLES20.glUniform1f(mirrorLocation, if (mirror) -1f else 1f)
+        GLES20.glUniform1i(textureLocation, 0)
+        GLES20.glUniform2f(quadSizeLocation, quadWidth, quadHeight)
+        GLES20.glUniform1f(radiusLocation, radius)
+        GLES20.glUniform1f(alphaLocation, alpha)
+        GLES20.glEnableVertexAttribArray(positionLocation)
+        GLES20.glVertexAttribPointer(positionLocation, 2, GLES20.GL_FLOAT, false, 0, quad)
+        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, QUAD.size / 2)
+        GLES20.glDisableVertexAttribArray(positionLocation)
+    }
+
+    private fun createProgram(): Int {
+        val vertexShader = compileShader(GLES20.GL_VERTEX_SHADER, VERTEX_SHADER)
+        val fragmentShader = compileShader(GLES20.GL_FRAGMENT_SHADER, FRAGMENT_SHADER)
+        val program = GLES20.glCreateProgram()
+        GLES20.glAttachShader(program, vertexShader)
+        GLES20.glAttachShader(program, fragmentShader)
+        GLES20.glLinkProgram(program)
+        GLES20.glDeleteShader(vertexShader)
+        GLES20.glDeleteShader(fragmentShader)
+
+        val status = IntArray(1)
+        GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, status, 0)
+        if (status[0] != GLES20.GL_TRUE) {
+            val log = GLES20.glGetProgramInfoLog(program)
+            GLES20.glDeleteProgram(program)
+            throw IllegalStateException("Unable to link program: $log")
+        }
+        return program
+    }
+
+    private fun compileShader(type: Int, source: String): Int {
+        val shader = GLES20.glCreateShader(type)
+        GLES20.glShaderSource(shader, source)
+        GLES20.glCompileShader(shader)
+
+        val status = IntArray(1)
+        GLES20.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, status, 0)
+        if (status[0] != GLES20.GL_TRUE) {
+            val log = GLES20.glGetShaderInfoLog(shader)
+            GLES20.glDeleteShader(shader)
+            throw IllegalStateException("Unable to compile shader: $log")
+        }
+        return shader
+    }
+
+    private companion object {
+        val QUAD = floatArrayOf(
+            -1f, -1f,
+            1f, -1f,
+            -1f, 1f,
+            1f, 1f,
+        )
+
+        /**
+         * The first row of the frame is the top one, so the texture is flipped vertically
+         */
+        const val VERTEX_SHADER = """
+            attribute vec2 aPosition;
+            uniform vec2 uScale;
+            uniform float uMirror;
+            varying vec2 vTexCoord;
+            varying vec2 vQuadCoord;
+            void main() {
+                vQuadCoord = aPosition * 0.5 + 0.5;
+                vTexCoord = vec2(vQuadCoord.x, 1.0 - vQuadCoord.y);
+                gl_Position = vec4(aPosition.x * uScale.x * uMirror, aPosition.y * uScale.y, 0.0, 1.0);
+            }
+        """
+
+        /**
+         * The output is premultiplied, as expected by a non opaque TextureView
+         */
+        const val FRAGMENT_SHADER = """
+            precision mediump float;
+            uniform sampler2D uTexture;
+            uniform vec2 uQuadSize;
+            uniform float uRadius;
+            uniform float uAlpha;
+            varying vec2 vTexCoord;
+            varying vec2 vQuadCoord;
+            void main() {
+                float coverage = 1.0;
+                if (uRadius > 0.0) {
+                    vec2 halfSize = uQuadSize * 0.5;
+                    vec2 distance = max(abs(vQuadCoord * uQuadSize - halfSize) - (halfSize - uRadius), 0.0);
+                    coverage = clamp(uRadius - length(distance) + 0.5, 0.0, 1.0);
+                }
+                gl_FragColor = vec4(texture2D(uTexture, vTexCoord).rgb, 1.0) * (coverage * uAlpha);
+            }
+        """
+    }
+}
@@ -0,0 +1,343 @@
+package mega.privacy.android.app.meeting
+
+import android.graphics.SurfaceTexture
+import android.opengl.EGLSurface
+import android.opengl.GLES20
+import android.os.SystemClock
+import android.util.DisplayMetrics
+import android.view.TextureView
+import mega.privacy.android.app.utils.Util.dp2px
+import mega.privacy.android.app.utils.VideoCaptureUtils.isFrontCameraInUse
+import nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE
+import timber.log.Timber
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.concurrent.CopyOnWriteArrayList
+
+/**
+ * Renderer of the video frames of a meeting participant into a [TextureView]
+ *
+ * Frames are uploaded into a reusable texture and drawn with [MeetingVideoProgram] on the
+ * GL thread shared by all the participants, see [MeetingVideoGLThread]. If a new frame arrives
+ * before the previous one has been drawn, the previous one is dropped.
+ *
+ * @property textureView    view where the frames are drawn
+ * @property isSmallCamera  true to fit the frames with rounded corners, false to fill the view
+ * @property outMetrics     display metrics used to compute the corner radius
+ * @property peerId         peer id of the participant
+ * @property clientId       client id of the participant
+ */
+class MeetingVideoRenderer private constructor(
+    private val textureView: TextureView,
+    private val isSmallCamera: Boolean,
+    private val outMetrics: DisplayMetrics?,
+    private val peerId: Long,
+    private val clientId: Long,
+) : TextureView.SurfaceTextureListener {
+
+    constructor(view: TextureView, isSmallCamera: Boolean, outMetrics: DisplayMetrics?) :
+            this(view, isSmallCamera, outMetrics, MEGACHAT_INVALID_HANDLE, MEGACHAT_INVALID_HANDLE)
+
+    constructor(view: TextureView, peerId: Long, clientId: Long) :
+            this(view, false, null, peerId, clientId)
+
+    /**
+     * Listener notified when the surface of the view becomes available
+     */
+    interface Listener {
+        /**
+         * Reset the size of the video of a participant
+         *
+         * @param peerId    peer id of the participant
+         * @param clientId  client id of the participant
+         */
+        fun resetSize(peerId: Long, clientId: Long)
+    }
+
+    /**
+     * Rendering metrics of a participant tile
+     *
+     * @property framesRendered      number of frames drawn
+     * @property framesDropped       number of frames replaced by a newer one before being drawn
+     * @property lastFrameTimeMs     time spent uploading and drawing the last frame
+     * @property averageFrameTimeMs  average time spent uploading and drawing a frame
+     */
+    data class Metrics(
+        val framesRendered: Long,
+        val framesDropped: Long,
+        val lastFrameTimeMs: Double,
+        val averageFrameTimeMs: Double,
+    )
+
+    private val listeners = CopyOnWriteArrayList<Listener>()
+
+    @Volatile
+    private var alpha = VISIBLE
+
+    @Volatile
+    private var surfaceWidth = 0
+
+    @Volatile
+    private var surfaceHeight = 0
+
+    private val frameLock = Any()
+    private var glThread: MeetingVideoGLThread? = null
+    private var pendingFrame: ByteBuffer? = null
+    private var spareFrame: ByteBuffer? = null
+    private var pendingWidth = 0
+    private var pendingHeight = 0
+    private var pendingMirror = false
+    private var isDrawScheduled = false
+    private var framesRendered = 0L
+    private var framesDropped = 0L
+    private var lastFrameTimeNanos = 0L
+    private var totalFrameTimeNanos = 0L
+
+    // Only accessed on the GL thread
+    private var eglThread: MeetingVideoGLThread? = null
+    private var eglSurface: EGLSurface? = null
+    private var textureId = 0
+    private var textureWidth = 0
+    private var textureHeight = 0
+
+    private val drawRunnable = Runnable { drawPendingFrame() }
+
+    init {
+        textureView.surfaceTextureListener = this
+        if (isSmallCamera) {
+            textureView.isOpaque = false
+        }
+        textureView.surfaceTexture?.takeIf { textureView.isAvailable }?.let {
+            attach(it, textureView.width, textureView.height)
+        }
+    }
+
+    /**
+     * Set the opacity used when the frames are fitted with rounded corners
+     *
+     * @param alpha opacity, from 0 to 255
+     */
+    fun setAlpha(alpha: Int) {
+        this.alpha = alpha
+    }
+
+    /**
+     * Add a listener, null listeners are ignored
+     */
+    fun addListener(listener: Listener?) {
+        listener?.let { listeners.add(it) }
+    }
+
+    /**
+     * Current rendering metrics
+     */
+    val metrics: Metrics
+        get() = synchronized(frameLock) {
+            Metrics(
+                framesRendered = framesRendered,
+                framesDropped = framesDropped,
+                lastFrameTimeMs = lastFrameTimeNanos / NANOS_PER_MILLI,
+                averageFrameTimeMs = if (framesRendered == 0L) 0.0
+                else totalFrameTimeNanos / framesRendered / NANOS_PER_MILLI,
+            )
+        }
+
+    /**
+     * Queue a video frame to be drawn
+     *
+     * The SDK only keeps [data] valid during the callback, so it is copied into a reusable
+     * buffer and the actual upload and drawing are done on the GL thread.
+     *
+     * @param width   width of the frame
+     * @param height  height of the frame
+     * @param data    RGBA pixels of the frame
+     * @param isLocal true if the frame comes from the local camera
+     */
+    fun renderFrame(width: Int, height: Int, data: ByteArray, isLocal: Boolean) {
+        val size = width * height * BYTES_PER_PIXEL
+        if (width <= 0 || height <= 0 || data.size < size) return
+        val mirror = isLocal && isFrontCameraInUse()
+
+        val handler = synchronized(frameLock) {
+            val handler = glThread?.handler ?: return
+            val pending = pendingFrame
+            if (pending != null) framesDropped++
+            val buffer = (pending ?: spareFrame)?.takeIf { it.capacity() >= size }
+                ?: ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder())
+            if (pending == null) spareFrame = null
+            buffer.clear()
+            buffer.put(data, 0, size)
+            buffer.flip()
+            pendingFrame = buffer
+            pendingWidth = width
+            pendingHeight = height
+            pendingMirror = mirror
+            if (isDrawScheduled) return
+            isDrawScheduled = true
+            handler
+        }
+        handler.post(drawRunnable)
+    }
+
+    private fun drawPendingFrame() {
+        val frame: ByteBuffer
+        val width: Int
+        val height: Int
+        val mirror: Boolean
+        synchronized(frameLock) {
+            isDrawScheduled = false
+            frame = pendingFrame ?: return
+            pendingFrame = null
+            width = pendingWidth
+            height = pendingHeight
+            mirror = pendingMirror
+        }
+
+        val start = SystemClock.elapsedRealtimeNanos()
+        val drawn = drawFrame(frame, width, height, mirror)
+        val frameTime = SystemClock.elapsedRealtimeNanos() - start
+
+        synchronized(frameLock) {
+            spareFrame = frame
+            if (drawn) {
+                framesRendered++
+                lastFrameTimeNanos = frameTime
+                totalFrameTimeNanos += frameTime
+            }
+        }
+    }
+
+    private fun drawFrame(frame: ByteBuffer, width: Int, height: Int, mirror: Boolean): Boolean {
+        val glThread = eglThread ?: return false
+        val surface = eglSurface ?: return false
+        val program = glThread.program ?: return false
+        val viewWidth = surfaceWidth
+        val viewHeight = surfaceHeight
+        if (viewWidth == 0 || viewHeight == 0 || !glThread.makeCurrent(surface)) {
+            return false
+        }
+
+        uploadFrame(frame, width, height)
+
+        val srcAspectRatio = width.toFloat() / height
+        val dstAspectRatio = viewWidth.toFloat() / viewHeight
+        // Fit the frame in the small camera, crop it to fill the view otherwise
+        val matchWidth = isSmallCamera == srcAspectRatio > dstAspectRatio
+        val scaleX = if (matchWidth) 1f else srcAspectRatio / dstAspectRatio
+        val scaleY = if (matchWidth) dstAspectRatio / srcAspectRatio else 1f
+
+        GLES20.glViewport(0, 0, viewWidth, viewHeight)
+        GLES20.glClearColor(0f, 0f, 0f, 0f)
+        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT)
+        program.draw(
+            scaleX = scaleX,
+            scaleY = scaleY,
+            mirror = mirror,
+            quadWidth = viewWidth * scaleX,
+            quadHeight = viewHeight * scaleY,
+            radius = if (isSmallCamera) dp2px(CORNER_RADIUS, outMetrics).toFloat() else 0f,
+            alpha = if (isSmallCamera) alpha / VISIBLE.toFloat() else 1f,
+        )
+        return glThread.swapBuffers(surface)
+    }
+
+    private fun uploadFrame(frame: ByteBuffer, width: Int, height: Int) {
+        if (textureId == 0) {
+            val textures = IntArray(1)
+            GLES20.glGenTextures(1, textures, 0)
+            textureId = textures[0]
+            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId)
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR)
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR)
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE)
+            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE)
+        }
+
+        GLES20.glActiveTexture(GLES20.GL_TEXTURE0)
+        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId)
+        if (width != textureWidth || height != textureHeight) {
+            GLES20.glTexImage2D(
+                GLES20.GL_TEXTURE_2D, 0, GLES20.GL_RGBA, width, height, 0,
+                GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, frame
+            )
+            textureWidth = width
+            textureHeight = height
+        } else {
+            GLES20.glTexSubImage2D(
+                GLES20.GL_TEXTURE_2D, 0, 0, 0, width, height,
+                GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, frame
+            )
+        }
+    }
+
+    private fun attach(surfaceTexture: SurfaceTexture, width: Int, height: Int) {
+        surfaceWidth = width
+        surfaceHeight = height
+        val thread = synchronized(frameLock) {
+            if (glThread != null) return
+            MeetingVideoGLThread.acquire().also { glThread = it }
+        }
+        thread.handler.post {
+            eglThread = thread
+            eglSurface = thread.createWindowSurface(surfaceTexture)
+        }
+    }
+
+    private fun detach(surfaceTexture: SurfaceTexture) {
+        val thread = synchronized(frameLock) {
+            val thread = glThread ?: return false
+            glThread = null
+            pendingFrame = null
+            spareFrame = null
+            isDrawScheduled = false
+            thread
+        }
+        thread.handler.post {
+            eglSurface?.let { surface ->
+                if (textureId != 0 && thread.makeCurrent(surface)) {
+                    GLES20.glDeleteTextures(1, intArrayOf(textureId), 0)
+                }
+                thread.destroySurface(surface)
+            }
+            eglThread = null
+            eglSurface = null
+            textureId = 0
+            textureWidth = 0
+            textureHeight = 0
+            surfaceTexture.release()
+            Timber.d("Video of client $clientId detached: $metrics")
+        }
+        MeetingVideoGLThread.release()
+        return true
+    }
+
+    override fun onSurfaceTextureAvailable(surfaceTexture: SurfaceTexture, width: Int, height: Int) {
+        Timber.d("TextureView Available")
+        listeners.forEach { it.resetSize(peerId, clientId) }
+        attach(surfaceTexture, width, height)
+    }
+
+    override fun onSurfaceTextureSizeChanged(surfaceTexture: SurfaceTexture, width: Int, height: Int) {
+        surfaceWidth = width
+        surfaceHeight = height
+    }
+
+    /**
+     * The [SurfaceTexture] is released on the GL thread, once its EGL surface has been destroyed
+     */
+    override fun onSurfaceTextureDestroyed(surfaceTexture: SurfaceTexture): Boolean {
+        Timber.d("TextureView destroyed")
+        surfaceWidth = 0
+        surfaceHeight = 0
+        return !detach(surfaceTexture)
+    }
+
+    override fun onSurfaceTextureUpdated(surfaceTexture: SurfaceTexture) {}
+
+    private companion object {
+        const val CORNER_RADIUS = 8f
+        const val VISIBLE = 255
+        const val BYTES_PER_PIXEL = 4
+        const val NANOS_PER_MILLI = 1_000_000.0
+    }
+}
@@ -6,7 +6,7 @@ import androidx.recyclerview.widget.LinearLayoutManager
 import androidx.recyclerview.widget.ListAdapter
 import androidx.recyclerview.widget.RecyclerView
 import mega.privacy.android.app.databinding.ItemParticipantVideoBinding
-import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.MeetingVideoRenderer
 import mega.privacy.android.app.meeting.fragments.InMeetingViewModel
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.Constants.INVALID_POSITION
@@ -15,7 +15,7 @@ import timber.log.Timber
 class VideoListViewAdapter(
     private val inMeetingViewModel: InMeetingViewModel,
     private val listView: RecyclerView,
-    private val listenerRenderer: MegaSurfaceRenderer.MegaSurfaceRendererListener?,
+    private val listenerRenderer: MeetingVideoRenderer.Listener?,
 ) : ListAdapter<Participant, VideoMeetingViewHolder>(ParticipantDiffCallback()) {
 
     override fun onViewRecycled(holder: VideoMeetingViewHolder) {
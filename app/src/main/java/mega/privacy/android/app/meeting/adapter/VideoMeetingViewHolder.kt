@@ -9,7 +9,7 @@ import androidx.recyclerview.widget.GridLayoutManager
 import androidx.recyclerview.widget.RecyclerView
 import mega.privacy.android.app.R
 import mega.privacy.android.app.databinding.ItemParticipantVideoBinding
-import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.MeetingVideoRenderer
 import mega.privacy.android.app.meeting.fragments.InMeetingViewModel
 import mega.privacy.android.app.utils.Constants.AVATAR_CHANGE
 import mega.privacy.android.app.utils.Constants.NAME_CHANGE
@@ -29,7 +29,7 @@ class VideoMeetingViewHolder(
     private val screenWidth: Int,
     private val screenHeight: Int,
     private val isGrid: Boolean,
-    private val listenerRenderer: MegaSurfaceRenderer.MegaSurfaceRendererListener?,
+    private val listenerRenderer: MeetingVideoRenderer.Listener?,
     private val onPageClickedCallback: (() -> Unit)?,
 ) : RecyclerView.ViewHolder(binding.root) {
 
@@ -17,7 +17,7 @@ import mega.privacy.android.app.components.RoundedImageView
 import mega.privacy.android.app.constants.EventConstants.EVENT_REMOTE_AUDIO_LEVEL_CHANGE
 import mega.privacy.android.app.databinding.SpeakerViewCallFragmentBinding
 import mega.privacy.android.app.fragments.homepage.EventObserver
-import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.MeetingVideoRenderer
 import mega.privacy.android.app.meeting.adapter.Participant
 import mega.privacy.android.app.meeting.adapter.VideoListViewAdapter
 import mega.privacy.android.app.utils.Constants
@@ -27,7 +27,7 @@ import nz.mega.sdk.MegaChatSession
 import timber.log.Timber
 
 class SpeakerViewCallFragment : MeetingBaseFragment(),
-    MegaSurfaceRenderer.MegaSurfaceRendererListener {
+    MeetingVideoRenderer.Listener {
 
     private lateinit var inMeetingViewModel: InMeetingViewModel
 
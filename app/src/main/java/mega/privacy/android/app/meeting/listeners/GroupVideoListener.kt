@@ -1,13 +1,11 @@
 package mega.privacy.android.app.meeting.listeners
 
-import android.graphics.Bitmap
 import android.view.TextureView
-import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.MeetingVideoRenderer
 import mega.privacy.android.app.utils.Constants.INVALID_DIMENSION
 import mega.privacy.android.app.utils.VideoCaptureUtils
 import nz.mega.sdk.MegaChatApiJava
 import nz.mega.sdk.MegaChatVideoListenerInterface
-import java.nio.ByteBuffer
 
 class GroupVideoListener(
     textureView: TextureView,
@@ -18,10 +16,9 @@ class GroupVideoListener(
 
     var width = 0
     var height = 0
-    private var bitmap: Bitmap? = null
     var textureView: TextureView? = null
     private var isLocal = false
-    var localRenderer: MegaSurfaceRenderer? = null
+    var localRenderer: MeetingVideoRenderer? = null
 
     override fun onChatVideoData(
         api: MegaChatApiJava,
@@ -40,18 +37,16 @@ class GroupVideoListener(
             this.height = height
             val viewWidth = textureView!!.width
             val viewHeight = textureView!!.height
-            if (viewWidth != 0 && viewHeight != 0) {
-                bitmap = localRenderer!!.createBitmap(width, height)
-            } else {
+            if (viewWidth == 0 || viewHeight == 0) {
                 this.width = INVALID_DIMENSION
                 this.height = INVALID_DIMENSION
             }
         }
 
-        (bitmap ?: return).copyPixelsFromBuffer(ByteBuffer.wrap(byteBuffer))
+        if (this.width == INVALID_DIMENSION) return
 
         if (!isLocal || VideoCaptureUtils.isVideoAllowed()) {
-            localRenderer!!.drawBitmap(isLocal)
+            localRenderer!!.renderFrame(width, height, byteBuffer, isLocal)
         }
     }
 
@@ -60,6 +55,6 @@ class GroupVideoListener(
         this.height = 0
         this.textureView = textureView
         this.isLocal = isMe
-        this.localRenderer = MegaSurfaceRenderer(textureView, peerId, clientId)
+        this.localRenderer = MeetingVideoRenderer(textureView, peerId, clientId)
     }
 }
\ No newline at end of file
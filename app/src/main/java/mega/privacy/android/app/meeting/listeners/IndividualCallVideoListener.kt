@@ -1,15 +1,13 @@
 package mega.privacy.android.app.meeting.listeners
 
-import android.graphics.Bitmap
 import android.util.DisplayMetrics
 import android.view.TextureView
-import mega.privacy.android.app.meeting.MegaSurfaceRenderer
+import mega.privacy.android.app.meeting.MeetingVideoRenderer
 import mega.privacy.android.app.utils.Constants
 import mega.privacy.android.app.utils.VideoCaptureUtils
 import nz.mega.sdk.MegaChatApiJava
 import nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE
 import nz.mega.sdk.MegaChatVideoListenerInterface
-import java.nio.ByteBuffer
 
 /**
  * A listener for metadata corresponding to video being rendered.
@@ -25,8 +23,7 @@ class IndividualCallVideoListener(
     var height = 0
     private var isFloatingWindow = false
     private var isLocal = true
-    val renderer: MegaSurfaceRenderer
-    private var bitmap: Bitmap? = null
+    val renderer: MeetingVideoRenderer
 
     fun setAlpha(alpha: Int) {
         renderer.setAlpha(alpha)
@@ -48,17 +45,15 @@ class IndividualCallVideoListener(
             this.height = height
             val viewWidth = textureView.width
             val viewHeight = textureView.height
-            if (viewWidth != 0 && viewHeight != 0) {
-                bitmap = renderer.createBitmap(width, height)
-            } else {
+            if (viewWidth == 0 || viewHeight == 0) {
                 this.width = Constants.INVALID_DIMENSION
                 this.height = Constants.INVALID_DIMENSION
             }
         }
 
-        (bitmap ?: return).copyPixelsFromBuffer(ByteBuffer.wrap(byteBuffer))
+        if (this.width == Constants.INVALID_DIMENSION) return
         if (VideoCaptureUtils.isVideoAllowed()) {
-            renderer.drawBitmap(isLocal)
+            renderer.renderFrame(width, height, byteBuffer, isLocal)
         }
     }
 
@@ -67,7 +62,7 @@ class IndividualCallVideoListener(
 
         this.isFloatingWindow = isFloatingWindow
 
-        renderer = MegaSurfaceRenderer(
+        renderer = MeetingVideoRenderer(
             textureView,
             isFloatingWindow,
             outMetrics
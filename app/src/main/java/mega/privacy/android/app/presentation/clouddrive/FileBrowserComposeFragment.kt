@@ -37,6 +37,7 @@ import mega.privacy.android.app.R
 import mega.privacy.android.app.activities.WebViewActivity
 import mega.privacy.android.app.arch.extensions.collectFlow
 import mega.privacy.android.app.constants.EventConstants
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.fragments.homepage.EventObserver
 import mega.privacy.android.app.fragments.homepage.SortByHeaderViewModel
 import mega.privacy.android.app.interfaces.ActionBackupListener
@@ -104,6 +105,12 @@ class FileBrowserComposeFragment : Fragment() {
     @Inject
     lateinit var getOptionsForToolbarMapper: GetOptionsForToolbarMapper
 
+    /**
+     * Prefetches the thumbnails of the visible and upcoming nodes
+     */
+    @Inject
+    lateinit var thumbnailPrefetcher: ThumbnailPrefetcher
+
     private val fileBrowserViewModel: FileBrowserViewModel by activityViewModels()
     private val sortByHeaderViewModel: SortByHeaderViewModel by activityViewModels()
 
@@ -174,7 +181,8 @@ class FileBrowserComposeFragment : Fragment() {
                         onEnterMediaDiscoveryClick = {
                             disableSelectMode()
                             showMediaDiscovery(isOpenByMDIcon = true)
-                        }
+                        },
+                        thumbnailPrefetcher = thumbnailPrefetcher,
                     )
                 }
                 performItemOptionsClick(uiState.optionsItemInfo)
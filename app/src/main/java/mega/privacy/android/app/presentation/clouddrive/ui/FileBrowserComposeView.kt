@@ -10,6 +10,7 @@ import androidx.compose.ui.platform.testTag
 import androidx.compose.ui.res.painterResource
 import androidx.compose.ui.res.stringResource
 import androidx.compose.ui.unit.dp
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.presentation.clouddrive.model.FileBrowserState
 import mega.privacy.android.app.presentation.data.NodeUIItem
 import mega.privacy.android.app.presentation.view.NODES_EMPTY_VIEW_VISIBLE
@@ -31,6 +32,7 @@ import mega.privacy.android.domain.entity.preference.ViewType
  * @param onChangeViewTypeClick
  * @param onDisputeTakeDownClicked
  * @param onLinkClicked
+ * @param thumbnailPrefetcher prefetches the thumbnails of the visible and upcoming nodes
  */
 @Composable
 fun FileBrowserComposeView(
@@ -46,7 +48,8 @@ fun FileBrowserComposeView(
     onDisputeTakeDownClicked: (String) -> Unit,
     onUpgradeClicked: () -> Unit,
     onDismissClicked: () -> Unit,
-    onEnterMediaDiscoveryClick: () -> Unit
+    onEnterMediaDiscoveryClick: () -> Unit,
+    thumbnailPrefetcher: ThumbnailPrefetcher? = null,
 ) {
     val listState = rememberLazyListState()
     val gridState = rememberLazyGridState()
@@ -75,6 +78,7 @@ fun FileBrowserComposeView(
                 onDisputeTakeDownClicked = onDisputeTakeDownClicked,
                 showMediaDiscoveryButton = uiState.showMediaDiscoveryIcon,
                 onEnterMediaDiscoveryClick = onEnterMediaDiscoveryClick,
+                thumbnailPrefetcher = thumbnailPrefetcher,
             )
         }
     } else {
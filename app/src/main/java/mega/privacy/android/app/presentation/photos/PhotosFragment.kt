@@ -44,6 +44,7 @@ import mega.privacy.android.app.MegaApplication
 import mega.privacy.android.app.R
 import mega.privacy.android.app.extensions.navigateToAppSettings
 import mega.privacy.android.app.featuretoggle.AppFeatures
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.imageviewer.ImageViewerActivity
 import mega.privacy.android.app.main.ManagerActivity
 import mega.privacy.android.app.presentation.extensions.isDarkMode
@@ -133,6 +134,12 @@ class PhotosFragment : Fragment() {
     @Inject
     lateinit var getFeatureFlagUseCase: GetFeatureFlagValueUseCase
 
+    /**
+     * Prefetches the thumbnails of the visible and upcoming Timeline photos
+     */
+    @Inject
+    lateinit var thumbnailPrefetcher: ThumbnailPrefetcher
+
     private var isNewCUEnabled: Boolean = false
 
     override fun onCreate(savedInstanceState: Bundle?) {
@@ -171,6 +178,7 @@ class PhotosFragment : Fragment() {
                         onNavigateAlbumPhotosSelection = ::openAlbumPhotosSelection,
                         onZoomIn = ::handleZoomIn,
                         onZoomOut = ::handleZoomOut,
+                        thumbnailPrefetcher = thumbnailPrefetcher,
                     )
                 }
             }
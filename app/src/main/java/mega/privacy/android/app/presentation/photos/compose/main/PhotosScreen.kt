@@ -15,6 +15,7 @@ import kotlinx.coroutines.launch
 import mega.privacy.android.analytics.Analytics
 import mega.privacy.android.app.R
 import mega.privacy.android.app.featuretoggle.AppFeatures
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.presentation.account.CameraUploadsBusinessAlertDialog
 import mega.privacy.android.app.presentation.photos.PhotoDownloaderViewModel
 import mega.privacy.android.app.presentation.photos.PhotosViewComposeCoordinator
@@ -56,6 +57,7 @@ fun PhotosScreen(
     onNavigateAlbumPhotosSelection: (AlbumId) -> Unit,
     onZoomIn: () -> Unit,
     onZoomOut: () -> Unit,
+    thumbnailPrefetcher: ThumbnailPrefetcher? = null,
 ) {
     val photosViewState by photosViewModel.state.collectAsStateWithLifecycle()
     val timelineViewState by timelineViewModel.state.collectAsStateWithLifecycle()
@@ -126,6 +128,7 @@ fun PhotosScreen(
                         lazyGridState = timelineLazyGridState,
                         onClick = timelineViewModel::onClick,
                         onLongPress = timelineViewModel::onLongPress,
+                        thumbnailPrefetcher = thumbnailPrefetcher,
                     )
                 },
                 emptyView = {
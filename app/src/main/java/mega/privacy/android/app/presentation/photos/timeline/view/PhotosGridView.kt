@@ -23,6 +23,8 @@ import androidx.compose.ui.res.colorResource
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.unit.dp
 import mega.privacy.android.app.R
+import mega.privacy.android.app.fetcher.ThumbnailPrefetchEffect
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.presentation.photos.model.PhotoDownload
 import mega.privacy.android.app.presentation.photos.model.ZoomLevel
 import mega.privacy.android.app.presentation.photos.timeline.model.PhotoListItem
@@ -48,6 +50,7 @@ fun PhotosGridView(
     lazyGridState: LazyGridState = rememberLazyGridState(),
     onClick: (Photo) -> Unit = {},
     onLongPress: (Photo) -> Unit = {},
+    thumbnailPrefetcher: ThumbnailPrefetcher? = null,
 ) {
 
     val configuration = LocalConfiguration.current
@@ -59,6 +62,15 @@ fun PhotosGridView(
         }
     }
 
+    thumbnailPrefetcher?.let {
+        ThumbnailPrefetchEffect(
+            prefetcher = it,
+            state = lazyGridState,
+            itemAt = { index -> timelineViewState.photosListItems.getOrNull(index) },
+            handleOf = { item -> (item as? PhotoListItem.PhotoGridItem)?.photo?.id },
+        )
+    }
+
     LazyVerticalGrid(
         columns = GridCells.Fixed(spanCount),
         modifier = modifier
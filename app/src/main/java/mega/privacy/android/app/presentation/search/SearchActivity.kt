@@ -89,7 +89,8 @@ class SearchActivity : AppCompatActivity() {
                     onSortOrderClick = {},
                     onMenuClick = {},
                     onDisputeTakeDownClicked = ::navigateToLink,
-                    onLinkClicked = ::navigateToLink
+                    onLinkClicked = ::navigateToLink,
+                    onLoadMore = viewModel::loadMoreSearchResults
                 )
             }
         }
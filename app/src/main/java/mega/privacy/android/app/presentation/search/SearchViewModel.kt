@@ -31,7 +31,7 @@ import mega.privacy.android.domain.usecase.RootNodeExistsUseCase
 import mega.privacy.android.domain.usecase.canceltoken.CancelCancelTokenUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
 import mega.privacy.android.domain.usecase.search.GetSearchCategoriesUseCase
-import mega.privacy.android.domain.usecase.transfers.MonitorTransferEventsUseCase
+import mega.privacy.android.domain.usecase.transfers.MonitorTransferLifecycleEventsUseCase
 import nz.mega.sdk.MegaApiJava.INVALID_HANDLE
 import nz.mega.sdk.MegaNode
 import timber.log.Timber
@@ -50,7 +50,7 @@ import javax.inject.Inject
 @HiltViewModel
 class SearchViewModel @Inject constructor(
     monitorNodeUpdates: MonitorNodeUpdates,
-    private val monitorTransferEventsUseCase: MonitorTransferEventsUseCase,
+    private val monitorTransferLifecycleEventsUseCase: MonitorTransferLifecycleEventsUseCase,
     private val rootNodeExistsUseCase: RootNodeExistsUseCase,
     private val getRootFolder: GetRootFolder,
     private val searchNodesUseCase: SearchNodesUseCase,
@@ -103,7 +103,7 @@ class SearchViewModel @Inject constructor(
 
     private fun monitorTransferEvent() {
         viewModelScope.launch {
-            monitorTransferEventsUseCase().collect { event ->
+            monitorTransferLifecycleEventsUseCase().collect { event ->
                 if (event is TransferEvent.TransferFinishEvent && !event.transfer.isFolderTransfer) {
                     setTextSubmitted(true)
                 }
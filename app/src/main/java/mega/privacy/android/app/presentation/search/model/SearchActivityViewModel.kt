@@ -4,6 +4,8 @@ import androidx.lifecycle.SavedStateHandle
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.update
@@ -13,16 +15,18 @@ import mega.privacy.android.app.presentation.data.NodeUIItem
 import mega.privacy.android.app.presentation.search.SearchActivity
 import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.search.SearchResultPages
+import mega.privacy.android.domain.entity.search.toSearchResultPages
 import mega.privacy.android.domain.usecase.GetBackupsNodeUseCase
 import mega.privacy.android.domain.usecase.GetParentNodeHandle
 import mega.privacy.android.domain.usecase.GetRootNodeUseCase
 import mega.privacy.android.domain.usecase.GetRubbishNodeUseCase
 import mega.privacy.android.domain.usecase.favourites.IsAvailableOfflineUseCase
 import mega.privacy.android.domain.usecase.node.GetNodeByHandleUseCase
-import mega.privacy.android.domain.usecase.search.IncomingSharesTabSearchUseCase
-import mega.privacy.android.domain.usecase.search.LinkSharesTabSearchUseCase
+import mega.privacy.android.domain.usecase.search.IncomingSharesTabSearchPagesUseCase
+import mega.privacy.android.domain.usecase.search.LinkSharesTabSearchPagesUseCase
 import mega.privacy.android.domain.usecase.search.OutgoingSharesTabSearchUseCase
-import mega.privacy.android.domain.usecase.search.SearchInNodesUseCase
+import mega.privacy.android.domain.usecase.search.SearchInNodesPagesUseCase
 import nz.mega.sdk.MegaApiJava
 import timber.log.Timber
 import javax.inject.Inject
@@ -30,9 +34,10 @@ import javax.inject.Inject
 /**
  * SearchActivity View Model
  * @property monitorNodeUpdates [MonitorNodeUpdates]
- * @property incomingSharesTabSearchUseCase [IncomingSharesTabSearchUseCase]
+ * @property incomingSharesTabSearchPagesUseCase [IncomingSharesTabSearchPagesUseCase]
  * @property outgoingSharesTabSearchUseCase [OutgoingSharesTabSearchUseCase]
- * @property searchInNodesUseCase [SearchInNodesUseCase]
+ * @property linkSharesTabSearchPagesUseCase [LinkSharesTabSearchPagesUseCase]
+ * @property searchInNodesPagesUseCase [SearchInNodesPagesUseCase]
  * @property getRootNodeUseCase [GetRootNodeUseCase]
  * @property getNodeByHandleUseCase [GetNodeByHandleUseCase]
  * @property getRubbishNodeUseCase [GetRubbishNodeUseCase]
@@ -42,10 +47,10 @@ import javax.inject.Inject
 @HiltViewModel
 class SearchActivityViewModel @Inject constructor(
     private val monitorNodeUpdates: MonitorNodeUpdates,
-    private val incomingSharesTabSearchUseCase: IncomingSharesTabSearchUseCase,
+    private val incomingSharesTabSearchPagesUseCase: IncomingSharesTabSearchPagesUseCase,
     private val outgoingSharesTabSearchUseCase: OutgoingSharesTabSearchUseCase,
-    private val linkSharesTabSearchUseCase: LinkSharesTabSearchUseCase,
-    private val searchInNodesUseCase: SearchInNodesUseCase,
+    private val linkSharesTabSearchPagesUseCase: LinkSharesTabSearchPagesUseCase,
+    private val searchInNodesPagesUseCase: SearchInNodesPagesUseCase,
     private val getRootNodeUseCase: GetRootNodeUseCase,
     private val getNodeByHandleUseCase: GetNodeByHandleUseCase,
     private val getRubbishNodeUseCase: GetRubbishNodeUseCase,
@@ -70,6 +75,11 @@ class SearchActivityViewModel @Inject constructor(
     private val parentHandle =
         stateHandle.get<Long>(SearchActivity.PARENT_HANDLE) ?: MegaApiJava.INVALID_HANDLE
 
+    private var searchJob: Job? = null
+    private var loadMoreJob: Job? = null
+    private var searchPages: SearchResultPages<TypedNode>? = null
+    private var loadedPages = 0
+
     init {
         viewModelScope.launch {
             monitorNodeUpdates().collect {
@@ -92,6 +102,9 @@ class SearchActivityViewModel @Inject constructor(
 
     /**
      * Perform search by entering query or change in search type
+     *
+     * Only the first page of results is shown, the rest are loaded with [loadMoreSearchResults].
+     * Performing a new search cancels the previous one.
      */
     fun performSearch(
         query: String,
@@ -99,23 +112,30 @@ class SearchActivityViewModel @Inject constructor(
         searchType: SearchType,
         parentHandle: Long,
     ) {
-        viewModelScope.launch {
+        searchJob?.cancel()
+        loadMoreJob?.cancel()
+        searchPages = null
+        searchJob = viewModelScope.launch {
             runCatching {
                 _state.update {
                     it.copy(isInProgress = true)
                 }
                 val node = getSearchParentNode(searchType = searchType, parentHandle = parentHandle)
 
-                val searchList = getSearchResults(
+                val pages = getSearchResults(
                     query = query,
                     isFirstLevel = isFirstLevel,
                     node = node,
                     searchType = searchType
                 )
+                val firstPage = getNodeUiItems(pages.getPage(0))
+                searchPages = pages
+                loadedPages = 1
                 _state.update {
-                    it.copy(searchItemList = getNodeUiItems(searchList), isInProgress = false)
+                    it.copy(searchItemList = firstPage, isInProgress = false)
                 }
             }.onFailure { ex ->
+                if (ex is CancellationException) throw ex
                 Timber.e(ex)
                 _state.update {
                     it.copy(searchItemList = emptyList(), isInProgress = false)
@@ -124,6 +144,29 @@ class SearchActivityViewModel @Inject constructor(
         }
     }
 
+    /**
+     * Load the next page of search results, when the list is scrolled close to its end
+     */
+    fun loadMoreSearchResults() {
+        val pages = searchPages ?: return
+        if (loadMoreJob?.isActive == true || loadedPages >= pages.pageCount) return
+
+        loadMoreJob = viewModelScope.launch {
+            runCatching {
+                val nodes = pages.getPage(loadedPages)
+                val offset = state.value.searchItemList.size
+                val items = getNodeUiItems(nodes, offset)
+                loadedPages++
+                _state.update {
+                    it.copy(searchItemList = it.searchItemList + items)
+                }
+            }.onFailure { ex ->
+                if (ex is CancellationException) throw ex
+                Timber.e(ex)
+            }
+        }
+    }
+
     /**
      * Update the search handle
      */
@@ -158,23 +201,26 @@ class SearchActivityViewModel @Inject constructor(
      * @param query query to be searched
      * @param isFirstLevel is first level
      * @param node Node
-     * @return list of TypedNode
+     * @return pages of TypedNode
      */
     private suspend fun getSearchResults(
         searchType: SearchType,
         query: String,
         isFirstLevel: Boolean,
         node: Node?,
-    ) =
+    ): SearchResultPages<TypedNode> =
         when (searchType) {
-            SearchType.INCOMING_SHARES -> incomingSharesTabSearchUseCase(query = query)
+            SearchType.INCOMING_SHARES -> incomingSharesTabSearchPagesUseCase(query = query)
+            // Outgoing shares are sorted by name once mapped, so all of them are needed
             SearchType.OUTGOING_SHARES -> outgoingSharesTabSearchUseCase(query = query)
-            SearchType.LINKS -> linkSharesTabSearchUseCase(
+                .toSearchResultPages()
+
+            SearchType.LINKS -> linkSharesTabSearchPagesUseCase(
                 query = query,
                 isFirstLevel = isFirstLevel
             )
 
-            else -> searchInNodesUseCase(
+            else -> searchInNodesPagesUseCase(
                 nodeId = node?.id,
                 query = query,
                 searchCategory = state.value.searchType
@@ -183,10 +229,15 @@ class SearchActivityViewModel @Inject constructor(
 
     /**
      * This will map list of [Node] to [NodeUIItem]
+     * @param offset position of the first node in the search results
      */
-    private suspend fun getNodeUiItems(nodeList: List<TypedNode>): List<NodeUIItem<TypedNode>> {
+    private suspend fun getNodeUiItems(
+        nodeList: List<TypedNode>,
+        offset: Int = 0,
+    ): List<NodeUIItem<TypedNode>> {
         val existingNodeList = state.value.searchItemList
-        return nodeList.mapIndexed { index, node ->
+        return nodeList.mapIndexed { i, node ->
+            val index = offset + i
             NodeUIItem(
                 node = node,
                 isSelected = false,
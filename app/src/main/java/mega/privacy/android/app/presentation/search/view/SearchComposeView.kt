@@ -8,8 +8,14 @@ import androidx.compose.foundation.lazy.rememberLazyListState
 import androidx.compose.material.Scaffold
 import androidx.compose.material.Text
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
 import androidx.compose.ui.Alignment
 import androidx.compose.ui.Modifier
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.filter
 import mega.privacy.android.app.presentation.data.NodeUIItem
 import mega.privacy.android.app.presentation.search.model.SearchActivityState
 import mega.privacy.android.app.presentation.view.NodesView
@@ -29,6 +35,7 @@ import mega.privacy.android.domain.entity.preference.ViewType
  * @param onChangeViewTypeClick change view type click listener
  * @param onLinkClicked link click listener for item
  * @param onDisputeTakeDownClicked dispute take-down click listener
+ * @param onLoadMore called when the list is scrolled close to its end, to load more results
  */
 @Composable
 fun SearchComposeView(
@@ -41,9 +48,26 @@ fun SearchComposeView(
     onChangeViewTypeClick: () -> Unit,
     onLinkClicked: (String) -> Unit,
     onDisputeTakeDownClicked: (String) -> Unit,
+    onLoadMore: () -> Unit = {},
 ) {
     val listState = rememberLazyListState()
     val gridState = rememberLazyGridState()
+    val currentOnLoadMore by rememberUpdatedState(onLoadMore)
+
+    LaunchedEffect(listState, gridState) {
+        snapshotFlow {
+            val listInfo = listState.layoutInfo
+            val gridInfo = gridState.layoutInfo
+            val lastVisible = maxOf(
+                listInfo.visibleItemsInfo.lastOrNull()?.index ?: -1,
+                gridInfo.visibleItemsInfo.lastOrNull()?.index ?: -1,
+            )
+            val total = maxOf(listInfo.totalItemsCount, gridInfo.totalItemsCount)
+            total > 0 && lastVisible >= total - LOAD_MORE_THRESHOLD
+        }.distinctUntilChanged()
+            .filter { it }
+            .collect { currentOnLoadMore() }
+    }
 
     Scaffold(
         topBar = {
@@ -74,6 +98,11 @@ fun SearchComposeView(
     }
 }
 
+/**
+ * Number of items from the end of the list at which more results are loaded
+ */
+private const val LOAD_MORE_THRESHOLD = 20
+
 @CombinedThemePreviews
 @Composable
 private fun PreviewSearchComposeView() {
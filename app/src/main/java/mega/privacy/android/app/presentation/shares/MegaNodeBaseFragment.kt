@@ -26,6 +26,8 @@ import mega.privacy.android.app.components.dragger.DragToExitSupport.Companion.o
 import mega.privacy.android.app.components.dragger.DragToExitSupport.Companion.putThumbnailLocation
 import mega.privacy.android.app.components.scrollBar.FastScroller
 import mega.privacy.android.app.databinding.FragmentFileBrowserBinding
+import mega.privacy.android.app.fetcher.ThumbnailPrefetchScrollListener
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.fragments.homepage.SortByHeaderViewModel
 import mega.privacy.android.app.imageviewer.ImageViewerActivity.Companion.getIntentForParentNode
 import mega.privacy.android.app.interfaces.SnackbarShower
@@ -73,6 +75,11 @@ abstract class MegaNodeBaseFragment : RotatableFragment() {
     @Inject
     lateinit var megaApi: MegaApiAndroid
 
+    /**
+     * Prefetcher of the thumbnails of the visible and upcoming items of this list
+     */
+    @Inject
+    lateinit var thumbnailPrefetcher: ThumbnailPrefetcher
 
     /**
      * Number of items in the adapter
@@ -189,6 +196,7 @@ abstract class MegaNodeBaseFragment : RotatableFragment() {
      */
     override fun onDestroy() {
         megaNodeAdapter?.clearTakenDownDialog()
+        thumbnailPrefetcher.cancel()
         super.onDestroy()
     }
 
@@ -288,6 +296,13 @@ abstract class MegaNodeBaseFragment : RotatableFragment() {
                     }
                 }
             })
+            addOnScrollListener(ThumbnailPrefetchScrollListener<MegaNode>(
+                prefetcher = thumbnailPrefetcher,
+                itemAt = { position ->
+                    megaNodeAdapter?.takeIf { position < it.itemCount }?.getItem(position)
+                },
+                handleOf = { node -> node.handle.takeIf { node.isFile && node.hasThumbnail() } },
+            ))
         }
     }
 
@@ -8,8 +8,11 @@ import androidx.compose.runtime.mutableStateOf
 import androidx.compose.runtime.remember
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.platform.LocalConfiguration
+import mega.privacy.android.app.fetcher.ThumbnailPrefetchEffect
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
 import mega.privacy.android.app.presentation.data.NodeUIItem
 import mega.privacy.android.app.utils.Constants
+import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.TypedNode
 import java.io.File
@@ -35,6 +38,7 @@ import java.io.File
  * @param showSortOrder whether to show change sort order button
  * @param showMediaDiscoveryButton whether to show media discovery button
  * @param onEnterMediaDiscoveryClick callback for enter media discovery click
+ * @param thumbnailPrefetcher prefetches the thumbnails of the visible and upcoming nodes, if any
  */
 @Composable
 fun <T : TypedNode> NodesView(
@@ -55,11 +59,20 @@ fun <T : TypedNode> NodesView(
     showSortOrder: Boolean = true,
     showMediaDiscoveryButton: Boolean = false,
     onEnterMediaDiscoveryClick: () -> Unit = {},
+    thumbnailPrefetcher: ThumbnailPrefetcher? = null,
 ) {
     val takenDownDialog = remember { mutableStateOf(Pair(false, false)) }
     val orientation = LocalConfiguration.current.orientation
     val span = if (orientation == Configuration.ORIENTATION_PORTRAIT) spanCount else 4
     if (isListView) {
+        thumbnailPrefetcher?.let {
+            ThumbnailPrefetchEffect(
+                prefetcher = it,
+                state = listState,
+                itemAt = { index -> nodeUIItems.getOrNull(index - HEADER_ITEM_COUNT) },
+                handleOf = ::thumbnailHandleOf,
+            )
+        }
         NodeListView(
             modifier = modifier,
             nodeUIItemList = nodeUIItems,
@@ -82,6 +95,16 @@ fun <T : TypedNode> NodesView(
         )
     } else {
         val newList = rememberNodeListForGrid(nodeUIItems = nodeUIItems, spanCount = span)
+        thumbnailPrefetcher?.let {
+            ThumbnailPrefetchEffect(
+                prefetcher = it,
+                state = gridState,
+                itemAt = { index ->
+                    newList.getOrNull(index - HEADER_ITEM_COUNT)?.takeUnless { item -> item.isInvisible }
+                },
+                handleOf = ::thumbnailHandleOf,
+            )
+        }
         NodeGridView(
             modifier = modifier,
             nodeUIItems = newList,
@@ -220,6 +243,17 @@ fun <T : TypedNode> NodesView(
     }
 }
 
+/**
+ * Items shown before the nodes, the sort order and view type header
+ */
+private const val HEADER_ITEM_COUNT = 1
+
+/**
+ * Get the handle of a file node with a thumbnail
+ */
+private fun thumbnailHandleOf(nodeUIItem: NodeUIItem<*>): Long? =
+    (nodeUIItem.node as? FileNode)?.takeIf { it.hasThumbnail }?.id?.longValue
+
 /**
  * Remember function for [NodeGridView] to form empty items in case of folders count are not as per
  * span count
@@ -1,5 +0,0 @@
-package mega.privacy.android.app.utils.conversion;
-
-public interface VideoCompressionCallback {
-    void onCompressUpdateProgress(int progress);
-}
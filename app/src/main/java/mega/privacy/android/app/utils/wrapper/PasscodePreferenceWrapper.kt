@@ -3,6 +3,7 @@ package mega.privacy.android.app.utils.wrapper
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.firstOrNull
+import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.withContext
 import mega.privacy.android.app.featuretoggle.AppFeatures
@@ -54,7 +55,7 @@ class PasscodePreferenceWrapper @Inject constructor(
         if (newImplementation()) {
             monitorPasscodeLockPreferenceUseCase().first()
         } else {
-            withContext(ioDispatcher) { databaseHandler.preferences?.passcodeLockEnabled.toBoolean() }
+            legacyPreferences()?.passcodeLockEnabled.toBoolean()
         }
 
     /**
@@ -66,7 +67,7 @@ class PasscodePreferenceWrapper @Inject constructor(
         if (newImplementation()) {
             passcodeRepository.getPasscode()
         } else {
-            withContext(ioDispatcher) { databaseHandler.preferences?.passcodeLockCode.takeUnless { it.isNullOrEmpty() } }
+            legacyPreferences()?.passcodeLockCode.takeUnless { it.isNullOrEmpty() }
         }
 
     /**
@@ -233,10 +234,7 @@ class PasscodePreferenceWrapper @Inject constructor(
                 getPasscodeTypeString(it)
             }.first()
         } else {
-            withContext(ioDispatcher) {
-                databaseHandler.preferences?.passcodeLockType.takeUnless { it.isNullOrEmpty() }
-                    ?: PIN_4
-            }
+            legacyPreferences()?.passcodeLockType.takeUnless { it.isNullOrEmpty() } ?: PIN_4
         }
 
     private fun getPasscodeTypeString(it: PasscodeType?): String = when {
@@ -273,6 +271,13 @@ class PasscodePreferenceWrapper @Inject constructor(
             withContext(ioDispatcher) { megaApi.isCurrentPassword(password) }
         }
 
+    /**
+     * Get the legacy preferences from their in-memory snapshot, which is only read from the
+     * database the first time
+     */
+    private suspend fun legacyPreferences() =
+        databaseHandler.monitorPreferences.flowOn(ioDispatcher).first()
+
     private suspend fun newImplementation() =
         getFeatureFlagValueUseCase(AppFeatures.PasscodeBackend)
 }
\ No newline at end of file
@@ -1,92 +1,124 @@
 package mega.privacy.android.app.zippreview.domain
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import timber.log.Timber
-import java.io.ByteArrayOutputStream
 import java.io.File
-import java.io.FileOutputStream
-import java.nio.charset.Charset
+import java.io.IOException
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.zip.ZipEntry
 import java.util.zip.ZipFile
 import javax.inject.Inject
 
 /**
  * Zip repository implementation class
+ *
+ * The zip tree is built from the central directory of the zip file only, so browsing it does
+ * not read nor unpack any entry. The entries are extracted when they are opened.
  */
 class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioDispatcher: CoroutineDispatcher) :
     ZipFileRepository {
     companion object {
         private const val SUFFIX_ZIP = ".zip"
+        private const val COPY_BUFFER_SIZE = 64 * 1024
+        private const val MAX_PARALLEL_EXTRACTIONS = 4
     }
 
     private val zipTreeNodeMap: ZipTreeMap = ZipTreeMap()
+    private val rootChildren = mutableListOf<ZipTreeNode>()
 
-    override suspend fun unzipFile(zipFullPath: String, unzipRootPath: String): Boolean {
-        return withContext(ioDispatcher) {
-            unzip(zipFullPath, unzipRootPath)
+    override suspend fun extractEntries(
+        zipFile: ZipFile,
+        entryPaths: List<String>,
+        unzipRootPath: String,
+    ): Boolean = withContext(ioDispatcher) {
+        val entries = entryPaths.map {
+            zipFile.getEntry(it) ?: run {
+                Timber.e("Zip entry $it not found")
+                return@withContext false
+            }
         }
+        extract(zipFile, entries.filterNot { it.isDirectory }, unzipRootPath)
     }
 
     /**
-     * Unzip file
-     * @param zipFullPath zip file path
+     * Extract file entries, several of them at the same time as they do not depend on each other
+     * @param zipFile zip file
+     * @param entries file entries to extract
      * @param unzipRootPath unzip destination path
-     * @return true is unzip succeed.
+     * @return true if all the entries were extracted
      */
-    private fun unzip(zipFullPath: String, unzipRootPath: String): Boolean {
-        try {
-            val zipFile = try {
-                // Construct ZipFile with UTF-8
-                val zipFile = ZipFile(zipFullPath)
-                // Try reading the Zip File with UTF-8 Charset
-                zipFile.entries().toList()
-                zipFile
-            } catch (e: Exception) {
-                // Throws IllegalArgumentException (thrown when malformed) / ZipException (thrown when unsupported format)
-                // Fallback if zip cannot be read with UTF-8 Charset, then switch to CP-437 (Default for Most Windows Zip Software)
-                // i.e: 7-Zip, PeaZip, Winrar, Winzip
-                ZipFile(zipFullPath, Charset.forName("Cp437"))
-            }
-            val zipEntries = zipFile.entries()
-            zipEntries.toList().forEach {
-                val zipDestination = File(unzipRootPath + it.name)
-                if (it.isDirectory) {
-                    if (!zipDestination.exists()) {
-                        zipDestination.mkdirs()
-                    }
-                } else {
-                    val inputStream = zipFile.getInputStream(it)
-                    //Get the parent file. If it is null or
-                    // doesn't exist, created the parent folder.
-                    val parentFile = zipDestination.parentFile
-                    if (parentFile != null) {
-                        if (!parentFile.exists()) {
-                            parentFile.mkdirs()
-                        }
-                        val byteArrayOutputStream = ByteArrayOutputStream()
-                        val buffer = ByteArray(1024)
-                        var count: Int
-                        FileOutputStream(zipDestination).use { outputStream ->
-                            //Write the file.
-                            while (inputStream.read(buffer)
-                                    .also { readCount -> count = readCount } != -1
-                            ) {
-                                byteArrayOutputStream.write(buffer, 0, count)
-                                val bytes = byteArrayOutputStream.toByteArray()
-                                outputStream.write(bytes)
-                                byteArrayOutputStream.reset()
+    private suspend fun extract(
+        zipFile: ZipFile,
+        entries: List<ZipEntry>,
+        unzipRootPath: String,
+    ): Boolean {
+        val queue = ConcurrentLinkedQueue(entries)
+        val succeeded = AtomicBoolean(true)
+        coroutineScope {
+            repeat(MAX_PARALLEL_EXTRACTIONS.coerceAtMost(entries.size)) {
+                launch(ioDispatcher) {
+                    while (true) {
+                        ensureActive()
+                        val entry = queue.poll() ?: break
+                        runCatching { extractEntry(zipFile, entry, unzipRootPath) }
+                            .onFailure {
+                                Timber.e(it, "Zip entry ${entry.name} not extracted")
+                                succeeded.set(false)
                             }
-                        }
-                        inputStream.close()
                     }
                 }
             }
-        } catch (e: Exception) {
-            Timber.e(e)
-            return false
         }
-        return true
+        return succeeded.get()
+    }
+
+    /**
+     * Extract a file entry, unless it was already extracted
+     * @param zipFile zip file
+     * @param entry file entry
+     * @param unzipRootPath unzip destination path
+     */
+    private fun extractEntry(zipFile: ZipFile, entry: ZipEntry, unzipRootPath: String) {
+        val destination = getDestination(unzipRootPath, entry)
+        if (destination.exists() && destination.length() == entry.size) return
+        destination.parentFile?.mkdirs()
+        // Write to a temporary file first, so a cancelled extraction does not leave a
+        // truncated file which would be opened as if it was complete. It has a unique name, as
+        // the same entry may be extracted by the background and the requested extractions.
+        val temporary = File.createTempFile(".${destination.name}.", ".tmp", destination.parentFile)
+        try {
+            zipFile.getInputStream(entry).use { inputStream ->
+                temporary.outputStream().use { outputStream ->
+                    inputStream.copyTo(outputStream, COPY_BUFFER_SIZE)
+                }
+            }
+            if (!temporary.renameTo(destination)) {
+                throw IOException("${temporary.name} cannot be renamed")
+            }
+        } finally {
+            temporary.delete()
+        }
+    }
+
+    /**
+     * Get the destination of an entry, checking it is inside the unzip destination path
+     * @param unzipRootPath unzip destination path
+     * @param entry zip entry
+     * @return the destination file
+     */
+    private fun getDestination(unzipRootPath: String, entry: ZipEntry): File {
+        val root = File(unzipRootPath).canonicalFile
+        val destination = File(root, entry.name).canonicalFile
+        if (!destination.path.startsWith(root.path + File.separator)) {
+            throw IOException("Zip entry ${entry.name} is outside of the destination")
+        }
+        return destination
     }
 
     override fun getParentZipInfoList(
@@ -105,7 +137,7 @@ class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioD
             parentNode.parent?.let { grandpaPath ->
                 zipTreeNodeMap[grandpaPath]?.children ?: mutableListOf()
                 // Parent's parent is null, should show root children
-            } ?: getRootChildren()
+            } ?: rootChildren
             // Parent is null, return empty list
         } ?: mutableListOf()
     }
@@ -115,77 +147,64 @@ class DefaultZipFileRepository @Inject constructor(@IoDispatcher private val ioD
             zipTreeNodeMap[folderPath.removeSuffix("/")]?.children ?: mutableListOf()
         } else {
             //If folder is empty, show the root directory
-            getRootChildren()
+            rootChildren
         }
     }
 
-    /**
-     * Get items of root directory
-     * @return List<ZipTreeNode>
-     */
-    private fun getRootChildren() = zipTreeNodeMap.values.filter {
-        it.parent == null
-    }
-
     /**
      * Using zip tree map could save all of zip entries information and could created complete
      * directory structure to handle the switch on different zip file directory. Meanwhile, avoid
      * repeatedly iterate zip entries when the directory is changed.
+     *
+     * Only the central directory is read, and the children of each folder, including the root,
+     * are kept while building the tree.
      */
     override suspend fun initZipTreeNode(zipFile: ZipFile) {
         withContext(ioDispatcher) {
-            zipFile.entries().toList().forEach { zipEntry ->
-                zipEntry.name.let { name ->
-                    val nodeDepth = name.getZipTreeNodeDepth()
-                    for (i in 1..nodeDepth) {
-                        //Get every sub path of current zip entry. For example, the path zip entry
-                        // path is 1/2/3.txt, the sub paths respectively are 1/ 1/2/ 1/2/3.txt
-                        val subPath = name.getSubPathByDepth(i)
-                        //Get name of current sub path
-                        val subName = subPath.getZipTreeNodeName()
-                        //Get parent path of current sub path. For example, if current sub path is 1/2/
-                        //its parent path is 1/
-                        val subParentPath = if (i == 1) {
-                            null
-                        } else {
-                            name.getSubPathByDepth(i - 1)
-                        }
-                        //Get current zip tree node using sub path
-                        var zipTreeNode = zipTreeNodeMap[subPath]
-
-                        // If node doesn't exist, create one, otherwise ignore it
-                        if (zipTreeNode == null) {
-                            zipTreeNode = ZipTreeNode(
-                                name = subName,
-                                path = subPath,
-                                size = zipEntry.size,
-                                fileType = if (i == nodeDepth) {
-                                    if (zipEntry.isDirectory) {
-                                        FileType.FOLDER
-                                    } else {
-                                        when {
-                                            subPath.endsWith(SUFFIX_ZIP) -> FileType.ZIP
-                                            else -> FileType.FILE
-                                        }
-                                    }
-                                } else {
+            zipTreeNodeMap.clear()
+            rootChildren.clear()
+            zipFile.entries().asSequence().forEach { zipEntry ->
+                //Get every sub path of current zip entry. For example, the path zip entry
+                // path is 1/2/3.txt, the sub paths respectively are 1 1/2 1/2/3.txt
+                val names = zipEntry.name.removeSuffix("/").split("/")
+                var subParentPath: String? = null
+                names.forEachIndexed { index, subName ->
+                    val subPath = subParentPath?.let { "$it/$subName" } ?: subName
+                    // If node doesn't exist, create one, otherwise ignore it
+                    if (!zipTreeNodeMap.containsKey(subPath)) {
+                        val zipTreeNode = ZipTreeNode(
+                            name = subName,
+                            path = subPath,
+                            size = zipEntry.size,
+                            fileType = if (index == names.lastIndex) {
+                                if (zipEntry.isDirectory) {
                                     FileType.FOLDER
-                                },
-                                parent = subParentPath,
-                                children = mutableListOf(),
-                            )
-                            zipTreeNodeMap[subPath] = zipTreeNode
+                                } else {
+                                    when {
+                                        subPath.endsWith(SUFFIX_ZIP) -> FileType.ZIP
+                                        else -> FileType.FILE
+                                    }
+                                }
+                            } else {
+                                FileType.FOLDER
+                            },
+                            parent = subParentPath,
+                            children = mutableListOf(),
+                        )
+                        zipTreeNodeMap[subPath] = zipTreeNode
 
-                            // If parent path is not empty add current path to map
-                            // Empty path represents root directory
-                            if (!subParentPath.isNullOrEmpty()) {
-                                val parentNode = zipTreeNodeMap[subParentPath]
-                                parentNode?.children?.add(zipTreeNode)
-                            }
+                        // If parent path is not empty add current path to map
+                        // Null path represents root directory
+                        val parentPath = subParentPath
+                        if (parentPath == null) {
+                            rootChildren.add(zipTreeNode)
+                        } else if (parentPath.isNotEmpty()) {
+                            zipTreeNodeMap[parentPath]?.children?.add(zipTreeNode)
                         }
                     }
+                    subParentPath = subPath
                 }
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -8,12 +8,17 @@ import java.util.zip.ZipFile
 interface ZipFileRepository {
 
     /**
-     * Unpack Zip file
-     * @param zipFullPath Zip file full path
+     * Extract some entries of the zip file, without unpacking the rest of it
+     * @param zipFile zip file
+     * @param entryPaths paths of the entries to extract
      * @param unzipRootPath the unpacked root path
-     * @return true is unpack succeed.
+     * @return true if all the entries were extracted
      */
-    suspend fun unzipFile(zipFullPath: String, unzipRootPath: String): Boolean
+    suspend fun extractEntries(
+        zipFile: ZipFile,
+        entryPaths: List<String>,
+        unzipRootPath: String,
+    ): Boolean
 
     /**
      * Init the ZipTreeNode. Created ZipTreeMap using zip entries of current zip file
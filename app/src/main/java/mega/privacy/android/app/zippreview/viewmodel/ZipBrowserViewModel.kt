@@ -219,7 +219,7 @@ class ZipBrowserViewModel @Inject constructor(
         when (getItemClickedStatus(zipInfoUIO, unzipRootPath)) {
             StatusItemClicked.ZIP_NOT_UNPACK -> {
                 _showProgressDialog.value = true
-                //If zip folder doesn't exist, unpacked the zip file.
+                //If the file hasn't been extracted yet, extract it.
                 unpackedZipFile(zipInfoUIO, position)
             }
 
@@ -247,18 +247,42 @@ class ZipBrowserViewModel @Inject constructor(
     }
 
     /**
-     * Unpack zip file and open the current clicked file.
+     * Extract the current clicked file and open it.
+     *
+     * The media players build their playlists with the files of the same folder when they open,
+     * so the media files next to a clicked media file are extracted before opening it, unless
+     * they were already extracted.
      * @param zipInfoUIO ZipInfoUIO of clicked file
      * @param position position of clicked file
      */
     private fun unpackedZipFile(zipInfoUIO: ZipInfoUIO, position: Int) {
+        val entryPaths = if (zipInfoUIO.isMediaFile()) {
+            listOf(zipInfoUIO.path) + zipInfoList.value.orEmpty()
+                .filter { it.path != zipInfoUIO.path && it.isMediaFile() }
+                .map { it.path }
+                .filterNot { File(unzipRootPath + it).exists() }
+        } else {
+            listOf(zipInfoUIO.path)
+        }
         viewModelScope.launch {
-            zipFileRepository.unzipFile(zipFullPath, unzipRootPath)
+            val extracted =
+                zipFileRepository.extractEntries(zipFile, entryPaths, unzipRootPath)
             _showProgressDialog.value = false
-            _openFile.value = Pair(position, zipInfoUIO)
+            if (extracted || File(unzipRootPath + zipInfoUIO.path).exists()) {
+                _openFile.value = Pair(position, zipInfoUIO)
+            } else {
+                _showAlert.value = true
+            }
         }
     }
 
+    /**
+     * Check if the file is played by the media players
+     * @return true if it is an audio or video file
+     */
+    private fun ZipInfoUIO.isMediaFile() = fileType == FileType.FILE &&
+            MimeTypeList.typeForName(name).run { isVideoMimeType || isAudio }
+
     /**
      * Get title of actionbar
      * @param folderPath current folder path
@@ -283,16 +307,18 @@ class ZipBrowserViewModel @Inject constructor(
             StatusItemClicked.OPEN_FOLDER
         } else {
             val currentFile = File(rootPath + zipInfoUIO.path)
-            if (File(rootPath).exists()) {
-                if (currentFile.exists()) {
-
-                    StatusItemClicked.OPEN_FILE
-                } else {
-                    StatusItemClicked.ITEM_NOT_EXIST
-                }
-            } else {
-                StatusItemClicked.ZIP_NOT_UNPACK
+            when {
+                currentFile.exists() -> StatusItemClicked.OPEN_FILE
+                zipFile.getEntry(zipInfoUIO.path) != null -> StatusItemClicked.ZIP_NOT_UNPACK
+                else -> StatusItemClicked.ITEM_NOT_EXIST
             }
         }
     }
+
+    override fun onCleared() {
+        super.onCleared()
+        if (::zipFile.isInitialized) {
+            runCatching { zipFile.close() }.onFailure { Timber.e(it) }
+        }
+    }
 }
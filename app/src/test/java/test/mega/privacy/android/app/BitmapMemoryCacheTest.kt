@@ -0,0 +1,71 @@
+package test.mega.privacy.android.app
+
+import android.graphics.Bitmap
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.BitmapMemoryCache
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BitmapMemoryCacheTest {
+    private lateinit var underTest: BitmapMemoryCache<Long>
+
+    @BeforeEach
+    fun setUp() {
+        underTest = BitmapMemoryCache(maxBytes = 100)
+    }
+
+    @Test
+    fun `test that the cache is bounded by the bytes of the bitmaps`() {
+        underTest.put(1L, createBitmap(40))
+        underTest.put(2L, createBitmap(40))
+        underTest.put(3L, createBitmap(40))
+
+        assertThat(underTest[1L]).isNull()
+        assertThat(underTest[2L]).isNotNull()
+        assertThat(underTest[3L]).isNotNull()
+        assertThat(underTest.metrics.size).isEqualTo(80)
+        assertThat(underTest.metrics.evictions).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that the least recently used bitmap is evicted`() {
+        underTest.put(1L, createBitmap(40))
+        underTest.put(2L, createBitmap(40))
+        underTest[1L]
+        underTest.put(3L, createBitmap(40))
+
+        assertThat(underTest[1L]).isNotNull()
+        assertThat(underTest[2L]).isNull()
+    }
+
+    @Test
+    fun `test that keys without bitmap are contained but not returned`() {
+        underTest.put(1L, null)
+
+        assertThat(underTest.containsKey(1L)).isTrue()
+        assertThat(underTest[1L]).isNull()
+
+        underTest.remove(1L)
+
+        assertThat(underTest.containsKey(1L)).isFalse()
+    }
+
+    @Test
+    fun `test that hits and misses are counted`() {
+        underTest.put(1L, createBitmap(10))
+
+        underTest[1L]
+        underTest[2L]
+        underTest[2L]
+
+        assertThat(underTest.metrics.hits).isEqualTo(1)
+        assertThat(underTest.metrics.misses).isEqualTo(2)
+    }
+
+    private fun createBitmap(bytes: Int) = mock<Bitmap> {
+        on { allocationByteCount }.thenReturn(bytes)
+    }
+}
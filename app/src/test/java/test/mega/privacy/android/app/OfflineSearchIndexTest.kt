@@ -0,0 +1,118 @@
+package test.mega.privacy.android.app
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.MegaOffline
+import mega.privacy.android.app.OfflineSearchIndex
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OfflineSearchIndexTest {
+    private lateinit var underTest: OfflineSearchIndex
+
+    private var loads = 0
+    private var nodes: List<MegaOffline>? = emptyList()
+
+    private val photos = createNode(id = 1, handle = "1", path = "/", name = "Photos", folder = true)
+    private val holiday = createNode(id = 2, handle = "2", path = "/Photos/", name = "Holiday.jpg")
+    private val report = createNode(id = 3, handle = "3", path = "/", name = "report.pdf")
+    private val album = createNode(id = 4, handle = "4", path = "/Photos/2023/", name = "holiday2.jpg")
+
+    @BeforeEach
+    fun setUp() {
+        loads = 0
+        nodes = listOf(photos, holiday, report, album)
+        underTest = OfflineSearchIndex {
+            loads++
+            nodes
+        }
+    }
+
+    @Test
+    fun `test that search returns the matching nodes of the whole subtree ignoring case`() {
+        assertThat(underTest.search("/", "HOLIDAY")).containsExactly(holiday, album)
+    }
+
+    @Test
+    fun `test that search ignores the nodes outside the subtree`() {
+        assertThat(underTest.search("/Photos/2023", "holiday")).containsExactly(album)
+    }
+
+    @Test
+    fun `test that the nodes are loaded only once`() {
+        underTest.search("/", "a")
+        underTest.search("/Photos/", "b")
+
+        assertThat(loads).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that nodes are not cached if they cannot be loaded`() {
+        nodes = null
+
+        assertThat(underTest.search("/", "a")).isEmpty()
+        nodes = listOf(report)
+        assertThat(underTest.search("/", "report")).containsExactly(report)
+    }
+
+    @Test
+    fun `test that added nodes are found`() {
+        underTest.search("/", "a")
+        val added = createNode(id = 5, handle = "5", path = "/Photos/", name = "beach.png")
+
+        underTest.add(added)
+
+        assertThat(underTest.search("/", "beach")).containsExactly(added)
+        assertThat(loads).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that removed nodes are not found`() {
+        underTest.search("/", "a")
+
+        underTest.removeByHandle(holiday.handle)
+        underTest.removeById(album.id)
+
+        assertThat(underTest.search("/", "holiday")).isEmpty()
+    }
+
+    @Test
+    fun `test that clear removes all the nodes`() {
+        underTest.clear()
+
+        assertThat(underTest.search("/", "")).isEmpty()
+        assertThat(loads).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that invalidate loads the nodes again`() {
+        underTest.search("/", "a")
+
+        underTest.invalidate()
+        underTest.search("/", "a")
+
+        assertThat(loads).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that the returned nodes are copies`() {
+        underTest.search("/", "report").first().name = "changed"
+
+        assertThat(underTest.search("/", "report")).containsExactly(report)
+    }
+
+    private fun createNode(
+        id: Int,
+        handle: String,
+        path: String,
+        name: String,
+        folder: Boolean = false,
+    ) = MegaOffline(
+        id = id,
+        handle = handle,
+        path = path,
+        name = name,
+        type = if (folder) MegaOffline.FOLDER else "0",
+    )
+}
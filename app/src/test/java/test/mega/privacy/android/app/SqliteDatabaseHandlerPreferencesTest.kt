@@ -0,0 +1,147 @@
+package test.mega.privacy.android.app
+
+import android.database.Cursor
+import androidx.sqlite.db.SupportSQLiteDatabase
+import androidx.sqlite.db.SupportSQLiteOpenHelper
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.SqliteDatabaseHandler
+import mega.privacy.android.app.SqliteDatabaseHandler.Companion.KEY_FIRST_LOGIN
+import mega.privacy.android.app.SqliteDatabaseHandler.Companion.KEY_ID
+import mega.privacy.android.app.SqliteDatabaseHandler.Companion.KEY_PASSCODE_LOCK_ENABLED
+import mega.privacy.android.app.SqliteDatabaseHandler.Companion.KEY_PASSCODE_LOCK_TYPE
+import mega.privacy.android.app.SqliteDatabaseHandler.Companion.TABLE_PREFERENCES
+import mega.privacy.android.app.utils.Constants.PIN_4
+import mega.privacy.android.app.utils.Constants.PIN_6
+import mega.privacy.android.data.cryptography.AesFieldCipher
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.clearInvocations
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqliteDatabaseHandlerPreferencesTest {
+    private lateinit var underTest: SqliteDatabaseHandler
+
+    private lateinit var row: MutableMap<String, String?>
+    private var isReadable = true
+
+    private val database = mock<SupportSQLiteDatabase> {
+        on { query(any<String>()) }.thenAnswer {
+            if (!isReadable) throw IllegalStateException("Database not readable")
+            createCursor()
+        }
+        on { execSQL(any()) }.thenAnswer {
+            val update = UPDATE_REGEX.find(it.getArgument(0))
+            if (update != null) row[update.groupValues[1]] = update.groupValues[2]
+        }
+    }
+
+    private val aesFieldCipher = mock<AesFieldCipher> {
+        on { encrypt(anyOrNull()) }.thenAnswer { encrypt(it.getArgument(0)) }
+        on { decrypt(anyOrNull()) }.thenAnswer { decrypt(it.getArgument(0)) }
+        on { decryptAll(any()) }.thenAnswer { it.getArgument<List<String?>>(0).map(::decrypt) }
+    }
+
+    @BeforeEach
+    fun setUp() {
+        isReadable = true
+        row = mutableMapOf(
+            KEY_ID to "1",
+            KEY_FIRST_LOGIN to encrypt("false"),
+            KEY_PASSCODE_LOCK_ENABLED to encrypt("false"),
+            KEY_PASSCODE_LOCK_TYPE to encrypt(PIN_4),
+        )
+        clearInvocations(database)
+        underTest = SqliteDatabaseHandler(
+            applicationScope = TestScope(),
+            crashReporter = mock(),
+            legacyLoggingSettings = mock(),
+            storageStateMapper = mock(),
+            storageStateIntMapper = mock(),
+            megaLocalRoomGateway = mock(),
+            sqLiteOpenHelper = mock<SupportSQLiteOpenHelper> {
+                on { writableDatabase }.thenReturn(database)
+                on { readableDatabase }.thenReturn(database)
+            },
+            legacyDatabaseMigration = mock(),
+            aesFieldCipher = aesFieldCipher,
+        )
+    }
+
+    @Test
+    fun `test that the preferences are read from the database only once`() {
+        assertThat(underTest.preferences?.passcodeLockType).isEqualTo(PIN_4)
+        assertThat(underTest.preferences?.firstTime).isEqualTo("false")
+        assertThat(underTest.passcodeLockType).isEqualTo(PIN_4)
+        assertThat(underTest.isPasscodeLockEnabled).isFalse()
+
+        verify(database, times(1)).query(any<String>())
+    }
+
+    @Test
+    fun `test that a setter writes the value and updates the cached preferences`() {
+        underTest.preferences
+
+        underTest.passcodeLockType = PIN_6
+        clearInvocations(database)
+
+        assertThat(row[KEY_PASSCODE_LOCK_TYPE]).isEqualTo(encrypt(PIN_6))
+        assertThat(underTest.passcodeLockType).isEqualTo(PIN_6)
+        assertThat(underTest.preferences?.passcodeLockType).isEqualTo(PIN_6)
+        verify(database, never()).query(any<String>())
+    }
+
+    @Test
+    fun `test that a setter emits the updated preferences`() = runTest {
+        underTest.monitorPreferences.test {
+            assertThat(awaitItem()?.passcodeLockEnabled).isEqualTo("false")
+
+            underTest.isPasscodeLockEnabled = true
+
+            assertThat(awaitItem()?.passcodeLockEnabled).isEqualTo("true")
+        }
+    }
+
+    @Test
+    fun `test that the first preferences emitted include the values set before`() = runTest {
+        underTest.passcodeLockType = PIN_6
+
+        assertThat(underTest.monitorPreferences.first()?.passcodeLockType).isEqualTo(PIN_6)
+    }
+
+    @Test
+    fun `test that null preferences are emitted if they cannot be read`() = runTest {
+        isReadable = false
+
+        assertThat(underTest.monitorPreferences.first()).isNull()
+    }
+
+    private fun createCursor(): Cursor {
+        val columns = row.keys.toList()
+        return mock {
+            on { moveToFirst() }.thenReturn(row.isNotEmpty())
+            on { columnNames }.thenReturn(columns.toTypedArray())
+            on { getColumnIndex(any()) }.thenAnswer { columns.indexOf(it.getArgument(0)) }
+            on { getString(any()) }.thenAnswer { row[columns[it.getArgument(0)]] }
+        }
+    }
+
+    private fun encrypt(value: String?) = value?.let { "$ENCRYPTED$it" }
+
+    private fun decrypt(value: String?) = value?.removePrefix(ENCRYPTED)
+
+    private companion object {
+        const val ENCRYPTED = "encrypted:"
+        val UPDATE_REGEX = Regex("UPDATE $TABLE_PREFERENCES SET (\\w+)= '(.*)' WHERE")
+    }
+}
@@ -0,0 +1,83 @@
+package test.mega.privacy.android.app.cameraupload
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.cameraupload.CameraUploadsPipelineStage
+import org.junit.Test
+import java.util.concurrent.atomic.AtomicInteger
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class CameraUploadsPipelineStageTest {
+
+    @Test
+    fun `test that all the sent items are processed`() = runTest {
+        val underTest = CameraUploadsPipelineStage<Int>("test", capacity = 2, concurrency = 3)
+        val processed = mutableListOf<Int>()
+
+        val job = underTest.launchIn(this) { processed.add(it) }
+        (1..10).forEach { underTest.send(it) }
+        underTest.close()
+        job.join()
+
+        assertThat(processed).containsExactlyElementsIn(1..10)
+        assertThat(underTest.metrics.processed).isEqualTo(10)
+        assertThat(underTest.metrics.queueDepth).isEqualTo(0)
+        assertThat(underTest.metrics.inProgress).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the number of items processed at the same time is limited by the concurrency`() =
+        runTest {
+            val underTest = CameraUploadsPipelineStage<Int>("test", capacity = 10, concurrency = 2)
+            val running = AtomicInteger(0)
+            val maxRunning = AtomicInteger(0)
+            val release = CompletableDeferred<Unit>()
+
+            val job = underTest.launchIn(this) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), ::maxOf)
+                release.await()
+                running.decrementAndGet()
+            }
+            (1..5).forEach { underTest.send(it) }
+            advanceUntilIdle()
+
+            assertThat(underTest.metrics.inProgress).isEqualTo(2)
+            assertThat(underTest.metrics.queueDepth).isEqualTo(3)
+
+            release.complete(Unit)
+            underTest.close()
+            job.join()
+
+            assertThat(maxRunning.get()).isEqualTo(2)
+            assertThat(underTest.metrics.maxQueueDepth).isAtLeast(3)
+        }
+
+    @Test
+    fun `test that send suspends while the queue is full`() = runTest {
+        val underTest = CameraUploadsPipelineStage<Int>("test", capacity = 1, concurrency = 1)
+        val release = CompletableDeferred<Unit>()
+        val sent = AtomicInteger(0)
+
+        val job = underTest.launchIn(this) { release.await() }
+        val producer = launch {
+            (1..5).forEach {
+                underTest.send(it)
+                sent.incrementAndGet()
+            }
+        }
+        advanceUntilIdle()
+
+        // one item in progress and one item queued
+        assertThat(sent.get()).isEqualTo(2)
+
+        release.complete(Unit)
+        producer.join()
+        underTest.close()
+        job.join()
+        assertThat(underTest.metrics.processed).isEqualTo(5)
+    }
+}
@@ -0,0 +1,128 @@
+package test.mega.privacy.android.app.fetcher
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.fetcher.ThumbnailPrefetcher
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.GetThumbnailsToDownloadUseCase
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doSuspendableAnswer
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ThumbnailPrefetcherTest {
+
+    private val getThumbnailsToDownloadUseCase = mock<GetThumbnailsToDownloadUseCase>()
+    private val getThumbnailUseCase = mock<GetThumbnailUseCase>()
+
+    private val started = mutableListOf<Long>()
+    private val results = mutableMapOf<Long, CompletableDeferred<File?>>()
+    private val cancelled = mutableListOf<Long>()
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(getThumbnailsToDownloadUseCase, getThumbnailUseCase)
+        started.clear()
+        results.clear()
+        cancelled.clear()
+    }
+
+    @Test
+    fun `test that the visible positions come first followed by the ones ahead when scrolling forward`() {
+        assertThat(ThumbnailPrefetcher.getPrefetchPositions(10..12, 100, true))
+            .containsExactly(10, 11, 12, 13, 14, 15, 16, 17, 18).inOrder()
+    }
+
+    @Test
+    fun `test that the positions ahead are the previous ones when scrolling backwards`() {
+        assertThat(ThumbnailPrefetcher.getPrefetchPositions(10..12, 100, false))
+            .containsExactly(10, 11, 12, 9, 8, 7, 6, 5, 4).inOrder()
+    }
+
+    @Test
+    fun `test that the positions are limited to the list`() {
+        assertThat(ThumbnailPrefetcher.getPrefetchPositions(1..2, 4, false))
+            .containsExactly(1, 2, 0).inOrder()
+        assertThat(ThumbnailPrefetcher.getPrefetchPositions(2..3, 4, true))
+            .containsExactly(2, 3).inOrder()
+        assertThat(ThumbnailPrefetcher.getPrefetchPositions(0..3, 0, true)).isEmpty()
+    }
+
+    @Test
+    fun `test that only the thumbnails to download are downloaded in priority order`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createPrefetcher()
+            whenever(getThumbnailsToDownloadUseCase(any())).thenReturn(listOf(2L, 1L))
+
+            underTest.prefetch(0..1, 2, true, { it }) { it.toLong() + 1 }
+
+            assertThat(started).containsExactly(2L, 1L).inOrder()
+            underTest.cancel()
+        }
+
+    @Test
+    fun `test that the number of downloads at the same time is limited`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createPrefetcher()
+            val handles = (1L..10L).toList()
+            whenever(getThumbnailsToDownloadUseCase(any())).thenReturn(handles)
+
+            underTest.prefetch(0..9, 10, true, { it }) { handles[it] }
+
+            assertThat(started).hasSize(ThumbnailPrefetcher.MAX_DOWNLOADS)
+
+            results.getValue(1L).complete(null)
+
+            assertThat(started).hasSize(ThumbnailPrefetcher.MAX_DOWNLOADS + 1)
+            underTest.cancel()
+        }
+
+    @Test
+    fun `test that downloads out of the new range are cancelled`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val underTest = createPrefetcher()
+            whenever(getThumbnailsToDownloadUseCase(listOf(1L))).thenReturn(listOf(1L))
+            whenever(getThumbnailsToDownloadUseCase(listOf(2L))).thenReturn(listOf(2L))
+
+            underTest.prefetch(0..0, 1, true, { it }) { 1L }
+            underTest.prefetch(0..0, 1, true, { it }) { 2L }
+
+            assertThat(cancelled).containsExactly(1L)
+            assertThat(started).containsExactly(1L, 2L).inOrder()
+            underTest.cancel()
+        }
+
+    private fun TestScope.createPrefetcher(): ThumbnailPrefetcher {
+        getThumbnailUseCase.stub {
+            onBlocking { invoke(any(), any()) }.doSuspendableAnswer {
+                val handle = it.arguments[0] as Long
+                started.add(handle)
+                try {
+                    CompletableDeferred<File?>().also { result -> results[handle] = result }.await()
+                } catch (e: CancellationException) {
+                    cancelled.add(handle)
+                    throw e
+                }
+            }
+        }
+        return ThumbnailPrefetcher(
+            getThumbnailsToDownloadUseCase = getThumbnailsToDownloadUseCase,
+            getThumbnailUseCase = getThumbnailUseCase,
+            applicationScope = backgroundScope,
+            ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+        )
+    }
+}
@@ -0,0 +1,81 @@
+package test.mega.privacy.android.app.main.megachat
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.main.megachat.ChatHistoryLoader
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChatHistoryLoaderTest {
+    private var now = 0L
+    private lateinit var underTest: ChatHistoryLoader
+
+    @BeforeEach
+    fun setUp() {
+        now = 1000L
+        underTest = ChatHistoryLoader { now }
+    }
+
+    @Test
+    fun `test that the minimum batch is requested when not scrolling`() {
+        assertThat(underTest.batchSize).isEqualTo(ChatHistoryLoader.MIN_BATCH_SIZE)
+        assertThat(underTest.prefetchDistance).isEqualTo(ChatHistoryLoader.MIN_PREFETCH_DISTANCE)
+    }
+
+    @Test
+    fun `test that fast scrolling towards older messages requests bigger batches earlier`() {
+        scrollUp(from = 500, step = 1, times = 10)
+
+        assertThat(underTest.batchSize).isGreaterThan(ChatHistoryLoader.MIN_BATCH_SIZE)
+        assertThat(underTest.batchSize % ChatHistoryLoader.MIN_BATCH_SIZE).isEqualTo(0)
+        assertThat(underTest.prefetchDistance).isGreaterThan(ChatHistoryLoader.MIN_PREFETCH_DISTANCE)
+        assertThat(underTest.shouldLoadMore(underTest.prefetchDistance)).isTrue()
+        assertThat(underTest.shouldLoadMore(underTest.prefetchDistance + 1)).isFalse()
+    }
+
+    @Test
+    fun `test that the batch size is limited`() {
+        scrollUp(from = 10000, step = 500, times = 10)
+
+        assertThat(underTest.batchSize).isEqualTo(ChatHistoryLoader.MAX_BATCH_SIZE)
+        assertThat(underTest.prefetchDistance).isEqualTo(ChatHistoryLoader.MAX_BATCH_SIZE)
+    }
+
+    @Test
+    fun `test that scrolling towards newer messages does not increase the batch size`() {
+        repeat(10) {
+            now += 16
+            underTest.onScrolled(100 + it * 10)
+        }
+
+        assertThat(underTest.batchSize).isEqualTo(ChatHistoryLoader.MIN_BATCH_SIZE)
+    }
+
+    @Test
+    fun `test that the speed is reset after a pause`() {
+        scrollUp(from = 500, step = 10, times = 10)
+
+        now += 1000
+        underTest.onScrolled(390)
+
+        assertThat(underTest.velocity).isEqualTo(0f)
+        assertThat(underTest.batchSize).isEqualTo(ChatHistoryLoader.MIN_BATCH_SIZE)
+    }
+
+    @Test
+    fun `test that the speed is reset`() {
+        scrollUp(from = 500, step = 10, times = 10)
+
+        underTest.reset()
+
+        assertThat(underTest.batchSize).isEqualTo(ChatHistoryLoader.MIN_BATCH_SIZE)
+    }
+
+    private fun scrollUp(from: Int, step: Int, times: Int) {
+        repeat(times) {
+            now += 16
+            underTest.onScrolled(from - it * step)
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package test.mega.privacy.android.app.main.megachat
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.main.megachat.ChatMessageList
+import mega.privacy.android.data.model.chat.AndroidMegaChatMessage
+import mega.privacy.android.domain.entity.chat.PendingMessage
+import nz.mega.sdk.MegaChatApiJava.MEGACHAT_INVALID_HANDLE
+import nz.mega.sdk.MegaChatMessage
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChatMessageListTest {
+    private lateinit var underTest: ChatMessageList
+
+    @BeforeEach
+    fun setUp() {
+        underTest = ChatMessageList()
+    }
+
+    @Test
+    fun `test that messages are found by id after adding them at both ends`() {
+        underTest.add(createMessage(msgId = 3))
+        underTest.add(createMessage(msgId = 4))
+        underTest.add(0, createMessage(msgId = 2))
+        underTest.addAll(0, listOf(createMessage(msgId = 0), createMessage(msgId = 1)))
+        underTest.addAll(listOf(createMessage(msgId = 5)))
+
+        assertThat((0L..5L).map { underTest.indexOfMsgId(it) })
+            .containsExactly(0, 1, 2, 3, 4, 5).inOrder()
+    }
+
+    @Test
+    fun `test that messages are found by id after removing and inserting in the middle`() {
+        (1L..5L).forEach { underTest.add(createMessage(msgId = it)) }
+
+        underTest.removeAt(2)
+        underTest.add(1, createMessage(msgId = 6))
+
+        assertThat(underTest.indexOfMsgId(1)).isEqualTo(0)
+        assertThat(underTest.indexOfMsgId(6)).isEqualTo(1)
+        assertThat(underTest.indexOfMsgId(2)).isEqualTo(2)
+        assertThat(underTest.indexOfMsgId(3)).isEqualTo(-1)
+        assertThat(underTest.indexOfMsgId(5)).isEqualTo(4)
+    }
+
+    @Test
+    fun `test that the last message with an id is found`() {
+        underTest.add(createMessage(msgId = 1, tempId = 10))
+        underTest.add(createMessage(msgId = 2))
+        underTest.add(createMessage(msgId = 1))
+
+        assertThat(underTest.indexOfMsgId(1)).isEqualTo(2)
+
+        underTest.removeAt(2)
+
+        assertThat(underTest.indexOfMsgId(1)).isEqualTo(0)
+        assertThat(underTest.indexOfTempId(10)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the message to update is the latest by temporal id or message id`() {
+        underTest.add(createMessage(msgId = 7))
+        underTest.add(createMessage(msgId = MEGACHAT_INVALID_HANDLE, tempId = 20))
+
+        val update = createMessage(msgId = 7, tempId = 20)
+
+        assertThat(underTest.indexToUpdate(update, true)).isEqualTo(1)
+        assertThat(underTest.indexToUpdate(update, false)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that uploading messages are only found by pending message id`() {
+        val pendingMessage = PendingMessage(id = 30)
+        underTest.add(AndroidMegaChatMessage(pendingMessage, true).apply {
+            message = createChatMessage(msgId = 8, tempId = 9)
+        })
+
+        assertThat(underTest.indexOfMsgId(8)).isEqualTo(-1)
+        assertThat(underTest.indexOfTempId(9)).isEqualTo(-1)
+        assertThat(underTest.indexOfPendingMessage(30)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that a replaced message is indexed by its new ids`() {
+        underTest.add(createMessage(msgId = MEGACHAT_INVALID_HANDLE, tempId = 40))
+
+        underTest[0] = createMessage(msgId = 41, tempId = 40)
+
+        assertThat(underTest.indexOfMsgId(41)).isEqualTo(0)
+        assertThat(underTest.indexOfTempId(40)).isEqualTo(0)
+        assertThat(underTest).hasSize(1)
+    }
+
+    @Test
+    fun `test that indexOf finds the instance and not an equal message`() {
+        val chatMessage = createChatMessage(msgId = 1)
+        val first = AndroidMegaChatMessage(chatMessage)
+        val second = AndroidMegaChatMessage(chatMessage)
+        underTest.add(first)
+        underTest.add(second)
+
+        assertThat(underTest.indexOf(second)).isEqualTo(1)
+        assertThat(underTest.indexOf(first)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that clearing a range keeps the rest indexed`() {
+        (1L..6L).forEach { underTest.add(createMessage(msgId = it)) }
+
+        underTest.subList(0, 3).clear()
+
+        assertThat(underTest.indexOfMsgId(2)).isEqualTo(-1)
+        assertThat(underTest.indexOfMsgId(4)).isEqualTo(0)
+        assertThat(underTest.indexOfMsgId(6)).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that invalid ids are never found`() {
+        underTest.add(createMessage(msgId = MEGACHAT_INVALID_HANDLE, tempId = MEGACHAT_INVALID_HANDLE))
+
+        assertThat(underTest.indexOfMsgId(MEGACHAT_INVALID_HANDLE)).isEqualTo(-1)
+        assertThat(underTest.indexOfTempId(MEGACHAT_INVALID_HANDLE)).isEqualTo(-1)
+    }
+
+    private fun createMessage(msgId: Long, tempId: Long = MEGACHAT_INVALID_HANDLE) =
+        AndroidMegaChatMessage(createChatMessage(msgId, tempId))
+
+    private fun createChatMessage(msgId: Long, tempId: Long = MEGACHAT_INVALID_HANDLE) =
+        mock<MegaChatMessage> {
+            on { this.msgId }.thenReturn(msgId)
+            on { this.tempId }.thenReturn(tempId)
+        }
+}
@@ -3,6 +3,7 @@ package test.mega.privacy.android.app.utils.wrapper
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
@@ -107,7 +108,7 @@ class PasscodePreferenceWrapperTest {
             val megaPreferences = mock<MegaPreferences> {
                 on { passcodeLockEnabled }.thenReturn(expected.toString())
             }
-            databaseHandler.stub { on { preferences }.thenReturn(megaPreferences) }
+            databaseHandler.stub { on { monitorPreferences }.thenReturn(flowOf(megaPreferences)) }
 
             assertThat(underTest.isPasscodeEnabled()).isEqualTo(expected)
         }
@@ -118,7 +119,7 @@ class PasscodePreferenceWrapperTest {
             val megaPreferences = mock<MegaPreferences> {
                 on { passcodeLockCode }.thenReturn(expected)
             }
-            databaseHandler.stub { on { preferences }.thenReturn(megaPreferences) }
+            databaseHandler.stub { on { monitorPreferences }.thenReturn(flowOf(megaPreferences)) }
 
             assertThat(underTest.getPasscode()).isEqualTo(expected)
         }
@@ -218,7 +219,7 @@ class PasscodePreferenceWrapperTest {
                 }
 
                 databaseHandler.stub {
-                    on { preferences }.thenReturn(megaPreferences)
+                    on { monitorPreferences }.thenReturn(flowOf(megaPreferences))
                 }
 
                 assertThat(underTest.getPasscodeType()).isEqualTo(expected)
@@ -232,7 +233,7 @@ class PasscodePreferenceWrapperTest {
                 }
 
                 databaseHandler.stub {
-                    on { preferences }.thenReturn(megaPreferences)
+                    on { monitorPreferences }.thenReturn(flowOf(megaPreferences))
                 }
 
                 assertThat(underTest.getPasscodeType()).isEqualTo(PIN_4)
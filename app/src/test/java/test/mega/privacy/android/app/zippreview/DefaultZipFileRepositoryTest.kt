@@ -0,0 +1,113 @@
+package test.mega.privacy.android.app.zippreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.app.zippreview.domain.DefaultZipFileRepository
+import mega.privacy.android.app.zippreview.domain.FileType
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+/**
+ * Test class of [DefaultZipFileRepository]
+ */
+@OptIn(ExperimentalCoroutinesApi::class)
+class DefaultZipFileRepositoryTest {
+
+    private val underTest = DefaultZipFileRepository(UnconfinedTestDispatcher())
+
+    @TempDir
+    lateinit var tempDir: File
+
+    @Test
+    fun `test that the tree includes the folders missing from the zip entries`() = runTest {
+        ZipFile(createZip("a/b/file.txt", "root.txt")).use { zipFile ->
+            underTest.initZipTreeNode(zipFile)
+
+            val root = underTest.updateZipInfoList(zipFile, "")
+            assertThat(root.map { it.path }).containsExactly("a", "root.txt")
+            assertThat(root.first().fileType).isEqualTo(FileType.FOLDER)
+            val folder = underTest.updateZipInfoList(zipFile, "a/")
+            assertThat(folder.map { it.path }).containsExactly("a/b")
+            val subFolder = underTest.updateZipInfoList(zipFile, "a/b/")
+            assertThat(subFolder.single().path).isEqualTo("a/b/file.txt")
+            assertThat(subFolder.single().fileType).isEqualTo(FileType.FILE)
+        }
+    }
+
+    @Test
+    fun `test that only the requested entries are extracted`() = runTest {
+        val unzipRoot = File(tempDir, "unzipped")
+        ZipFile(createZip("a/first.txt", "a/second.txt")).use { zipFile ->
+            val result = underTest.extractEntries(
+                zipFile,
+                listOf("a/first.txt"),
+                unzipRoot.path + File.separator,
+            )
+
+            assertThat(result).isTrue()
+            assertThat(File(unzipRoot, "a/first.txt").readText()).isEqualTo("a/first.txt")
+            assertThat(File(unzipRoot, "a/second.txt").exists()).isFalse()
+        }
+    }
+
+    @Test
+    fun `test that extracting an entry which is not in the zip fails`() = runTest {
+        ZipFile(createZip("file.txt")).use { zipFile ->
+            val result = underTest.extractEntries(
+                zipFile,
+                listOf("missing.txt"),
+                tempDir.path + File.separator,
+            )
+
+            assertThat(result).isFalse()
+        }
+    }
+
+    @Test
+    fun `test that all the requested entries are extracted without leaving temporary files`() =
+        runTest {
+            val names = (1..20).map { "folder$it/file$it.txt" }
+            val unzipRoot = File(tempDir, "unzipped")
+            ZipFile(createZip(*names.toTypedArray())).use { zipFile ->
+                val result =
+                    underTest.extractEntries(zipFile, names, unzipRoot.path + File.separator)
+
+                assertThat(result).isTrue()
+                names.forEach {
+                    assertThat(File(unzipRoot, it).readText()).isEqualTo(it)
+                    assertThat(File(unzipRoot, it).parentFile?.list()).hasLength(1)
+                }
+            }
+        }
+
+    @Test
+    fun `test that entries outside of the destination are not extracted`() = runTest {
+        val unzipRoot = File(tempDir, "unzipped")
+        ZipFile(createZip("../outside.txt")).use { zipFile ->
+            val result = underTest.extractEntries(
+                zipFile,
+                listOf("../outside.txt"),
+                unzipRoot.path + File.separator,
+            )
+
+            assertThat(result).isFalse()
+            assertThat(File(tempDir, "outside.txt").exists()).isFalse()
+        }
+    }
+
+    private fun createZip(vararg names: String) = File(tempDir, "test.zip").apply {
+        ZipOutputStream(outputStream()).use { outputStream ->
+            names.forEach { name ->
+                outputStream.putNextEntry(ZipEntry(name))
+                if (!name.endsWith("/")) outputStream.write(name.toByteArray())
+                outputStream.closeEntry()
+            }
+        }
+    }
+}
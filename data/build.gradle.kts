@@ -29,6 +29,9 @@ android {
         resValue("string", "app_version", "\"${appVersion}\"")
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        // The microbenchmarks run with the other instrumented tests, on debug builds
+        testInstrumentationRunnerArguments["androidx.benchmark.suppressErrors"] =
+            "EMULATOR,DEBUGGABLE,LOW-BATTERY,UNLOCKED"
         consumerProguardFiles("consumer-rules.pro")
     }
 
@@ -132,4 +135,6 @@ dependencies {
     androidTestImplementation(testlib.junit.test.ktx)
     androidTestImplementation(testlib.runner)
     androidTestImplementation(testlib.room.test)
+    androidTestImplementation(testlib.mockito.android)
+    androidTestImplementation("androidx.benchmark:benchmark-junit4:1.2.0-beta03")
 }
@@ -0,0 +1,104 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.google.common.truth.Truth.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+@RunWith(AndroidJUnit4::class)
+class AesFieldCipherTest {
+
+    private val aesKey = ByteArray(16) { it.toByte() }
+    private val underTest = AesFieldCipher(aesKey)
+
+    @Test
+    fun test_that_short_and_long_values_are_decrypted_back_to_the_original() {
+        listOf("", "true", "1234567890123456", "/storage/emulated/0/DCIM/Camera/IMG_0001.jpg")
+            .forEach { value ->
+                assertThat(underTest.decrypt(underTest.encrypt(value))).isEqualTo(value)
+            }
+    }
+
+    @Test
+    fun test_that_null_values_are_not_encrypted() {
+        assertThat(underTest.encrypt(null)).isNull()
+        assertThat(underTest.decrypt(null)).isNull()
+    }
+
+    @Test
+    fun test_that_rows_are_decrypted_back_to_the_original_in_the_same_order() {
+        val row = listOf("handle", null, "false", "/a/long/path/to/a/file/in/the/row.txt", null)
+
+        assertThat(underTest.decryptAll(underTest.encryptAll(row))).isEqualTo(row)
+    }
+
+    @Test
+    fun test_that_values_encrypted_by_the_previous_implementation_are_decrypted() {
+        listOf("true", "/storage/emulated/0/Download/document.pdf").forEach { value ->
+            assertThat(underTest.decrypt(legacyEncrypt(value))).isEqualTo(value)
+        }
+    }
+
+    @Test
+    fun test_that_encrypted_values_match_the_previous_implementation() {
+        // Encrypted values are also used as query arguments, so they must not change
+        listOf("true", "/storage/emulated/0/Download/document.pdf").forEach { value ->
+            assertThat(underTest.encrypt(value)).isEqualTo(legacyEncrypt(value))
+            assertThat(underTest.encryptAll(listOf(value))).containsExactly(legacyEncrypt(value))
+        }
+    }
+
+    @Test
+    fun test_that_an_invalid_value_is_not_decrypted_and_does_not_break_the_next_ones() {
+        assertThat(underTest.decrypt("not encrypted")).isNull()
+
+        assertThat(underTest.decrypt(underTest.encrypt("value"))).isEqualTo("value")
+    }
+
+    @Test
+    fun test_that_concurrent_use_from_several_threads_keeps_every_value() {
+        val threads = 8
+        val valuesPerThread = 500
+        val executor = Executors.newFixedThreadPool(threads)
+        val start = CountDownLatch(1)
+        try {
+            val results = (0 until threads).map { thread ->
+                executor.submit<List<Pair<String, String?>>> {
+                    start.await()
+                    (0 until valuesPerThread).map { index ->
+                        // Short values are memoized and long ones are not, so both are shared
+                        val value = if (index % 2 == 0) "$index" else "/thread/$thread/file/$index"
+                        val encrypted = underTest.encrypt(value)
+                        assertThat(encrypted).isEqualTo(legacyEncrypt(value))
+                        value to underTest.decrypt(encrypted)
+                    }
+                }
+            }
+            start.countDown()
+
+            results.flatMap { it.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) }
+                .forEach { (value, decrypted) -> assertThat(decrypted).isEqualTo(value) }
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    /**
+     * Encrypt a value as the database did before [AesFieldCipher]
+     */
+    private fun legacyEncrypt(value: String): String {
+        val cipher = Cipher.getInstance("AES")
+        cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(aesKey, "AES"))
+        return Base64.encodeToString(cipher.doFinal(value.toByteArray()), Base64.DEFAULT)
+    }
+
+    private companion object {
+        const val TIMEOUT_SECONDS = 30L
+    }
+}
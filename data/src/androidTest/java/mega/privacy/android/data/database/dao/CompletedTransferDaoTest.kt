@@ -46,7 +46,7 @@ class CompletedTransferDaoTest {
                 handle = "27169983390750",
                 path = "Cloud drive/Camera uploads",
                 isOffline = "false",
-                timestamp = "1684228012974",
+                timestamp = "${1684228012974 + it}",
                 error = "No error",
                 originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
                 parentHandle = "11622336899311",
@@ -134,7 +134,7 @@ class CompletedTransferDaoTest {
                 handle = "27169983390750",
                 path = "Cloud drive/Camera uploads",
                 isOffline = "false",
-                timestamp = "1684228012974",
+                timestamp = "${1684228012974 + it}",
                 error = "No error",
                 originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
                 parentHandle = "11622336899311",
@@ -159,7 +159,7 @@ class CompletedTransferDaoTest {
                 handle = "27169983390750",
                 path = "Cloud drive/Camera uploads",
                 isOffline = "false",
-                timestamp = "1684228012974",
+                timestamp = "${1684228012974 + it}",
                 error = "No error",
                 originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
                 parentHandle = "11622336899311",
@@ -192,7 +192,7 @@ class CompletedTransferDaoTest {
                 handle = "27169983390750",
                 path = "Cloud drive/Camera uploads",
                 isOffline = "false",
-                timestamp = "1684228012974",
+                timestamp = "${1684228012974 + it}",
                 error = "No error",
                 originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
                 parentHandle = "11622336899311",
@@ -203,4 +203,57 @@ class CompletedTransferDaoTest {
 
         assertThat(completedTransferDao.getCompletedTransfersCount()).isEqualTo(expected)
     }
+
+    @Test
+    fun test_that_insertIfNotExist_ignores_the_transfers_already_added() = runTest {
+        val existing = createEntity(timestamp = "1684228012974")
+        val new = createEntity(timestamp = "1684228012975")
+        completedTransferDao.insertOrUpdateCompletedTransfer(existing)
+
+        completedTransferDao.insertCompletedTransfersIfNotExist(listOf(existing, new, new))
+
+        val actual = completedTransferDao.getAllCompletedTransfers().first()
+        assertThat(actual.map { it.timestamp }).containsExactly(existing.timestamp, new.timestamp)
+    }
+
+    @Test
+    fun test_that_insert_and_delete_oldest_keeps_only_the_last_transfers() = runTest {
+        (1..5).forEach {
+            completedTransferDao.insertOrUpdateCompletedTransferAndDeleteOldest(
+                entity = createEntity(timestamp = it.toString()),
+                maxTransfers = 3,
+            )
+        }
+        completedTransferDao.insertCompletedTransfersIfNotExistAndDeleteOldest(
+            entities = listOf(createEntity(timestamp = "6")),
+            maxTransfers = 3,
+        )
+
+        val actual = completedTransferDao.getAllCompletedTransfers().first()
+        assertThat(actual.map { it.timestamp }).containsExactly("4", "5", "6")
+    }
+
+    @Test
+    fun test_that_getLast_returns_the_last_inserted_items() = runTest {
+        (1..5).forEach {
+            completedTransferDao.insertOrUpdateCompletedTransfer(createEntity(timestamp = it.toString()))
+        }
+
+        val actual = completedTransferDao.getLastCompletedTransfers(2).first()
+        assertThat(actual.map { it.timestamp }).containsExactly("5", "4").inOrder()
+    }
+
+    private fun createEntity(timestamp: String) = CompletedTransferEntity(
+        fileName = "2023-03-24 00.13.20_1.jpg",
+        type = "1",
+        state = "6",
+        size = "3.57 MB",
+        handle = "27169983390750",
+        path = "Cloud drive/Camera uploads",
+        isOffline = "false",
+        timestamp = timestamp,
+        error = "No error",
+        originalPath = "/data/user/0/mega.privacy.android.app/cache/cu/53132573053997.2023-03-24 00.13.20_1.jpg",
+        parentHandle = "11622336899311",
+    )
 }
@@ -82,6 +82,18 @@ class SyncRecordDaoTest {
         ).isEqualTo(1)
     }
 
+    @Test
+    fun test_that_getExistingOriginalPaths_returns_only_the_existing_paths() = runTest {
+        generateEntities().forEach { syncRecordDao.insertOrUpdateSyncRecord(it) }
+        val path = "Cloud drive/Camera uploads/53132573053997.2023-03-24 00.13.20_"
+        Truth.assertThat(
+            syncRecordDao.getExistingOriginalPaths(
+                originalPaths = listOf("${path}1.jpg", "${path}2.jpg", "${path}3.jpg", "unknown"),
+                secondary = "false"
+            )
+        ).containsExactly("${path}1.jpg", "${path}3.jpg")
+    }
+
     @Test
     fun test_that_getSyncRecordByOriginalFingerprint_returns_the_items_count() = runTest {
         val entities = generateEntities()
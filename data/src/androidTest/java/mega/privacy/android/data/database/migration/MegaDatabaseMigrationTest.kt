@@ -114,6 +114,54 @@ class MegaDatabaseMigrationTest {
         }
     }
 
+    @Test
+    @Throws(IOException::class)
+    fun migrate75To76() {
+        helper.createDatabase(testDatabaseName, 75).apply {
+            close()
+        }
+        val db =
+            helper.runMigrationsAndValidate(testDatabaseName, 76, true, *MegaDatabase.MIGRATIONS)
+        db.query("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'syncrecords'")
+            .use {
+                val indices = buildList { while (it.moveToNext()) add(it.getString(0)) }
+                assert(indices.contains("index_syncrecords_sync_filepath_origin_sync_secondary"))
+                assert(indices.contains("index_syncrecords_sync_fingerprint_origin_sync_secondary_sync_copyonly"))
+                assert(indices.contains("index_syncrecords_sync_filepath_new"))
+                assert(indices.contains("index_syncrecords_sync_state_sync_type"))
+            }
+    }
+
+    @Test
+    @Throws(IOException::class)
+    fun migrate76To77() {
+        helper.createDatabase(testDatabaseName, 76).apply {
+            listOf("'path'", "'path'", "'other_path'", "NULL", "NULL").forEachIndexed { index, path ->
+                execSQL(
+                    """
+                    INSERT INTO completedtransfers (
+                        id,
+                        transferfilename,
+                        transfertype,
+                        transferstate,
+                        transferhandle,
+                        transfertimestamp,
+                        transferoriginalpath
+                    ) VALUES (${index + 1}, 'name', 'type', 'state', 'handle', 'timestamp', $path);
+                """.trimIndent()
+                )
+            }
+            close()
+        }
+        val db =
+            helper.runMigrationsAndValidate(testDatabaseName, 77, true, *MegaDatabase.MIGRATIONS)
+        db.query("SELECT id FROM completedtransfers ORDER BY id").use {
+            val ids = buildList { while (it.moveToNext()) add(it.getInt(0)) }
+            // The first of each group of duplicates is kept, including the ones with NULL values
+            assert(ids == listOf(1, 3, 4))
+        }
+    }
+
     companion object {
         const val TABLE_COMPLETED_TRANSFERS = "completedtransfers"
         const val KEY_TRANSFER_FILENAME = "transferfilename"
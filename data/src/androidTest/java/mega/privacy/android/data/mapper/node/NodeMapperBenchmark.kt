@@ -0,0 +1,107 @@
+package mega.privacy.android.data.mapper.node
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import mega.privacy.android.data.gateway.CacheGatewayImpl
+import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.domain.entity.PdfFileTypeInfo
+import nz.mega.sdk.MegaNode
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+
+/**
+ * Microbenchmark of the mapping of a folder of [NODE_COUNT] nodes
+ *
+ * Each measurement maps all the nodes, so the nodes mapped per second are
+ * NODE_COUNT * 1_000_000_000 / the reported nanoseconds. The nodes and the SDK are mocks, so
+ * the results compare the mapping strategies, with the real cache folders and dispatcher,
+ * rather than give the absolute speed with a logged in account.
+ */
+@RunWith(AndroidJUnit4::class)
+class NodeMapperBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val megaApiGateway = mock<MegaApiGateway> {
+        onBlocking { getNumChildFolders(any()) }.thenReturn(0)
+        onBlocking { getNumChildFiles(any()) }.thenReturn(0)
+        onBlocking { isPendingShare(any()) }.thenReturn(false)
+    }
+
+    private val megaNodes = List(NODE_COUNT) { index ->
+        mock<MegaNode> {
+            on { handle }.thenReturn(index.toLong())
+            on { name }.thenReturn("node$index.pdf")
+            on { base64Handle }.thenReturn("base64Handle$index")
+            on { isFolder }.thenReturn(index % FOLDER_EVERY == 0)
+            on { isFile }.thenReturn(index % FOLDER_EVERY != 0)
+        }
+    }
+
+    private lateinit var fileNodeMapper: FileNodeMapper
+    private lateinit var underTest: NodeMapper
+
+    @Before
+    fun setUp() {
+        fileNodeMapper = FileNodeMapper(
+            cacheGateway = CacheGatewayImpl(
+                context = InstrumentationRegistry.getInstrumentation().targetContext,
+                ioDispatcher = Dispatchers.IO,
+            ),
+            megaApiGateway = megaApiGateway,
+            fileTypeInfoMapper = { PdfFileTypeInfo },
+        )
+        underTest = NodeMapper(
+            folderNodeMapper = FolderNodeMapper(
+                megaApiGateway = megaApiGateway,
+                megaApiFolderGateway = mock<MegaApiFolderGateway>(),
+                fetChildrenMapper = mock { on { invoke(any(), any()) }.thenReturn { emptyList() } },
+            ),
+            fileNodeMapper = fileNodeMapper,
+        )
+    }
+
+    /**
+     * Map the nodes one by one, resolving the cache folders for each file
+     */
+    @Test
+    fun mapEachNode() = benchmarkRule.measureRepeated {
+        runBlocking(Dispatchers.Default) { megaNodes.forEach { underTest(it) } }
+    }
+
+    /**
+     * Map the nodes one by one, with the cache folders resolved once
+     */
+    @Test
+    fun mapNodesSequentially() = benchmarkRule.measureRepeated {
+        runBlocking(Dispatchers.Default) {
+            val cacheFolders = fileNodeMapper.getCacheFolders()
+            megaNodes.forEach {
+                if (it.isFolder) underTest(it) else fileNodeMapper(it, false, cacheFolders)
+            }
+        }
+    }
+
+    /**
+     * Map the nodes with [NodeMapper.mapNodes], in parallel chunks
+     */
+    @Test
+    fun mapNodes() = benchmarkRule.measureRepeated {
+        runBlocking(Dispatchers.Default) { underTest.mapNodes(megaNodes) }
+    }
+
+    private companion object {
+        const val NODE_COUNT = 10_000
+        const val FOLDER_EVERY = 10
+    }
+}
@@ -0,0 +1,137 @@
+package mega.privacy.android.data.cache
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.catch
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.onEach
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import nz.mega.sdk.MegaNode
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Results of the recursive SDK searches, so search-as-you-type does not traverse the whole
+ * tree on every keystroke
+ *
+ * The SDK matches the nodes whose name contains the query, so the results of a query that
+ * extends a cached one ("inv" -> "invo") are a subset of the cached results and can be
+ * filtered locally, keeping the SDK order.
+ * - The whole cache is dropped on any node update, as a new or renamed node anywhere in the
+ *   searched tree can change the results.
+ * - The cache is bounded by the total number of cached nodes, evicting the least recently used
+ *   searches first.
+ */
+@Singleton
+internal class SearchResultsCache @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+    @ApplicationScope private val appScope: CoroutineScope,
+) {
+    /**
+     * Key of a search
+     *
+     * @property parentHandle handle of the node where the search starts
+     * @property category     category of the search
+     * @property query        query of the search
+     * @property order        SDK sort order of the results
+     */
+    data class Key(
+        val parentHandle: Long,
+        val category: SearchCategory,
+        val query: String,
+        val order: Int,
+    )
+
+    private val entries = LinkedHashMap<Key, List<MegaNode>>(16, 0.75f, true)
+    private var cachedNodes = 0
+    private var monitoringNodeUpdates = false
+
+    /**
+     * Changes every time the cache is cleared
+     *
+     * Get it before starting a search and pass it to [put], so results that may have missed a
+     * node update are not cached.
+     */
+    @Volatile
+    var generation = 0L
+        private set
+
+    /**
+     * Get the results of a search, from the same search or from a cached search it refines
+     *
+     * @param key search
+     * @return the results, or null if they have to be searched
+     */
+    @Synchronized
+    fun get(key: Key): List<MegaNode>? {
+        entries[key]?.let { return it }
+        if (!isRefinable(key.query)) return null
+
+        val base = entries.keys
+            .filter { it.isRefinedBy(key) }
+            .maxByOrNull { it.query.length }
+            ?: return null
+        return entries.getValue(base)
+            .filter { it.name?.contains(key.query, ignoreCase = true) == true }
+            .also { put(key, it, generation) }
+    }
+
+    /**
+     * Cache the results of a search
+     *
+     * @param key        search
+     * @param nodes      results
+     * @param generation [generation] when the search started
+     */
+    @Synchronized
+    fun put(key: Key, nodes: List<MegaNode>, generation: Long) {
+        startMonitoringNodeUpdates()
+        if (generation != this.generation || nodes.size > MAX_CACHED_NODES) return
+
+        entries.put(key, nodes)?.let { cachedNodes -= it.size }
+        cachedNodes += nodes.size
+        val iterator = entries.values.iterator()
+        while (cachedNodes > MAX_CACHED_NODES || entries.size > MAX_ENTRIES) {
+            cachedNodes -= iterator.next().size
+            iterator.remove()
+        }
+    }
+
+    /**
+     * Drop all the cached results
+     */
+    @Synchronized
+    fun clear() {
+        generation++
+        entries.clear()
+        cachedNodes = 0
+    }
+
+    private fun startMonitoringNodeUpdates() {
+        if (monitoringNodeUpdates) return
+        monitoringNodeUpdates = true
+        megaApiGateway.globalUpdates
+            .filter { it is GlobalUpdate.OnNodesUpdate || it is GlobalUpdate.OnReloadNeeded }
+            .onEach { clear() }
+            .catch { Timber.e(it) }
+            .launchIn(appScope)
+    }
+
+    private fun Key.isRefinedBy(other: Key) = parentHandle == other.parentHandle &&
+            category == other.category &&
+            order == other.order &&
+            isRefinable(query) &&
+            other.query.contains(query, ignoreCase = true)
+
+    private fun isRefinable(query: String) = query.isNotEmpty() && WILDCARD !in query
+
+    companion object {
+        private const val MAX_CACHED_NODES = 20_000
+        private const val MAX_ENTRIES = 32
+        private const val WILDCARD = '*'
+    }
+}
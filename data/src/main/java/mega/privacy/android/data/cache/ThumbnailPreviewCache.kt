@@ -0,0 +1,187 @@
+package mega.privacy.android.data.cache
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import java.util.concurrent.atomic.AtomicLong
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Disk tier of the thumbnail and preview caches
+ *
+ * - Concurrent downloads of the same file share a single request, which is only cancelled
+ *   when all its callers have been cancelled.
+ * - Every cache folder has a quota. When it is exceeded, the least recently used files are
+ *   evicted; the last access time is kept in the file modification time, so it survives
+ *   app restarts and also covers the files written by the legacy thumbnail code.
+ *
+ * Only the Coil fetchers go through this cache, by ThumbnailPreviewRepositoryImpl. The legacy
+ * adapters still download with ThumbnailUtils in the app module and keep their bitmaps in its
+ * BitmapMemoryCache, so their downloads are not shared with the ones here. Their files are in
+ * the same folders, so they count towards the quota, but the quota is only checked when this
+ * cache writes a file.
+ */
+@Singleton
+internal class ThumbnailPreviewCache @Inject constructor(
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+    /**
+     * Cache metrics
+     *
+     * @property hits              files found in the disk cache
+     * @property misses            files not found in the disk cache
+     * @property downloads         downloads started
+     * @property coalescedRequests requests served by a download already in progress
+     * @property evictions         files evicted to keep the folders under their quota
+     */
+    data class Metrics(
+        val hits: Long,
+        val misses: Long,
+        val downloads: Long,
+        val coalescedRequests: Long,
+        val evictions: Long,
+    )
+
+    private class InFlightDownload(val deferred: Deferred<File>) {
+        var waiters = 0
+    }
+
+    private val scope = CoroutineScope(SupervisorJob() + ioDispatcher)
+    private val inFlight = HashMap<String, InFlightDownload>()
+
+    private val folderUsageMutex = Mutex()
+    private val folderUsage = HashMap<String, Long>()
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+    private val downloads = AtomicLong()
+    private val coalescedRequests = AtomicLong()
+    private val evictions = AtomicLong()
+
+    /**
+     * Current metrics
+     */
+    val metrics: Metrics
+        get() = Metrics(
+            hits = hits.get(),
+            misses = misses.get(),
+            downloads = downloads.get(),
+            coalescedRequests = coalescedRequests.get(),
+            evictions = evictions.get(),
+        )
+
+    /**
+     * Get a cached file, marking it as recently used
+     *
+     * @param file the cache file
+     * @return [file] if it is cached, null otherwise
+     */
+    suspend fun get(file: File?): File? = withContext(ioDispatcher) {
+        if (file != null && file.exists()) {
+            hits.incrementAndGet()
+            file.setLastModified(System.currentTimeMillis())
+            file
+        } else {
+            misses.incrementAndGet()
+            null
+        }
+    }
+
+    /**
+     * Download a file into the cache, sharing the download with the concurrent callers
+     *
+     * @param file     the cache file
+     * @param download downloads the file and returns it
+     * @return the downloaded file
+     */
+    suspend fun download(file: File, download: suspend () -> File): File {
+        val key = file.absolutePath
+        val request = synchronized(inFlight) {
+            (inFlight[key]?.also { coalescedRequests.incrementAndGet() }
+                ?: InFlightDownload(
+                    scope.async(start = CoroutineStart.LAZY) {
+                        download().also { onFileAdded(it) }
+                    }
+                ).also {
+                    downloads.incrementAndGet()
+                    inFlight[key] = it
+                }).apply { waiters++ }
+        }
+
+        request.deferred.start()
+        return try {
+            request.deferred.await()
+        } finally {
+            synchronized(inFlight) {
+                request.waiters--
+                if (request.waiters == 0) {
+                    if (inFlight[key] === request) inFlight.remove(key)
+                    if (!request.deferred.isCompleted) request.deferred.cancel()
+                }
+            }
+        }
+    }
+
+    /**
+     * Record a file added to a cache folder
+     *
+     * The usage of a folder is counted once and then tracked incrementally. Files written or
+     * deleted by other code are only reflected on the next trim, which rescans the folder.
+     */
+    private suspend fun onFileAdded(file: File) {
+        val folder = file.parentFile ?: return
+        val quota = QUOTAS[folder.name] ?: return
+        folderUsageMutex.withLock {
+            val usage = (folderUsage[folder.path] ?: folder.usedBytes()) + file.length()
+            folderUsage[folder.path] = if (usage > quota) trim(folder, quota) else usage
+        }
+    }
+
+    /**
+     * Evict the least recently used files of a folder until it is under the low watermark
+     *
+     * @return the bytes used by the folder after the eviction
+     */
+    private fun trim(folder: File, quota: Long): Long {
+        val inFlightPaths = synchronized(inFlight) { inFlight.keys.toSet() }
+        val files = folder.listFiles()?.filter { it.isFile }?.sortedBy { it.lastModified() }
+            ?: return 0
+        var usage = files.sumOf { it.length() }
+        val target = quota / 100 * LOW_WATERMARK_PERCENT
+        var evicted = 0
+        for (file in files) {
+            if (usage <= target) break
+            if (file.absolutePath in inFlightPaths) continue
+            val length = file.length()
+            if (file.delete()) {
+                usage -= length
+                evicted++
+            }
+        }
+        evictions.addAndGet(evicted.toLong())
+        Timber.d("Evicted $evicted files from ${folder.name}, $metrics")
+        return usage
+    }
+
+    private fun File.usedBytes() = listFiles()?.sumOf { it.length() } ?: 0L
+
+    private companion object {
+        const val LOW_WATERMARK_PERCENT = 80
+
+        val QUOTAS = mapOf(
+            CacheFolderConstant.THUMBNAIL_FOLDER to 100L * 1024 * 1024,
+            CacheFolderConstant.PREVIEW_FOLDER to 300L * 1024 * 1024,
+        )
+    }
+}
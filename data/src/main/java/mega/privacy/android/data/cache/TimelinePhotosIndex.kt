@@ -0,0 +1,102 @@
+package mega.privacy.android.data.cache
+
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.photos.Photo
+import java.util.TreeSet
+
+/**
+ * Incrementally maintained index of the Timeline photos
+ *
+ * Photos are keyed by [NodeId] and kept sorted by modification time (newest first), so single
+ * node changes can be applied without re-searching and re-mapping the whole cloud drive.
+ * All operations are guarded by a [Mutex], so the index can be safely updated from several
+ * coroutines.
+ */
+internal class TimelinePhotosIndex {
+    private val mutex = Mutex()
+
+    private val photosById = HashMap<NodeId, Photo>()
+
+    private val sortedPhotos = TreeSet(timelineComparator)
+
+    private var snapshot: List<Photo>? = null
+
+    /**
+     * Replace the content of the index with [photos]
+     *
+     * @return the sorted photos
+     */
+    suspend fun replaceAll(photos: List<Photo>): List<Photo> = mutex.withLock {
+        photosById.clear()
+        sortedPhotos.clear()
+        snapshot = null
+        photos.forEach { insert(it) }
+        takeSnapshot()
+    }
+
+    /**
+     * Apply a diff to the index
+     *
+     * @param upserts photos to add or replace
+     * @param removals ids of the photos to remove
+     * @return the sorted photos if the index changed, null otherwise
+     */
+    suspend fun apply(upserts: List<Photo>, removals: Collection<NodeId>): List<Photo>? =
+        mutex.withLock {
+            var changed = false
+            removals.forEach { id ->
+                photosById.remove(id)?.let {
+                    sortedPhotos.remove(it)
+                    changed = true
+                }
+            }
+            upserts.forEach { photo ->
+                val id = NodeId(photo.id)
+                val current = photosById[id]
+                if (current != photo) {
+                    insert(photo)
+                    changed = true
+                }
+            }
+            if (changed) {
+                snapshot = null
+                takeSnapshot()
+            } else {
+                null
+            }
+        }
+
+    /**
+     * Get the photo with [id] if it is in the index
+     */
+    suspend fun get(id: NodeId): Photo? = mutex.withLock { photosById[id] }
+
+    /**
+     * Get the sorted photos
+     */
+    suspend fun getAll(): List<Photo> = mutex.withLock { takeSnapshot() }
+
+    /**
+     * Remove all the photos from the index
+     */
+    suspend fun clear() = mutex.withLock {
+        photosById.clear()
+        sortedPhotos.clear()
+        snapshot = null
+    }
+
+    private fun insert(photo: Photo) {
+        photosById.put(NodeId(photo.id), photo)?.let { sortedPhotos.remove(it) }
+        sortedPhotos.add(photo)
+    }
+
+    private fun takeSnapshot(): List<Photo> =
+        snapshot ?: sortedPhotos.toList().also { snapshot = it }
+
+    companion object {
+        private val timelineComparator: Comparator<Photo> =
+            compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id }
+    }
+}
@@ -0,0 +1,200 @@
+package mega.privacy.android.data.cache
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.domain.entity.FileTypeInfo
+import mega.privacy.android.domain.entity.GifFileTypeInfo
+import mega.privacy.android.domain.entity.RawFileTypeInfo
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.SvgFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.IOException
+import java.time.LocalDateTime
+import java.time.ZoneOffset
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Stores a compact binary snapshot of the Timeline photos, so they can be shown on cold start
+ * before the cloud drive search finishes.
+ *
+ * The snapshot starts with a magic number and a format version; snapshots with a different
+ * version are discarded.
+ */
+@Singleton
+internal class TimelinePhotosSnapshotStore @Inject constructor(
+    private val cacheGateway: CacheGateway,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+    private val mutex = Mutex()
+
+    /**
+     * Read the stored snapshot
+     *
+     * @return the photos of the snapshot, or null if there is no valid snapshot
+     */
+    suspend fun read(): List<Photo>? = withContext(ioDispatcher) {
+        mutex.withLock {
+            val file = getSnapshotFile() ?: return@withLock null
+            if (!file.exists()) return@withLock null
+            runCatching {
+                DataInputStream(BufferedInputStream(file.inputStream(), BUFFER_SIZE)).use {
+                    it.readSnapshot()
+                }
+            }.onFailure {
+                Timber.w(it, "Discarding invalid Timeline snapshot")
+                file.delete()
+            }.getOrNull()
+        }
+    }
+
+    /**
+     * Replace the stored snapshot with [photos]
+     */
+    suspend fun write(photos: List<Photo>) = withContext(ioDispatcher) {
+        mutex.withLock {
+            val file = getSnapshotFile() ?: return@withLock
+            val tempFile = File(file.parentFile, "${file.name}.tmp")
+            runCatching {
+                DataOutputStream(BufferedOutputStream(tempFile.outputStream(), BUFFER_SIZE)).use {
+                    it.writeSnapshot(photos)
+                }
+                if (!tempFile.renameTo(file)) throw IOException("Cannot rename $tempFile")
+            }.onFailure {
+                Timber.w(it, "Unable to write Timeline snapshot")
+                tempFile.delete()
+            }
+        }
+    }
+
+    /**
+     * Delete the stored snapshot
+     */
+    suspend fun delete() = withContext(ioDispatcher) {
+        mutex.withLock {
+            getSnapshotFile()?.delete()
+        }
+    }
+
+    private suspend fun getSnapshotFile() =
+        cacheGateway.getCacheFile(CacheFolderConstant.TIMELINE_FOLDER, SNAPSHOT_FILE_NAME)
+
+    private fun DataOutputStream.writeSnapshot(photos: List<Photo>) {
+        writeInt(MAGIC)
+        writeInt(VERSION)
+        writeInt(photos.size)
+        photos.forEach { photo ->
+            writeByte(photo.fileTypeInfo.toTypeCode())
+            writeLong(photo.id)
+            writeLong(photo.parentId)
+            writeUTF(photo.name)
+            writeBoolean(photo.isFavourite)
+            writeLong(photo.creationTime.toEpochSecond(ZoneOffset.UTC))
+            writeLong(photo.modificationTime.toEpochSecond(ZoneOffset.UTC))
+            writeNullableUTF(photo.thumbnailFilePath)
+            writeNullableUTF(photo.previewFilePath)
+            writeUTF(photo.fileTypeInfo.mimeType)
+            writeUTF(photo.fileTypeInfo.extension)
+            writeInt((photo.fileTypeInfo as? VideoFileTypeInfo)?.duration ?: 0)
+            writeLong(photo.size)
+        }
+    }
+
+    private fun DataInputStream.readSnapshot(): List<Photo> {
+        if (readInt() != MAGIC) throw IOException("Not a Timeline snapshot")
+        val version = readInt()
+        if (version != VERSION) throw IOException("Unsupported Timeline snapshot version $version")
+        val count = readInt()
+        return List(count) {
+            val typeCode = readByte().toInt()
+            val id = readLong()
+            val parentId = readLong()
+            val name = readUTF()
+            val isFavourite = readBoolean()
+            val creationTime = LocalDateTime.ofEpochSecond(readLong(), 0, ZoneOffset.UTC)
+            val modificationTime = LocalDateTime.ofEpochSecond(readLong(), 0, ZoneOffset.UTC)
+            val thumbnailFilePath = readNullableUTF()
+            val previewFilePath = readNullableUTF()
+            val mimeType = readUTF()
+            val extension = readUTF()
+            val duration = readInt()
+            val size = readLong()
+            if (typeCode == TYPE_VIDEO) {
+                Photo.Video(
+                    id = id,
+                    parentId = parentId,
+                    name = name,
+                    isFavourite = isFavourite,
+                    creationTime = creationTime,
+                    modificationTime = modificationTime,
+                    thumbnailFilePath = thumbnailFilePath,
+                    previewFilePath = previewFilePath,
+                    fileTypeInfo = VideoFileTypeInfo(mimeType, extension, duration),
+                    size = size,
+                )
+            } else {
+                Photo.Image(
+                    id = id,
+                    parentId = parentId,
+                    name = name,
+                    isFavourite = isFavourite,
+                    creationTime = creationTime,
+                    modificationTime = modificationTime,
+                    thumbnailFilePath = thumbnailFilePath,
+                    previewFilePath = previewFilePath,
+                    fileTypeInfo = imageFileTypeInfo(typeCode, mimeType, extension),
+                    size = size,
+                )
+            }
+        }
+    }
+
+    private fun DataOutputStream.writeNullableUTF(value: String?) {
+        writeBoolean(value != null)
+        value?.let { writeUTF(it) }
+    }
+
+    private fun DataInputStream.readNullableUTF(): String? =
+        if (readBoolean()) readUTF() else null
+
+    private fun FileTypeInfo.toTypeCode() = when (this) {
+        is VideoFileTypeInfo -> TYPE_VIDEO
+        is GifFileTypeInfo -> TYPE_GIF
+        is RawFileTypeInfo -> TYPE_RAW
+        is SvgFileTypeInfo -> TYPE_SVG
+        else -> TYPE_STATIC_IMAGE
+    }
+
+    private fun imageFileTypeInfo(typeCode: Int, mimeType: String, extension: String) =
+        when (typeCode) {
+            TYPE_GIF -> GifFileTypeInfo(mimeType, extension)
+            TYPE_RAW -> RawFileTypeInfo(mimeType, extension)
+            TYPE_SVG -> SvgFileTypeInfo(mimeType, extension)
+            else -> StaticImageFileTypeInfo(mimeType, extension)
+        }
+
+    companion object {
+        private const val SNAPSHOT_FILE_NAME = "timeline.snapshot"
+        private const val MAGIC = 0x4D544C53
+        private const val VERSION = 1
+        private const val BUFFER_SIZE = 64 * 1024
+
+        private const val TYPE_STATIC_IMAGE = 0
+        private const val TYPE_GIF = 1
+        private const val TYPE_RAW = 2
+        private const val TYPE_SVG = 3
+        private const val TYPE_VIDEO = 4
+    }
+}
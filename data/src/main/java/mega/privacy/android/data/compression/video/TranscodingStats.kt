@@ -0,0 +1,24 @@
+package mega.privacy.android.data.compression.video
+
+/**
+ * Throughput of a video being transcoded
+ *
+ * @property frames       frames transcoded so far
+ * @property bytesRead    bytes read from the original video so far
+ * @property bytesWritten bytes written to the transcoded video so far
+ */
+class TranscodingStats(
+    var frames: Long = 0,
+    var bytesRead: Long = 0,
+    var bytesWritten: Long = 0,
+) {
+    private val startTime = System.nanoTime()
+
+    /**
+     * Get the frames transcoded per second since the transcoding started
+     */
+    fun getFramesPerSecond(): Double {
+        val elapsedSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0
+        return if (elapsedSeconds > 0) frames / elapsedSeconds else 0.0
+    }
+}
@@ -0,0 +1,891 @@
+package mega.privacy.android.data.compression.video
+
+import android.media.MediaCodec
+import android.media.MediaCodecInfo
+import android.media.MediaCodecList
+import android.media.MediaExtractor
+import android.media.MediaFormat
+import android.media.MediaMetadataRetriever
+import android.media.MediaMuxer
+import android.view.Surface
+import mega.privacy.android.domain.entity.VideoQuality
+import timber.log.Timber
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.util.concurrent.CancellationException
+import java.util.concurrent.atomic.AtomicReference
+import javax.inject.Inject
+import kotlin.math.roundToInt
+
+/**
+ * Transcodes a video with MediaCodec, decoding it to a surface and encoding it again
+ *
+ * The video track is always transcoded. The audio track is copied as it is when it already
+ * meets the output settings, and transcoded otherwise.
+ */
+internal class VideoTranscoder @Inject constructor() {
+
+    private companion object {
+        const val TIMEOUT_USEC = 10000
+        const val OUTPUT_VIDEO_MIME_TYPE = "video/avc"
+        const val OUTPUT_VIDEO_FRAME_RATE = 30
+        const val OUTPUT_VIDEO_IFRAME_INTERVAL = 10
+        const val OUTPUT_VIDEO_COLOR_FORMAT = MediaCodecInfo.CodecCapabilities.COLOR_FormatSurface
+        const val OUTPUT_AUDIO_MIME_TYPE = "audio/mp4a-latm"
+        const val OUTPUT_AUDIO_BIT_RATE = 128 * 1024
+        const val OUTPUT_AUDIO_AAC_PROFILE = MediaCodecInfo.CodecProfileLevel.AACObjectHE
+        const val DEFAULT_AUDIO_SAMPLE_SIZE = 256 * 1024
+        const val SHORT_SIDE_SIZE_MEDIUM = 1080
+        const val SHORT_SIDE_SIZE_LOW = 720
+    }
+
+    /**
+     * Settings of the transcoded video
+     */
+    private data class OutputSettings(
+        val width: Int,
+        val height: Int,
+        val bitrate: Int,
+        val frameRate: Int,
+    )
+
+    /**
+     * Get how many videos can be transcoded at the same time
+     *
+     * Each transcoding needs its own video and audio encoder instances, so the limit is the
+     * lowest number of instances the encoders support.
+     */
+    fun getMaxSupportedInstances(): Int =
+        listOf(OUTPUT_VIDEO_MIME_TYPE, OUTPUT_AUDIO_MIME_TYPE).minOf { mimeType ->
+            selectCodec(mimeType)?.getCapabilitiesForType(mimeType)?.maxSupportedInstances ?: 1
+        }
+
+    /**
+     * Transcode a video, blocking the current thread until it finishes
+     *
+     * @param request [VideoTranscodingRequest]
+     * @param isActive whether the transcoding should go on, checked for each step
+     * @param onProgress a callback to return the progress and throughput of the transcoding
+     * @throws CancellationException if [isActive] became false before finishing
+     */
+    @Throws(Exception::class)
+    fun transcode(
+        request: VideoTranscodingRequest,
+        isActive: () -> Boolean,
+        onProgress: (Int, TranscodingStats) -> Unit,
+    ) {
+        Timber.d("Transcoding video with profile ${request.profile}")
+        val videoCodecInfo = selectCodec(OUTPUT_VIDEO_MIME_TYPE)
+            ?: throw IllegalStateException("No encoder found for $OUTPUT_VIDEO_MIME_TYPE")
+        val audioCodecInfo = selectCodec(OUTPUT_AUDIO_MIME_TYPE)
+            ?: throw IllegalStateException("No encoder found for $OUTPUT_AUDIO_MIME_TYPE")
+        var videoExtractor: MediaExtractor? = null
+        var audioExtractor: MediaExtractor? = null
+        var outputSurface: OutputSurface? = null
+        var videoDecoder: MediaCodec? = null
+        var audioDecoder: MediaCodec? = null
+        var videoEncoder: MediaCodec? = null
+        var audioEncoder: MediaCodec? = null
+        var muxer: MediaMuxer? = null
+        var inputSurface: InputSurface? = null
+
+        try {
+            videoExtractor = createExtractor(request.originalPath)
+            val videoInputTrack = getAndSelectVideoTrackIndex(videoExtractor)
+            val inputFormat = videoExtractor.getTrackFormat(videoInputTrack)
+            val metadataRetriever = MediaMetadataRetriever()
+            val (outputSettings, duration) = try {
+                metadataRetriever.setDataSource(request.originalPath)
+                val duration =
+                    metadataRetriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION)
+                        ?.toLong() ?: throw IllegalStateException("Video duration not found")
+                getOutputSettings(request, metadataRetriever, inputFormat, videoCodecInfo) to duration
+            } finally {
+                metadataRetriever.release()
+            }
+            Timber.d("Video result settings: $outputSettings")
+
+            val outputVideoFormat =
+                MediaFormat.createVideoFormat(
+                    OUTPUT_VIDEO_MIME_TYPE,
+                    outputSettings.width,
+                    outputSettings.height,
+                ).apply {
+                    setInteger(MediaFormat.KEY_COLOR_FORMAT, OUTPUT_VIDEO_COLOR_FORMAT)
+                    setInteger(MediaFormat.KEY_BIT_RATE, outputSettings.bitrate)
+                    setInteger(MediaFormat.KEY_FRAME_RATE, outputSettings.frameRate)
+                    setInteger(
+                        MediaFormat.KEY_I_FRAME_INTERVAL,
+                        OUTPUT_VIDEO_IFRAME_INTERVAL
+                    )
+                }
+
+            val inputSurfaceReference = AtomicReference<Surface>()
+            videoEncoder =
+                createVideoEncoder(videoCodecInfo, outputVideoFormat, inputSurfaceReference)
+            inputSurface = InputSurface(
+                inputSurfaceReference.get()
+            )
+            inputSurface.makeCurrent()
+            outputSurface = OutputSurface()
+            videoDecoder = createVideoDecoder(inputFormat, outputSurface.surface)
+            audioExtractor = createExtractor(request.originalPath)
+            val audioInputTrack = getAndSelectAudioTrackIndex(audioExtractor)
+            val hasAudio = audioInputTrack >= 0
+            var audioPassThroughFormat: MediaFormat? = null
+            if (hasAudio) {
+                val inputAudioFormat = audioExtractor.getTrackFormat(audioInputTrack)
+                if (canCopyAudio(inputAudioFormat)) {
+                    Timber.d("Copying the audio track without transcoding it")
+                    audioPassThroughFormat = inputAudioFormat
+                } else {
+                    val outputAudioFormat = MediaFormat.createAudioFormat(
+                        OUTPUT_AUDIO_MIME_TYPE,
+                        inputAudioFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE),
+                        inputAudioFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT)
+                    )
+                    outputAudioFormat.setInteger(MediaFormat.KEY_BIT_RATE, OUTPUT_AUDIO_BIT_RATE)
+                    outputAudioFormat.setInteger(MediaFormat.KEY_AAC_PROFILE, OUTPUT_AUDIO_AAC_PROFILE)
+                    audioEncoder = createAudioEncoder(audioCodecInfo, outputAudioFormat)
+                    audioDecoder = createAudioDecoder(inputAudioFormat)
+                }
+            }
+            muxer = MediaMuxer(request.newPath, MediaMuxer.OutputFormat.MUXER_OUTPUT_MPEG_4)
+            val stats = TranscodingStats()
+            changeResolution(
+                videoExtractor = videoExtractor,
+                audioExtractor = audioExtractor,
+                videoDecoder = videoDecoder,
+                videoEncoder = videoEncoder,
+                audioDecoder = audioDecoder,
+                audioEncoder = audioEncoder,
+                muxer = muxer,
+                inputSurface = inputSurface,
+                outputSurface = outputSurface,
+                durationMs = duration,
+                hasAudio = hasAudio,
+                audioPassThroughFormat = audioPassThroughFormat,
+                stats = stats,
+                isActive = isActive,
+            ) { progress ->
+                onProgress(progress, stats)
+            }
+            if (!isActive()) throw CancellationException("Video transcoding cancelled")
+            Timber.d("Video transcoded at ${stats.getFramesPerSecond()} fps, ${stats.bytesRead} bytes read, ${stats.bytesWritten} bytes written")
+        } finally {
+            Timber.d("Release Encoders and Decoders")
+            try {
+                videoExtractor?.release()
+                audioExtractor?.release()
+                videoEncoder?.stop()
+                videoEncoder?.release()
+                videoDecoder?.stop()
+                videoDecoder?.release()
+                audioEncoder?.stop()
+                audioEncoder?.release()
+                audioDecoder?.stop()
+                audioDecoder?.release()
+                muxer?.stop()
+                muxer?.release()
+                inputSurface?.release()
+                outputSurface?.release()
+            } catch (e: Exception) {
+                Timber.e("Release Exception $e")
+            }
+        }
+    }
+
+    /**
+     * Gets the settings of the transcoded video
+     *
+     * @param request [VideoTranscodingRequest]
+     * @param metadataRetriever The video metadata
+     * @param inputFormat [MediaFormat] of the original video track
+     * @param videoCodecInfo [MediaCodecInfo] of the video encoder
+     * @return [OutputSettings]
+     */
+    private fun getOutputSettings(
+        request: VideoTranscodingRequest,
+        metadataRetriever: MediaMetadataRetriever,
+        inputFormat: MediaFormat,
+        videoCodecInfo: MediaCodecInfo,
+    ): OutputSettings {
+        val bitrate =
+            metadataRetriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_BITRATE)
+                ?.toInt() ?: throw IllegalStateException("Video bitrate not found")
+        val frameRate =
+            if (inputFormat.containsKey(MediaFormat.KEY_FRAME_RATE)) inputFormat.getInteger(
+                MediaFormat.KEY_FRAME_RATE
+            ) else OUTPUT_VIDEO_FRAME_RATE
+        return when (request.profile) {
+            VideoTranscodingProfile.CAMERA_UPLOADS -> {
+                val (width, height) = getResultWidthAndHeight(metadataRetriever)
+                OutputSettings(width, height, getBitrate(bitrate, request.quality), frameRate)
+            }
+
+            VideoTranscodingProfile.CHAT -> getChatOutputSettings(
+                metadataRetriever = metadataRetriever,
+                averageBitrate = bitrate,
+                inputFrameRate = frameRate,
+                quality = request.quality,
+                codecInfo = videoCodecInfo,
+            )
+        }
+    }
+
+    /**
+     * Changes the video resolution
+     *
+     * @param videoExtractor [MediaExtractor]
+     * @param audioExtractor [MediaExtractor]
+     * @param videoDecoder [MediaCodec]
+     * @param videoEncoder [MediaCodec]
+     * @param [audioDecoder] [MediaCodec]
+     * @param [audioEncoder] [MediaCodec]
+     * @param [muxer] [MediaMuxer]
+     * @param [inputSurface] [InputSurface]
+     * @param [outputSurface] [OutputSurface]
+     * @param [durationMs] duration of the video in milliseconds
+     * @param [hasAudio] whether the video has an audio track
+     * @param [audioPassThroughFormat] format of the audio track to copy without transcoding, null to transcode it
+     * @param [stats] [TranscodingStats] updated while transcoding
+     * @param [isActive] whether the transcoding should go on
+     * @param [block] a callback to return the transcoding progress
+     */
+    private fun changeResolution(
+        videoExtractor: MediaExtractor?, audioExtractor: MediaExtractor?,
+        videoDecoder: MediaCodec?, videoEncoder: MediaCodec?,
+        audioDecoder: MediaCodec?, audioEncoder: MediaCodec?,
+        muxer: MediaMuxer,
+        inputSurface: InputSurface,
+        outputSurface: OutputSurface,
+        durationMs: Long,
+        hasAudio: Boolean,
+        audioPassThroughFormat: MediaFormat?,
+        stats: TranscodingStats,
+        isActive: () -> Boolean,
+        block: (Int) -> Unit,
+    ) {
+        Timber.d("change Resolution")
+        val videoDecoderOutputBufferInfo = MediaCodec.BufferInfo()
+        val videoEncoderOutputBufferInfo = MediaCodec.BufferInfo()
+
+        val audioDecoderOutputBufferInfo = MediaCodec.BufferInfo()
+        val audioEncoderOutputBufferInfo = MediaCodec.BufferInfo()
+
+        var decoderOutputVideoFormat: MediaFormat?
+        var decoderOutputAudioFormat: MediaFormat?
+        var encoderOutputVideoFormat: MediaFormat? = null
+        var encoderOutputAudioFormat: MediaFormat? = audioPassThroughFormat
+        val audioPassThroughBuffer = audioPassThroughFormat?.let {
+            val sampleSize = if (it.containsKey(MediaFormat.KEY_MAX_INPUT_SIZE)) {
+                it.getInteger(MediaFormat.KEY_MAX_INPUT_SIZE)
+            } else DEFAULT_AUDIO_SAMPLE_SIZE
+            ByteBuffer.allocate(sampleSize)
+        }
+        val audioPassThroughBufferInfo = MediaCodec.BufferInfo()
+
+        var outputVideoTrack = -1
+        var outputAudioTrack = -1
+
+        var videoExtractorDone = false
+        var videoDecoderDone = false
+        var videoEncoderDone = false
+
+        var audioExtractorDone = false
+        var audioDecoderDone = false
+        var audioEncoderDone = !hasAudio
+
+        var pendingAudioDecoderOutputBufferIndex = -1
+        var muxing = false
+        while ((!videoEncoderDone || !audioEncoderDone) && isActive()) {
+            while (!videoExtractorDone && (encoderOutputVideoFormat == null || muxing)) {
+                val decoderInputBufferIndex =
+                    videoDecoder?.dequeueInputBuffer(TIMEOUT_USEC.toLong()) ?: return
+                if (decoderInputBufferIndex == MediaCodec.INFO_TRY_AGAIN_LATER) break
+                val decoderInputBuffer = videoDecoder.getInputBuffer(decoderInputBufferIndex)
+                val size =
+                    (videoExtractor ?: return).readSampleData(decoderInputBuffer ?: return, 0)
+                val presentationTime = videoExtractor.sampleTime
+                if (size >= 0) {
+                    stats.bytesRead += size
+                    videoDecoder.queueInputBuffer(
+                        decoderInputBufferIndex,
+                        0,
+                        size,
+                        presentationTime,
+                        videoExtractor.sampleFlags
+                    )
+                }
+                videoExtractorDone = (!videoExtractor.advance() && size == -1)
+                if (videoExtractorDone) {
+                    videoDecoder.queueInputBuffer(
+                        decoderInputBufferIndex,
+                        0,
+                        0,
+                        0,
+                        MediaCodec.BUFFER_FLAG_END_OF_STREAM
+                    )
+                }
+                break
+            }
+            while (audioDecoder != null && !audioExtractorDone && (encoderOutputAudioFormat == null || muxing)) {
+                val decoderInputBufferIndex = audioDecoder.dequeueInputBuffer(TIMEOUT_USEC.toLong())
+                if (decoderInputBufferIndex == MediaCodec.INFO_TRY_AGAIN_LATER) break
+                val decoderInputBuffer = audioDecoder.getInputBuffer(decoderInputBufferIndex)
+                val size =
+                    (audioExtractor ?: return).readSampleData(decoderInputBuffer ?: return, 0)
+                val presentationTime = audioExtractor.sampleTime
+                if (size >= 0) {
+                    stats.bytesRead += size
+                    audioDecoder.queueInputBuffer(
+                        decoderInputBufferIndex,
+                        0,
+                        size,
+                        presentationTime,
+                        audioExtractor.sampleFlags
+                    )
+                }
+                audioExtractorDone = (!audioExtractor.advance() && size == -1)
+                if (audioExtractorDone) {
+                    audioDecoder.queueInputBuffer(
+                        decoderInputBufferIndex,
+                        0,
+                        0,
+                        0,
+                        MediaCodec.BUFFER_FLAG_END_OF_STREAM
+                    )
+                }
+                break
+            }
+            while (!videoDecoderDone && (encoderOutputVideoFormat == null || muxing)) {
+                val decoderOutputBufferIndex = videoDecoder?.dequeueOutputBuffer(
+                    videoDecoderOutputBufferInfo,
+                    TIMEOUT_USEC.toLong()
+                ) ?: return
+                if (decoderOutputBufferIndex == MediaCodec.INFO_TRY_AGAIN_LATER) break
+                if (decoderOutputBufferIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    decoderOutputVideoFormat = videoDecoder.outputFormat
+                    Timber.d("Current Video Format $decoderOutputVideoFormat")
+                    break
+                }
+                if (videoDecoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_CODEC_CONFIG != 0) {
+                    videoDecoder.releaseOutputBuffer(decoderOutputBufferIndex, false)
+                    break
+                }
+                val render = videoDecoderOutputBufferInfo.size != 0
+                videoDecoder.releaseOutputBuffer(decoderOutputBufferIndex, render)
+                if (render) {
+                    outputSurface.awaitNewImage()
+                    outputSurface.drawImage()
+                    inputSurface.setPresentationTime(videoDecoderOutputBufferInfo.presentationTimeUs * 1000)
+                    inputSurface.swapBuffers()
+                    stats.frames++
+                    val progress =
+                        ((videoDecoderOutputBufferInfo.presentationTimeUs.toFloat() / durationMs.toFloat()) / 10).toInt()
+                    block(progress)
+                }
+                if (videoDecoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM != 0) {
+                    videoDecoderDone = true
+                    videoEncoder?.signalEndOfInputStream()
+                }
+                break
+            }
+            while (audioDecoder != null && !audioDecoderDone && (encoderOutputAudioFormat == null || muxing)) {
+                val decoderOutputBufferIndex = audioDecoder.dequeueOutputBuffer(
+                    audioDecoderOutputBufferInfo, TIMEOUT_USEC.toLong()
+                )
+                if (decoderOutputBufferIndex == MediaCodec.INFO_TRY_AGAIN_LATER) break
+                if (decoderOutputBufferIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    decoderOutputAudioFormat = audioDecoder.outputFormat
+                    Timber.d("Current Audio Format $decoderOutputAudioFormat")
+                    break
+                }
+                if (audioDecoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_CODEC_CONFIG != 0) {
+                    audioDecoder.releaseOutputBuffer(decoderOutputBufferIndex, false)
+                    break
+                }
+                pendingAudioDecoderOutputBufferIndex = decoderOutputBufferIndex
+                break
+            }
+            while (audioEncoder != null && pendingAudioDecoderOutputBufferIndex != -1) {
+                val encoderInputBufferIndex = audioEncoder.dequeueInputBuffer(TIMEOUT_USEC.toLong())
+                val encoderInputBuffer = audioEncoder.getInputBuffer(encoderInputBufferIndex)
+                val size = audioDecoderOutputBufferInfo.size
+                val presentationTime = audioDecoderOutputBufferInfo.presentationTimeUs
+                if (size >= 0) {
+                    val decoderOutputBuffer =
+                        audioDecoder?.getOutputBuffer(pendingAudioDecoderOutputBufferIndex)
+                            ?.duplicate()
+                    decoderOutputBuffer?.let {
+                        it.position(audioDecoderOutputBufferInfo.offset)
+                        it.limit(audioDecoderOutputBufferInfo.offset + size)
+                        encoderInputBuffer?.position(0)
+                        encoderInputBuffer?.put(it)
+                    }
+                    audioEncoder.queueInputBuffer(
+                        encoderInputBufferIndex,
+                        0,
+                        size,
+                        presentationTime,
+                        audioDecoderOutputBufferInfo.flags
+                    )
+                }
+                (audioDecoder ?: return).releaseOutputBuffer(
+                    pendingAudioDecoderOutputBufferIndex,
+                    false
+                )
+                pendingAudioDecoderOutputBufferIndex = -1
+                if (audioDecoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM != 0) {
+                    audioDecoderDone = true
+                }
+                break
+            }
+            while (!videoEncoderDone && (encoderOutputVideoFormat == null || muxing)) {
+                val encoderOutputBufferIndex = videoEncoder?.dequeueOutputBuffer(
+                    videoEncoderOutputBufferInfo,
+                    TIMEOUT_USEC.toLong()
+                ) ?: return
+                if (encoderOutputBufferIndex == MediaCodec.INFO_TRY_AGAIN_LATER) break
+                if (encoderOutputBufferIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    encoderOutputVideoFormat = videoEncoder.outputFormat
+                    break
+                }
+                val encoderOutputBuffer = videoEncoder.getOutputBuffer(encoderOutputBufferIndex)
+                if (videoEncoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_CODEC_CONFIG != 0) {
+                    videoEncoder.releaseOutputBuffer(encoderOutputBufferIndex, false)
+                    break
+                }
+                if (videoEncoderOutputBufferInfo.size != 0) {
+                    muxer.writeSampleData(
+                        outputVideoTrack,
+                        encoderOutputBuffer ?: return,
+                        videoEncoderOutputBufferInfo
+                    )
+                    stats.bytesWritten += videoEncoderOutputBufferInfo.size
+                }
+                if (videoEncoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM != 0) {
+                    videoEncoderDone = true
+                }
+                videoEncoder.releaseOutputBuffer(encoderOutputBufferIndex, false)
+                break
+            }
+            while (audioEncoder != null && !audioEncoderDone && (encoderOutputAudioFormat == null || muxing)) {
+                val encoderOutputBufferIndex = audioEncoder.dequeueOutputBuffer(
+                    audioEncoderOutputBufferInfo, TIMEOUT_USEC.toLong()
+                )
+                if (encoderOutputBufferIndex == MediaCodec.INFO_TRY_AGAIN_LATER) {
+                    break
+                }
+                if (encoderOutputBufferIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    encoderOutputAudioFormat = audioEncoder.outputFormat
+                    break
+                }
+                val encoderOutputBuffer = audioEncoder.getOutputBuffer(encoderOutputBufferIndex)
+                if (audioEncoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_CODEC_CONFIG != 0) {
+                    audioEncoder.releaseOutputBuffer(encoderOutputBufferIndex, false)
+                    break
+                }
+                if (audioEncoderOutputBufferInfo.size != 0) {
+                    muxer.writeSampleData(
+                        outputAudioTrack,
+                        encoderOutputBuffer ?: return,
+                        audioEncoderOutputBufferInfo
+                    )
+                    stats.bytesWritten += audioEncoderOutputBufferInfo.size
+                }
+                if (audioEncoderOutputBufferInfo.flags and MediaCodec.BUFFER_FLAG_END_OF_STREAM != 0) {
+                    audioEncoderDone =
+                        true
+                }
+                audioEncoder.releaseOutputBuffer(encoderOutputBufferIndex, false)
+                break
+            }
+            while (audioPassThroughBuffer != null && !audioEncoderDone && muxing) {
+                val size = (audioExtractor ?: return).readSampleData(audioPassThroughBuffer, 0)
+                if (size < 0) {
+                    audioEncoderDone = true
+                    break
+                }
+                val flags = if (audioExtractor.sampleFlags and MediaExtractor.SAMPLE_FLAG_SYNC != 0) {
+                    MediaCodec.BUFFER_FLAG_KEY_FRAME
+                } else 0
+                audioPassThroughBufferInfo.set(0, size, audioExtractor.sampleTime, flags)
+                muxer.writeSampleData(
+                    outputAudioTrack,
+                    audioPassThroughBuffer,
+                    audioPassThroughBufferInfo
+                )
+                stats.bytesRead += size
+                stats.bytesWritten += size
+                audioExtractor.advance()
+                break
+            }
+            if (!muxing && encoderOutputVideoFormat != null && (encoderOutputAudioFormat != null || !hasAudio)) {
+                outputVideoTrack = muxer.addTrack(encoderOutputVideoFormat)
+                encoderOutputAudioFormat?.let { outputAudioTrack = muxer.addTrack(it) }
+                muxer.start()
+                muxing = true
+            }
+        }
+        // send video progress 100% event
+        if (videoEncoderDone && audioEncoderDone) block(100)
+    }
+
+
+    private fun getBitrate(
+        bitrate: Int,
+        quality: VideoQuality,
+    ): Int {
+        return when (quality) {
+            VideoQuality.LOW -> (bitrate * 0.2).roundToInt()
+            VideoQuality.MEDIUM -> (bitrate * 0.5).roundToInt()
+            VideoQuality.HIGH -> (bitrate * 0.9).roundToInt()
+            VideoQuality.ORIGINAL -> bitrate
+        }
+    }
+
+
+    /**
+     * Retrieves the width and height of the compressed video from the original ones
+     *
+     * @param metadataRetriever The video metadata
+     * @return the new width and height
+     */
+    private fun getResultWidthAndHeight(metadataRetriever: MediaMetadataRetriever): Pair<Int, Int> {
+        var width = 0
+        var height = 0
+        try {
+            width =
+                metadataRetriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH)
+                    ?.toInt() ?: 0
+            height =
+                metadataRetriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT)
+                    ?.toInt() ?: 0
+        } catch (e: Exception) {
+            Timber.e("Metadata Retrieval Exception: $e")
+        }
+        return generateWidthAndHeight(width, height)
+    }
+
+    /**
+     * Gets the output settings of the chat profile
+     *
+     * Depending on quality these are the params the video encoder receives to perform the compression:
+     * - HIGH: original resolution, original frame rate and average bitrate reduced by 2%.
+     * - MEDIUM: 1080p resolution if supported, the closest one if not, [OUTPUT_VIDEO_FRAME_RATE]
+     *   or the original one if smaller and half of the average bitrate.
+     * - LOW: 720p resolution if supported, the closest one if not, [OUTPUT_VIDEO_FRAME_RATE]
+     *   or the original one if smaller and a third of the average bitrate.
+     *
+     * @param metadataRetriever The video metadata
+     * @param averageBitrate average bitrate of the original video
+     * @param inputFrameRate frame rate of the original video
+     * @param quality [VideoQuality]
+     * @param codecInfo [MediaCodecInfo] of the video encoder
+     * @return [OutputSettings]
+     */
+    private fun getChatOutputSettings(
+        metadataRetriever: MediaMetadataRetriever,
+        averageBitrate: Int,
+        inputFrameRate: Int,
+        quality: VideoQuality,
+        codecInfo: MediaCodecInfo,
+    ): OutputSettings {
+        val (width, height) = getChatOriginalWidthAndHeight(metadataRetriever)
+        var resultWidth = width
+        var resultHeight = height
+        fun setShortSide(resolution: Int) {
+            if (width > height) {
+                resultWidth = width * resolution / height
+                resultHeight = resolution
+            } else {
+                resultWidth = resolution
+                resultHeight = height * resolution / width
+            }
+        }
+
+        var shortSideByQuality =
+            if (quality == VideoQuality.MEDIUM) SHORT_SIDE_SIZE_MEDIUM else SHORT_SIDE_SIZE_LOW
+        val shortSide = width.coerceAtMost(height)
+        var frameRate = inputFrameRate
+        val bitrate: Int
+        if (quality == VideoQuality.HIGH) {
+            // Since the METADATA_KEY_BITRATE is not the right value of the final bitrate
+            // of a video but the average one, we can assume a 2% less to ensure the final size
+            // is a bit less than the original one.
+            bitrate = (averageBitrate * 0.98).roundToInt()
+        } else {
+            bitrate = if (quality == VideoQuality.MEDIUM) averageBitrate / 2 else averageBitrate / 3
+            frameRate = frameRate.coerceAtMost(OUTPUT_VIDEO_FRAME_RATE)
+            if (shortSide > shortSideByQuality) {
+                setShortSide(shortSideByQuality)
+            }
+        }
+        val capabilities = codecInfo.getCapabilitiesForType(OUTPUT_VIDEO_MIME_TYPE).videoCapabilities
+        var supported =
+            capabilities.areSizeAndRateSupported(resultWidth, resultHeight, frameRate.toDouble())
+        if (!supported) {
+            Timber.w("Sizes width: %d height: %d not supported.", resultWidth, resultHeight)
+            for (i in shortSideByQuality until shortSide) {
+                setShortSide(i)
+                supported = capabilities.areSizeAndRateSupported(
+                    resultWidth,
+                    resultHeight,
+                    frameRate.toDouble()
+                )
+                if (supported) break
+            }
+        }
+        if (!supported && quality == VideoQuality.MEDIUM) {
+            Timber.w("Sizes still not supported. Second try.")
+            shortSideByQuality--
+            for (i in shortSideByQuality downTo SHORT_SIDE_SIZE_LOW + 1) {
+                setShortSide(i)
+                supported = capabilities.areSizeAndRateSupported(
+                    resultWidth,
+                    resultHeight,
+                    frameRate.toDouble()
+                )
+                if (supported) break
+            }
+        }
+        if (!supported) {
+            throw IllegalStateException("Latest sizes width: $resultWidth height: $resultHeight not supported.")
+        }
+        return OutputSettings(resultWidth, resultHeight, bitrate, frameRate)
+    }
+
+    /**
+     * Retrieves the original width and height of the video, oriented as its frames
+     *
+     * @param metadataRetriever The video metadata
+     * @return the width and height
+     */
+    private fun getChatOriginalWidthAndHeight(metadataRetriever: MediaMetadataRetriever): Pair<Int, Int> {
+        val width =
+            metadataRetriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH)
+                ?.toInt() ?: 0
+        val height =
+            metadataRetriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT)
+                ?.toInt() ?: 0
+        val thumbnail = metadataRetriever.frameAtTime ?: return width to height
+        val isLandscape = thumbnail.width > thumbnail.height
+        thumbnail.recycle()
+        return if (isLandscape) {
+            maxOf(width, height) to minOf(width, height)
+        } else {
+            minOf(width, height) to maxOf(width, height)
+        }
+    }
+
+    /**
+     * Checks if the audio track can be copied as it is instead of transcoding it
+     *
+     * @param inputAudioFormat [MediaFormat] of the original audio track
+     * @return True if the audio is already AAC with no more than the output bit rate
+     */
+    private fun canCopyAudio(inputAudioFormat: MediaFormat): Boolean =
+        getMimeTypeFor(inputAudioFormat).equals(OUTPUT_AUDIO_MIME_TYPE, ignoreCase = true)
+                && inputAudioFormat.containsKey(MediaFormat.KEY_BIT_RATE)
+                && inputAudioFormat.getInteger(MediaFormat.KEY_BIT_RATE) <= OUTPUT_AUDIO_BIT_RATE
+
+    /**
+     * Generate new width and height for source file
+     * @param width file's original width
+     * @param height file's original height
+     * @return new width and height pair
+     */
+    private fun generateWidthAndHeight(
+        width: Int,
+        height: Int,
+    ): Pair<Int, Int> {
+        val newWidth: Int
+        val newHeight: Int
+        when {
+            width >= 1920 || height >= 1920 -> {
+                newWidth = generateWidthHeightValue(width, 0.5)
+                newHeight = generateWidthHeightValue(height, 0.5)
+            }
+
+            width >= 1280 || height >= 1280 -> {
+                newWidth = generateWidthHeightValue(width, 0.75)
+                newHeight = generateWidthHeightValue(height, 0.75)
+            }
+
+            width >= 960 || height >= 960 -> {
+                newWidth = generateWidthHeightValue(width, 0.95)
+                newHeight = generateWidthHeightValue(height, 0.95)
+            }
+
+            else -> {
+                newWidth = generateWidthHeightValue(width, 0.9)
+                newHeight = generateWidthHeightValue(height, 0.9)
+            }
+        }
+        return Pair(newWidth, newHeight)
+    }
+
+    private fun roundEven(value: Int): Int = value + 1 and 1.inv()
+
+    private fun generateWidthHeightValue(value: Int, factor: Double): Int =
+        roundEven((((value * factor) / 16).roundToInt() * 16))
+
+    /**
+     * Checks if the [MediaFormat] is a video format
+     *
+     * @param format [MediaFormat]
+     * @return True if the [MediaFormat] is a video format
+     */
+    private fun isVideoFormat(format: MediaFormat): Boolean =
+        getMimeTypeFor(format)?.startsWith("video/") ?: false
+
+    /**
+     * Checks if the [MediaFormat] is an audio format
+     *
+     * @param format [MediaFormat]
+     * @return True if the [MediaFormat] is an audio format
+     */
+    private fun isAudioFormat(format: MediaFormat): Boolean =
+        getMimeTypeFor(format)?.startsWith("audio/") ?: false
+
+    /**
+     * Retrieves the mime type of a [MediaFormat]
+     *
+     * @param format [MediaFormat]
+     * @return A [String] that describes the mime type
+     */
+    private fun getMimeTypeFor(format: MediaFormat): String? =
+        format.getString(MediaFormat.KEY_MIME)
+
+    /**
+     * Selects a [MediaCodecInfo] from a given mime type
+     *
+     * @param mimeType The mime type
+     * @return [MediaCodecInfo]
+     */
+    private fun selectCodec(mimeType: String): MediaCodecInfo? {
+        val codecsInfo = MediaCodecList(MediaCodecList.REGULAR_CODECS).codecInfos
+        codecsInfo.filter { it.isEncoder }.forEach { codecInfo ->
+            val types = codecInfo.supportedTypes
+            for (j in types.indices) {
+                if (types[j].equals(mimeType, ignoreCase = true)) {
+                    return codecInfo
+                }
+            }
+        }
+        return null
+    }
+
+    /**
+     * Creates a video extractor
+     *
+     * @param mInputFile The video input file
+     * @return [MediaExtractor]
+     */
+    @Throws(IOException::class)
+    private fun createExtractor(mInputFile: String): MediaExtractor {
+        MediaExtractor().also {
+            it.setDataSource(mInputFile)
+            return it
+        }
+    }
+
+    /**
+     * Retrieves the video track index
+     *
+     * @param extractor [MediaExtractor]
+     * @return [Int] represented as a video track index
+     */
+    private fun getAndSelectVideoTrackIndex(extractor: MediaExtractor?): Int {
+        for (index in 0 until extractor!!.trackCount) {
+            if (isVideoFormat(extractor.getTrackFormat(index))) {
+                extractor.selectTrack(index)
+                return index
+            }
+        }
+        return -1
+    }
+
+    /**
+     * Creates a video decoder
+     *
+     * @param inputFormat [MediaFormat]
+     * @param surface [Surface]
+     * @return [MediaCodec]
+     */
+    @Throws(IOException::class)
+    private fun createVideoDecoder(inputFormat: MediaFormat, surface: Surface?): MediaCodec {
+        val decoder = MediaCodec.createDecoderByType(getMimeTypeFor(inputFormat)!!)
+        decoder.configure(inputFormat, surface, null, 0)
+        decoder.start()
+        return decoder
+    }
+
+    /**
+     * Creates a video encoder
+     *
+     * @param codecInfo [MediaCodecInfo]
+     * @param format [MediaFormat]
+     * @param surfaceReference [AtomicReference]
+     * @return [MediaCodec]
+     */
+    @Throws(IOException::class)
+    private fun createVideoEncoder(
+        codecInfo: MediaCodecInfo,
+        format: MediaFormat,
+        surfaceReference: AtomicReference<Surface>,
+    ): MediaCodec {
+        val encoder = MediaCodec.createByCodecName(codecInfo.name)
+        encoder.configure(format, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE)
+        surfaceReference.set(encoder.createInputSurface())
+        encoder.start()
+        return encoder
+    }
+
+    /**
+     * Creates an audio decoder
+     *
+     * @param inputFormat [MediaFormat]
+     * @return [MediaCodec]
+     */
+    @Throws(IOException::class)
+    private fun createAudioDecoder(inputFormat: MediaFormat): MediaCodec {
+        val decoder = MediaCodec.createDecoderByType(getMimeTypeFor(inputFormat)!!)
+        decoder.configure(inputFormat, null, null, 0)
+        decoder.start()
+        return decoder
+    }
+
+    /**
+     * Creates an audio encoder
+     *
+     * @param codecInfo [MediaCodecInfo]
+     * @param format [MediaFormat]
+     * @return [MediaCodec]
+     */
+    @Throws(IOException::class)
+    private fun createAudioEncoder(codecInfo: MediaCodecInfo, format: MediaFormat): MediaCodec {
+        val encoder = MediaCodec.createByCodecName(codecInfo.name)
+        encoder.configure(format, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE)
+        encoder.start()
+        return encoder
+    }
+
+    /**
+     * Retrieves the audio track index
+     *
+     * @param extractor [MediaExtractor]
+     * @return [Int] represented as an audio track index
+     */
+    private fun getAndSelectAudioTrackIndex(extractor: MediaExtractor?): Int {
+        for (index in 0 until extractor!!.trackCount) {
+            if (isAudioFormat(extractor.getTrackFormat(index))) {
+                extractor.selectTrack(index)
+                return index
+            }
+        }
+        return -1
+    }
+
+}
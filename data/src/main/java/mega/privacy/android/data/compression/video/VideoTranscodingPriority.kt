@@ -0,0 +1,16 @@
+package mega.privacy.android.data.compression.video
+
+/**
+ * Priority of a video transcoding, the queued transcodings with a higher priority start first
+ */
+enum class VideoTranscodingPriority {
+    /**
+     * A user is waiting for the video, such as a video sent to a chat
+     */
+    INTERACTIVE,
+
+    /**
+     * Nobody is waiting for the video, such as a video of camera uploads
+     */
+    BACKGROUND,
+}
@@ -0,0 +1,17 @@
+package mega.privacy.android.data.compression.video
+
+/**
+ * How the resolution, bit rate and frame rate of a transcoded video are chosen
+ */
+enum class VideoTranscodingProfile {
+    /**
+     * The resolution and bit rate are scaled down by fixed factors of the video quality
+     */
+    CAMERA_UPLOADS,
+
+    /**
+     * The short side is reduced to 1080 or 720 pixels depending on the video quality, with a
+     * resolution the encoder supports, and the frame rate is limited
+     */
+    CHAT,
+}
@@ -0,0 +1,59 @@
+package mega.privacy.android.data.compression.video
+
+import android.content.Context
+import com.google.gson.Gson
+import dagger.hilt.android.qualifiers.ApplicationContext
+import timber.log.Timber
+import java.io.File
+import javax.inject.Inject
+
+/**
+ * Keeps the queued and running transcoding requests in a file, so the incomplete outputs of the
+ * ones interrupted by the process being killed can be deleted later
+ */
+internal class VideoTranscodingQueueStore @Inject constructor(
+    @ApplicationContext context: Context,
+) {
+    private val file = File(context.filesDir, FILE_NAME)
+    private val gson = Gson()
+
+    /**
+     * Get the requests saved by the last [save]
+     */
+    fun load(): List<VideoTranscodingRequest> = runCatching {
+        if (!file.exists()) return emptyList()
+        gson.fromJson(file.readText(), Array<VideoTranscodingRequest>::class.java)
+            .filter { it.isValid() }
+    }.onFailure {
+        Timber.w(it, "Unable to read the video transcoding queue")
+    }.getOrDefault(emptyList())
+
+    /**
+     * Replace the saved requests
+     *
+     * @param requests the queued and running requests
+     */
+    fun save(requests: List<VideoTranscodingRequest>) {
+        runCatching {
+            if (requests.isEmpty()) {
+                file.delete()
+            } else {
+                file.writeText(gson.toJson(requests))
+            }
+        }.onFailure {
+            Timber.w(it, "Unable to save the video transcoding queue")
+        }
+    }
+
+    /**
+     * Gson ignores the nullability of the fields, so an outdated file may have nulls
+     */
+    @Suppress("SENSELESS_COMPARISON")
+    private fun VideoTranscodingRequest.isValid() =
+        originalPath != null && newPath != null && quality != null
+                && priority != null && profile != null
+
+    private companion object {
+        const val FILE_NAME = "video_transcoding_queue.json"
+    }
+}
@@ -0,0 +1,20 @@
+package mega.privacy.android.data.compression.video
+
+import mega.privacy.android.domain.entity.VideoQuality
+
+/**
+ * Request to transcode a video
+ *
+ * @property originalPath path of the video to transcode
+ * @property newPath      path of the transcoded video, it identifies the request
+ * @property quality      quality of the transcoded video
+ * @property priority     [VideoTranscodingPriority] of the request
+ * @property profile      [VideoTranscodingProfile] to choose the output settings
+ */
+data class VideoTranscodingRequest(
+    val originalPath: String,
+    val newPath: String,
+    val quality: VideoQuality,
+    val priority: VideoTranscodingPriority,
+    val profile: VideoTranscodingProfile,
+)
@@ -31,5 +31,10 @@ object CacheFolderConstant {
      */
     const val QR_FOLDER = "qrMEGA"
 
+    /**
+     * Timeline snapshot folder
+     */
+    const val TIMELINE_FOLDER = "timelineMEGA"
+
     const val CAMERA_UPLOADS_CACHE_FOLDER = "cu"
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package mega.privacy.android.data.cryptography
+
+import android.util.Base64
+import android.util.LruCache
+import timber.log.Timber
+import javax.crypto.Cipher
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * AES cipher for the encrypted database fields
+ *
+ * Creating and initialising a [Cipher] is much more expensive than encrypting a single field,
+ * so every thread keeps its own initialised instances and reuses them for all the fields.
+ *
+ * The encryption is deterministic, so the results for short values such as flags, numbers
+ * and handles, which are repeated in most rows and query arguments, are memoized.
+ *
+ * @param aesKey the key used to encrypt the fields
+ */
+class AesFieldCipher(aesKey: ByteArray) {
+    private val keySpec = SecretKeySpec(aesKey, ALGORITHM)
+
+    private val encryptCipher = cipherThreadLocal(Cipher.ENCRYPT_MODE)
+    private val decryptCipher = cipherThreadLocal(Cipher.DECRYPT_MODE)
+
+    private val encrypted = LruCache<String, String>(MEMOIZED_VALUES)
+    private val decrypted = LruCache<String, String>(MEMOIZED_VALUES)
+
+    /**
+     * Encrypt a field
+     *
+     * @param data the plain value
+     * @return the encrypted value encoded in Base64, or null if [data] is null or cannot be encrypted
+     */
+    fun encrypt(data: String?): String? = data?.let { encrypt(it, encryptCipher.get()) }
+
+    /**
+     * Decrypt a field
+     *
+     * @param data the encrypted value encoded in Base64
+     * @return the plain value, or null if [data] is null or cannot be decrypted
+     */
+    fun decrypt(data: String?): String? = data?.let { decrypt(it, decryptCipher.get()) }
+
+    /**
+     * Encrypt all the fields of a row or a list, reusing the same cipher
+     *
+     * @param data the plain values
+     * @return the encrypted values, in the same order
+     */
+    fun encryptAll(data: List<String?>): List<String?> {
+        val cipher = encryptCipher.get()
+        return data.map { value -> value?.let { encrypt(it, cipher) } }
+    }
+
+    /**
+     * Decrypt all the fields of a row or a list, reusing the same cipher
+     *
+     * @param data the encrypted values
+     * @return the plain values, in the same order
+     */
+    fun decryptAll(data: List<String?>): List<String?> {
+        val cipher = decryptCipher.get()
+        return data.map { value -> value?.let { decrypt(it, cipher) } }
+    }
+
+    private fun encrypt(data: String, cipher: Cipher?): String? {
+        val memoize = data.length <= MAX_MEMOIZED_LENGTH
+        if (memoize) encrypted[data]?.let { return it }
+        return runCatching {
+            checkNotNull(cipher) { "Cipher not available" }
+            Base64.encodeToString(cipher.doFinal(data.toByteArray()), Base64.DEFAULT)
+        }.onSuccess {
+            if (memoize) encrypted.put(data, it)
+        }.onFailure {
+            Timber.e(it, "Error encrypting DB field")
+            encryptCipher.remove()
+        }.getOrNull()
+    }
+
+    private fun decrypt(data: String, cipher: Cipher?): String? {
+        val memoize = data.length <= MAX_MEMOIZED_ENCODED_LENGTH
+        if (memoize) decrypted[data]?.let { return it }
+        return runCatching {
+            checkNotNull(cipher) { "Cipher not available" }
+            String(cipher.doFinal(Base64.decode(data, Base64.DEFAULT)))
+        }.onSuccess {
+            if (memoize) decrypted.put(data, it)
+        }.onFailure {
+            Timber.e(it, "Error decrypting DB field")
+            decryptCipher.remove()
+        }.getOrNull()
+    }
+
+    private fun cipherThreadLocal(mode: Int) = object : ThreadLocal<Cipher?>() {
+        override fun initialValue(): Cipher? = runCatching {
+            Cipher.getInstance(ALGORITHM).apply { init(mode, keySpec) }
+        }.onFailure {
+            Timber.e(it, "Error initialising DB field cipher")
+        }.getOrNull()
+    }
+
+    companion object {
+        private const val ALGORITHM = "AES"
+        private const val MEMOIZED_VALUES = 512
+
+        /**
+         * Values up to 15 characters usually fit in a single AES block
+         */
+        private const val MAX_MEMOIZED_LENGTH = 15
+
+        /**
+         * Base64 of a single AES block, including the trailing line break
+         */
+        private const val MAX_MEMOIZED_ENCODED_LENGTH = 25
+    }
+}
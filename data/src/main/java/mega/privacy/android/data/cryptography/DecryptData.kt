@@ -1,28 +1,17 @@
 package mega.privacy.android.data.cryptography
 
-import android.util.Base64
-import timber.log.Timber
-import javax.crypto.Cipher
-import javax.crypto.spec.SecretKeySpec
 import javax.inject.Inject
-import javax.inject.Named
 import javax.inject.Singleton
 
 @Suppress("RedundantSuspendModifier")
 @Singleton
 internal class DecryptData @Inject constructor(
-    @Named("aes_key") private val aesKey: ByteArray,
+    private val aesFieldCipher: AesFieldCipher,
 ) {
-    suspend operator fun invoke(data: String?) = data?.let {
-        runCatching {
-            val encoded = Base64.decode(data, Base64.DEFAULT)
-            val skeySpec = SecretKeySpec(aesKey, "AES")
-            val cipher = Cipher.getInstance("AES")
-            cipher.init(Cipher.DECRYPT_MODE, skeySpec)
-            val original = cipher.doFinal(encoded)
-            String(original)
-        }.onFailure {
-            Timber.e(it, "Error decrypting DB field")
-        }.getOrNull()
-    }
-}
\ No newline at end of file
+    suspend operator fun invoke(data: String?) = aesFieldCipher.decrypt(data)
+
+    /**
+     * Decrypt all the fields of a row or a list at once
+     */
+    suspend operator fun invoke(data: List<String?>) = aesFieldCipher.decryptAll(data)
+}
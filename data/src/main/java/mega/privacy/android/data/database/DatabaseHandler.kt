@@ -1,5 +1,6 @@
 package mega.privacy.android.data.database
 
+import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.data.model.MegaAttributes
 import mega.privacy.android.data.model.MegaPreferences
 import mega.privacy.android.data.model.chat.AndroidMegaChatMessage
@@ -32,6 +33,13 @@ interface DatabaseHandler {
      */
     val preferences: MegaPreferences?
 
+    /**
+     * Monitors preferences.
+     *
+     * @return Flow emitting the current preferences and every change, null if there are none.
+     */
+    val monitorPreferences: Flow<MegaPreferences?>
+
     /**
      * Save chat settings in the current DB.
      *
@@ -106,12 +106,39 @@ internal abstract class MegaDatabase : RoomDatabase() {
                 }
             }
         }
+        private val MIGRATION_75_76 = object : Migration(75, 76) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Add indices to the columns used to look for existing sync records
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_filepath_origin_sync_secondary` ON `syncrecords` (`sync_filepath_origin`, `sync_secondary`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_fingerprint_origin_sync_secondary_sync_copyonly` ON `syncrecords` (`sync_fingerprint_origin`, `sync_secondary`, `sync_copyonly`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_filepath_new` ON `syncrecords` (`sync_filepath_new`)")
+                database.execSQL("CREATE INDEX IF NOT EXISTS `index_syncrecords_sync_state_sync_type` ON `syncrecords` (`sync_state`, `sync_type`)")
+            }
+        }
+        private val MIGRATION_76_77 = object : Migration(76, 77) {
+            override fun migrate(database: SupportSQLiteDatabase) {
+                // Remove the duplicated completed transfers, keeping the first one, and add the unique index that prevents them.
+                // GROUP BY treats the NULL values as equal, so the existing duplicates with NULL values are removed too, but the
+                // unique index treats them as distinct. The values are only NULL when their encryption failed.
+                database.beginTransaction()
+                try {
+                    database.execSQL("DELETE FROM completedtransfers WHERE id NOT IN (SELECT MIN(id) FROM completedtransfers GROUP BY transfertimestamp, transferhandle, transferfilename, transferoriginalpath, transfertype, transferstate)")
+                    database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_completedtransfers_transfertimestamp_transferhandle_transferfilename_transferoriginalpath_transfertype_transferstate` ON `completedtransfers` (`transfertimestamp`, `transferhandle`, `transferfilename`, `transferoriginalpath`, `transfertype`, `transferstate`)")
+                    database.setTransactionSuccessful()
+                } finally {
+                    database.endTransaction()
+                }
+            }
+        }
+
         val MIGRATIONS = arrayOf(
             MIGRATION_67_68,
             MIGRATION_68_69,
             MIGRATION_70_71,
             MIGRATION_71_72,
-            MIGRATION_74_75
+            MIGRATION_74_75,
+            MIGRATION_75_76,
+            MIGRATION_76_77,
         )
     }
 }
@@ -5,6 +5,7 @@ import androidx.room.Delete
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
 import androidx.room.Query
+import androidx.room.Transaction
 import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.data.database.entity.CompletedTransferEntity
 
@@ -13,6 +14,9 @@ internal interface CompletedTransferDao {
     @Query("SELECT * FROM completedtransfers")
     fun getAllCompletedTransfers(): Flow<List<CompletedTransferEntity>>
 
+    @Query("SELECT * FROM completedtransfers ORDER BY id DESC LIMIT :size")
+    fun getLastCompletedTransfers(size: Int): Flow<List<CompletedTransferEntity>>
+
     @Query("SELECT * FROM completedtransfers WHERE transferstate IN(:states)")
     fun getCompletedTransfersByState(states: List<String>): List<CompletedTransferEntity>
 
@@ -22,6 +26,30 @@ internal interface CompletedTransferDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun insertOrUpdateCompletedTransfer(entity: CompletedTransferEntity)
 
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    suspend fun insertCompletedTransfersIfNotExist(entities: List<CompletedTransferEntity>)
+
+    @Query("DELETE FROM completedtransfers WHERE id NOT IN (SELECT id FROM completedtransfers ORDER BY id DESC LIMIT :maxTransfers)")
+    suspend fun deleteOldestCompletedTransfers(maxTransfers: Int)
+
+    @Transaction
+    suspend fun insertOrUpdateCompletedTransferAndDeleteOldest(
+        entity: CompletedTransferEntity,
+        maxTransfers: Int,
+    ) {
+        insertOrUpdateCompletedTransfer(entity)
+        deleteOldestCompletedTransfers(maxTransfers)
+    }
+
+    @Transaction
+    suspend fun insertCompletedTransfersIfNotExistAndDeleteOldest(
+        entities: List<CompletedTransferEntity>,
+        maxTransfers: Int,
+    ) {
+        insertCompletedTransfersIfNotExist(entities)
+        deleteOldestCompletedTransfers(maxTransfers)
+    }
+
     @Query("DELETE FROM completedtransfers")
     suspend fun deleteAllCompletedTransfers()
 
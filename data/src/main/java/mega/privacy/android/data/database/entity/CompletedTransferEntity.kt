@@ -2,6 +2,7 @@ package mega.privacy.android.data.database.entity
 
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import mega.privacy.android.data.database.MegaDatabaseConstant
 
@@ -21,8 +22,19 @@ import mega.privacy.android.data.database.MegaDatabaseConstant
  * @property originalPath
  * @property parentHandle
  *
+ * The same transfer can only be completed once, so the columns that identify it have a unique index.
+ * SQLite treats NULL values as distinct in a unique index, so a transfer with any of these columns
+ * NULL, which only happens when encrypting the value fails, is not deduplicated.
  */
-@Entity(MegaDatabaseConstant.TABLE_COMPLETED_TRANSFERS)
+@Entity(
+    MegaDatabaseConstant.TABLE_COMPLETED_TRANSFERS,
+    indices = [
+        Index(
+            value = ["transfertimestamp", "transferhandle", "transferfilename", "transferoriginalpath", "transfertype", "transferstate"],
+            unique = true,
+        ),
+    ]
+)
 internal data class CompletedTransferEntity(
     @PrimaryKey(autoGenerate = true)
     @ColumnInfo(name = "id") val id: Int? = null,
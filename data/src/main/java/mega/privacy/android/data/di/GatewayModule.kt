@@ -24,6 +24,7 @@ import mega.privacy.android.data.facade.SDCardFacade
 import mega.privacy.android.data.facade.TelephonyFacade
 import mega.privacy.android.data.facade.VerifyPurchaseFacade
 import mega.privacy.android.data.facade.VideoCompressionFacade
+import mega.privacy.android.data.facade.VideoTranscodingFacade
 import mega.privacy.android.data.facade.WorkManagerFacade
 import mega.privacy.android.data.gateway.AdsGateway
 import mega.privacy.android.data.gateway.AndroidDeviceGateway
@@ -49,6 +50,7 @@ import mega.privacy.android.data.gateway.SDCardGateway
 import mega.privacy.android.data.gateway.TelephonyGateway
 import mega.privacy.android.data.gateway.VerifyPurchaseGateway
 import mega.privacy.android.data.gateway.VideoCompressorGateway
+import mega.privacy.android.data.gateway.VideoTranscodingGateway
 import mega.privacy.android.data.gateway.WorkManagerGateway
 import mega.privacy.android.data.gateway.ZipFileCompressionGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
@@ -235,6 +237,10 @@ internal abstract class GatewayModule {
     @Binds
     abstract fun bindVideoCompressorGateway(implementation: VideoCompressionFacade): VideoCompressorGateway
 
+    @Binds
+    @Singleton
+    abstract fun bindVideoTranscodingGateway(implementation: VideoTranscodingFacade): VideoTranscodingGateway
+
     /**
      * Provides the default implementation to [SDCardGateway]
      *
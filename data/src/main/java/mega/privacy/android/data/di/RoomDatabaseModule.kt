@@ -10,6 +10,7 @@ import dagger.Provides
 import dagger.hilt.InstallIn
 import dagger.hilt.android.qualifiers.ApplicationContext
 import dagger.hilt.components.SingletonComponent
+import mega.privacy.android.data.cryptography.AesFieldCipher
 import mega.privacy.android.data.database.LegacyDatabaseMigration
 import mega.privacy.android.data.database.MegaDatabase
 import mega.privacy.android.data.database.MegaDatabaseConstant
@@ -87,4 +88,9 @@ internal object RoomDatabaseModule {
         val key = Settings.Secure.ANDROID_ID + "fkvn8 w4y*(NC\$G*(G($*GR*(#)*huio4h389\$G"
         return key.toByteArray().copyOfRange(0, 32)
     }
+
+    @Provides
+    @Singleton
+    internal fun provideAesFieldCipher(@Named("aes_key") aesKey: ByteArray): AesFieldCipher =
+        AesFieldCipher(aesKey)
 }
@@ -1,5 +1,6 @@
 package mega.privacy.android.data.extensions
 
+import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
 import nz.mega.sdk.MegaTransfer
 
 const val APP_DATA_BACKGROUND_TRANSFER = "BACKGROUND_TRANSFER"
@@ -10,4 +11,20 @@ const val APP_DATA_BACKGROUND_TRANSFER = "BACKGROUND_TRANSFER"
  * @return True if it is, false otherwise.
  */
 fun MegaTransfer.isBackgroundTransfer(): Boolean =
-    appData?.contains(APP_DATA_BACKGROUND_TRANSFER) == true
\ No newline at end of file
+    appData?.contains(APP_DATA_BACKGROUND_TRANSFER) == true
+
+/**
+ * Checks whether a [MegaTransfer] is a Camera Uploads transfer.
+ *
+ * @return True if it is, false otherwise.
+ */
+internal fun MegaTransfer.isCUUpload(): Boolean =
+    appData?.contains(AppDataTypeConstants.CameraUpload.sdkTypeValue) == true
+
+/**
+ * Checks whether a [MegaTransfer] is a chat upload.
+ *
+ * @return True if it is, false otherwise.
+ */
+internal fun MegaTransfer.isChatUpload(): Boolean =
+    appData?.contains(AppDataTypeConstants.ChatUpload.sdkTypeValue) == true
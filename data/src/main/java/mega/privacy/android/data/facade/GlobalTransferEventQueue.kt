@@ -0,0 +1,135 @@
+package mega.privacy.android.data.facade
+
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.model.GlobalTransferEventMetrics
+import timber.log.Timber
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Queue of global transfer events waiting for a slow collector
+ *
+ * Lifecycle events (start, finish and temporary error) are always kept in order. Progress events
+ * (update and data) are conflated per transfer: while one is waiting, a newer one of the same
+ * kind and transfer replaces it and moves to the end of the queue. A progress event is therefore
+ * never taken before a lifecycle event that happened earlier, such as a temporary error of its
+ * transfer, and the queue grows with the number of transfers instead of the number of progress
+ * events.
+ *
+ * @property counters metrics shared by all the queues
+ */
+internal class GlobalTransferEventQueue(private val counters: Counters) {
+
+    // Insertion ordered, so a conflated event is moved to the end in constant time
+    private val events = LinkedHashSet<QueuedEvent>()
+    private val waitingProgressEvents = HashMap<Long, QueuedEvent>()
+    private var closed = false
+
+    /**
+     * Add an event
+     *
+     * @param event transfer event
+     * @return true if a new event is waiting, false if it was conflated or dropped
+     */
+    @Synchronized
+    fun offer(event: GlobalTransfer): Boolean {
+        if (closed) {
+            counters.dropped.incrementAndGet()
+            return false
+        }
+        val key = event.progressKey()
+        if (key != null) {
+            waitingProgressEvents[key]?.let {
+                events.remove(it)
+                it.event = event
+                events.add(it)
+                counters.conflated.incrementAndGet()
+                return false
+            }
+        }
+        val queuedEvent = QueuedEvent(event, key)
+        events.add(queuedEvent)
+        key?.let { waitingProgressEvents[it] = queuedEvent }
+        counters.onQueued()
+        return true
+    }
+
+    /**
+     * Take the next event
+     *
+     * @return the oldest waiting event, or null if there are none
+     */
+    @Synchronized
+    fun poll(): GlobalTransfer? {
+        val queuedEvent = events.firstOrNull() ?: return null
+        events.remove(queuedEvent)
+        queuedEvent.key?.let { waitingProgressEvents.remove(it) }
+        counters.queued.decrementAndGet()
+        return queuedEvent.event
+    }
+
+    /**
+     * Drop the waiting events and the ones added afterwards
+     */
+    @Synchronized
+    fun close() {
+        closed = true
+        counters.queued.addAndGet(-events.size)
+        counters.dropped.addAndGet(events.size.toLong())
+        events.clear()
+        waitingProgressEvents.clear()
+        Timber.d("Global transfer event queue closed, ${counters.getMetrics()}")
+    }
+
+    private fun GlobalTransfer.progressKey(): Long? = when (this) {
+        is GlobalTransfer.OnTransferUpdate -> transfer.tag.toLong() shl 1
+        is GlobalTransfer.OnTransferData -> (transfer.tag.toLong() shl 1) or 1L
+        else -> null
+    }
+
+    /**
+     * Waiting event, replaced and moved to the end when it is a conflated progress event
+     */
+    private class QueuedEvent(var event: GlobalTransfer, val key: Long?)
+
+    /**
+     * Counters of the metrics of the queues
+     */
+    class Counters {
+        val queued = AtomicInteger()
+        val maxQueued = AtomicInteger()
+        val conflated = AtomicLong()
+        val dropped = AtomicLong()
+
+        /**
+         * Count a new waiting event
+         *
+         * A warning is logged each time the highest number of waiting events doubles, from
+         * [LOGGED_QUEUED_EVENTS], as the collectors are not keeping up with the events.
+         */
+        fun onQueued() {
+            val current = queued.incrementAndGet()
+            val previousMax =
+                maxQueued.getAndAccumulate(current) { max, value -> maxOf(max, value) }
+            if (current > previousMax && current >= LOGGED_QUEUED_EVENTS
+                && current and (current - 1) == 0
+            ) {
+                Timber.w("Global transfer events waiting for their collectors, ${getMetrics()}")
+            }
+        }
+
+        /**
+         * Get the current metrics
+         */
+        fun getMetrics() = GlobalTransferEventMetrics(
+            queuedEvents = queued.get(),
+            maxQueuedEvents = maxQueued.get(),
+            conflatedEvents = conflated.get(),
+            droppedEvents = dropped.get(),
+        )
+
+        private companion object {
+            const val LOGGED_QUEUED_EVENTS = 64
+        }
+    }
+}
@@ -3,6 +3,7 @@ package mega.privacy.android.data.facade
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.channels.consumeEach
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.SharingStarted
 import kotlinx.coroutines.flow.buffer
@@ -254,31 +255,62 @@ internal class MegaApiFacade @Inject constructor(
         SharingStarted.WhileSubscribed()
     )
 
-    override val globalTransfer: Flow<GlobalTransfer> = callbackFlow {
+    private val globalTransferEventCounters = GlobalTransferEventQueue.Counters()
+
+    override val globalTransfer: Flow<GlobalTransfer> = globalTransferEvents { true }
+        .shareIn(sharingScope, SharingStarted.WhileSubscribed())
+
+    override val globalTransferLifecycle: Flow<GlobalTransfer> =
+        globalTransferEvents { !it.isProgressEvent() }
+            .shareIn(sharingScope, SharingStarted.WhileSubscribed())
+
+    /**
+     * Global transfer events, waiting in a [GlobalTransferEventQueue] while the collectors are busy
+     *
+     * The events are only taken from the queue when the collectors are ready for them, so the
+     * progress events of a transfer are conflated instead of piling up.
+     *
+     * @param accept whether an event is part of this flow
+     */
+    private fun globalTransferEvents(accept: (GlobalTransfer) -> Boolean) = callbackFlow {
+        val queue = GlobalTransferEventQueue(globalTransferEventCounters)
+        val eventsAvailable = Channel<Unit>(Channel.CONFLATED)
+        val onEvent = { event: GlobalTransfer ->
+            if (accept(event) && queue.offer(event)) eventsAvailable.trySend(Unit)
+        }
         val listener = OptionalMegaTransferListenerInterface(
             onTransferStart = { transfer ->
-                trySend(GlobalTransfer.OnTransferStart(transfer))
+                onEvent(GlobalTransfer.OnTransferStart(transfer))
             },
             onTransferFinish = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferFinish(transfer, error))
+                onEvent(GlobalTransfer.OnTransferFinish(transfer, error))
             },
             onTransferUpdate = { transfer ->
-                trySend(GlobalTransfer.OnTransferUpdate(transfer))
+                onEvent(GlobalTransfer.OnTransferUpdate(transfer))
             },
             onTransferTemporaryError = { transfer, error ->
-                trySend(GlobalTransfer.OnTransferTemporaryError(transfer, error))
+                onEvent(GlobalTransfer.OnTransferTemporaryError(transfer, error))
             },
             onTransferData = { transfer, buffer ->
-                trySend(GlobalTransfer.OnTransferData(transfer, buffer))
+                onEvent(GlobalTransfer.OnTransferData(transfer, buffer))
             }
         )
 
         megaApi.addTransferListener(listener)
+        launch {
+            eventsAvailable.consumeEach {
+                generateSequence(queue::poll).forEach { send(it) }
+            }
+        }
 
         awaitClose {
             megaApi.removeTransferListener(listener)
+            queue.close()
         }
-    }.buffer(Channel.Factory.UNLIMITED).shareIn(sharingScope, SharingStarted.WhileSubscribed())
+    }.buffer(Channel.RENDEZVOUS)
+
+    private fun GlobalTransfer.isProgressEvent() =
+        this is GlobalTransfer.OnTransferUpdate || this is GlobalTransfer.OnTransferData
 
     override fun getFavourites(
         node: MegaNode?,
@@ -320,6 +352,9 @@ internal class MegaApiFacade @Inject constructor(
 
     override suspend fun hasVersion(node: MegaNode): Boolean = megaApi.hasVersions(node)
 
+    override fun hasVersionByHandle(handle: Long): Boolean =
+        megaApi.getNodeByHandle(handle)?.let { megaApi.hasVersions(it) } ?: false
+
     override suspend fun getNumVersions(node: MegaNode): Int = megaApi.getNumVersions(node)
 
     override suspend fun getVersions(node: MegaNode): List<MegaNode> = megaApi.getVersions(node)
@@ -581,6 +616,9 @@ internal class MegaApiFacade @Inject constructor(
 
     override suspend fun isInRubbish(node: MegaNode): Boolean = megaApi.isInRubbish(node)
 
+    override fun isInRubbishByHandle(handle: Long): Boolean =
+        megaApi.getNodeByHandle(handle)?.let { megaApi.isInRubbish(it) } ?: false
+
     override suspend fun isInBackups(node: MegaNode): Boolean = megaApi.isInInbox(node)
 
     override suspend fun isInCloudDrive(node: MegaNode): Boolean = megaApi.isInCloud(node)
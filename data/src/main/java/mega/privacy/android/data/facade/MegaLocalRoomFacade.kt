@@ -4,6 +4,7 @@ import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.map
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
+import mega.privacy.android.data.database.DatabaseHandler.Companion.MAX_TRANSFERS
 import mega.privacy.android.data.database.dao.ActiveTransferDao
 import mega.privacy.android.data.database.dao.BackupDao
 import mega.privacy.android.data.database.dao.CompletedTransferDao
@@ -123,16 +124,26 @@ internal class MegaLocalRoomFacade @Inject constructor(
     }
 
     override fun getAllCompletedTransfers(size: Int?) =
-        completedTransferDao.getAllCompletedTransfers()
+        (size?.let { completedTransferDao.getLastCompletedTransfers(it) }
+            ?: completedTransferDao.getAllCompletedTransfers())
             .map { list ->
                 list.map { completedTransferModelMapper(it) }
                     .toMutableList()
                     .apply { sortWith(compareByDescending { it.timestamp }) }
-                    .let { if (size != null) it.take(size) else it }
             }
 
     override suspend fun addCompletedTransfer(transfer: CompletedTransfer) {
-        completedTransferDao.insertOrUpdateCompletedTransfer(completedTransferEntityMapper(transfer))
+        completedTransferDao.insertOrUpdateCompletedTransferAndDeleteOldest(
+            entity = completedTransferEntityMapper(transfer),
+            maxTransfers = MAX_TRANSFERS,
+        )
+    }
+
+    override suspend fun addCompletedTransfersIfNotExist(transfers: List<CompletedTransfer>) {
+        completedTransferDao.insertCompletedTransfersIfNotExistAndDeleteOldest(
+            entities = transfers.map { completedTransferEntityMapper(it.copy(id = null)) },
+            maxTransfers = MAX_TRANSFERS,
+        )
     }
 
     override suspend fun getCompletedTransfersCount() =
@@ -174,6 +185,11 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun insertOrUpdateActiveTransfer(activeTransfer: ActiveTransfer) =
         activeTransferDao.insertOrUpdateActiveTransfer(activeTransferEntityMapper(activeTransfer))
 
+    override suspend fun insertOrUpdateActiveTransfers(activeTransfers: List<ActiveTransfer>) =
+        activeTransferDao.insertOrUpdateActiveTransfers(
+            activeTransfers.map { activeTransferEntityMapper(it) }
+        )
+
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         activeTransferDao.deleteAllActiveTransfersByType(transferType)
 
@@ -201,6 +217,19 @@ internal class MegaLocalRoomFacade @Inject constructor(
         encryptData(isSecondary.toString()).toString(),
     ) == 1
 
+    override suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String> {
+        val secondary = encryptData(isSecondary.toString()).toString()
+        val pathsByEncryptedPath = encryptData(localPaths).zip(localPaths)
+            .mapNotNull { (encryptedPath, path) -> encryptedPath?.let { it to path } }
+            .toMap()
+        return pathsByEncryptedPath.keys.chunked(MAX_QUERY_ARGUMENTS).flatMap { encryptedPaths ->
+            syncRecordDao.getExistingOriginalPaths(encryptedPaths, secondary)
+        }.mapNotNullTo(mutableSetOf()) { pathsByEncryptedPath[it] }
+    }
+
     override suspend fun doesLocalPathExist(
         fileName: String,
         isSecondary: Boolean,
@@ -413,4 +442,11 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun deleteAllBackups() {
         backupDao.deleteAllBackups()
     }
+
+    companion object {
+        /**
+         * Maximum number of arguments of a single query, below the SQLite host parameter limit
+         */
+        private const val MAX_QUERY_ARGUMENTS = 500
+    }
 }
@@ -0,0 +1,250 @@
+package mega.privacy.android.data.facade
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.compression.video.TranscodingStats
+import mega.privacy.android.data.compression.video.VideoTranscoder
+import mega.privacy.android.data.compression.video.VideoTranscodingQueueStore
+import mega.privacy.android.data.compression.video.VideoTranscodingRequest
+import mega.privacy.android.data.gateway.VideoTranscodingGateway
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.File
+import java.util.PriorityQueue
+import java.util.concurrent.CopyOnWriteArrayList
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.coroutines.coroutineContext
+
+/**
+ * Implementation of [VideoTranscodingGateway]
+ *
+ * - The requests wait in a queue ordered by priority and then by arrival, and a running
+ *   transcoding is never interrupted by a higher priority request.
+ * - Only [getMaxConcurrentTranscodings] requests are transcoded at the same time, whichever
+ *   feature they come from.
+ * - The queued and running requests are saved with [VideoTranscodingQueueStore], and a completed
+ *   request is removed from it before its callers resume. The outputs of the ones interrupted by
+ *   the process being killed are deleted on the first use, as they are incomplete. They are only transcoded again if they are requested again, keeping their
+ *   original place in the queue.
+ */
+@Singleton
+internal class VideoTranscodingFacade @Inject constructor(
+    private val videoTranscoder: VideoTranscoder,
+    private val queueStore: VideoTranscodingQueueStore,
+    @ApplicationScope private val appScope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) : VideoTranscodingGateway {
+
+    /**
+     * A queued or running transcoding
+     *
+     * @property request  the request being transcoded, its priority can be raised while queued
+     * @property sequence arrival order of the request
+     */
+    private class TranscodingJob(
+        var request: VideoTranscodingRequest,
+        val sequence: Long,
+    ) {
+        val result = CompletableDeferred<Unit>()
+        val listeners = CopyOnWriteArrayList<(Int, TranscodingStats) -> Unit>()
+        var subscribers = 0
+
+        @Volatile
+        var isCancelled = false
+    }
+
+    private val lock = Any()
+    private val pendingJobs = PriorityQueue(
+        compareBy<TranscodingJob>({ it.request.priority.ordinal }, { it.sequence })
+    )
+
+    // Latest job of every output path, the one new callers join unless it is cancelled
+    private val jobs = HashMap<String, TranscodingJob>()
+    private val runningJobs = HashMap<String, TranscodingJob>()
+
+    // Jobs waiting for a cancelled job with the same output path to stop running
+    private val waitingJobs = HashMap<String, TranscodingJob>()
+
+    // Arrival order of the interrupted requests, until they are requested again
+    private val restoredSequences = HashMap<String, Long>()
+    private var sequence = 0L
+    private var isQueueRestored = false
+
+    private val saveMutex = Mutex()
+    private var isSaveScheduled = false
+
+    private val maxConcurrentTranscodings by lazy {
+        runCatching { videoTranscoder.getMaxSupportedInstances() }
+            .onFailure { Timber.w(it, "Unable to get the supported encoder instances") }
+            .getOrDefault(1)
+            .coerceIn(1, MAX_CONCURRENT_TRANSCODINGS)
+    }
+
+    override fun getMaxConcurrentTranscodings() = maxConcurrentTranscodings
+
+    override suspend fun transcode(
+        request: VideoTranscodingRequest,
+        onProgress: (Int, TranscodingStats) -> Unit,
+    ) {
+        val job = synchronized(lock) {
+            restoreQueue()
+            val job = jobs[request.newPath]?.takeUnless { it.isCancelled }
+                ?.also { raisePriority(it, request) }
+                ?: enqueue(request)
+            job.subscribers++
+            job.listeners.add(onProgress)
+            job
+        }
+        try {
+            job.result.await()
+        } finally {
+            synchronized(lock) {
+                job.listeners.remove(onProgress)
+                job.subscribers--
+                if (job.subscribers == 0 && !job.result.isCompleted) cancelJob(job)
+            }
+        }
+    }
+
+    override fun cancel(newPath: String) {
+        synchronized(lock) { jobs[newPath]?.let { cancelJob(it) } }
+    }
+
+    /**
+     * Load the requests interrupted by the process being killed, only the first time
+     *
+     * Their outputs are deleted, and they are not kept in the saved queue unless they are
+     * requested again, so the ones no longer needed do not leave files behind.
+     */
+    private fun restoreQueue() {
+        if (isQueueRestored) return
+        isQueueRestored = true
+        val requests = queueStore.load()
+        if (requests.isEmpty()) return
+        Timber.d("${requests.size} video transcodings interrupted")
+        requests.forEach { request ->
+            File(request.newPath).delete()
+            restoredSequences[request.newPath] = sequence++
+        }
+        saveQueue()
+    }
+
+    private fun enqueue(request: VideoTranscodingRequest): TranscodingJob {
+        val path = request.newPath
+        val job = TranscodingJob(request, restoredSequences.remove(path) ?: sequence++)
+        jobs[path] = job
+        if (path in runningJobs) {
+            // A cancelled job is still writing the same output, start once it stops
+            waitingJobs[path] = job
+        } else {
+            pendingJobs.add(job)
+        }
+        saveQueue()
+        startPendingJobs()
+        return job
+    }
+
+    private fun raisePriority(job: TranscodingJob, request: VideoTranscodingRequest) {
+        if (request.priority >= job.request.priority) return
+        val isPending = pendingJobs.remove(job)
+        if (!isPending && waitingJobs[job.request.newPath] !== job) return
+        job.request = job.request.copy(priority = request.priority)
+        if (isPending) pendingJobs.add(job)
+    }
+
+    private fun cancelJob(job: TranscodingJob) {
+        job.isCancelled = true
+        val path = job.request.newPath
+        if (pendingJobs.remove(job) || waitingJobs.remove(path, job)) {
+            if (jobs[path] === job) jobs.remove(path)
+            saveQueue()
+            job.result.cancel(CancellationException("Video transcoding cancelled"))
+        }
+    }
+
+    private fun startPendingJobs() {
+        while (runningJobs.size < maxConcurrentTranscodings) {
+            val job = pendingJobs.poll() ?: return
+            runningJobs[job.request.newPath] = job
+            appScope.launch(ioDispatcher) { run(job) }
+        }
+    }
+
+    private suspend fun run(job: TranscodingJob) {
+        val context = coroutineContext
+        val request = job.request
+        val path = request.newPath
+        val result = runCatching {
+            videoTranscoder.transcode(
+                request = request,
+                isActive = { context.isActive && !job.isCancelled },
+            ) { progress, stats ->
+                job.listeners.forEach { it(progress, stats) }
+            }
+        }.onFailure {
+            Timber.w(it, "Video not transcoded")
+            File(path).delete()
+        }
+        synchronized(lock) {
+            runningJobs.remove(path)
+            if (jobs[path] === job) jobs.remove(path)
+            waitingJobs.remove(path)?.let { pendingJobs.add(it) }
+            if (result.isFailure) saveQueue()
+            startPendingJobs()
+        }
+        // A complete output must leave the saved queue before it is used, or it would be
+        // deleted as interrupted if the process is killed before the next scheduled save
+        if (result.isSuccess) writeQueue()
+        result.onSuccess {
+            job.result.complete(Unit)
+        }.onFailure {
+            if (it is CancellationException) {
+                job.result.cancel(it)
+            } else {
+                job.result.completeExceptionally(it)
+            }
+        }
+    }
+
+    /**
+     * Save the queue after [SAVE_DELAY_MILLIS], must be called holding [lock]
+     *
+     * The changes made meanwhile are saved at once, instead of rewriting the whole queue for
+     * every request enqueued, cancelled or failed. Completed requests are saved immediately.
+     */
+    private fun saveQueue() {
+        if (isSaveScheduled) return
+        isSaveScheduled = true
+        appScope.launch(ioDispatcher) {
+            delay(SAVE_DELAY_MILLIS)
+            writeQueue { isSaveScheduled = false }
+        }
+    }
+
+    /**
+     * Save the current queue now
+     *
+     * @param onSnapshot called holding [lock] when the requests to save are taken
+     */
+    private suspend fun writeQueue(onSnapshot: () -> Unit = {}) = saveMutex.withLock {
+        val requests = synchronized(lock) {
+            onSnapshot()
+            jobs.values.map { it.request }
+        }
+        queueStore.save(requests)
+    }
+
+    private companion object {
+        const val MAX_CONCURRENT_TRANSCODINGS = 4
+        const val SAVE_DELAY_MILLIS = 1_000L
+    }
+}
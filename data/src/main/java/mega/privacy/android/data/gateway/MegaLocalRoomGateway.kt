@@ -123,6 +123,13 @@ interface MegaLocalRoomGateway {
      */
     suspend fun addCompletedTransfer(transfer: CompletedTransfer)
 
+    /**
+     * Add the completed transfers that are not added yet
+     *
+     * @param transfers the completed transfers to add
+     */
+    suspend fun addCompletedTransfersIfNotExist(transfers: List<CompletedTransfer>)
+
     /**
      * Get the completed transfers count
      */
@@ -178,6 +185,11 @@ interface MegaLocalRoomGateway {
      */
     suspend fun insertOrUpdateActiveTransfer(activeTransfer: ActiveTransfer)
 
+    /**
+     * Insert or replace a list of active transfers in a single transaction
+     */
+    suspend fun insertOrUpdateActiveTransfers(activeTransfers: List<ActiveTransfer>)
+
     /**
      * Delete all active transfer by type
      */
@@ -213,6 +225,18 @@ interface MegaLocalRoomGateway {
         isSecondary: Boolean,
     ): Boolean
 
+    /**
+     * Get the local paths that already have a sync record
+     *
+     * @param localPaths the local paths to look for
+     * @param isSecondary true if the paths belong to the secondary folder
+     * @return the subset of [localPaths] that already have a sync record
+     */
+    suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String>
+
     /**
      * Does local path exist
      */
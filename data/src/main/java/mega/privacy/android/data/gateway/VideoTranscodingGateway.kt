@@ -0,0 +1,41 @@
+package mega.privacy.android.data.gateway
+
+import mega.privacy.android.data.compression.video.TranscodingStats
+import mega.privacy.android.data.compression.video.VideoTranscodingRequest
+
+/**
+ * Video transcoding engine shared by all the features which compress videos
+ *
+ * The hardware codecs can only run a few transcodings at the same time, so the requests are
+ * queued by priority and only as many of them as the codecs support are transcoded at once.
+ */
+interface VideoTranscodingGateway {
+
+    /**
+     * Transcode a video, suspending until it finishes
+     *
+     * A request with the same output path as a queued or running one joins it instead of
+     * transcoding the video again. Cancelling the caller only cancels the transcoding if no
+     * other caller is waiting for it.
+     *
+     * @param request [VideoTranscodingRequest]
+     * @param onProgress a callback to return the progress and throughput of the transcoding
+     * @throws Exception if the video could not be transcoded
+     */
+    suspend fun transcode(
+        request: VideoTranscodingRequest,
+        onProgress: (Int, TranscodingStats) -> Unit = { _, _ -> },
+    )
+
+    /**
+     * Cancel the transcoding of a video, whoever is waiting for it
+     *
+     * @param newPath output path of the transcoding to cancel
+     */
+    fun cancel(newPath: String)
+
+    /**
+     * Get how many videos can be transcoded at the same time
+     */
+    fun getMaxConcurrentTranscodings(): Int
+}
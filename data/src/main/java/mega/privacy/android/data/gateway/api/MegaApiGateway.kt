@@ -260,9 +260,17 @@ interface MegaApiGateway {
 
     /**
      * Global transfer
+     *
+     * The progress events of each transfer are conflated while the collectors are busy,
+     * the other events are never dropped.
      */
     val globalTransfer: Flow<GlobalTransfer>
 
+    /**
+     * Global transfer start, finish and temporary error events, never conflated nor dropped
+     */
+    val globalTransferLifecycle: Flow<GlobalTransfer>
+
     /**
      * Global [RequestEvent] for all requests processed within this gateway.
      */
@@ -349,6 +357,16 @@ interface MegaApiGateway {
      */
     suspend fun hasVersion(node: MegaNode): Boolean
 
+    /**
+     * Check if the node of a handle has versions, without suspending
+     *
+     * Used by the mapped nodes, which compute it on first access.
+     *
+     * @param handle node handle
+     * @return true if the node exists and has versions
+     */
+    fun hasVersionByHandle(handle: Long): Boolean
+
     /**
      * Get node history num versions
      */
@@ -874,6 +892,16 @@ interface MegaApiGateway {
      */
     suspend fun isInRubbish(node: MegaNode): Boolean
 
+    /**
+     * Check if the node of a handle is in the Rubbish bin, without suspending
+     *
+     * Used by the mapped nodes, which compute it on first access.
+     *
+     * @param handle node handle
+     * @return true if the node exists and is in the Rubbish bin
+     */
+    fun isInRubbishByHandle(handle: Long): Boolean
+
     /**
      * Checks whether the Node is in Backups or not
      *
@@ -42,11 +42,9 @@ internal class FetchChildrenMapper @Inject constructor(
             withContext(ioDispatcher) {
                 if (fromFolderLink) {
                     megaApiFolderGateway.getChildren(megaNode, sortOrderIntMapper(order))
-                        .map { nodeMapperProvider.get().invoke(it) }
                 } else {
                     megaApiGateway.getChildren(megaNode, sortOrderIntMapper(order))
-                        .map { nodeMapperProvider.get().invoke(it) }
-                }
+                }.let { nodeMapperProvider.get().mapNodes(it) }
             }
         }
     }
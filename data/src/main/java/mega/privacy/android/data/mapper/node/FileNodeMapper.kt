@@ -7,6 +7,7 @@ import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.model.node.DefaultFileNode
+import mega.privacy.android.data.model.node.LazyNodeAttribute
 import mega.privacy.android.domain.entity.node.ExportedData
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.NodeId
@@ -37,6 +38,20 @@ internal class FileNodeMapper @Inject constructor(
     suspend operator fun invoke(
         megaNode: MegaNode,
         requireSerializedData: Boolean,
+    ): FileNode = invoke(megaNode, requireSerializedData, getCacheFolders())
+
+    /**
+     * Invoke with cache folders that are already resolved, to map several nodes
+     *
+     * @param megaNode
+     * @param requireSerializedData
+     * @param cacheFolders result of [getCacheFolders]
+     * @return
+     */
+    suspend operator fun invoke(
+        megaNode: MegaNode,
+        requireSerializedData: Boolean,
+        cacheFolders: CacheFolders,
     ): FileNode = DefaultFileNode(
         id = NodeId(megaNode.handle),
         name = megaNode.name,
@@ -46,19 +61,9 @@ internal class FileNodeMapper @Inject constructor(
         base64Id = megaNode.base64Handle,
         creationTime = megaNode.creationTime,
         modificationTime = megaNode.modificationTime,
-        hasVersion = megaApiGateway.hasVersion(megaNode),
-        thumbnailPath = getThumbnailCacheFilePath(
-            megaNode,
-            cacheGateway.getThumbnailCacheFolder()
-        ),
-        previewPath = getPreviewCacheFilePath(
-            megaNode,
-            cacheGateway.getPreviewCacheFolder()
-        ),
-        fullSizePath = getFullSizeCacheFilePath(
-            megaNode,
-            cacheGateway.getFullSizeCacheFolder()
-        ),
+        thumbnailPath = getThumbnailCacheFilePath(megaNode, cacheFolders.thumbnail),
+        previewPath = getPreviewCacheFilePath(megaNode, cacheFolders.preview),
+        fullSizePath = getFullSizeCacheFilePath(megaNode, cacheFolders.fullSize),
         type = fileTypeInfoMapper(megaNode),
         isFavourite = megaNode.isFavourite,
         exportedData = megaNode.takeIf { megaNode.isExported }?.let {
@@ -72,6 +77,21 @@ internal class FileNodeMapper @Inject constructor(
         hasThumbnail = megaNode.hasThumbnail(),
         hasPreview = megaNode.hasPreview(),
         serializedData = if (requireSerializedData) megaNode.serialize() else null,
+        lazyHasVersion = megaNode.handle.let { handle ->
+            LazyNodeAttribute { megaApiGateway.hasVersionByHandle(handle) }
+        },
+    )
+
+    /**
+     * Get the cache folders of the file nodes
+     *
+     * Each folder is checked and created if needed, so it is resolved once when mapping
+     * several nodes.
+     */
+    suspend fun getCacheFolders() = CacheFolders(
+        thumbnail = cacheGateway.getThumbnailCacheFolder(),
+        preview = cacheGateway.getPreviewCacheFolder(),
+        fullSize = cacheGateway.getFullSizeCacheFolder(),
     )
 
     private fun getThumbnailCacheFilePath(megaNode: MegaNode, thumbnailFolder: File?): String? =
@@ -88,4 +108,17 @@ internal class FileNodeMapper @Inject constructor(
         tempFolder?.let {
             "$it${File.separator}${megaNode.getFileName()}"
         }?.takeUnless { megaNode.isFolder }
+
+    /**
+     * Cache folders of the file nodes
+     *
+     * @property thumbnail thumbnail cache folder
+     * @property preview   preview cache folder
+     * @property fullSize  full size cache folder
+     */
+    data class CacheFolders(
+        val thumbnail: File?,
+        val preview: File?,
+        val fullSize: File?,
+    )
 }
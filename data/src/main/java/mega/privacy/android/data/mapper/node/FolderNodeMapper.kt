@@ -3,6 +3,7 @@ package mega.privacy.android.data.mapper.node
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.model.node.DefaultFolderNode
+import mega.privacy.android.data.model.node.LazyNodeAttribute
 import mega.privacy.android.domain.entity.node.ExportedData
 import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.NodeId
@@ -37,7 +38,6 @@ internal class FolderNodeMapper @Inject constructor(
         label = megaNode.label,
         parentId = NodeId(megaNode.parentHandle),
         base64Id = megaNode.base64Handle,
-        hasVersion = megaApiGateway.hasVersion(megaNode),
         childFolderCount = if (fromFolderLink)
             megaApiFolderGateway.getNumChildFolders(megaNode)
         else
@@ -51,7 +51,6 @@ internal class FolderNodeMapper @Inject constructor(
             ExportedData(it.publicLink, it.publicLinkCreationTime)
         },
         isTakenDown = megaNode.isTakenDown,
-        isInRubbishBin = megaApiGateway.isInRubbish(megaNode),
         isIncomingShare = megaNode.isInShare,
         isShared = megaNode.isOutShare,
         isPendingShare = megaApiGateway.isPendingShare(megaNode),
@@ -60,5 +59,11 @@ internal class FolderNodeMapper @Inject constructor(
         creationTime = megaNode.creationTime,
         fetchChildren = fetChildrenMapper(megaNode),
         serializedData = if (requireSerializedData) megaNode.serialize() else null,
+        lazyHasVersion = megaNode.handle.let { handle ->
+            LazyNodeAttribute { megaApiGateway.hasVersionByHandle(handle) }
+        },
+        lazyIsInRubbishBin = megaNode.handle.let { handle ->
+            LazyNodeAttribute { megaApiGateway.isInRubbishByHandle(handle) }
+        },
     )
 }
\ No newline at end of file
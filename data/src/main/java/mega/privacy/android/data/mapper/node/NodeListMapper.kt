@@ -1,17 +1,24 @@
 package mega.privacy.android.data.mapper.node
 
 import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import nz.mega.sdk.MegaNodeList
 import javax.inject.Inject
 
 /**
  * Mapper for converting [MegaNodeList] into a list of [Node].
+ *
+ * The nodes returned by [MegaNodeList.get] point into the native memory of the list, which is
+ * freed when the list is finalized. The list is kept reachable until all its nodes are mapped,
+ * as [java.lang.ref.Reference.reachabilityFence] is not available before API 28.
  */
 internal class NodeListMapper @Inject constructor(
     private val nodeMapper: NodeMapper,
 ) {
 
-    suspend operator fun invoke(megaNodeList: MegaNodeList) = with(megaNodeList) {
-        (0 until size()).map { nodeMapper(get(it)) }
+    suspend operator fun invoke(megaNodeList: MegaNodeList): List<UnTypedNode> = try {
+        nodeMapper.mapNodes((0 until megaNodeList.size()).map { megaNodeList.get(it) })
+    } finally {
+        synchronized(megaNodeList) {}
     }
-}
\ No newline at end of file
+}
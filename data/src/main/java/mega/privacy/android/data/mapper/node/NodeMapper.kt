@@ -1,5 +1,9 @@
 package mega.privacy.android.data.mapper.node
 
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import nz.mega.sdk.MegaNode
 import javax.inject.Inject
 
@@ -30,4 +34,48 @@ internal class NodeMapper @Inject constructor(
     } else {
         fileNodeMapper(megaNode, requireSerializedData)
     }
-}
\ No newline at end of file
+
+    /**
+     * Map several nodes
+     *
+     * The cache folders of the file nodes are resolved once for all the nodes, and the rarely
+     * used attributes are only requested from the SDK on first access. Big lists are mapped in
+     * chunks in parallel, on the dispatcher of the caller; NodeMapperBenchmark compares it with
+     * the sequential mapping.
+     *
+     * @param megaNodes Mega nodes to map
+     * @param fromFolderLink    If the node mapping is from folder link
+     * @param requireSerializedData To se the serializedData only when required and not always
+     * @return the mapped nodes, in the same order
+     */
+    suspend fun mapNodes(
+        megaNodes: List<MegaNode>,
+        fromFolderLink: Boolean = false,
+        requireSerializedData: Boolean = false,
+    ): List<UnTypedNode> {
+        if (megaNodes.isEmpty()) return emptyList()
+
+        val cacheFolders = fileNodeMapper.getCacheFolders()
+        val mapChunk: suspend (List<MegaNode>) -> List<UnTypedNode> = { chunk ->
+            chunk.map { megaNode ->
+                if (megaNode.isFolder) {
+                    folderNodeMapper(megaNode, fromFolderLink, requireSerializedData)
+                } else {
+                    fileNodeMapper(megaNode, requireSerializedData, cacheFolders)
+                }
+            }
+        }
+        return if (megaNodes.size <= CHUNK_SIZE) {
+            mapChunk(megaNodes)
+        } else coroutineScope {
+            megaNodes.chunked(CHUNK_SIZE)
+                .map { async { mapChunk(it) } }
+                .awaitAll()
+                .flatten()
+        }
+    }
+
+    companion object {
+        private const val CHUNK_SIZE = 500
+    }
+}
@@ -0,0 +1,16 @@
+package mega.privacy.android.data.model
+
+/**
+ * Metrics of the global transfer event queues
+ *
+ * @property queuedEvents    events waiting for their collectors in all the queues
+ * @property maxQueuedEvents highest number of events that have been waiting at the same time
+ * @property conflatedEvents progress events replaced by a newer one of the same transfer
+ * @property droppedEvents   events discarded because their queue was already closed
+ */
+data class GlobalTransferEventMetrics(
+    val queuedEvents: Int,
+    val maxQueuedEvents: Int,
+    val conflatedEvents: Long,
+    val droppedEvents: Long,
+)
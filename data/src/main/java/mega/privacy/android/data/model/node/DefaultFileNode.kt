@@ -14,7 +14,6 @@ internal data class DefaultFileNode(
     override val label: Int,
     override val creationTime: Long,
     override val modificationTime: Long,
-    override val hasVersion: Boolean,
     override val type: FileTypeInfo,
     override val thumbnailPath: String? = null,
     override val previewPath: String? = null,
@@ -28,5 +27,9 @@ internal data class DefaultFileNode(
     override val isNodeKeyDecrypted: Boolean,
     override val hasThumbnail: Boolean,
     override val hasPreview: Boolean,
-    override val serializedData: String?
-) : FileNode
+    override val serializedData: String?,
+    private val lazyHasVersion: LazyNodeAttribute<Boolean>,
+) : FileNode {
+    override val hasVersion: Boolean
+        get() = lazyHasVersion.value
+}
@@ -12,13 +12,11 @@ internal data class DefaultFolderNode(
     override val parentId: NodeId,
     override val base64Id: String,
     override val label: Int,
-    override val hasVersion: Boolean,
     override val childFolderCount: Int,
     override val childFileCount: Int,
     override val isFavourite: Boolean,
     override val exportedData: ExportedData?,
     override val isTakenDown: Boolean,
-    override val isInRubbishBin: Boolean,
     override val isIncomingShare: Boolean,
     override val isShared: Boolean,
     override val isPendingShare: Boolean,
@@ -27,4 +25,12 @@ internal data class DefaultFolderNode(
     override val creationTime: Long,
     override val fetchChildren: suspend (SortOrder) -> List<UnTypedNode>,
     override val serializedData: String?,
-) : FolderNode
\ No newline at end of file
+    private val lazyHasVersion: LazyNodeAttribute<Boolean>,
+    private val lazyIsInRubbishBin: LazyNodeAttribute<Boolean>,
+) : FolderNode {
+    override val hasVersion: Boolean
+        get() = lazyHasVersion.value
+
+    override val isInRubbishBin: Boolean
+        get() = lazyIsInRubbishBin.value
+}
\ No newline at end of file
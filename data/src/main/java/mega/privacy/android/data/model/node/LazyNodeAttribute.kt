@@ -0,0 +1,30 @@
+package mega.privacy.android.data.model.node
+
+/**
+ * Node attribute computed on first access
+ *
+ * Rarely used attributes which need a call to the SDK are computed when they are first read
+ * instead of when the node is mapped, on the thread of that first read. The initializer must
+ * not keep the MegaNode, which may be freed with its list, but look it up again by handle.
+ *
+ * Two attributes are equal if their values are equal, so the nodes keep their value equality.
+ * Declared last in the nodes, the values are only computed by equals when all the other
+ * properties are equal.
+ *
+ * @param initializer computes the value
+ */
+internal class LazyNodeAttribute<T>(initializer: () -> T) {
+    private val lazyValue = lazy(initializer)
+
+    /**
+     * Value, computed on first access
+     */
+    val value: T
+        get() = lazyValue.value
+
+    override fun equals(other: Any?) = other is LazyNodeAttribute<*> && value == other.value
+
+    override fun hashCode() = value?.hashCode() ?: 0
+
+    override fun toString() = if (lazyValue.isInitialized()) value.toString() else "Not computed"
+}
@@ -0,0 +1,88 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.filterNotNull
+import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import mega.privacy.android.domain.entity.transfer.TransferType
+
+/**
+ * Totals of the active transfers of a type, kept up to date with each progress update
+ *
+ * The transferred bytes of each transfer are kept in memory instead of in database. The totals
+ * of the active transfers are only mapped again when the active transfers change, while a
+ * progress update just adds its difference to the transferred bytes of the ongoing files.
+ *
+ * @property transferType               type of the active transfers
+ * @property activeTransferTotalsMapper maps the active transfers to their totals
+ */
+internal class ActiveTransferTotalsAccumulator(
+    private val transferType: TransferType,
+    private val activeTransferTotalsMapper: ActiveTransferTotalsMapper,
+) {
+    private val transferredBytes = HashMap<Int, Long>()
+    private var ongoingFileTags = emptySet<Int>()
+    private var ongoingTransferredBytes = 0L
+    private var activeTransfersTotals: ActiveTransferTotals? = null
+    private val _totals = MutableStateFlow<ActiveTransferTotals?>(null)
+
+    /**
+     * Totals of the last active transfers set with [setActiveTransfers]
+     */
+    val totals: Flow<ActiveTransferTotals> = _totals.filterNotNull()
+
+    /**
+     * Update the transferred bytes of a transfer
+     *
+     * @param tag   tag of the transfer
+     * @param bytes current transferred bytes
+     */
+    @Synchronized
+    fun updateTransferredBytes(tag: Int, bytes: Long) {
+        val previous = transferredBytes.put(tag, bytes) ?: 0L
+        if (tag in ongoingFileTags && bytes != previous) {
+            ongoingTransferredBytes += bytes - previous
+            publish()
+        }
+    }
+
+    /**
+     * Set the current active transfers
+     *
+     * @param activeTransfers all the active transfers of [transferType]
+     */
+    @Synchronized
+    fun setActiveTransfers(activeTransfers: List<ActiveTransfer>) {
+        //the finished files already count all their bytes, so only the ongoing ones are added
+        activeTransfersTotals = activeTransferTotalsMapper(transferType, activeTransfers, emptyMap())
+        ongoingFileTags = activeTransfers
+            .filter { !it.isFolderTransfer && !it.isFinished }
+            .mapTo(HashSet()) { it.tag }
+        ongoingTransferredBytes = ongoingFileTags.sumOf { transferredBytes[it] ?: 0L }
+        publish()
+    }
+
+    /**
+     * Get a copy of the transferred bytes of each transfer
+     */
+    @Synchronized
+    fun getTransferredBytes(): Map<Int, Long> = HashMap(transferredBytes)
+
+    /**
+     * Forget the transferred bytes of all the transfers
+     */
+    @Synchronized
+    fun clear() {
+        transferredBytes.clear()
+        ongoingTransferredBytes = 0L
+        publish()
+    }
+
+    private fun publish() {
+        _totals.value = activeTransfersTotals?.let {
+            it.copy(transferredBytes = it.transferredBytes + ongoingTransferredBytes)
+        }
+    }
+}
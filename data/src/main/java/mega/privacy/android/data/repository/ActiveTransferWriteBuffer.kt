@@ -0,0 +1,85 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
+import timber.log.Timber
+
+/**
+ * Write-behind buffer of the active transfers
+ *
+ * The last state of each transfer is kept by tag and all of them are written together, so a
+ * burst of transfer events results in a few batched writes instead of one write per event.
+ * - The buffer is written [flushDelayMillis] after the first pending change, or as soon as
+ *   there are [maxPendingTransfers] pending transfers.
+ * - Call [flush] before reading or modifying the written active transfers, so no pending change
+ *   is missed or written over a later one.
+ *
+ * @property scope               scope to write the buffer when the delay expires
+ * @property flushDelayMillis    maximum time a change is kept in the buffer
+ * @property maxPendingTransfers number of pending transfers that triggers a write
+ * @property write               writes a list of active transfers in a single transaction
+ */
+internal class ActiveTransferWriteBuffer(
+    private val scope: CoroutineScope,
+    private val flushDelayMillis: Long = FLUSH_DELAY_MILLIS,
+    private val maxPendingTransfers: Int = MAX_PENDING_TRANSFERS,
+    private val write: suspend (List<ActiveTransfer>) -> Unit,
+) {
+    private val mutex = Mutex()
+    private val writeMutex = Mutex()
+    private val pendingTransfers = LinkedHashMap<Int, ActiveTransfer>()
+    private var scheduledFlush: Job? = null
+
+    /**
+     * Add or replace the pending state of a transfer
+     *
+     * @param activeTransfer the new state of the transfer
+     */
+    suspend fun put(activeTransfer: ActiveTransfer) {
+        val isFull = mutex.withLock {
+            pendingTransfers[activeTransfer.tag] = activeTransfer
+            if (scheduledFlush == null) {
+                scheduledFlush = scope.launch {
+                    delay(flushDelayMillis)
+                    runCatching { flush() }.onFailure { Timber.e(it) }
+                }
+            }
+            pendingTransfers.size >= maxPendingTransfers
+        }
+        if (isFull) flush()
+    }
+
+    /**
+     * Write all the pending transfers now
+     *
+     * The write is not cancelled with the caller, so the taken changes are never lost.
+     */
+    suspend fun flush() = withContext(NonCancellable) {
+        writeMutex.withLock {
+            val activeTransfers = mutex.withLock {
+                scheduledFlush = null
+                pendingTransfers.values.toList().also { pendingTransfers.clear() }
+            }
+            if (activeTransfers.isNotEmpty()) write(activeTransfers)
+        }
+    }
+
+    companion object {
+        /**
+         * Default maximum time a change is kept in the buffer
+         */
+        const val FLUSH_DELAY_MILLIS = 250L
+
+        /**
+         * Default number of pending transfers that triggers a write
+         */
+        const val MAX_PENDING_TRANSFERS = 100
+    }
+}
@@ -205,6 +205,13 @@ internal class DefaultCameraUploadRepository @Inject constructor(
         megaLocalRoomGateway.doesFileNameExist(fileName, isSecondary)
     }
 
+    override suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String> = withContext(ioDispatcher) {
+        megaLocalRoomGateway.getExistingLocalPaths(localPaths, isSecondary)
+    }
+
     override suspend fun doesLocalPathExist(
         fileName: String,
         isSecondary: Boolean,
@@ -1,11 +1,17 @@
 package mega.privacy.android.data.repository
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.async
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.conflate
 import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.filterNotNull
@@ -14,7 +20,11 @@ import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.TimelinePhotosIndex
+import mega.privacy.android.data.cache.TimelinePhotosSnapshotStore
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.extensions.decodeBase64
 import mega.privacy.android.data.extensions.failWithError
@@ -43,8 +53,11 @@ import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.SvgFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.AlbumPhotoId
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
@@ -57,7 +70,9 @@ import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
+import timber.log.Timber
 import java.io.File
+import java.util.concurrent.ConcurrentHashMap
 import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.resumeWithException
@@ -71,6 +86,7 @@ import kotlin.coroutines.resumeWithException
  * @property megaLocalStorageFacade MegaLocalStorageGateway
  * @property imageMapper ImageMapper
  * @property videoMapper VideoMapper
+ * @property timelinePhotosSnapshotStore TimelinePhotosSnapshotStore
  */
 @Singleton
 internal class DefaultPhotosRepository @Inject constructor(
@@ -89,8 +105,13 @@ internal class DefaultPhotosRepository @Inject constructor(
     private val fileTypeInfoMapper: FileTypeInfoMapper,
     private val timelineFilterPreferencesJSONMapper: TimelineFilterPreferencesJSONMapper,
     private val contentConsumptionMegaStringMapMapper: ContentConsumptionMegaStringMapMapper,
+    private val timelinePhotosSnapshotStore: TimelinePhotosSnapshotStore,
 ) : PhotosRepository {
-    private val photosCache: MutableMap<NodeId, Photo> = mutableMapOf()
+    private val photosCache: MutableMap<NodeId, Photo> = ConcurrentHashMap()
+
+    private val timelinePhotosIndex = TimelinePhotosIndex()
+
+    private val timelineMutex = Mutex()
 
     private var thumbnailFolderPath: String? = null
 
@@ -105,31 +126,86 @@ internal class DefaultPhotosRepository @Inject constructor(
         NodeChanges.Favourite,
         NodeChanges.Attributes,
         NodeChanges.Parent,
+        NodeChanges.File_attributes,
+    )
+
+    private val folderRefreshRules = listOf(
+        NodeChanges.New,
+        NodeChanges.Parent,
+        NodeChanges.Remove,
     )
 
     private var monitorNodeUpdatesJob: Job? = null
 
     private var refreshPhotosJob: Job? = null
 
+    private var snapshotWriteJob: Job? = null
+
     @Volatile
     private var isMonitoringInitiated: Boolean = false
 
     private fun monitorNodeUpdates() {
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = nodeRepository.monitorNodeUpdates()
+            // Queued here, so waiting for a Timeline refresh doesn't hold the shared node updates
+            .buffer(Channel.UNLIMITED)
             .onEach { nodeUpdate ->
-                appScope.launch {
-                    val nodes = nodeUpdate.changes.keys.toList()
-                    nodes.forEach { photosCache.remove(it.id) }
+                // Caught for each update, so a failing one doesn't stop the next Timeline updates
+                runCatching {
+                    nodeUpdate.changes.keys.forEach { photosCache.remove(it.id) }
+                    updateTimelinePhotos(nodeUpdate)
+                }.onFailure {
+                    if (it is CancellationException) throw it
+                    Timber.e(it, "Error updating the Timeline photos")
                 }
+            }.catch {
+                Timber.e(it)
+            }.launchIn(appScope)
+    }
 
-                appScope.launch {
-                    val changes = nodeUpdate.changes.values
-                    if (changes.flatten().intersect(photosRefreshRules).isNotEmpty()) {
-                        refreshPhotos()
+    /**
+     * Apply the changes of [nodeUpdate] to the Timeline index
+     *
+     * Only the changed file nodes are mapped again. Changes on folders that can add or remove
+     * photos from the Timeline (new, moved or removed folders) still require a full refresh.
+     */
+    private suspend fun updateTimelinePhotos(nodeUpdate: NodeUpdate) {
+        val folderChanged = nodeUpdate.changes.any { (node, changes) ->
+            node is FolderNode && changes.any { it in folderRefreshRules }
+        }
+        if (folderChanged) {
+            refreshPhotos()
+            return
+        }
+
+        val changedFiles = nodeUpdate.changes.filter { (node, changes) ->
+            node is FileNode && changes.any { it in photosRefreshRules || it == NodeChanges.Remove }
+        }
+        if (changedFiles.isEmpty()) return
+
+        timelineMutex.withLock {
+            // The full search will already contain these changes
+            if (photosStateFlow.value == null) return
+
+            val upserts = mutableListOf<Photo>()
+            val removals = mutableListOf<NodeId>()
+            withContext(ioDispatcher) {
+                changedFiles.forEach { (node, changes) ->
+                    val photo = if (NodeChanges.Remove in changes) {
+                        null
+                    } else {
+                        megaApiFacade.getMegaNodeByHandle(node.id.longValue)
+                            ?.let { mapMegaNodeToTimelinePhoto(it) }
                     }
+                    if (photo != null) upserts.add(photo) else removals.add(node.id)
                 }
-            }.launchIn(appScope)
+            }
+            timelinePhotosIndex.apply(upserts = upserts, removals = removals)?.let { photos ->
+                upserts.forEach { photosCache[NodeId(it.id)] = it }
+                photosStateFlow.update { photos }
+                scheduleSnapshotWrite(photos, SNAPSHOT_WRITE_DELAY_MILLIS)
+            }
+        }
     }
 
     private fun monitorRefreshPhotos() {
@@ -138,16 +214,49 @@ internal class DefaultPhotosRepository @Inject constructor(
             .filter { it }
             .conflate()
             .onEach {
-                val photos = searchMegaPhotos()
-                for (photo in photos) {
-                    photosCache[NodeId(photo.id)] = photo
+                if (photosStateFlow.value == null) {
+                    loadTimelineSnapshot()
                 }
+                timelineMutex.withLock {
+                    refreshPhotosStateFlow.value = false
+                    val photos = timelinePhotosIndex.replaceAll(searchMegaPhotos())
+                    for (photo in photos) {
+                        photosCache[NodeId(photo.id)] = photo
+                    }
 
-                photosStateFlow.update { photos }
-                refreshPhotosStateFlow.value = false
+                    photosStateFlow.update { photos }
+                    scheduleSnapshotWrite(photos, delayMillis = 0)
+                }
             }.launchIn(appScope)
     }
 
+    /**
+     * Write the Timeline snapshot after [delayMillis], replacing the pending write if any, so
+     * a burst of node updates only writes it once. Must be called holding [timelineMutex].
+     */
+    private fun scheduleSnapshotWrite(photos: List<Photo>, delayMillis: Long) {
+        snapshotWriteJob?.cancel()
+        snapshotWriteJob = appScope.launch {
+            delay(delayMillis)
+            timelinePhotosSnapshotStore.write(photos)
+        }
+    }
+
+    /**
+     * Show the photos of the last stored snapshot while the cloud drive search is running,
+     * the search result then replaces them
+     */
+    private suspend fun loadTimelineSnapshot() {
+        val snapshot = timelinePhotosSnapshotStore.read()
+        if (snapshot.isNullOrEmpty()) return
+        timelineMutex.withLock {
+            if (photosStateFlow.value == null) {
+                val photos = timelinePhotosIndex.replaceAll(snapshot)
+                photosStateFlow.update { photos }
+            }
+        }
+    }
+
     override fun monitorPhotos(): Flow<List<Photo>> {
         if (!isMonitoringInitiated) {
             isMonitoringInitiated = true
@@ -436,6 +545,23 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
     }
 
+    /**
+     * Map a single changed node to a Timeline photo
+     *
+     * @return the photo, or null if the node does not belong to the Timeline anymore
+     */
+    private suspend fun mapMegaNodeToTimelinePhoto(megaNode: MegaNode): Photo? {
+        if (!megaNode.isFile || !megaNode.hasThumbnail() || !megaApiFacade.isInCloudDrive(megaNode)) {
+            return null
+        }
+        return when (val fileType = fileTypeInfoMapper(megaNode)) {
+            is VideoFileTypeInfo -> mapMegaNodeToVideo(megaNode)
+            is SvgFileTypeInfo -> null
+            is ImageFileTypeInfo -> mapMegaNodeToImage(megaNode)
+            else -> null
+        }
+    }
+
     /**
      * Check valid Photo Node, not include Photo nodes that are in rubbish bin or without thumbnail
      */
@@ -502,7 +628,7 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
     }
 
-    override fun clearCache() {
+    override suspend fun clearCache() {
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = null
 
@@ -511,8 +637,16 @@ internal class DefaultPhotosRepository @Inject constructor(
 
         isMonitoringInitiated = false
         photosCache.clear()
+        // Cleared before returning, so the next refresh never replaces an index which is
+        // cleared after it, and the snapshot of this account is never shown to the next one
+        val pendingSnapshotWrite = timelineMutex.withLock {
+            timelinePhotosIndex.clear()
+            photosStateFlow.value = null
+            snapshotWriteJob.also { snapshotWriteJob = null }
+        }
+        pendingSnapshotWrite?.cancelAndJoin()
+        timelinePhotosSnapshotStore.delete()
 
-        photosStateFlow.value = null
         refreshPhotosStateFlow.value = true
     }
 
@@ -639,4 +773,8 @@ internal class DefaultPhotosRepository @Inject constructor(
                 photosCache[NodeId(node.handle)] = it
             }
     }
+
+    companion object {
+        private const val SNAPSHOT_WRITE_DELAY_MILLIS = 5_000L
+    }
 }
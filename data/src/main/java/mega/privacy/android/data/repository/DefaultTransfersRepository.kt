@@ -1,31 +1,30 @@
 package mega.privacy.android.data.repository
 
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.channels.SendChannel
 import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
 import kotlinx.coroutines.flow.asStateFlow
 import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.cancellable
-import kotlinx.coroutines.flow.combine
-import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.firstOrNull
-import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flatMapLatest
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
-import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.failWithError
 import mega.privacy.android.data.extensions.getRequestListener
-import mega.privacy.android.data.extensions.isBackgroundTransfer
 import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -33,7 +32,6 @@ import mega.privacy.android.data.gateway.WorkManagerGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.listener.OptionalMegaTransferListenerInterface
-import mega.privacy.android.data.mapper.transfer.AppDataTypeConstants
 import mega.privacy.android.data.mapper.transfer.PausedTransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferAppDataStringMapper
 import mega.privacy.android.data.mapper.transfer.TransferDataMapper
@@ -46,6 +44,7 @@ import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
+import mega.privacy.android.domain.entity.transfer.PendingTransferCounts
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferAppData
 import mega.privacy.android.domain.entity.transfer.TransferEvent
@@ -94,11 +93,32 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     private val monitorPausedTransfers = MutableStateFlow(false)
 
+    private val pendingTransferCounters = PendingTransferCounters()
+    private val pendingTransferCountersReady = CompletableDeferred<Unit>()
+    private val pendingTransferCountersActions = Channel<suspend () -> Unit>(Channel.UNLIMITED)
+
+    @Volatile
+    private var pendingTransferCountersJob: Job? = null
+
+    private val inProgressTransfers = InProgressTransfers(transferMapper)
+    private val inProgressTransfersReady = CompletableDeferred<Unit>()
+    private val inProgressTransfersActions = Channel<suspend () -> Unit>(Channel.UNLIMITED)
+
+    @Volatile
+    private var inProgressTransfersJob: Job? = null
+
     /**
-     * to store current transferred bytes in memory instead of in database
+     * to store current transferred bytes and active transfer totals in memory instead of in database
      */
-    private val transferredBytesFlows =
-        HashMap<TransferType, MutableStateFlow<Map<Int, Long>>>()
+    private val activeTransferTotals = TransferType.values().associateWith {
+        ActiveTransferTotalsAccumulator(it, activeTransferTotalsMapper)
+    }
+
+    private val activeTransferWriteBuffer = ActiveTransferWriteBuffer(scope) {
+        withContext(ioDispatcher) {
+            megaLocalRoomGateway.insertOrUpdateActiveTransfers(it)
+        }
+    }
 
     init {
         //update monitorPausedTransfer with current sdk value
@@ -229,78 +249,153 @@ internal class DefaultTransfersRepository @Inject constructor(
         megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD)
     }
 
-    override suspend fun getNumPendingDownloadsNonBackground(): Int = withContext(ioDispatcher) {
-        getDownloadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isBackgroundTransfer()
-        }
+    /**
+     * Get the download and upload transfers queued in the SDK transfer data
+     *
+     * The transfer data only has the tags, so the transfers are taken from the download and
+     * upload lists, fetched in one call each, instead of getting each one by tag.
+     */
+    private suspend fun getQueuedTransfers(): List<MegaTransfer> = withContext(ioDispatcher) {
+        val data = megaApiGateway.getTransferData() ?: return@withContext emptyList()
+        val downloadTags = (0 until data.numDownloads).mapTo(HashSet()) { data.getDownloadTag(it) }
+        val uploadTags = (0 until data.numUploads).mapTo(HashSet()) { data.getUploadTag(it) }
+        val downloads = if (downloadTags.isEmpty()) emptyList()
+        else getDownloadTransfers().filter { it.tag in downloadTags }
+        val uploads = if (uploadTags.isEmpty()) emptyList()
+        else getUploadTransfers().filter { it.tag in uploadTags }
+        downloads + uploads
     }
 
-    override suspend fun getNumPendingUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer -> !transfer.isFinished }
-    }
+    override suspend fun getNumPendingDownloadsNonBackground(): Int =
+        getPendingTransferCounts().downloads
 
-    override suspend fun getNumPendingGeneralUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && !transfer.isCUUpload() && !transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingUploads(): Int = getPendingTransferCounts().uploads
 
-    override suspend fun getNumPendingCameraUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.isCUUpload()
-        }
-    }
+    override suspend fun getNumPendingGeneralUploads() = getPendingTransferCounts().generalUploads
 
-    override suspend fun getNumPendingChatUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.isChatUpload()
-        }
-    }
+    override suspend fun getNumPendingCameraUploads() = getPendingTransferCounts().cameraUploads
 
-    override suspend fun getNumPendingTransfers(): Int = withContext(ioDispatcher) {
-        getNumPendingDownloadsNonBackground() + getNumPendingUploads()
-    }
+    override suspend fun getNumPendingChatUploads() = getPendingTransferCounts().chatUploads
+
+    override suspend fun getNumPendingTransfers(): Int = getPendingTransferCounts().transfers
 
     override suspend fun isCompletedTransfersEmpty(): Boolean = withContext(ioDispatcher) {
         megaLocalRoomGateway.getCompletedTransfersCount() == 0
     }
 
-    override suspend fun getNumPendingPausedUploads(): Int = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-        }
-    }
+    override suspend fun getNumPendingPausedUploads(): Int =
+        getPendingTransferCounts().pausedUploads
 
-    override suspend fun getNumPendingPausedGeneralUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished && transfer.state == MegaTransfer.STATE_PAUSED
-                    && !transfer.isCUUpload() && !transfer.isChatUpload()
-        }
+    override suspend fun getNumPendingPausedGeneralUploads() =
+        getPendingTransferCounts().pausedGeneralUploads
+
+    override suspend fun getNumPendingPausedCameraUploads() =
+        getPendingTransferCounts().pausedCameraUploads
+
+    override suspend fun getNumPendingPausedChatUploads() =
+        getPendingTransferCounts().pausedChatUploads
+
+    override suspend fun getNumPendingNonBackgroundPausedDownloads(): Int =
+        getPendingTransferCounts().pausedDownloads
+
+    override fun monitorPendingTransferCounts(): StateFlow<PendingTransferCounts> {
+        startPendingTransferCounters()
+        return pendingTransferCounters.counts
     }
 
-    override suspend fun getNumPendingPausedCameraUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished
-                    && transfer.state == MegaTransfer.STATE_PAUSED
-                    && transfer.isCUUpload()
-        }
+    private suspend fun getPendingTransferCounts(): PendingTransferCounts {
+        startPendingTransferCounters()
+        pendingTransferCountersReady.await()
+        return pendingTransferCounters.counts.value
     }
 
-    override suspend fun getNumPendingPausedChatUploads() = withContext(ioDispatcher) {
-        getUploadTransfers().count { transfer ->
-            !transfer.isFinished
-                    && transfer.state == MegaTransfer.STATE_PAUSED
-                    && transfer.isChatUpload()
-        }
+    /**
+     * Start keeping the pending transfer counters, if not started yet
+     */
+    @Synchronized
+    private fun startPendingTransferCounters() {
+        if (pendingTransferCountersJob != null) return
+        pendingTransferCountersJob = launchTransferEventsMonitor(
+            actions = pendingTransferCountersActions,
+            ready = pendingTransferCountersReady,
+            reset = ::resetPendingTransferCounters,
+            onEvent = pendingTransferCounters::onTransferEvent,
+        )
     }
 
+    /**
+     * Start keeping the in-progress transfers snapshot, if not started yet
+     */
+    @Synchronized
+    private fun startInProgressTransfers() {
+        if (inProgressTransfersJob != null) return
+        inProgressTransfersJob = launchTransferEventsMonitor(
+            actions = inProgressTransfersActions,
+            ready = inProgressTransfersReady,
+            reset = ::resetInProgressTransfers,
+            onEvent = inProgressTransfers::onTransferEvent,
+        )
+    }
 
-    override suspend fun getNumPendingNonBackgroundPausedDownloads(): Int =
-        withContext(ioDispatcher) {
-            getDownloadTransfers().count { transfer ->
-                !transfer.isFinished && !transfer.isBackgroundTransfer() && transfer.state == MegaTransfer.STATE_PAUSED
+    /**
+     * Keep some state up to date with the transfer events
+     *
+     * The transfer events are buffered from before the reset, so no event is missed between
+     * getting the transfers of the SDK and monitoring their changes. The events and the later
+     * resets are applied one at a time from [actions], so a reset never runs at the same time as
+     * an event.
+     *
+     * @param actions the events to apply and the resets requested later, in order
+     * @param ready completed once the first reset has finished
+     * @param reset gets the current state from the SDK
+     * @param onEvent applies a transfer event to the state
+     */
+    private fun launchTransferEventsMonitor(
+        actions: Channel<suspend () -> Unit>,
+        ready: CompletableDeferred<Unit>,
+        reset: suspend () -> Unit,
+        onEvent: suspend (GlobalTransfer) -> Unit,
+    ) = scope.launch(ioDispatcher) {
+        try {
+            launch(start = CoroutineStart.UNDISPATCHED) {
+                runCatching {
+                    megaApiGateway.globalTransfer.collect { actions.send { onEvent(it) } }
+                }.onFailure { Timber.e(it, "Error monitoring the transfer events") }
             }
+            reset()
+        } finally {
+            ready.complete(Unit)
         }
+        for (action in actions) {
+            action()
+        }
+    }
+
+    /**
+     * Reconcile the pending transfer counters with the transfers of the SDK
+     */
+    private suspend fun resetPendingTransferCounters() {
+        runCatching {
+            pendingTransferCounters.reset(
+                downloads = getDownloadTransfers(),
+                uploads = getUploadTransfers(),
+            )
+        }.onFailure { Timber.e(it, "Error getting the pending transfers") }
+    }
+
+    private suspend fun resetInProgressTransfers() {
+        runCatching {
+            inProgressTransfers.reset(getQueuedTransfers())
+        }.onFailure { Timber.e(it, "Error getting the in-progress transfers") }
+    }
+
+    /**
+     * Update a reordered transfer in the in-progress transfers snapshot, if it is kept
+     */
+    private suspend fun updateInProgressTransfer(transferTag: Int) {
+        if (inProgressTransfersJob == null) return
+        megaApiGateway.getTransfersByTag(transferTag)?.let { inProgressTransfers.update(it) }
+    }
 
     override fun monitorTransferEvents(): Flow<TransferEvent> =
         merge(
@@ -312,6 +407,10 @@ internal class DefaultTransfersRepository @Inject constructor(
             },
         ).flowOn(ioDispatcher)
 
+    override fun monitorTransferLifecycleEvents(): Flow<TransferEvent> =
+        megaApiGateway.globalTransferLifecycle.map { event -> transferEventMapper(event) }
+            .flowOn(ioDispatcher)
+
     override suspend fun cancelTransferByTag(transferTag: Int) = withContext(ioDispatcher) {
         suspendCancellableCoroutine { continuation ->
             val listener = OptionalMegaRequestListenerInterface(
@@ -379,6 +478,7 @@ internal class DefaultTransfersRepository @Inject constructor(
             megaApiGateway.moveTransferToFirstByTag(transferTag, listener)
             continuation.invokeOnCancellation { megaApiGateway.removeRequestListener(listener) }
         }
+        updateInProgressTransfer(transferTag)
     }
 
     override suspend fun moveTransferToLastByTag(transferTag: Int) = withContext(ioDispatcher) {
@@ -387,6 +487,7 @@ internal class DefaultTransfersRepository @Inject constructor(
             megaApiGateway.moveTransferToLastByTag(transferTag, listener)
             continuation.invokeOnCancellation { megaApiGateway.removeRequestListener(listener) }
         }
+        updateInProgressTransfer(transferTag)
     }
 
     override suspend fun moveTransferBeforeByTag(transferTag: Int, prevTransferTag: Int) =
@@ -396,6 +497,7 @@ internal class DefaultTransfersRepository @Inject constructor(
                 megaApiGateway.moveTransferBeforeByTag(transferTag, prevTransferTag, listener)
                 continuation.invokeOnCancellation { megaApiGateway.removeRequestListener(listener) }
             }
+            updateInProgressTransfer(transferTag)
         }
 
     override suspend fun getTransferByTag(transferTag: Int) = withContext(ioDispatcher) {
@@ -404,17 +506,17 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override fun monitorPausedTransfers() = monitorPausedTransfers.asStateFlow()
 
-    override suspend fun getInProgressTransfers(): List<Transfer> = withContext(ioDispatcher) {
-        val transfers = mutableListOf<Transfer>()
-        megaApiGateway.getTransferData()?.let { data ->
-            transfers.addAll((0 until data.numDownloads)
-                .mapNotNull { getTransferByTag(data.getDownloadTag(it)) })
-            transfers.addAll((0 until data.numUploads)
-                .mapNotNull { getTransferByTag(data.getUploadTag(it)) })
-        }
-        transfers.sortedBy { it.priority }
+    override suspend fun getInProgressTransfers(): List<Transfer> {
+        startInProgressTransfers()
+        inProgressTransfersReady.await()
+        return inProgressTransfers.getTransfers()
     }
 
+    override suspend fun getInProgressTransfersFromSdk(): List<Transfer> =
+        withContext(ioDispatcher) {
+            getQueuedTransfers().map { transferMapper(it) }.sortedBy { it.priority }
+        }
+
     override fun monitorCompletedTransfer(): Flow<CompletedTransfer> =
         appEventGateway.monitorCompletedTransfer
 
@@ -430,15 +532,7 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override suspend fun addCompletedTransfersIfNotExist(transfers: List<CompletedTransfer>) =
         withContext(ioDispatcher) {
-            // remove id field before comparison
-            val existingTransfers =
-                megaLocalRoomGateway.getAllCompletedTransfers().firstOrNull()
-                    .orEmpty().map { it.copy(id = null) }
-            transfers.map { it.copy(id = null) }.forEach { transfer ->
-                if (!existingTransfers.any { existingTransfer -> existingTransfer == transfer }) {
-                    megaLocalRoomGateway.addCompletedTransfer(transfer)
-                }
-            }
+            megaLocalRoomGateway.addCompletedTransfersIfNotExist(transfers)
         }
 
     override suspend fun deleteOldestCompletedTransfers() = withContext(ioDispatcher) {
@@ -463,6 +557,7 @@ internal class DefaultTransfersRepository @Inject constructor(
     }
 
     override suspend fun getActiveTransferByTag(tag: Int) = withContext(ioDispatcher) {
+        activeTransferWriteBuffer.flush()
         megaLocalRoomGateway.getActiveTransferByTag(tag)
     }
 
@@ -474,48 +569,48 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override suspend fun getCurrentActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
+            activeTransferWriteBuffer.flush()
             megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType)
         }
 
     override suspend fun insertOrUpdateActiveTransfer(activeTransfer: ActiveTransfer) =
-        withContext(ioDispatcher) {
-            megaLocalRoomGateway.insertOrUpdateActiveTransfer(activeTransfer)
-        }
+        activeTransferWriteBuffer.put(activeTransfer)
 
     override suspend fun updateTransferredBytes(transfer: Transfer) {
-        transferredBytesFlow(transfer.transferType).update {
-            it + (transfer.tag to transfer.transferredBytes)
-        }
+        activeTransferTotals.getValue(transfer.transferType)
+            .updateTransferredBytes(transfer.tag, transfer.transferredBytes)
     }
 
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
-            transferredBytesFlow(transferType).value = mapOf()
+            activeTransferWriteBuffer.flush()
+            activeTransferTotals.getValue(transferType).clear()
             megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
         }
 
     override suspend fun setActiveTransferAsFinishedByTag(tags: List<Int>) =
         withContext(ioDispatcher) {
+            activeTransferWriteBuffer.flush()
             megaLocalRoomGateway.setActiveTransferAsFinishedByTag(tags)
         }
 
-    override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> =
-        flow {
-            val transferredBytesFlow = transferredBytesFlow(transferType)
-            emitAll(
-                megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
-                    .combine(transferredBytesFlow) { activeTransfers, transferredBytes ->
-                        activeTransferTotalsMapper(transferType, activeTransfers, transferredBytes)
-                    }
-            )
-        }.cancellable()
+    @OptIn(ExperimentalCoroutinesApi::class)
+    override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> {
+        val totals = activeTransferTotals.getValue(transferType)
+        return megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
+            .flatMapLatest { activeTransfers ->
+                totals.setActiveTransfers(activeTransfers)
+                totals.totals
+            }.cancellable()
+    }
 
     override suspend fun getCurrentActiveTransferTotalsByType(transferType: TransferType): ActiveTransferTotals =
         withContext(ioDispatcher) {
+            activeTransferWriteBuffer.flush()
             activeTransferTotalsMapper(
                 type = transferType,
                 list = megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType),
-                transferredBytes = transferredBytesFlow(transferType).value
+                transferredBytes = activeTransferTotals.getValue(transferType).getTransferredBytes()
             )
         }
 
@@ -532,6 +627,12 @@ internal class DefaultTransfersRepository @Inject constructor(
 
         monitorPausedTransfers.emit(isPauseResponse)
         localStorageGateway.setTransferQueueStatus(isPauseResponse)
+        if (pendingTransferCountersJob != null) {
+            pendingTransferCountersActions.trySend(::resetPendingTransferCounters)
+        }
+        if (inProgressTransfersJob != null) {
+            inProgressTransfersActions.trySend(::resetInProgressTransfers)
+        }
         return@withContext isPauseResponse
     }
 
@@ -624,20 +725,4 @@ internal class DefaultTransfersRepository @Inject constructor(
                 "Replace with the corresponding value get from ActiveTransfers when ready"
     )
     override suspend fun getTotalDownloads() = megaApiGateway.totalDownloads
-
-    private val transferredBytesFlowMutex = Mutex()
-    private suspend fun transferredBytesFlow(transferType: TransferType): MutableStateFlow<Map<Int, Long>> {
-        transferredBytesFlowMutex.withLock {
-            return transferredBytesFlows[transferType]
-                ?: MutableStateFlow<Map<Int, Long>>(mapOf()).also {
-                    transferredBytesFlows[transferType] = it
-                }
-        }
-    }
 }
-
-private fun MegaTransfer.isCUUpload() =
-    this.appData?.contains(AppDataTypeConstants.CameraUpload.sdkTypeValue) == true
-
-private fun MegaTransfer.isChatUpload() =
-    this.appData?.contains(AppDataTypeConstants.ChatUpload.sdkTypeValue) == true
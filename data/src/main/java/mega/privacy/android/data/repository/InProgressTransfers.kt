@@ -0,0 +1,87 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.extensions.isBackgroundTransfer
+import mega.privacy.android.data.mapper.transfer.TransferMapper
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.domain.entity.transfer.Transfer
+import nz.mega.sdk.MegaTransfer
+import java.util.TreeSet
+
+/**
+ * Snapshot of the in-progress transfers, ordered by priority
+ *
+ * The transfers are kept by tag and in a sorted set, so each transfer event or reordered
+ * transfer updates the snapshot in O(log n) instead of getting every transfer from the SDK by
+ * tag. As with [PendingTransferCounters], applying an event is idempotent, so the events
+ * received while a [reset] is in progress can be applied after it.
+ *
+ * As the transfers list shows, streaming, folder and background transfers are not kept.
+ *
+ * @property transferMapper maps the SDK transfers
+ */
+internal class InProgressTransfers(private val transferMapper: TransferMapper) {
+
+    private val mutex = Mutex()
+    private val transfersByTag = HashMap<Int, Transfer>()
+    private val transfersByPriority =
+        TreeSet(compareBy<Transfer>({ it.priority }, { it.tag }))
+
+    /**
+     * Replace the transfers with the ones of the SDK
+     *
+     * @param transfers the queued download and upload transfers
+     */
+    suspend fun reset(transfers: List<MegaTransfer>) = mutex.withLock {
+        transfersByTag.clear()
+        transfersByPriority.clear()
+        transfers.forEach { put(it) }
+    }
+
+    /**
+     * Apply a transfer event
+     *
+     * @param event transfer event
+     */
+    suspend fun onTransferEvent(event: GlobalTransfer) = mutex.withLock {
+        when (event) {
+            is GlobalTransfer.OnTransferStart, is GlobalTransfer.OnTransferUpdate -> put(event.transfer)
+            is GlobalTransfer.OnTransferFinish -> remove(event.transfer.tag)
+            else -> Unit
+        }
+    }
+
+    /**
+     * Update a transfer whose priority or state has changed
+     *
+     * @param transfer the current SDK transfer
+     */
+    suspend fun update(transfer: MegaTransfer) = mutex.withLock { put(transfer) }
+
+    /**
+     * Get the in-progress transfers
+     *
+     * @return the transfers ordered by priority
+     */
+    suspend fun getTransfers(): List<Transfer> = mutex.withLock { transfersByPriority.toList() }
+
+    private fun put(megaTransfer: MegaTransfer) {
+        if (megaTransfer.isStreamingTransfer
+            || megaTransfer.isFolderTransfer
+            || megaTransfer.isBackgroundTransfer()
+        ) return
+        if (megaTransfer.isFinished) {
+            remove(megaTransfer.tag)
+            return
+        }
+
+        val transfer = transferMapper(megaTransfer)
+        transfersByTag.put(transfer.tag, transfer)?.let { transfersByPriority.remove(it) }
+        transfersByPriority.add(transfer)
+    }
+
+    private fun remove(tag: Int) {
+        transfersByTag.remove(tag)?.let { transfersByPriority.remove(it) }
+    }
+}
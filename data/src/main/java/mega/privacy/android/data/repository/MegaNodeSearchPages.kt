@@ -0,0 +1,45 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import mega.privacy.android.domain.entity.node.UnTypedNode
+import mega.privacy.android.domain.entity.search.SearchResultPages
+import nz.mega.sdk.MegaNode
+
+/**
+ * Search results of the SDK, mapped to [UnTypedNode] the first time each page is requested
+ *
+ * @property nodes      nodes found
+ * @property pageSize   number of nodes of each page
+ * @property dispatcher dispatcher to map the nodes
+ * @property nodeMapper maps a list of nodes
+ */
+internal class MegaNodeSearchPages(
+    private val nodes: List<MegaNode>,
+    override val pageSize: Int,
+    private val dispatcher: CoroutineDispatcher,
+    private val nodeMapper: suspend (List<MegaNode>) -> List<UnTypedNode>,
+) : SearchResultPages<UnTypedNode> {
+
+    init {
+        require(pageSize > 0) { "Page size must be positive" }
+    }
+
+    override val size: Int
+        get() = nodes.size
+
+    private val mutex = Mutex()
+    private val pages = arrayOfNulls<List<UnTypedNode>>(pageCount)
+
+    override suspend fun getPage(page: Int): List<UnTypedNode> {
+        if (page !in pages.indices) return emptyList()
+        return mutex.withLock {
+            pages[page] ?: withContext(dispatcher) {
+                val from = page * pageSize
+                nodeMapper(nodes.subList(from, minOf(from + pageSize, size)))
+            }.also { pages[page] = it }
+        }
+    }
+}
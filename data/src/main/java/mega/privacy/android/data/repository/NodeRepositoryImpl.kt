@@ -4,10 +4,6 @@ import android.content.Context
 import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.filterIsInstance
-import kotlinx.coroutines.flow.flowOn
-import kotlinx.coroutines.flow.map
-import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.extensions.failWithError
@@ -23,7 +19,6 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.ChatFilesFolderUserAttributeMapper
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.MegaExceptionMapper
-import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.OfflineInformationMapper
 import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -31,7 +26,6 @@ import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.node.NodeShareKeyResultMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
-import mega.privacy.android.data.model.GlobalUpdate
 import mega.privacy.android.domain.entity.FileTypeInfo
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.SortOrder
@@ -39,6 +33,7 @@ import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.offline.OfflineNodeInformation
@@ -93,7 +88,8 @@ internal class NodeRepositoryImpl @Inject constructor(
     private val fileGateway: FileGateway,
     private val chatFilesFolderUserAttributeMapper: ChatFilesFolderUserAttributeMapper,
     private val streamingGateway: StreamingGateway,
-    private val nodeUpdateMapper: NodeUpdateMapper,
+    private val sharedNodeUpdates: SharedNodeUpdates,
+    private val nodeUpdateRouter: NodeUpdateRouter,
     private val accessPermissionMapper: AccessPermissionMapper,
     private val nodeShareKeyResultMapper: NodeShareKeyResultMapper,
 ) : NodeRepository {
@@ -267,19 +263,10 @@ internal class NodeRepositoryImpl @Inject constructor(
             } ?: throw SynchronisationException("Non null node found be null when fetched from api")
         }
 
-    override fun monitorNodeUpdates(): Flow<NodeUpdate> {
-        return megaApiGateway.globalUpdates
-            .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
-            .mapNotNull {
-                it.nodeList?.map { megaNode ->
-                    convertToUnTypedNode(megaNode) to nodeUpdateMapper(megaNode)
-                }
-            }
-            .map { nodes ->
-                NodeUpdate(nodes.toMap())
-            }
-            .flowOn(ioDispatcher)
-    }
+    override fun monitorNodeUpdates(): Flow<NodeUpdate> = sharedNodeUpdates.nodeUpdates
+
+    override fun monitorNodeUpdates(subscription: NodeUpdateSubscription): Flow<NodeUpdate> =
+        nodeUpdateRouter.monitor(subscription)
 
     override suspend fun isNodeInRubbishOrDeleted(nodeHandle: Long): Boolean =
         withContext(ioDispatcher) {
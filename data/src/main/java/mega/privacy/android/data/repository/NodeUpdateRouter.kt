@@ -0,0 +1,83 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.flow.shareIn
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Routes the shared node updates to the subscribers of some nodes
+ *
+ * Node and children subscriptions are matched with the changed nodes themselves. Subtree
+ * subscriptions need the ancestors of the changed nodes, which are resolved once per update
+ * for all the subscribers: the parent handle of each ancestor is only got from the SDK the
+ * first time any subscriber needs it, without mapping the ancestor nodes.
+ */
+@Singleton
+internal class NodeUpdateRouter @Inject constructor(
+    sharedNodeUpdates: SharedNodeUpdates,
+    private val megaApiGateway: MegaApiGateway,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+    @ApplicationScope appScope: CoroutineScope,
+) {
+    private val routedUpdates: SharedFlow<RoutedNodeUpdate> = sharedNodeUpdates.nodeUpdates
+        .map { RoutedNodeUpdate(it) }
+        .shareIn(appScope, SharingStarted.WhileSubscribed())
+
+    /**
+     * Monitor the node updates of a subscription
+     *
+     * @param subscription nodes whose changes are wanted
+     * @return a flow of the node updates with only the changes of the subscribed nodes
+     */
+    fun monitor(subscription: NodeUpdateSubscription): Flow<NodeUpdate> = routedUpdates
+        .mapNotNull { it.filter(subscription) }
+        .flowOn(ioDispatcher)
+
+    private inner class RoutedNodeUpdate(private val update: NodeUpdate) {
+        private val mutex = Mutex()
+        private val parentHandles = HashMap<Long, Long?>()
+
+        suspend fun filter(subscription: NodeUpdateSubscription): NodeUpdate? =
+            update.changes.filterKeys { node ->
+                when (subscription) {
+                    is NodeUpdateSubscription.Node -> node.id == subscription.nodeId
+                    is NodeUpdateSubscription.Children -> node.parentId == subscription.parentId
+                    is NodeUpdateSubscription.Subtree -> isDescendant(node, subscription.rootId.longValue)
+                }
+            }.takeIf { it.isNotEmpty() }?.let { NodeUpdate(it) }
+
+        private suspend fun isDescendant(node: Node, rootHandle: Long): Boolean {
+            var handle: Long? = node.parentId.longValue
+            while (handle != null) {
+                if (handle == rootHandle) return true
+                handle = getParentHandle(handle)
+            }
+            return false
+        }
+
+        private suspend fun getParentHandle(handle: Long): Long? = mutex.withLock {
+            if (parentHandles.containsKey(handle)) {
+                parentHandles[handle]
+            } else {
+                megaApiGateway.getMegaNodeByHandle(handle)?.parentHandle
+                    .also { parentHandles[handle] = it }
+            }
+        }
+    }
+}
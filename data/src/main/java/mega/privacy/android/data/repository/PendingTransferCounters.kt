@@ -0,0 +1,133 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import mega.privacy.android.data.extensions.isBackgroundTransfer
+import mega.privacy.android.data.extensions.isCUUpload
+import mega.privacy.android.data.extensions.isChatUpload
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.domain.entity.transfer.PendingTransferCounts
+import nz.mega.sdk.MegaTransfer
+
+/**
+ * Live counters of the pending transfers of each category
+ *
+ * The pending transfers are kept by tag, so the counts are updated with each transfer event
+ * instead of getting and filtering all the transfers. Applying an event is idempotent: a start
+ * adds or replaces the transfer, an update only changes a known transfer and a finish removes
+ * it. So the events received while a [reset] is in progress can be applied after it.
+ */
+internal class PendingTransferCounters {
+
+    private enum class Category {
+        Download, BackgroundDownload, GeneralUpload, CameraUpload, ChatUpload
+    }
+
+    private data class PendingTransfer(val category: Category, val isPaused: Boolean)
+
+    private val mutex = Mutex()
+    private val pendingTransfers = HashMap<Int, PendingTransfer>()
+    private val counters = IntArray(Category.values().size * 2)
+    private val _counts = MutableStateFlow(PendingTransferCounts())
+
+    /**
+     * Current counts
+     */
+    val counts: StateFlow<PendingTransferCounts> = _counts.asStateFlow()
+
+    /**
+     * Replace the pending transfers with the ones of the SDK
+     *
+     * @param downloads all the download transfers
+     * @param uploads   all the upload transfers
+     */
+    suspend fun reset(downloads: List<MegaTransfer>, uploads: List<MegaTransfer>) =
+        mutex.withLock {
+            pendingTransfers.clear()
+            counters.fill(0)
+            downloads.forEach { put(it, isDownload = true) }
+            uploads.forEach { put(it, isDownload = false) }
+            publish()
+        }
+
+    /**
+     * Apply a transfer event
+     *
+     * @param event transfer event
+     */
+    suspend fun onTransferEvent(event: GlobalTransfer) = mutex.withLock {
+        val transfer = event.transfer
+        val changed = when {
+            transfer.isStreamingTransfer -> false
+            event is GlobalTransfer.OnTransferFinish || transfer.isFinished ->
+                remove(transfer.tag)
+
+            event is GlobalTransfer.OnTransferStart -> put(transfer, transfer.isDownload())
+            event is GlobalTransfer.OnTransferUpdate && transfer.tag in pendingTransfers ->
+                put(transfer, transfer.isDownload())
+
+            else -> false
+        }
+        if (changed) publish()
+    }
+
+    private fun put(transfer: MegaTransfer, isDownload: Boolean): Boolean {
+        if (transfer.isFinished || transfer.isStreamingTransfer) return false
+
+        val pendingTransfer = PendingTransfer(
+            category = transfer.category(isDownload),
+            isPaused = transfer.state == MegaTransfer.STATE_PAUSED,
+        )
+        val previous = pendingTransfers.put(transfer.tag, pendingTransfer)
+        if (previous == pendingTransfer) return false
+
+        previous?.let { counters[it.index()]-- }
+        counters[pendingTransfer.index()]++
+        return true
+    }
+
+    private fun remove(tag: Int): Boolean {
+        val previous = pendingTransfers.remove(tag) ?: return false
+        counters[previous.index()]--
+        return true
+    }
+
+    private fun publish() {
+        _counts.value = PendingTransferCounts(
+            downloads = count(Category.Download),
+            backgroundDownloads = count(Category.BackgroundDownload),
+            generalUploads = count(Category.GeneralUpload),
+            cameraUploads = count(Category.CameraUpload),
+            chatUploads = count(Category.ChatUpload),
+            pausedDownloads = count(Category.Download, paused = true),
+            pausedGeneralUploads = count(Category.GeneralUpload, paused = true),
+            pausedCameraUploads = count(Category.CameraUpload, paused = true),
+            pausedChatUploads = count(Category.ChatUpload, paused = true),
+        )
+    }
+
+    private fun count(category: Category, paused: Boolean = false): Int =
+        if (paused) {
+            counters[index(category, isPaused = true)]
+        } else {
+            counters[index(category, isPaused = false)] + counters[index(category, isPaused = true)]
+        }
+
+    private fun PendingTransfer.index() = index(category, isPaused)
+
+    private fun index(category: Category, isPaused: Boolean) =
+        category.ordinal * 2 + if (isPaused) 1 else 0
+
+    private fun MegaTransfer.isDownload() = type == MegaTransfer.TYPE_DOWNLOAD
+
+    private fun MegaTransfer.category(isDownload: Boolean) = when {
+        isDownload && isBackgroundTransfer() -> Category.BackgroundDownload
+        isDownload -> Category.Download
+        isCUUpload() -> Category.CameraUpload
+        isChatUpload() -> Category.ChatUpload
+        else -> Category.GeneralUpload
+    }
+}
@@ -1,7 +1,11 @@
 package mega.privacy.android.data.repository
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.SearchResultsCache
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
@@ -11,11 +15,13 @@ import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchResultPages
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.SearchRepository
 import mega.privacy.android.domain.usecase.GetLinksSortOrder
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaCancelToken
 import nz.mega.sdk.MegaNode
 import javax.inject.Inject
 
@@ -32,6 +38,7 @@ internal class SearchRepositoryImpl @Inject constructor(
     private val cancelTokenProvider: CancelTokenProvider,
     private val getLinksSortOrder: GetLinksSortOrder,
     private val megaApiGateway: MegaApiGateway,
+    private val searchResultsCache: SearchResultsCache,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : SearchRepository {
     override fun getSearchCategories(): List<SearchCategory> = listOf(
@@ -50,35 +57,9 @@ internal class SearchRepositoryImpl @Inject constructor(
         query: String,
         order: SortOrder,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
-        nodeId?.let {
-            if ((query.isEmpty() || it.longValue != MegaApiJava.INVALID_HANDLE) &&
-                searchCategory == SearchCategory.ALL
-            ) {
-                getNodeChildren(it, order)
-            } else {
-                val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
-                megaApiGateway.getMegaNodeByHandle(it.longValue)?.let { megaNode ->
-                    val searchList = if (searchCategory == SearchCategory.ALL) {
-                        megaApiGateway.search(
-                            parent = megaNode,
-                            query = query,
-                            megaCancelToken = megaCancelToken,
-                            order = sortOrderIntMapper(order)
-                        )
-                    } else {
-                        megaApiGateway.searchByType(
-                            parentNode = megaNode,
-                            searchString = query,
-                            cancelToken = megaCancelToken,
-                            recursive = true,
-                            order = sortOrderIntMapper(order),
-                            type = searchCategoryIntMapper(searchCategory)
-                        )
-                    }
-                    searchList.map { item -> nodeMapper(item) }
-                }
-            }
-        }.orEmpty()
+        searchNodes(nodeId, searchCategory, query, order) {
+            cancelTokenProvider.getOrCreateCancelToken()
+        }.map { item -> nodeMapper(item) }
     }
 
     override suspend fun searchInShares(
@@ -86,41 +67,15 @@ internal class SearchRepositoryImpl @Inject constructor(
         order: SortOrder,
     ): List<UnTypedNode> {
         return withContext(ioDispatcher) {
-            val list = if (query.isEmpty()) {
-                megaApiGateway.getInShares(sortOrderIntMapper(order))
-            } else {
-                megaApiGateway.searchOnInShares(
-                    query,
-                    cancelTokenProvider.getOrCreateCancelToken(),
-                    sortOrderIntMapper(order)
-                )
-            }
-            list.map { nodeMapper(it) }
+            searchInSharesNodes(query, order, cancelTokenProvider::getOrCreateCancelToken)
+                .map { nodeMapper(it) }
         }
     }
 
     override suspend fun searchOutShares(query: String, order: SortOrder): List<UnTypedNode> =
         withContext(ioDispatcher) {
-            if (query.isEmpty()) {
-                val searchNodes = ArrayList<MegaNode>()
-                val outShares = megaApiGateway.getOutgoingSharesNode(null)
-                val addedHandles = mutableSetOf<Long>()
-                for (outShare in outShares) {
-                    if (!addedHandles.contains(outShare.nodeHandle)) {
-                        megaApiGateway.getMegaNodeByHandle(outShare.nodeHandle)?.let {
-                            addedHandles.add(it.handle)
-                            searchNodes.add(it)
-                        }
-                    }
-                }
-                searchNodes
-            } else {
-                megaApiGateway.searchOnOutShares(
-                    query = query,
-                    megaCancelToken = cancelTokenProvider.getOrCreateCancelToken(),
-                    order = sortOrderIntMapper(order)
-                )
-            }.map { nodeMapper(it) }
+            searchOutSharesNodes(query, order, cancelTokenProvider::getOrCreateCancelToken)
+                .map { nodeMapper(it) }
         }
 
     override suspend fun searchLinkShares(
@@ -128,37 +83,191 @@ internal class SearchRepositoryImpl @Inject constructor(
         order: SortOrder,
         isFirstLevelNavigation: Boolean,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
-        if (query.isEmpty()) {
-            megaApiGateway.getPublicLinks(
-                if (isFirstLevelNavigation) sortOrderIntMapper(
-                    getLinksSortOrder()
-                ) else sortOrderIntMapper(order)
+        searchLinkSharesNodes(
+            query,
+            order,
+            isFirstLevelNavigation,
+            cancelTokenProvider::getOrCreateCancelToken
+        ).map { nodeMapper(it) }
+    }
+
+    override suspend fun searchPages(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory,
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): SearchResultPages<UnTypedNode> = searchPages(pageSize) { cancelToken ->
+        searchNodes(nodeId, searchCategory, query, order) { cancelToken }
+    }
+
+    override suspend fun searchInSharesPages(
+        query: String,
+        order: SortOrder,
+        pageSize: Int,
+    ): SearchResultPages<UnTypedNode> = searchPages(pageSize) { cancelToken ->
+        searchInSharesNodes(query, order) { cancelToken }
+    }
+
+    override suspend fun searchLinkSharesPages(
+        query: String,
+        order: SortOrder,
+        isFirstLevelNavigation: Boolean,
+        pageSize: Int,
+    ): SearchResultPages<UnTypedNode> = searchPages(pageSize) { cancelToken ->
+        searchLinkSharesNodes(query, order, isFirstLevelNavigation) { cancelToken }
+    }
+
+    /**
+     * Run a search with a new cancel token, cancelling the previous search in progress,
+     * and return its nodes to be mapped page by page
+     *
+     * The SDK search blocks until it finishes, so when the calling coroutine is cancelled the
+     * token of this search is cancelled to stop it too.
+     */
+    private suspend fun searchPages(
+        pageSize: Int,
+        search: suspend (MegaCancelToken) -> List<MegaNode>,
+    ): SearchResultPages<UnTypedNode> {
+        val cancelToken = cancelTokenProvider.cancelAndCreateNewToken()
+        val nodes = coroutineScope {
+            val result = async(ioDispatcher) { search(cancelToken) }
+            try {
+                result.await()
+            } catch (e: CancellationException) {
+                // Only this search uses this token, a new search would have replaced it already
+                cancelToken.cancel()
+                throw e
+            }
+        }
+        return MegaNodeSearchPages(nodes, pageSize, ioDispatcher) { nodeMapper.mapNodes(it) }
+    }
+
+    private suspend fun searchNodes(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory,
+        query: String,
+        order: SortOrder,
+        getCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = nodeId?.let {
+        if ((query.isEmpty() || it.longValue != MegaApiJava.INVALID_HANDLE) &&
+            searchCategory == SearchCategory.ALL
+        ) {
+            getNodeChildren(it, order)
+        } else {
+            megaApiGateway.getMegaNodeByHandle(it.longValue)?.let { megaNode ->
+                val key = SearchResultsCache.Key(
+                    parentHandle = megaNode.handle,
+                    category = searchCategory,
+                    query = query,
+                    order = sortOrderIntMapper(order)
+                )
+                searchResultsCache.get(key) ?: searchInNode(megaNode, key, getCancelToken())
+            }
+        }
+    }.orEmpty()
+
+    private suspend fun searchInNode(
+        megaNode: MegaNode,
+        key: SearchResultsCache.Key,
+        megaCancelToken: MegaCancelToken,
+    ): List<MegaNode> {
+        val generation = searchResultsCache.generation
+        val nodes = if (key.category == SearchCategory.ALL) {
+            megaApiGateway.search(
+                parent = megaNode,
+                query = key.query,
+                megaCancelToken = megaCancelToken,
+                order = key.order
             )
         } else {
-            megaApiGateway.searchOnLinkShares(
-                query,
-                cancelTokenProvider.getOrCreateCancelToken(),
-                sortOrderIntMapper(order)
+            megaApiGateway.searchByType(
+                parentNode = megaNode,
+                searchString = key.query,
+                cancelToken = megaCancelToken,
+                recursive = true,
+                order = key.order,
+                type = searchCategoryIntMapper(key.category)
             )
-        }.map { nodeMapper(it) }
+        }
+        // A cancelled search returns partial results
+        if (!megaCancelToken.isCancelled) {
+            searchResultsCache.put(key, nodes, generation)
+        }
+        return nodes
+    }
+
+    private suspend fun searchInSharesNodes(
+        query: String,
+        order: SortOrder,
+        getCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = if (query.isEmpty()) {
+        megaApiGateway.getInShares(sortOrderIntMapper(order))
+    } else {
+        megaApiGateway.searchOnInShares(
+            query,
+            getCancelToken(),
+            sortOrderIntMapper(order)
+        )
+    }
+
+    private suspend fun searchOutSharesNodes(
+        query: String,
+        order: SortOrder,
+        getCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = if (query.isEmpty()) {
+        val searchNodes = ArrayList<MegaNode>()
+        val outShares = megaApiGateway.getOutgoingSharesNode(null)
+        val addedHandles = mutableSetOf<Long>()
+        for (outShare in outShares) {
+            if (!addedHandles.contains(outShare.nodeHandle)) {
+                megaApiGateway.getMegaNodeByHandle(outShare.nodeHandle)?.let {
+                    addedHandles.add(it.handle)
+                    searchNodes.add(it)
+                }
+            }
+        }
+        searchNodes
+    } else {
+        megaApiGateway.searchOnOutShares(
+            query = query,
+            megaCancelToken = getCancelToken(),
+            order = sortOrderIntMapper(order)
+        )
+    }
+
+    private suspend fun searchLinkSharesNodes(
+        query: String,
+        order: SortOrder,
+        isFirstLevelNavigation: Boolean,
+        getCancelToken: suspend () -> MegaCancelToken,
+    ): List<MegaNode> = if (query.isEmpty()) {
+        megaApiGateway.getPublicLinks(
+            if (isFirstLevelNavigation) sortOrderIntMapper(
+                getLinksSortOrder()
+            ) else sortOrderIntMapper(order)
+        )
+    } else {
+        megaApiGateway.searchOnLinkShares(
+            query,
+            getCancelToken(),
+            sortOrderIntMapper(order)
+        )
     }
 
     private suspend fun getNodeChildren(
         nodeId: NodeId,
         order: SortOrder?,
-    ): List<UnTypedNode> = withContext(ioDispatcher) {
-        megaApiGateway.getMegaNodeByHandle(nodeId.longValue)?.let { parent ->
-            val childList = order?.let { sortOrder ->
-                megaApiGateway.getChildrenByNode(
-                    parent,
-                    sortOrderIntMapper(sortOrder)
-                )
-            } ?: run {
-                megaApiGateway.getChildrenByNode(parent)
-            }
-            childList.map { nodeMapper(it) }
+    ): List<MegaNode> = megaApiGateway.getMegaNodeByHandle(nodeId.longValue)?.let { parent ->
+        order?.let { sortOrder ->
+            megaApiGateway.getChildrenByNode(
+                parent,
+                sortOrderIntMapper(sortOrder)
+            )
         } ?: run {
-            emptyList()
+            megaApiGateway.getChildrenByNode(parent)
         }
+    } ?: run {
+        emptyList()
     }
-}
\ No newline at end of file
+}
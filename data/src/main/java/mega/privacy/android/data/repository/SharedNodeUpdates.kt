@@ -0,0 +1,80 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.SharedFlow
+import kotlinx.coroutines.flow.SharingStarted
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.filterIsInstance
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.mapNotNull
+import kotlinx.coroutines.flow.retryWhen
+import kotlinx.coroutines.flow.shareIn
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.NodeUpdateMapper
+import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Node updates of the SDK, mapped once and shared by all the collectors
+ *
+ * Each [GlobalUpdate.OnNodesUpdate] is mapped to a [NodeUpdate] a single time, no matter how
+ * many collectors there are, instead of mapping every updated node again for each collector.
+ * - The updates are only mapped while there is at least one collector.
+ * - New collectors do not receive past updates, as they get the current nodes anyway.
+ * - The buffer is bounded and shared, so a collector that suspends for long makes the mapping
+ *   and every other collector wait. Such a collector has to queue the updates on its own side,
+ *   with its own buffer, instead of handling them inline.
+ * - An update that cannot be mapped is logged and skipped, so it does not stop the updates
+ *   of all the collectors.
+ * - An error of the SDK updates is logged and the updates are collected again, instead of
+ *   ending them for all the collectors.
+ */
+@Singleton
+internal class SharedNodeUpdates @Inject constructor(
+    megaApiGateway: MegaApiGateway,
+    nodeMapper: NodeMapper,
+    nodeUpdateMapper: NodeUpdateMapper,
+    @IoDispatcher ioDispatcher: CoroutineDispatcher,
+    @ApplicationScope appScope: CoroutineScope,
+) {
+    /**
+     * Mapped node updates
+     */
+    val nodeUpdates: SharedFlow<NodeUpdate> = megaApiGateway.globalUpdates
+        .filterIsInstance<GlobalUpdate.OnNodesUpdate>()
+        .mapNotNull { it.nodeList }
+        .mapNotNull { megaNodes ->
+            runCatching {
+                NodeUpdate(
+                    nodeMapper.mapNodes(megaNodes)
+                        .zip(megaNodes.map { nodeUpdateMapper(it) })
+                        .toMap()
+                )
+            }.onFailure {
+                if (it is CancellationException) throw it
+                Timber.e(it, "Error mapping the node updates")
+            }.getOrNull()
+        }
+        .flowOn(ioDispatcher)
+        .retryWhen { cause, _ ->
+            Timber.e(cause, "Error monitoring the node updates")
+            delay(RETRY_DELAY_MILLIS)
+            true
+        }
+        .buffer(BUFFER_CAPACITY)
+        .shareIn(appScope, SharingStarted.WhileSubscribed())
+
+    companion object {
+        private const val BUFFER_CAPACITY = 16
+        private const val RETRY_DELAY_MILLIS = 1_000L
+    }
+}
@@ -3,6 +3,7 @@ package mega.privacy.android.data.repository.thumbnailpreview
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.cache.ThumbnailPreviewCache
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.constant.FileConstant
 import mega.privacy.android.data.extensions.getPreviewFileName
@@ -26,23 +27,20 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
     private val cacheGateway: CacheGateway,
     private val stringWrapper: StringWrapper,
+    private val thumbnailPreviewCache: ThumbnailPreviewCache,
 ) : ThumbnailPreviewRepository {
 
     override suspend fun getThumbnailFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
-            megaApi.getMegaNodeByHandle(handle)?.run {
-                getThumbnailFile(this).takeIf {
-                    it?.exists() ?: false
-                }
+            megaApi.getMegaNodeByHandle(handle)?.let {
+                thumbnailPreviewCache.get(getThumbnailFile(it))
             }
         }
 
     override suspend fun getPublicNodeThumbnailFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
-            megaApiFolder.getMegaNodeByHandle(handle)?.run {
-                getThumbnailFile(this).takeIf {
-                    it?.exists() ?: false
-                }
+            megaApiFolder.getMegaNodeByHandle(handle)?.let {
+                thumbnailPreviewCache.get(getThumbnailFile(it))
             }
         }
 
@@ -57,29 +55,48 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 if (!node.hasThumbnail()) return@withContext null
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getThumbnailFromServer") {
-                            thumbnail
+                    thumbnailPreviewCache.download(thumbnail) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getThumbnailFromServer") {
+                                    thumbnail
+                                }
+                            megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApi.removeRequestListener(listener)
+                            }
                         }
-                        megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
                     }
                 }
             }
         }
 
+    override suspend fun getThumbnailsToDownload(handles: List<Long>): List<Long> =
+        withContext(ioDispatcher) {
+            val thumbnailFolder =
+                cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER)
+                    ?: return@withContext emptyList()
+            handles.filter { handle ->
+                megaApi.getMegaNodeByHandle(handle)?.takeIf { it.hasThumbnail() }?.let {
+                    !File(thumbnailFolder, it.getThumbnailFileName()).exists()
+                } ?: false
+            }
+        }
+
     override suspend fun getPublicNodeThumbnailFromServer(handle: Long): File? =
         withContext(ioDispatcher) {
             megaApiFolder.getMegaNodeByHandle(handle)?.let { node ->
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener =
-                            continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
-                                thumbnail
+                    thumbnailPreviewCache.download(thumbnail) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
+                                    thumbnail
+                                }
+                            megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApiFolder.removeRequestListener(listener)
                             }
-                        megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
-                        continuation.invokeOnCancellation {
-                            megaApiFolder.removeRequestListener(listener)
                         }
                     }
                 }
@@ -95,10 +112,8 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
 
     override suspend fun getPreviewFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
-            megaApi.getMegaNodeByHandle(handle)?.run {
-                getPreviewFile(this).takeIf {
-                    it?.exists() ?: false
-                }
+            megaApi.getMegaNodeByHandle(handle)?.let {
+                thumbnailPreviewCache.get(getPreviewFile(it))
             }
         }
 
@@ -106,12 +121,16 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         withContext(ioDispatcher) {
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 getPreviewFile(node)?.let { preview ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getPreviewFromServer") {
-                            preview
+                    thumbnailPreviewCache.download(preview) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener = continuation.getRequestListener("getPreviewFromServer") {
+                                preview
+                            }
+                            megaApi.getPreview(node, preview.absolutePath, listener)
+                            continuation.invokeOnCancellation {
+                                megaApi.removeRequestListener(listener)
+                            }
                         }
-                        megaApi.getPreview(node, preview.absolutePath, listener)
-                        continuation.invokeOnCancellation { megaApi.removeRequestListener(listener) }
                     }
                 }
             }
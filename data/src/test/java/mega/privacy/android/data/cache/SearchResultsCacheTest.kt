@@ -0,0 +1,119 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.search.SearchCategory
+import nz.mega.sdk.MegaNode
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class SearchResultsCacheTest {
+    private lateinit var underTest: SearchResultsCache
+
+    private val globalUpdates = MutableSharedFlow<GlobalUpdate>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val appScope = CoroutineScope(UnconfinedTestDispatcher())
+
+    private val invoice = createNode("Invoice 2023.pdf")
+    private val invitation = createNode("invitation.png")
+    private val inventory = createNode("Inventory.xlsx")
+
+    @Before
+    fun setUp() {
+        whenever(megaApiGateway.globalUpdates).thenReturn(globalUpdates)
+        underTest = SearchResultsCache(megaApiGateway, appScope)
+    }
+
+    @After
+    fun tearDown() {
+        appScope.cancel()
+    }
+
+    @Test
+    fun `test that the results of the same search are returned`() {
+        val key = createKey("inv")
+        underTest.put(key, listOf(invoice, invitation), underTest.generation)
+
+        assertThat(underTest.get(key)).containsExactly(invoice, invitation).inOrder()
+    }
+
+    @Test
+    fun `test that a refined query filters the cached results keeping their order`() {
+        underTest.put(createKey("inv"), listOf(inventory, invoice, invitation), underTest.generation)
+
+        assertThat(underTest.get(createKey("INVO"))).containsExactly(invoice)
+        assertThat(underTest.get(createKey("vi"))).isNull()
+        assertThat(underTest.get(createKey("in").copy(order = 2))).isNull()
+    }
+
+    @Test
+    fun `test that a refinement is filtered from the longest cached query`() {
+        underTest.put(createKey("in"), listOf(inventory, invoice, invitation), underTest.generation)
+        underTest.put(createKey("inv"), listOf(invoice), underTest.generation)
+
+        assertThat(underTest.get(createKey("invent"))).isEmpty()
+    }
+
+    @Test
+    fun `test that queries with wildcards are not refined`() {
+        underTest.put(createKey("inv"), listOf(inventory, invoice), underTest.generation)
+
+        assertThat(underTest.get(createKey("inv*e"))).isNull()
+    }
+
+    @Test
+    fun `test that results of a search started before the cache was cleared are not cached`() {
+        val generation = underTest.generation
+        underTest.clear()
+
+        underTest.put(createKey("inv"), listOf(invoice), generation)
+
+        assertThat(underTest.get(createKey("inv"))).isNull()
+    }
+
+    @Test
+    fun `test that the cache is cleared when nodes are updated`() = runTest {
+        val key = createKey("inv")
+        underTest.put(key, listOf(invoice), underTest.generation)
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(arrayListOf(invoice)))
+
+        assertThat(underTest.get(key)).isNull()
+    }
+
+    @Test
+    fun `test that the least recently used searches are evicted`() {
+        val first = createKey("first")
+        underTest.put(first, listOf(invoice), underTest.generation)
+        (0..32).forEach {
+            underTest.get(first)
+            underTest.put(createKey("query $it"), listOf(invoice), underTest.generation)
+        }
+
+        assertThat(underTest.get(first)).isNotNull()
+        assertThat(underTest.get(createKey("query 0"))).isNull()
+        assertThat(underTest.get(createKey("query 32"))).isNotNull()
+    }
+
+    private fun createKey(query: String) = SearchResultsCache.Key(
+        parentHandle = 1L,
+        category = SearchCategory.ALL,
+        query = query,
+        order = 1,
+    )
+
+    private fun createNode(name: String) = mock<MegaNode> {
+        on { this.name }.thenReturn(name)
+    }
+}
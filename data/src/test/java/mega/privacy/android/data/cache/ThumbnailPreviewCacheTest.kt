@@ -0,0 +1,133 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.constant.CacheFolderConstant
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+import java.io.RandomAccessFile
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class ThumbnailPreviewCacheTest {
+    private lateinit var underTest: ThumbnailPreviewCache
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private lateinit var thumbnailFolder: File
+
+    @Before
+    fun setUp() {
+        thumbnailFolder = temporaryFolder.newFolder(CacheFolderConstant.THUMBNAIL_FOLDER)
+        underTest = ThumbnailPreviewCache(ioDispatcher = UnconfinedTestDispatcher())
+    }
+
+    @Test
+    fun `test that get returns the file and counts a hit if it exists`() = runTest {
+        val file = File(thumbnailFolder, "a.jpg").apply { writeText("a") }
+
+        assertThat(underTest.get(file)).isEqualTo(file)
+        assertThat(underTest.metrics.hits).isEqualTo(1)
+        assertThat(underTest.metrics.misses).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that get returns null and counts a miss if the file does not exist`() = runTest {
+        assertThat(underTest.get(File(thumbnailFolder, "a.jpg"))).isNull()
+        assertThat(underTest.get(null)).isNull()
+        assertThat(underTest.metrics.misses).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that concurrent downloads of the same file share a single request`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val file = File(thumbnailFolder, "a.jpg")
+            val result = CompletableDeferred<File>()
+            var requests = 0
+            val download: suspend () -> File = {
+                requests++
+                result.await()
+            }
+
+            val first = async { underTest.download(file, download) }
+            val second = async { underTest.download(file, download) }
+            result.complete(file.apply { writeText("a") })
+
+            assertThat(first.await()).isEqualTo(file)
+            assertThat(second.await()).isEqualTo(file)
+            assertThat(requests).isEqualTo(1)
+            assertThat(underTest.metrics.downloads).isEqualTo(1)
+            assertThat(underTest.metrics.coalescedRequests).isEqualTo(1)
+        }
+
+    @Test
+    fun `test that a finished download is not shared with later requests`() = runTest {
+        val file = File(thumbnailFolder, "a.jpg")
+        var requests = 0
+
+        repeat(2) { underTest.download(file) { requests++; file.apply { writeText("a") } } }
+
+        assertThat(requests).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that the shared download is cancelled only after all the callers are cancelled`() =
+        runTest(UnconfinedTestDispatcher()) {
+            val file = File(thumbnailFolder, "a.jpg")
+            val result = CompletableDeferred<File>()
+            val download: suspend () -> File = { result.await() }
+
+            val first = async { underTest.download(file, download) }
+            val second = async { underTest.download(file, download) }
+            first.cancel()
+            result.complete(file)
+
+            assertThat(second.await()).isEqualTo(file)
+        }
+
+    @Test
+    fun `test that the least recently used files are evicted when the quota is exceeded`() =
+        runTest {
+            val oldest = createSparseFile("oldest.jpg", 60L * MB, lastModified = 1_000)
+            val recent = createSparseFile("recent.jpg", 30L * MB, lastModified = 2_000)
+            val newFile = File(thumbnailFolder, "new.jpg")
+
+            underTest.download(newFile) { createSparseFile("new.jpg", 20L * MB, 3_000) }
+
+            assertThat(oldest.exists()).isFalse()
+            assertThat(recent.exists()).isTrue()
+            assertThat(newFile.exists()).isTrue()
+            assertThat(underTest.metrics.evictions).isEqualTo(1)
+        }
+
+    @Test
+    fun `test that accessing a file protects it from eviction`() = runTest {
+        val accessed = createSparseFile("accessed.jpg", 60L * MB, lastModified = 1_000)
+        val other = createSparseFile("other.jpg", 30L * MB, lastModified = 2_000)
+
+        underTest.get(accessed)
+        underTest.download(File(thumbnailFolder, "new.jpg")) {
+            createSparseFile("new.jpg", 20L * MB, System.currentTimeMillis())
+        }
+
+        assertThat(accessed.exists()).isTrue()
+        assertThat(other.exists()).isFalse()
+    }
+
+    private fun createSparseFile(name: String, length: Long, lastModified: Long) =
+        File(thumbnailFolder, name).apply {
+            RandomAccessFile(this, "rw").use { it.setLength(length) }
+            setLastModified(lastModified)
+        }
+
+    private companion object {
+        const val MB = 1024 * 1024
+    }
+}
@@ -0,0 +1,100 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.Before
+import org.junit.Test
+import java.time.LocalDateTime
+
+internal class TimelinePhotosIndexTest {
+    private lateinit var underTest: TimelinePhotosIndex
+
+    private val now = LocalDateTime.now()
+
+    @Before
+    fun setUp() {
+        underTest = TimelinePhotosIndex()
+    }
+
+    @Test
+    fun `test that replaceAll returns the photos sorted by modification time descending`() =
+        runTest {
+            val oldest = createImage(id = 1L, modificationTime = now.minusDays(2))
+            val newest = createImage(id = 2L, modificationTime = now)
+            val middle = createImage(id = 3L, modificationTime = now.minusDays(1))
+
+            val actual = underTest.replaceAll(listOf(oldest, newest, middle))
+
+            assertThat(actual).containsExactly(newest, middle, oldest).inOrder()
+        }
+
+    @Test
+    fun `test that apply returns null if nothing changed`() = runTest {
+        val photo = createImage(id = 1L, modificationTime = now)
+        underTest.replaceAll(listOf(photo))
+
+        assertThat(underTest.apply(upserts = listOf(photo), removals = listOf(NodeId(5L))))
+            .isNull()
+    }
+
+    @Test
+    fun `test that apply replaces an updated photo keeping the order`() = runTest {
+        val first = createImage(id = 1L, modificationTime = now)
+        val second = createImage(id = 2L, modificationTime = now.minusDays(1))
+        underTest.replaceAll(listOf(first, second))
+
+        val favourite = second.copy(isFavourite = true)
+        val actual = underTest.apply(upserts = listOf(favourite), removals = emptyList())
+
+        assertThat(actual).containsExactly(first, favourite).inOrder()
+        assertThat(underTest.get(NodeId(2L))).isEqualTo(favourite)
+    }
+
+    @Test
+    fun `test that apply moves a photo when its modification time changes`() = runTest {
+        val first = createImage(id = 1L, modificationTime = now)
+        val second = createImage(id = 2L, modificationTime = now.minusDays(1))
+        underTest.replaceAll(listOf(first, second))
+
+        val modified = second.copy(modificationTime = now.plusDays(1))
+        val actual = underTest.apply(upserts = listOf(modified), removals = emptyList())
+
+        assertThat(actual).containsExactly(modified, first).inOrder()
+    }
+
+    @Test
+    fun `test that apply removes photos`() = runTest {
+        val first = createImage(id = 1L, modificationTime = now)
+        val second = createImage(id = 2L, modificationTime = now.minusDays(1))
+        underTest.replaceAll(listOf(first, second))
+
+        val actual = underTest.apply(upserts = emptyList(), removals = listOf(NodeId(1L)))
+
+        assertThat(actual).containsExactly(second)
+        assertThat(underTest.get(NodeId(1L))).isNull()
+    }
+
+    @Test
+    fun `test that clear removes all the photos`() = runTest {
+        underTest.replaceAll(listOf(createImage(id = 1L, modificationTime = now)))
+
+        underTest.clear()
+
+        assertThat(underTest.getAll()).isEmpty()
+    }
+
+    private fun createImage(id: Long, modificationTime: LocalDateTime) = Photo.Image(
+        id = id,
+        parentId = 0L,
+        name = "image$id.jpg",
+        isFavourite = false,
+        creationTime = modificationTime,
+        modificationTime = modificationTime,
+        thumbnailFilePath = null,
+        previewFilePath = null,
+        fileTypeInfo = StaticImageFileTypeInfo(mimeType = "image/jpeg", extension = "jpg"),
+    )
+}
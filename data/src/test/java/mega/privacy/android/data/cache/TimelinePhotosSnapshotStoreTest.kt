@@ -0,0 +1,116 @@
+package mega.privacy.android.data.cache
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.domain.entity.GifFileTypeInfo
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.File
+import java.time.LocalDateTime
+
+@OptIn(ExperimentalCoroutinesApi::class)
+internal class TimelinePhotosSnapshotStoreTest {
+    private lateinit var underTest: TimelinePhotosSnapshotStore
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val cacheGateway = mock<CacheGateway>()
+
+    private lateinit var snapshotFile: File
+
+    private val time = LocalDateTime.of(2023, 5, 4, 10, 30, 15)
+
+    @Before
+    fun setUp() {
+        snapshotFile = File(temporaryFolder.root, "timeline.snapshot")
+        underTest = TimelinePhotosSnapshotStore(
+            cacheGateway = cacheGateway,
+            ioDispatcher = UnconfinedTestDispatcher(),
+        )
+    }
+
+    @Test
+    fun `test that read returns null if there is no snapshot`() = runTest {
+        whenever(cacheGateway.getCacheFile(any(), any())).thenReturn(snapshotFile)
+
+        assertThat(underTest.read()).isNull()
+    }
+
+    @Test
+    fun `test that written photos are read back`() = runTest {
+        whenever(cacheGateway.getCacheFile(any(), any())).thenReturn(snapshotFile)
+        val photos = listOf(
+            Photo.Image(
+                id = 1L,
+                parentId = 10L,
+                name = "image.jpg",
+                isFavourite = true,
+                creationTime = time,
+                modificationTime = time.plusDays(1),
+                thumbnailFilePath = "/thumbnails/1.jpg",
+                previewFilePath = null,
+                fileTypeInfo = StaticImageFileTypeInfo("image/jpeg", "jpg"),
+                size = 100L,
+            ),
+            Photo.Image(
+                id = 2L,
+                parentId = 10L,
+                name = "image.gif",
+                isFavourite = false,
+                creationTime = time,
+                modificationTime = time,
+                thumbnailFilePath = null,
+                previewFilePath = "/previews/2.jpg",
+                fileTypeInfo = GifFileTypeInfo("image/gif", "gif"),
+                size = 200L,
+            ),
+            Photo.Video(
+                id = 3L,
+                parentId = 11L,
+                name = "video.mp4",
+                isFavourite = false,
+                creationTime = time,
+                modificationTime = time,
+                thumbnailFilePath = "/thumbnails/3.jpg",
+                previewFilePath = "/previews/3.jpg",
+                fileTypeInfo = VideoFileTypeInfo("video/mp4", "mp4", 120),
+                size = 300L,
+            ),
+        )
+
+        underTest.write(photos)
+
+        assertThat(underTest.read()).isEqualTo(photos)
+    }
+
+    @Test
+    fun `test that an invalid snapshot is discarded`() = runTest {
+        whenever(cacheGateway.getCacheFile(any(), any())).thenReturn(snapshotFile)
+        snapshotFile.writeText("invalid")
+
+        assertThat(underTest.read()).isNull()
+        assertThat(snapshotFile.exists()).isFalse()
+    }
+
+    @Test
+    fun `test that delete removes the snapshot`() = runTest {
+        whenever(cacheGateway.getCacheFile(any(), any())).thenReturn(snapshotFile)
+        underTest.write(emptyList())
+
+        underTest.delete()
+
+        assertThat(snapshotFile.exists()).isFalse()
+    }
+}
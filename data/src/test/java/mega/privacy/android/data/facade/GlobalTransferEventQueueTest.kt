@@ -0,0 +1,112 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.model.GlobalTransferEventMetrics
+import nz.mega.sdk.MegaTransfer
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GlobalTransferEventQueueTest {
+
+    private lateinit var counters: GlobalTransferEventQueue.Counters
+    private lateinit var underTest: GlobalTransferEventQueue
+
+    @BeforeEach
+    fun setUp() {
+        counters = GlobalTransferEventQueue.Counters()
+        underTest = GlobalTransferEventQueue(counters)
+    }
+
+    @Test
+    fun `test that the updates of a transfer are conflated at the end of the queue`() {
+        val first = GlobalTransfer.OnTransferUpdate(stubTransfer(1))
+        val start = GlobalTransfer.OnTransferStart(stubTransfer(2))
+        val last = GlobalTransfer.OnTransferUpdate(stubTransfer(1))
+
+        assertThat(underTest.offer(first)).isTrue()
+        assertThat(underTest.offer(start)).isTrue()
+        assertThat(underTest.offer(last)).isFalse()
+
+        assertThat(pollAll()).containsExactly(start, last).inOrder()
+    }
+
+    @Test
+    fun `test that a conflated update is not taken before an earlier temporary error`() {
+        val transfer = stubTransfer(1)
+        val update = GlobalTransfer.OnTransferUpdate(transfer)
+        val temporaryError = GlobalTransfer.OnTransferTemporaryError(transfer, mock())
+        val lastUpdate = GlobalTransfer.OnTransferUpdate(transfer)
+
+        underTest.offer(update)
+        underTest.offer(temporaryError)
+        underTest.offer(lastUpdate)
+
+        assertThat(pollAll()).containsExactly(temporaryError, lastUpdate).inOrder()
+    }
+
+    @Test
+    fun `test that lifecycle events are never conflated`() {
+        val transfer = stubTransfer(1)
+        val events = listOf(
+            GlobalTransfer.OnTransferStart(transfer),
+            GlobalTransfer.OnTransferTemporaryError(transfer, mock()),
+            GlobalTransfer.OnTransferTemporaryError(transfer, mock()),
+            GlobalTransfer.OnTransferFinish(transfer, mock()),
+        )
+
+        events.forEach { underTest.offer(it) }
+
+        assertThat(pollAll()).containsExactlyElementsIn(events).inOrder()
+    }
+
+    @Test
+    fun `test that updates and data events of the same transfer are not conflated together`() {
+        val update = GlobalTransfer.OnTransferUpdate(stubTransfer(1))
+        val data = GlobalTransfer.OnTransferData(stubTransfer(1), null)
+
+        underTest.offer(update)
+        underTest.offer(data)
+
+        assertThat(pollAll()).containsExactly(update, data).inOrder()
+    }
+
+    @Test
+    fun `test that an update after the previous one is taken is queued again`() {
+        val first = GlobalTransfer.OnTransferUpdate(stubTransfer(1))
+        val second = GlobalTransfer.OnTransferUpdate(stubTransfer(1))
+
+        underTest.offer(first)
+        assertThat(underTest.poll()).isEqualTo(first)
+
+        assertThat(underTest.offer(second)).isTrue()
+        assertThat(underTest.poll()).isEqualTo(second)
+    }
+
+    @Test
+    fun `test that the metrics count the queued, conflated and dropped events`() {
+        repeat(3) { underTest.offer(GlobalTransfer.OnTransferUpdate(stubTransfer(it))) }
+        repeat(2) { underTest.offer(GlobalTransfer.OnTransferUpdate(stubTransfer(0))) }
+        underTest.poll()
+        underTest.close()
+        underTest.offer(GlobalTransfer.OnTransferStart(stubTransfer(4)))
+
+        assertThat(counters.getMetrics()).isEqualTo(
+            GlobalTransferEventMetrics(
+                queuedEvents = 0,
+                maxQueuedEvents = 3,
+                conflatedEvents = 2,
+                droppedEvents = 3,
+            )
+        )
+    }
+
+    private fun pollAll() = generateSequence(underTest::poll).toList()
+
+    private fun stubTransfer(tag: Int) = mock<MegaTransfer> {
+        on { this.tag }.thenReturn(tag)
+    }
+}
@@ -7,12 +7,14 @@ import kotlinx.coroutines.flow.single
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
+import mega.privacy.android.data.database.DatabaseHandler.Companion.MAX_TRANSFERS
 import mega.privacy.android.data.database.dao.ActiveTransferDao
 import mega.privacy.android.data.database.dao.BackupDao
 import mega.privacy.android.data.database.dao.CompletedTransferDao
 import mega.privacy.android.data.database.dao.ContactDao
 import mega.privacy.android.data.database.dao.SdTransferDao
 import mega.privacy.android.data.database.dao.SyncRecordDao
+import mega.privacy.android.data.database.entity.ActiveTransferEntity
 import mega.privacy.android.data.database.entity.BackupEntity
 import mega.privacy.android.data.database.entity.CompletedTransferEntity
 import mega.privacy.android.data.database.entity.SdTransferEntity
@@ -37,6 +39,7 @@ import mega.privacy.android.domain.entity.SyncRecordType
 import mega.privacy.android.domain.entity.SyncStatus
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupInfoType
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -47,6 +50,7 @@ import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -167,8 +171,8 @@ internal class MegaLocalRoomFacadeTest {
                 mock(), mock(), mock(), mock()
             )
 
-            whenever(completedTransferDao.getAllCompletedTransfers()).thenReturn(
-                flowOf(completedTransferEntities)
+            whenever(completedTransferDao.getLastCompletedTransfers(expectedSize)).thenReturn(
+                flowOf(completedTransferEntities.take(expectedSize))
             )
             completedTransferEntities.forEach { entity ->
                 val completedTransfer = mock<CompletedTransfer> {
@@ -179,8 +183,58 @@ internal class MegaLocalRoomFacadeTest {
 
             assertThat(underTest.getAllCompletedTransfers(expectedSize).single().size)
                 .isEqualTo(expectedSize)
+            verify(completedTransferDao, never()).getAllCompletedTransfers()
+        }
+
+    @Test
+    fun `test that addCompletedTransfer inserts the transfer and deletes the oldest ones`() =
+        runTest {
+            val completedTransfer = mock<CompletedTransfer>()
+            val entity = mock<CompletedTransferEntity>()
+            whenever(completedTransferEntityMapper(completedTransfer)).thenReturn(entity)
+
+            underTest.addCompletedTransfer(completedTransfer)
+
+            verify(completedTransferDao).insertOrUpdateCompletedTransferAndDeleteOldest(
+                entity,
+                MAX_TRANSFERS
+            )
+        }
+
+    @Test
+    fun `test that addCompletedTransfersIfNotExist inserts all the transfers without id at once`() =
+        runTest {
+            val completedTransfers = (1..3).map { createCompletedTransfer(id = it) }
+            val entities = completedTransfers.map { completedTransfer ->
+                mock<CompletedTransferEntity>().also {
+                    whenever(completedTransferEntityMapper(completedTransfer.copy(id = null)))
+                        .thenReturn(it)
+                }
+            }
+
+            underTest.addCompletedTransfersIfNotExist(completedTransfers)
+
+            verify(completedTransferDao).insertCompletedTransfersIfNotExistAndDeleteOldest(
+                entities,
+                MAX_TRANSFERS
+            )
         }
 
+    private fun createCompletedTransfer(id: Int) = CompletedTransfer(
+        id = id,
+        fileName = "filename$id",
+        type = 1,
+        state = 1,
+        size = "1Kb",
+        handle = id.toLong(),
+        path = "filePath",
+        isOffline = false,
+        timestamp = 123L,
+        error = null,
+        originalPath = "originalFilePath",
+        parentHandle = 2L
+    )
+
     @Test
     fun `test that getAllCompletedTransfers returns all completed transfers if the size parameter is null`() =
         runTest {
@@ -213,6 +267,19 @@ internal class MegaLocalRoomFacadeTest {
             verify(syncRecordDao).insertOrUpdateSyncRecord(entity)
         }
 
+    @Test
+    fun `test that insertOrUpdateActiveTransfers inserts all the mapped entities at once`() =
+        runTest {
+            val activeTransfers = listOf(mock<ActiveTransfer>(), mock<ActiveTransfer>())
+            val entities = activeTransfers.map { activeTransfer ->
+                mock<ActiveTransferEntity>().also {
+                    whenever(activeTransferEntityMapper(activeTransfer)).thenReturn(it)
+                }
+            }
+            underTest.insertOrUpdateActiveTransfers(activeTransfers)
+            verify(activeTransferDao).insertOrUpdateActiveTransfers(entities)
+        }
+
     @Test
     fun `test that setUploadVideoSyncStatus updates the corresponding item`() =
         runTest {
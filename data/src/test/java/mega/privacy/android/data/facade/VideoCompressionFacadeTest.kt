@@ -3,9 +3,11 @@ package mega.privacy.android.data.facade
 import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.VideoCompressorGateway
+import mega.privacy.android.data.gateway.VideoTranscodingGateway
 import mega.privacy.android.domain.entity.VideoAttachment
 import mega.privacy.android.domain.entity.VideoCompressionState
 import org.junit.Before
@@ -21,6 +23,9 @@ class VideoCompressionFacadeTest {
 
     private lateinit var underTest: VideoCompressorGateway
     private val fileGateway = mock<FileGateway>()
+    private val videoTranscodingGateway = mock<VideoTranscodingGateway> {
+        on { getMaxConcurrentTranscodings() }.thenReturn(2)
+    }
     private val videoAttachments by lazy {
         listOf(compressPrimaryVideo, secondaryVideo)
     }
@@ -41,7 +46,7 @@ class VideoCompressionFacadeTest {
 
     @Before
     fun setUp() {
-        underTest = VideoCompressionFacade(fileGateway)
+        underTest = VideoCompressionFacade(fileGateway, videoTranscodingGateway)
     }
 
     @Test
@@ -79,4 +84,15 @@ class VideoCompressionFacadeTest {
                 cancelAndConsumeRemainingEvents()
             }
         }
+
+    @Test
+    fun `test that each queued video is processed once`() = runTest {
+        underTest.setOutputRoot("/path/to/root")
+        underTest.addItems(videoAttachments)
+        whenever(fileGateway.hasEnoughStorage(any(), any())).thenReturn(false)
+        val events = underTest.start().toList()
+        assertThat(events.filterIsInstance<VideoCompressionState.Successful>().map { it.id })
+            .containsExactly(compressPrimaryVideo.id, secondaryVideo.id)
+        assertThat(events.last()).isEqualTo(VideoCompressionState.Finished)
+    }
 }
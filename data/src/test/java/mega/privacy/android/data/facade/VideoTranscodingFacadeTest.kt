@@ -0,0 +1,247 @@
+package mega.privacy.android.data.facade
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.TestCoroutineScheduler
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.compression.video.VideoTranscoder
+import mega.privacy.android.data.compression.video.VideoTranscodingPriority
+import mega.privacy.android.data.compression.video.VideoTranscodingProfile
+import mega.privacy.android.data.compression.video.VideoTranscodingQueueStore
+import mega.privacy.android.data.compression.video.VideoTranscodingRequest
+import mega.privacy.android.domain.entity.VideoQuality
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doThrow
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VideoTranscodingFacadeTest {
+    private val videoTranscoder = mock<VideoTranscoder>()
+    private val queueStore = mock<VideoTranscodingQueueStore>()
+
+    //the transcodings only run when this scheduler runs, so the queue can be checked before
+    private lateinit var ioScheduler: TestCoroutineScheduler
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(videoTranscoder, queueStore)
+        whenever(videoTranscoder.getMaxSupportedInstances()).thenReturn(1)
+        whenever(queueStore.load()).thenReturn(emptyList())
+        ioScheduler = TestCoroutineScheduler()
+    }
+
+    @Test
+    fun `test that interactive requests are transcoded before the queued background ones`() =
+        runTest {
+            val underTest = createUnderTest()
+            val first = createRequest("first", VideoTranscodingPriority.BACKGROUND)
+            val background = createRequest("background", VideoTranscodingPriority.BACKGROUND)
+            val interactive = createRequest("interactive", VideoTranscodingPriority.INTERACTIVE)
+
+            listOf(first, background, interactive).forEach { launch { underTest.transcode(it) } }
+            runCurrent()
+            ioScheduler.advanceUntilIdle()
+            runCurrent()
+
+            with(inOrder(videoTranscoder)) {
+                verify(videoTranscoder).transcode(eq(first), any(), any())
+                verify(videoTranscoder).transcode(eq(interactive), any(), any())
+                verify(videoTranscoder).transcode(eq(background), any(), any())
+            }
+        }
+
+    @Test
+    fun `test that a request with the same output path joins the queued one`() = runTest {
+        val underTest = createUnderTest()
+        val request = createRequest("video")
+        var finished = 0
+
+        repeat(2) {
+            launch {
+                underTest.transcode(request)
+                finished++
+            }
+        }
+        runCurrent()
+        ioScheduler.advanceUntilIdle()
+        runCurrent()
+
+        verify(videoTranscoder, times(1)).transcode(eq(request), any(), any())
+        assertThat(finished).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that a queued request is not transcoded when its only caller is cancelled`() =
+        runTest {
+            val underTest = createUnderTest()
+            val running = createRequest("running")
+            val cancelled = createRequest("cancelled")
+            launch { underTest.transcode(running) }
+            val job = launch { underTest.transcode(cancelled) }
+            runCurrent()
+
+            job.cancel()
+            runCurrent()
+            ioScheduler.advanceUntilIdle()
+
+            verify(videoTranscoder).transcode(eq(running), any(), any())
+            verify(videoTranscoder, never()).transcode(eq(cancelled), any(), any())
+        }
+
+    @Test
+    fun `test that the failure of a transcoding is thrown to the caller`() = runTest {
+        val underTest = createUnderTest()
+        val request = createRequest("video")
+        val exception = RuntimeException("Transcoding failed")
+        doThrow(exception).whenever(videoTranscoder).transcode(eq(request), any(), any())
+        var result: Result<Unit>? = null
+
+        launch { result = runCatching { underTest.transcode(request) } }
+        runCurrent()
+        ioScheduler.advanceUntilIdle()
+        runCurrent()
+
+        assertThat(result?.exceptionOrNull()).isInstanceOf(RuntimeException::class.java)
+    }
+
+    @Test
+    fun `test that the queue is saved once for the changes made together`() = runTest {
+        val underTest = createUnderTest()
+        val requests = listOf(createRequest("first"), createRequest("second"))
+        doThrow(RuntimeException("Transcoding failed")).whenever(videoTranscoder)
+            .transcode(any(), any(), any())
+
+        requests.forEach { launch { runCatching { underTest.transcode(it) } } }
+        runCurrent()
+        ioScheduler.advanceUntilIdle()
+        runCurrent()
+
+        verify(queueStore, times(1)).save(any())
+        verify(queueStore).save(emptyList())
+    }
+
+    @Test
+    fun `test that a completed request is removed from the saved queue before its caller resumes`() =
+        runTest {
+            val underTest = createUnderTest()
+            val first = createRequest("first")
+            val second = createRequest("second")
+            val savedQueues = mutableListOf<List<VideoTranscodingRequest>>()
+            whenever(queueStore.save(any())).then {
+                savedQueues.add(it.getArgument(0))
+                Unit
+            }
+            var savedWhenFirstCompleted: List<List<VideoTranscodingRequest>>? = null
+
+            launch {
+                underTest.transcode(first)
+                savedWhenFirstCompleted = savedQueues.toList()
+            }
+            launch { underTest.transcode(second) }
+            runCurrent()
+            ioScheduler.runCurrent()
+            runCurrent()
+
+            assertThat(savedWhenFirstCompleted).contains(listOf(second))
+        }
+
+    @Test
+    fun `test that interrupted requests are not transcoded until requested again`() = runTest {
+        val output = File.createTempFile("resumed", ".mp4").apply { deleteOnExit() }
+        val resumed = createRequest("resumed").copy(newPath = output.absolutePath)
+        whenever(queueStore.load()).thenReturn(listOf(resumed))
+        val underTest = createUnderTest()
+
+        launch { underTest.transcode(createRequest("video")) }
+        runCurrent()
+        ioScheduler.advanceUntilIdle()
+        runCurrent()
+        verify(videoTranscoder, never()).transcode(eq(resumed), any(), any())
+        assertThat(output.exists()).isFalse()
+
+        launch { underTest.transcode(resumed) }
+        runCurrent()
+        ioScheduler.advanceUntilIdle()
+        runCurrent()
+        verify(videoTranscoder).transcode(eq(resumed), any(), any())
+        verify(queueStore, times(1)).load()
+    }
+
+    @Test
+    fun `test that an interrupted request requested again keeps its place in the queue`() =
+        runTest {
+            val resumed = createRequest("resumed")
+            whenever(queueStore.load()).thenReturn(listOf(resumed))
+            val underTest = createUnderTest()
+            val first = createRequest("first")
+            val later = createRequest("later")
+
+            listOf(first, later, resumed).forEach { launch { underTest.transcode(it) } }
+            runCurrent()
+            ioScheduler.advanceUntilIdle()
+            runCurrent()
+
+            with(inOrder(videoTranscoder)) {
+                verify(videoTranscoder).transcode(eq(first), any(), any())
+                verify(videoTranscoder).transcode(eq(resumed), any(), any())
+                verify(videoTranscoder).transcode(eq(later), any(), any())
+            }
+        }
+
+    @Test
+    fun `test that a request joining a cancelled running transcoding gets a new one`() =
+        runTest {
+            val underTest = createUnderTest()
+            val request = createRequest("video")
+            var finished = false
+
+            val cancelled = launch { underTest.transcode(request) }
+            runCurrent()
+            cancelled.cancel()
+            runCurrent()
+            launch {
+                underTest.transcode(request)
+                finished = true
+            }
+            runCurrent()
+            ioScheduler.advanceUntilIdle()
+            runCurrent()
+
+            verify(videoTranscoder, times(2)).transcode(eq(request), any(), any())
+            assertThat(finished).isTrue()
+        }
+
+    private fun createUnderTest() = VideoTranscodingFacade(
+        videoTranscoder = videoTranscoder,
+        queueStore = queueStore,
+        appScope = CoroutineScope(StandardTestDispatcher(ioScheduler)),
+        ioDispatcher = StandardTestDispatcher(ioScheduler),
+    )
+
+    private fun createRequest(
+        name: String,
+        priority: VideoTranscodingPriority = VideoTranscodingPriority.BACKGROUND,
+    ) = VideoTranscodingRequest(
+        originalPath = "/path/to/original/$name",
+        newPath = "/path/to/new/$name",
+        quality = VideoQuality.MEDIUM,
+        priority = priority,
+        profile = VideoTranscodingProfile.CAMERA_UPLOADS,
+    )
+}
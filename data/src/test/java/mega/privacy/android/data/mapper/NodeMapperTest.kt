@@ -3,6 +3,7 @@ package mega.privacy.android.data.mapper
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.node.FileNodeMapper
@@ -11,8 +12,10 @@ import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.model.node.DefaultFileNode
 import mega.privacy.android.data.model.node.DefaultFolderNode
 import mega.privacy.android.domain.entity.PdfFileTypeInfo
+import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.NodeId
 import nz.mega.sdk.MegaNode
+import java.io.File
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
@@ -21,19 +24,23 @@ import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 
 @OptIn(ExperimentalCoroutinesApi::class)
 class NodeMapperTest {
     private lateinit var underTest: NodeMapper
 
     private val megaApiGateway = mock<MegaApiGateway> {
-        onBlocking { hasVersion(any()) }.thenReturn(false)
+        on { hasVersionByHandle(any()) }.thenReturn(false)
         onBlocking { getNumChildFolders(any()) }.thenReturn(0)
         onBlocking { getNumChildFiles(any()) }.thenReturn(0)
-        onBlocking { isInRubbish(any()) }.thenReturn(false)
+        on { isInRubbishByHandle(any()) }.thenReturn(false)
         onBlocking { isPendingShare(any()) }.thenReturn(false)
     }
+    private val cacheGateway = mock<CacheGateway>()
     private val megaApiFolderGateway = mock<MegaApiFolderGateway> {
         onBlocking { getNumChildFolders(any()) }.thenReturn(0)
         onBlocking { getNumChildFiles(any()) }.thenReturn(0)
@@ -57,7 +64,7 @@ class NodeMapperTest {
     internal fun setUp() {
         underTest = NodeMapper(
             fileNodeMapper = FileNodeMapper(
-                cacheGateway = mock(),
+                cacheGateway = cacheGateway,
                 megaApiGateway = megaApiGateway,
                 fileTypeInfoMapper = { PdfFileTypeInfo }
             ),
@@ -98,10 +105,10 @@ class NodeMapperTest {
         val expectedNumChildFolders = 2
         val expectedNumChildFiles = 3
         megaApiGateway.stub {
-            onBlocking { hasVersion(node) }.thenReturn(expectedHasVersion)
+            on { hasVersionByHandle(expectedId) }.thenReturn(expectedHasVersion)
             onBlocking { getNumChildFolders(node) }.thenReturn(expectedNumChildFolders)
             onBlocking { getNumChildFiles(node) }.thenReturn(expectedNumChildFiles)
-            onBlocking { isInRubbish(node) }.thenReturn(true)
+            on { isInRubbishByHandle(expectedId) }.thenReturn(true)
             onBlocking { isPendingShare(node) }.thenReturn(true)
         }
 
@@ -123,6 +130,24 @@ class NodeMapperTest {
         assertThat(actualAsFolder.isPendingShare).isTrue()
     }
 
+    @Test
+    fun `test that the rarely used values are only requested on first access`() = runTest {
+        val file = underTest(getMockNode(id = 3L, isFile = true))
+        val folder = underTest(getMockNode(id = 4L, isFile = false))
+        verify(megaApiGateway, never()).hasVersionByHandle(any())
+        verify(megaApiGateway, never()).isInRubbishByHandle(any())
+
+        repeat(2) {
+            file.hasVersion
+            folder.hasVersion
+            (folder as DefaultFolderNode).isInRubbishBin
+        }
+
+        verify(megaApiGateway, times(1)).hasVersionByHandle(3L)
+        verify(megaApiGateway, times(1)).hasVersionByHandle(4L)
+        verify(megaApiGateway, times(1)).isInRubbishByHandle(4L)
+    }
+
     @Test
     fun `test that serialized string is not null when requireSerializedString is true`() = runTest {
         val megaNode = getMockNode(isFile = true)
@@ -137,6 +162,34 @@ class NodeMapperTest {
         assertThat(actual.serializedData).isNull()
     }
 
+    @Test
+    fun `test that mapNodes resolves the cache folders once for all the nodes`() = runTest {
+        val thumbnailFolder = File("thumbnails")
+        cacheGateway.stub {
+            onBlocking { getThumbnailCacheFolder() }.thenReturn(thumbnailFolder)
+        }
+        val megaNodes = List(3) { getMockNode(id = it.toLong(), isFile = true) }
+
+        val actual = underTest.mapNodes(megaNodes)
+
+        assertThat(actual.map { (it as FileNode).thumbnailPath?.startsWith(thumbnailFolder.path) })
+            .containsExactly(true, true, true)
+        verify(cacheGateway, times(1)).getThumbnailCacheFolder()
+        verify(cacheGateway, times(1)).getPreviewCacheFolder()
+        verify(cacheGateway, times(1)).getFullSizeCacheFolder()
+    }
+
+    @Test
+    fun `test that mapNodes keeps the order of a big list of files and folders`() = runTest {
+        val megaNodes = List(1203) { getMockNode(id = it.toLong(), isFile = it % 3 != 0) }
+
+        val actual = underTest.mapNodes(megaNodes)
+
+        assertThat(actual.map { it.id.longValue }).isEqualTo(List(1203) { it.toLong() })
+        assertThat(actual[0]).isInstanceOf(DefaultFolderNode::class.java)
+        assertThat(actual[1]).isInstanceOf(DefaultFileNode::class.java)
+    }
+
     @Nested
     @DisplayName("Test that is exported data is correct")
     inner class Exported {
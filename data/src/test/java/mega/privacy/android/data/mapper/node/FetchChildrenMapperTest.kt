@@ -49,7 +49,7 @@ internal class FetchChildrenMapperTest {
                 onBlocking { getChildren(megaNode, expectedOrder) }.thenReturn(listOf(child))
             }
             val expected = mock<FileNode>()
-            whenever(nodeMapper(child)).thenReturn(expected)
+            whenever(nodeMapper.mapNodes(listOf(child))).thenReturn(listOf(expected))
 
 
             val func = underTest(megaNode)
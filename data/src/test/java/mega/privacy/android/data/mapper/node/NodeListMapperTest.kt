@@ -3,12 +3,16 @@ package mega.privacy.android.data.mapper.node
 import com.google.common.truth.Truth
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaNodeList
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class NodeListMapperTest {
@@ -34,7 +38,8 @@ class NodeListMapperTest {
             on { get(2) }.thenReturn(node3)
             on { size() }.thenReturn(3)
         }
-        val nodeList = listOf(nodeMapper(node1), nodeMapper(node2), nodeMapper(node3))
+        val nodeList = listOf<UnTypedNode>(mock<FileNode>(), mock<FolderNode>(), mock<FileNode>())
+        whenever(nodeMapper.mapNodes(listOf(node1, node2, node3))).thenReturn(nodeList)
         Truth.assertThat(underTest.invoke(megaNodeList)).isEqualTo(nodeList)
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class ActiveTransferWriteBufferTest {
+
+    private val writes = mutableListOf<List<ActiveTransfer>>()
+
+    private fun TestScope.createBuffer() = ActiveTransferWriteBuffer(
+        scope = this,
+        flushDelayMillis = FLUSH_DELAY,
+        maxPendingTransfers = MAX_PENDING,
+    ) { writes.add(it) }
+
+    @Test
+    fun `test that pending transfers are written together when the delay expires`() = runTest {
+        val underTest = createBuffer()
+        val first = createActiveTransfer(1)
+        val second = createActiveTransfer(2)
+
+        underTest.put(first)
+        advanceTimeBy(FLUSH_DELAY / 2)
+        underTest.put(second)
+        runCurrent()
+        assertThat(writes).isEmpty()
+
+        advanceTimeBy(FLUSH_DELAY / 2 + 1)
+        assertThat(writes).containsExactly(listOf(first, second))
+    }
+
+    @Test
+    fun `test that only the last state of each transfer is written`() = runTest {
+        val underTest = createBuffer()
+        val started = createActiveTransfer(1)
+        val finished = createActiveTransfer(1)
+
+        underTest.put(started)
+        underTest.put(finished)
+        underTest.flush()
+
+        assertThat(writes).containsExactly(listOf(finished))
+    }
+
+    @Test
+    fun `test that pending transfers are written without delay when the buffer is full`() =
+        runTest {
+            val underTest = createBuffer()
+            val transfers = (1..MAX_PENDING).map { createActiveTransfer(it) }
+
+            transfers.forEach { underTest.put(it) }
+
+            assertThat(writes).containsExactly(transfers)
+        }
+
+    @Test
+    fun `test that nothing is written when there are no pending transfers`() = runTest {
+        val underTest = createBuffer()
+
+        underTest.put(createActiveTransfer(1))
+        underTest.flush()
+        underTest.flush()
+        advanceTimeBy(FLUSH_DELAY + 1)
+
+        assertThat(writes).hasSize(1)
+    }
+
+    private fun createActiveTransfer(tag: Int) = mock<ActiveTransfer> {
+        on { this.tag }.thenReturn(tag)
+    }
+
+    companion object {
+        private const val FLUSH_DELAY = 200L
+        private const val MAX_PENDING = 3
+    }
+}
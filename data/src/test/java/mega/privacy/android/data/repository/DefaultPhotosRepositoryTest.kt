@@ -6,6 +6,7 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.TimelinePhotosSnapshotStore
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -39,6 +40,7 @@ import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
 
@@ -65,6 +67,8 @@ class DefaultPhotosRepositoryTest {
     private val contentConsumptionMegaStringMapMapper: ContentConsumptionMegaStringMapMapper =
         mock()
 
+    private val timelinePhotosSnapshotStore = mock<TimelinePhotosSnapshotStore>()
+
     private val mockMegaStringMap = mock<MegaStringMap>()
 
     private val success = mock<MegaError> { on { errorCode }.thenReturn(MegaError.API_OK) }
@@ -234,6 +238,15 @@ class DefaultPhotosRepositoryTest {
             .isEqualTo(expectedMegaStringMapValue.toString())
     }
 
+    @Test
+    fun `test that the timeline snapshot is deleted when clear cache returns`() = runTest {
+        underTest = createUnderTest(this)
+
+        underTest.clearCache()
+
+        verify(timelinePhotosSnapshotStore).delete()
+    }
+
     private fun createUnderTest(coroutineScope: CoroutineScope) = DefaultPhotosRepository(
         nodeRepository = nodeRepository,
         megaApiFacade = megaApiGateway,
@@ -250,6 +263,7 @@ class DefaultPhotosRepositoryTest {
         megaChatApiGateway = megaChatApiGateway,
         timelineFilterPreferencesJSONMapper = timelineFilterPreferencesJSONMapper,
         contentConsumptionMegaStringMapMapper = contentConsumptionMegaStringMapMapper,
+        timelinePhotosSnapshotStore = timelinePhotosSnapshotStore,
     )
 
     private fun createMegaNode(
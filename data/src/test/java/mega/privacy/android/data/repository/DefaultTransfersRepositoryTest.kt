@@ -5,11 +5,13 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.extensions.APP_DATA_BACKGROUND_TRANSFER
 import mega.privacy.android.data.gateway.AppEventGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -53,11 +55,14 @@ import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
+import java.math.BigInteger
 
 /**
  * Test class for [DefaultTransfersRepository]
@@ -504,30 +509,6 @@ class DefaultTransfersRepositoryTest {
         assertThat(underTest.getTransferByTag(transferTag)).isNull()
     }
 
-    @Test
-    fun `test that getInProgressTransfers empty when both getTransferData numDownloads and numUploads equal zero`() =
-        runTest {
-            val data = mock<MegaTransferData> {
-                on { numDownloads }.thenReturn(0)
-                on { numUploads }.thenReturn(0)
-            }
-            whenever(megaApiGateway.getTransferData()).thenReturn(data)
-            assertThat(underTest.getInProgressTransfers()).isEmpty()
-        }
-
-    @Test
-    fun `test that getInProgressTransfers returns correctly when both getTransferData numDownloads and numUploads differ zero`() =
-        runTest {
-            val data = mock<MegaTransferData> {
-                on { numDownloads }.thenReturn(5)
-                on { numUploads }.thenReturn(5)
-            }
-            whenever(megaApiGateway.getTransferData()).thenReturn(data)
-            whenever(transferMapper.invoke(any())).thenReturn(mock())
-            whenever(megaApiGateway.getTransfersByTag(any())).thenReturn(mock())
-            assertThat(underTest.getInProgressTransfers()).hasSize(data.numDownloads + data.numUploads)
-        }
-
     @Test
     fun `test that addCompletedTransfer call local storage gateway addCompletedTransfer and app event gateway broadcastCompletedTransfer`() =
         runTest {
@@ -538,55 +519,12 @@ class DefaultTransfersRepositoryTest {
         }
 
     @Test
-    fun `test that addCompletedTransfer call correctly when call addCompletedTransfersIfNotExist`() =
+    fun `test that local room gateway addCompletedTransfersIfNotExist is called when call addCompletedTransfersIfNotExist`() =
         runTest {
-            val transfer1 = CompletedTransfer(
-                id = 1,
-                fileName = "filename1",
-                type = 1,
-                state = 1,
-                size = "1Kb",
-                handle = 1L,
-                path = "filePath",
-                isOffline = false,
-                timestamp = 123L,
-                error = null,
-                originalPath = "originalFilePath",
-                parentHandle = 2L
-            )
-            val transfer2 = CompletedTransfer(
-                id = 1,
-                fileName = "filename2",
-                type = 1,
-                state = 1,
-                size = "1Kb",
-                handle = 1L,
-                path = "filePath",
-                isOffline = false,
-                timestamp = 123L,
-                error = null,
-                originalPath = "originalFilePath",
-                parentHandle = 2L
-            )
-            val existingTransfer1 = CompletedTransfer(
-                id = 3,
-                fileName = "filename1",
-                type = 1,
-                state = 1,
-                size = "1Kb",
-                handle = 1L,
-                path = "filePath",
-                isOffline = false,
-                timestamp = 123L,
-                error = null,
-                originalPath = "originalFilePath",
-                parentHandle = 2L
-            )
-            whenever(megaLocalRoomGateway.getAllCompletedTransfers())
-                .thenReturn(flowOf(listOf(existingTransfer1)))
-            underTest.addCompletedTransfersIfNotExist(listOf(transfer1, transfer2))
-            verify(megaLocalRoomGateway).addCompletedTransfer(transfer2.copy(id = null))
-            verify(megaLocalRoomGateway, times(0)).addCompletedTransfer(transfer1.copy(id = null))
+            val transfers = listOf(mock<CompletedTransfer>(), mock<CompletedTransfer>())
+            underTest.addCompletedTransfersIfNotExist(transfers)
+            verify(megaLocalRoomGateway).addCompletedTransfersIfNotExist(transfers)
+            verify(megaLocalRoomGateway, never()).getAllCompletedTransfers(anyOrNull())
         }
 
     @Test
@@ -801,6 +739,23 @@ class DefaultTransfersRepositoryTest {
         }
     }
 
+    @Test
+    fun `test that monitorTransferLifecycleEvents emits the transfer lifecycle events`() =
+        runTest {
+            val start = GlobalTransfer.OnTransferStart(mock())
+            val finish = GlobalTransfer.OnTransferFinish(mock(), mock())
+            val startEvent = TransferEvent.TransferStartEvent(mock())
+            val finishEvent = TransferEvent.TransferFinishEvent(mock(), mock())
+            whenever(transferEventMapper(start)).thenReturn(startEvent)
+            whenever(transferEventMapper(finish)).thenReturn(finishEvent)
+            whenever(megaApiGateway.globalTransferLifecycle).thenReturn(flowOf(start, finish))
+            underTest.monitorTransferLifecycleEvents().test {
+                assertThat(awaitItem()).isEqualTo(startEvent)
+                assertThat(awaitItem()).isEqualTo(finishEvent)
+                awaitComplete()
+            }
+        }
+
     @Test
     fun `test that insertSdTransfer invokes when insertSdTransfer is called`() = runTest {
         val sdTransfer = mock<SdTransfer>()
@@ -829,9 +784,185 @@ class DefaultTransfersRepositoryTest {
             verify(megaLocalRoomGateway).getCompletedTransferById(id)
         }
 
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    inner class InProgressTransfersTest {
+        private val globalTransfer = MutableSharedFlow<GlobalTransfer>()
+
+        @BeforeEach
+        fun createRepository() = runTest {
+            whenever(megaApiGateway.areUploadTransfersPaused()).thenReturn(false)
+            whenever(megaApiGateway.areDownloadTransfersPaused()).thenReturn(false)
+            whenever(megaApiGateway.globalTransfer).thenReturn(globalTransfer)
+            //creating a new instance of DefaultTransfersRepository because the snapshot is cached
+            underTest = createDefaultTransfersRepository()
+        }
+
+        @Test
+        fun `test that getInProgressTransfers returns the unfinished transfers ordered by priority`() =
+            runTest {
+                val upload = stubMegaTransfer(tag = 1, priority = 3)
+                val download = stubMegaTransfer(tag = 2, priority = 1)
+                val otherDownload = stubMegaTransfer(tag = 3, priority = 2)
+                val finished = stubMegaTransfer(tag = 4, priority = 4, isFinished = true)
+                val streaming = stubMegaTransfer(tag = 5, priority = 5, isStreaming = true)
+                val folder = stubMegaTransfer(tag = 6, priority = 6, isFolder = true)
+                val background =
+                    stubMegaTransfer(tag = 7, priority = 7, appData = APP_DATA_BACKGROUND_TRANSFER)
+                val notQueued = stubMegaTransfer(tag = 8, priority = 8)
+                stubTransferData(downloadTags = listOf(2, 3, 5, 6, 7), uploadTags = listOf(1, 4))
+                whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                    .thenReturn(listOf(otherDownload, download, streaming, folder, background))
+                whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD))
+                    .thenReturn(listOf(upload, finished, notQueued))
+
+                assertThat(underTest.getInProgressTransfers().map { it.tag })
+                    .containsExactly(2, 3, 1).inOrder()
+                verify(megaApiGateway, never()).getTransfersByTag(any())
+            }
+
+        @Test
+        fun `test that streaming, folder and background transfer events are not kept`() =
+            runTest {
+                stubTransferData(downloadTags = emptyList(), uploadTags = emptyList())
+                assertThat(underTest.getInProgressTransfers()).isEmpty()
+
+                globalTransfer.emit(
+                    GlobalTransfer.OnTransferStart(stubMegaTransfer(tag = 1, priority = 1, isStreaming = true))
+                )
+                globalTransfer.emit(
+                    GlobalTransfer.OnTransferStart(stubMegaTransfer(tag = 2, priority = 2, isFolder = true))
+                )
+                globalTransfer.emit(
+                    GlobalTransfer.OnTransferStart(
+                        stubMegaTransfer(tag = 3, priority = 3, appData = APP_DATA_BACKGROUND_TRANSFER)
+                    )
+                )
+                globalTransfer.emit(GlobalTransfer.OnTransferStart(stubMegaTransfer(tag = 4, priority = 4)))
+
+                assertThat(underTest.getInProgressTransfers().map { it.tag }).containsExactly(4)
+            }
+
+        @Test
+        fun `test that getInProgressTransfersFromSdk gets the queued transfers every time`() =
+            runTest {
+                val download = stubMegaTransfer(tag = 1, priority = 2)
+                val upload = stubMegaTransfer(tag = 2, priority = 1)
+                stubTransferData(downloadTags = listOf(1), uploadTags = listOf(2))
+                whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                    .thenReturn(listOf(download))
+                whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD))
+                    .thenReturn(listOf(upload))
+                underTest.getInProgressTransfers()
+
+                globalTransfer.emit(GlobalTransfer.OnTransferFinish(download, mock()))
+                whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                    .thenReturn(emptyList())
+                stubTransferData(downloadTags = emptyList(), uploadTags = listOf(2))
+                globalTransfer.emit(GlobalTransfer.OnTransferStart(stubMegaTransfer(tag = 3, priority = 3)))
+
+                assertThat(underTest.getInProgressTransfersFromSdk().map { it.tag })
+                    .containsExactly(2)
+                assertThat(underTest.getInProgressTransfers().map { it.tag })
+                    .containsExactly(2, 3).inOrder()
+            }
+
+        @Test
+        fun `test that getInProgressTransfers is updated with the transfer events`() = runTest {
+            val first = stubMegaTransfer(tag = 1, priority = 1)
+            stubTransferData(downloadTags = listOf(1), uploadTags = emptyList())
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                .thenReturn(listOf(first))
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD))
+                .thenReturn(emptyList())
+            assertThat(underTest.getInProgressTransfers().map { it.tag }).containsExactly(1)
+
+            globalTransfer.emit(GlobalTransfer.OnTransferStart(stubMegaTransfer(tag = 2, priority = 2)))
+            globalTransfer.emit(GlobalTransfer.OnTransferUpdate(stubMegaTransfer(tag = 1, priority = 3)))
+            assertThat(underTest.getInProgressTransfers().map { it.tag })
+                .containsExactly(2, 1).inOrder()
+
+            globalTransfer.emit(GlobalTransfer.OnTransferFinish(stubMegaTransfer(tag = 2, priority = 2), mock()))
+            assertThat(underTest.getInProgressTransfers().map { it.tag }).containsExactly(1)
+            verify(megaApiGateway, times(1)).getTransfers(MegaTransfer.TYPE_DOWNLOAD)
+        }
+
+        @Test
+        fun `test that a transfer moved to first is updated in getInProgressTransfers`() = runTest {
+            val first = stubMegaTransfer(tag = 1, priority = 1)
+            val second = stubMegaTransfer(tag = 2, priority = 2)
+            stubTransferData(downloadTags = listOf(1, 2), uploadTags = emptyList())
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                .thenReturn(listOf(first, second))
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD))
+                .thenReturn(emptyList())
+            underTest.getInProgressTransfers()
+
+            val moved = stubMegaTransfer(tag = 2, priority = 0)
+            whenever(megaApiGateway.getTransfersByTag(2)).thenReturn(moved)
+            whenever(megaApiGateway.moveTransferToFirstByTag(any(), any())).thenAnswer {
+                ((it.arguments[1]) as OptionalMegaRequestListenerInterface).onRequestFinish(
+                    mock(),
+                    mock(),
+                    mock<MegaError> { on { errorCode }.thenReturn(MegaError.API_OK) },
+                )
+            }
+            underTest.moveTransferToFirstByTag(2)
+
+            assertThat(underTest.getInProgressTransfers().map { it.tag })
+                .containsExactly(2, 1).inOrder()
+        }
+
+        private suspend fun stubTransferData(downloadTags: List<Int>, uploadTags: List<Int>) {
+            val data = mock<MegaTransferData> {
+                on { numDownloads }.thenReturn(downloadTags.size)
+                on { numUploads }.thenReturn(uploadTags.size)
+                on { getDownloadTag(any()) }.thenAnswer { downloadTags[it.arguments[0] as Int] }
+                on { getUploadTag(any()) }.thenAnswer { uploadTags[it.arguments[0] as Int] }
+            }
+            whenever(megaApiGateway.getTransferData()).thenReturn(data)
+        }
+
+        private fun stubMegaTransfer(
+            tag: Int,
+            priority: Long,
+            isFinished: Boolean = false,
+            isStreaming: Boolean = false,
+            isFolder: Boolean = false,
+            appData: String? = null,
+        ): MegaTransfer {
+            val megaTransfer = mock<MegaTransfer> {
+                on { this.tag }.thenReturn(tag)
+                on { this.isFinished }.thenReturn(isFinished)
+                on { isStreamingTransfer }.thenReturn(isStreaming)
+                on { isFolderTransfer }.thenReturn(isFolder)
+                on { this.appData }.thenReturn(appData)
+            }
+            val transfer = mock<Transfer> {
+                on { this.tag }.thenReturn(tag)
+                on { this.priority }.thenReturn(BigInteger.valueOf(priority))
+            }
+            whenever(transferMapper(megaTransfer)).thenReturn(transfer)
+            return megaTransfer
+        }
+    }
+
     @Nested
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     inner class PendingCounters {
+        private val globalTransfer = MutableSharedFlow<GlobalTransfer>()
+
+        @BeforeEach
+        fun createRepository() = runTest {
+            whenever(megaApiGateway.areUploadTransfersPaused()).thenReturn(false)
+            whenever(megaApiGateway.areDownloadTransfersPaused()).thenReturn(false)
+            whenever(megaApiGateway.globalTransfer).thenReturn(globalTransfer)
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_DOWNLOAD))
+                .thenReturn(emptyList())
+            //creating a new instance of DefaultTransfersRepository because the counters are cached
+            underTest = createDefaultTransfersRepository()
+        }
+
         @Test
         fun `test that getNumPendingGeneralUploads returns correctly`() = runTest {
             stubUploadTransfers()
@@ -868,6 +999,43 @@ class DefaultTransfersRepositoryTest {
             assertThat(underTest.getNumPendingPausedChatUploads()).isEqualTo(1)
         }
 
+        @Test
+        fun `test that the pending counts are updated with the transfer events`() = runTest {
+            whenever(megaApiGateway.getTransfers(MegaTransfer.TYPE_UPLOAD)).thenReturn(emptyList())
+            val download = mock<MegaTransfer> {
+                on { tag }.thenReturn(1)
+                on { type }.thenReturn(MegaTransfer.TYPE_DOWNLOAD)
+                on { state }.thenReturn(MegaTransfer.STATE_ACTIVE)
+            }
+            val pausedDownload = mock<MegaTransfer> {
+                on { tag }.thenReturn(1)
+                on { type }.thenReturn(MegaTransfer.TYPE_DOWNLOAD)
+                on { state }.thenReturn(MegaTransfer.STATE_PAUSED)
+            }
+            val chatUpload = mock<MegaTransfer> {
+                on { tag }.thenReturn(2)
+                on { type }.thenReturn(MegaTransfer.TYPE_UPLOAD)
+                on { appData }.thenReturn(AppDataTypeConstants.ChatUpload.sdkTypeValue)
+            }
+
+            val counts = underTest.monitorPendingTransferCounts()
+            assertThat(underTest.getNumPendingTransfers()).isEqualTo(0)
+
+            globalTransfer.emit(GlobalTransfer.OnTransferStart(download))
+            globalTransfer.emit(GlobalTransfer.OnTransferStart(chatUpload))
+            assertThat(counts.value.downloads).isEqualTo(1)
+            assertThat(counts.value.chatUploads).isEqualTo(1)
+            assertThat(underTest.getNumPendingTransfers()).isEqualTo(2)
+
+            globalTransfer.emit(GlobalTransfer.OnTransferUpdate(pausedDownload))
+            assertThat(underTest.getNumPendingNonBackgroundPausedDownloads()).isEqualTo(1)
+
+            globalTransfer.emit(GlobalTransfer.OnTransferFinish(pausedDownload, mock()))
+            assertThat(underTest.getNumPendingDownloadsNonBackground()).isEqualTo(0)
+            assertThat(underTest.getNumPendingUploads()).isEqualTo(1)
+            verify(megaApiGateway, times(1)).getTransfers(MegaTransfer.TYPE_UPLOAD)
+        }
+
         private fun stubUploadTransfers() = runTest {
             val megaTransfers =
                 (1..3).flatMap { type ->
@@ -939,13 +1107,30 @@ class DefaultTransfersRepositoryTest {
             }
 
         @Test
-        fun `test that insertOrUpdateActiveTransfer gateway is called when insertOrUpdateActiveTransfer is called`() =
+        fun `test that insertOrUpdateActiveTransfers gateway is called with the pending transfers before reading them`() =
             runTest {
                 val activeTransfer = mock<ActiveTransfer>()
                 underTest.insertOrUpdateActiveTransfer(activeTransfer)
-                verify(megaLocalRoomGateway).insertOrUpdateActiveTransfer(activeTransfer)
+                underTest.getActiveTransferByTag(1)
+                with(inOrder(megaLocalRoomGateway)) {
+                    verify(megaLocalRoomGateway).insertOrUpdateActiveTransfers(listOf(activeTransfer))
+                    verify(megaLocalRoomGateway).getActiveTransferByTag(1)
+                }
             }
 
+        @Test
+        fun `test that only the last state of each transfer is written`() = runTest {
+            val first = mock<ActiveTransfer> { on { tag }.thenReturn(1) }
+            val other = mock<ActiveTransfer> { on { tag }.thenReturn(2) }
+            val last = mock<ActiveTransfer> { on { tag }.thenReturn(1) }
+            underTest.insertOrUpdateActiveTransfer(first)
+            underTest.insertOrUpdateActiveTransfer(other)
+            underTest.insertOrUpdateActiveTransfer(last)
+            underTest.setActiveTransferAsFinishedByTag(listOf(2))
+            verify(megaLocalRoomGateway).insertOrUpdateActiveTransfers(listOf(last, other))
+            verify(megaLocalRoomGateway, never()).insertOrUpdateActiveTransfer(any())
+        }
+
         @ParameterizedTest
         @EnumSource(TransferType::class)
         fun `test that deleteAllActiveTransfersByType gateway is called when deleteAllActiveTransfersByType is called`(
@@ -968,8 +1153,8 @@ class DefaultTransfersRepositoryTest {
         fun `test that getActiveTransferTotalsByType gateway result is returned when getActiveTransferTotalsByType is called`(
             transferType: TransferType,
         ) = runTest {
-            val expected = mock<ActiveTransferTotals>()
-            val list = mock<List<ActiveTransfer>>()
+            val expected = createActiveTransferTotals(transferType)
+            val list = listOf(mock<ActiveTransfer>())
             val flow = flowOf(list)
             whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
                 .thenReturn(flow)
@@ -979,6 +1164,34 @@ class DefaultTransfersRepositoryTest {
             assertThat(actual).isEqualTo(expected)
         }
 
+        @ParameterizedTest
+        @EnumSource(TransferType::class)
+        fun `test that getActiveTransferTotalsByType adds the transferred bytes of the ongoing file transfers`(
+            transferType: TransferType,
+        ) = runTest {
+            stubActiveTransfer(transferType)
+            val ongoing = mock<ActiveTransfer> { on { tag }.thenReturn(transfer.tag) }
+            val finished = mock<ActiveTransfer> {
+                on { tag }.thenReturn(2)
+                on { isFinished }.thenReturn(true)
+            }
+            val list = listOf(ongoing, finished)
+            val baseTotals = createActiveTransferTotals(transferType, transferredBytes = 1000L)
+            whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
+                .thenReturn(flowOf(list))
+            whenever(activeTransferTotalsMapper(transferType, list, emptyMap()))
+                .thenReturn(baseTotals)
+
+            underTest.getActiveTransferTotalsByType(transferType).test {
+                assertThat(awaitItem()).isEqualTo(baseTotals)
+                underTest.updateTransferredBytes(transfer)
+                assertThat(awaitItem().transferredBytes).isEqualTo(1000L + transfer.transferredBytes)
+                underTest.deleteAllActiveTransfersByType(transferType)
+                assertThat(awaitItem()).isEqualTo(baseTotals)
+                cancelAndIgnoreRemainingEvents()
+            }
+        }
+
         @ParameterizedTest
         @EnumSource(TransferType::class)
         fun `test that getCurrentActiveTransferTotalsByType gateway result is returned when getCurrentActiveTransferTotalsByType is called`(
@@ -1044,6 +1257,20 @@ class DefaultTransfersRepositoryTest {
             verify(activeTransferTotalsMapper).invoke(eq(transferType), eq(list), eq(emptyMap()))
         }
 
+        private fun createActiveTransferTotals(
+            transferType: TransferType,
+            transferredBytes: Long = 0L,
+        ) = ActiveTransferTotals(
+            transfersType = transferType,
+            totalTransfers = 2,
+            totalFileTransfers = 2,
+            pausedFileTransfers = 0,
+            totalFinishedTransfers = 1,
+            totalFinishedFileTransfers = 1,
+            totalBytes = 4096L,
+            transferredBytes = transferredBytes,
+        )
+
         private fun stubActiveTransfer(transferType: TransferType) {
             val transferred = 900L
             val total = 1024L
@@ -17,7 +17,6 @@ import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.ChatFilesFolderUserAttributeMapper
 import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.MegaExceptionMapper
-import mega.privacy.android.data.mapper.NodeUpdateMapper
 import mega.privacy.android.data.mapper.OfflineInformationMapper
 import mega.privacy.android.data.mapper.OfflineNodeInformationMapper
 import mega.privacy.android.data.mapper.SortOrderIntMapper
@@ -90,7 +89,8 @@ class NodeRepositoryImplTest {
     private val fileGateway: FileGateway = mock()
     private val chatFilesFolderUserAttributeMapper: ChatFilesFolderUserAttributeMapper = mock()
     private val streamingGateway: StreamingGateway = mock()
-    private val nodeUpdateMapper: NodeUpdateMapper = mock()
+    private val sharedNodeUpdates: SharedNodeUpdates = mock()
+    private val nodeUpdateRouter: NodeUpdateRouter = mock()
     private val folderNode: TypedFolderNode = mock()
     private val accessPermissionMapper: AccessPermissionMapper = mock()
     private val nodeShareKeyResultMapper = mock<NodeShareKeyResultMapper>()
@@ -128,7 +128,8 @@ class NodeRepositoryImplTest {
             fileGateway = fileGateway,
             chatFilesFolderUserAttributeMapper = chatFilesFolderUserAttributeMapper,
             streamingGateway = streamingGateway,
-            nodeUpdateMapper = nodeUpdateMapper,
+            sharedNodeUpdates = sharedNodeUpdates,
+            nodeUpdateRouter = nodeUpdateRouter,
             accessPermissionMapper = accessPermissionMapper,
             nodeShareKeyResultMapper = nodeShareKeyResultMapper,
         )
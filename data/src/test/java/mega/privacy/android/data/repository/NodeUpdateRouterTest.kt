@@ -0,0 +1,148 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.domain.entity.node.Node
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NodeUpdateRouterTest {
+    private val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+    private val sharedNodeUpdates = mock<SharedNodeUpdates>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+
+    private val changes = listOf(NodeChanges.Attributes)
+
+    // root(1) -> folder(2) -> subFolder(3) -> file(4), other(5) is a child of root
+    private val file = createNode(id = 4L, parentId = 3L)
+    private val subFolder = createNode(id = 3L, parentId = 2L)
+    private val other = createNode(id = 5L, parentId = 1L)
+    private val update = NodeUpdate(mapOf(file to changes, subFolder to changes, other to changes))
+
+    @BeforeEach
+    fun resetMocks() = runTest {
+        reset(sharedNodeUpdates, megaApiGateway)
+        whenever(sharedNodeUpdates.nodeUpdates).thenReturn(nodeUpdates)
+        mapOf(1L to INVALID_HANDLE, 2L to 1L, 3L to 2L).forEach { (handle, parent) ->
+            val megaNode = mock<MegaNode> { on { parentHandle }.thenReturn(parent) }
+            whenever(megaApiGateway.getMegaNodeByHandle(handle)).thenReturn(megaNode)
+        }
+    }
+
+    @Test
+    fun `test that node subscriptions only receive the changes of the node`() = runTest {
+        val received = collect(NodeUpdateSubscription.Node(NodeId(3L)))
+
+        assertThat(received).containsExactly(NodeUpdate(mapOf(subFolder to changes)))
+    }
+
+    @Test
+    fun `test that children subscriptions only receive the changes of the direct children`() =
+        runTest {
+            val received = collect(NodeUpdateSubscription.Children(NodeId(2L)))
+
+            assertThat(received).containsExactly(NodeUpdate(mapOf(subFolder to changes)))
+        }
+
+    @Test
+    fun `test that subtree subscriptions receive the changes of all the descendants`() =
+        runTest {
+            val received = collect(NodeUpdateSubscription.Subtree(NodeId(2L)))
+
+            assertThat(received)
+                .containsExactly(NodeUpdate(mapOf(file to changes, subFolder to changes)))
+        }
+
+    @Test
+    fun `test that updates without subscribed changes are not emitted`() = runTest {
+        val otherUpdate = NodeUpdate(mapOf(other to changes))
+
+        val received = collect(
+            NodeUpdateSubscription.Subtree(NodeId(3L)),
+            updates = listOf(otherUpdate, update),
+        )
+
+        assertThat(received).containsExactly(NodeUpdate(mapOf(file to changes)))
+    }
+
+    @Test
+    fun `test that the ancestors are resolved once per update for all the subscribers`() =
+        runTest {
+            val subscriptions = (1L..3L).map { NodeUpdateSubscription.Subtree(NodeId(it)) } +
+                    NodeUpdateSubscription.Subtree(NodeId(42L))
+
+            collect(*subscriptions.toTypedArray())
+
+            listOf(1L, 2L, 3L).forEach {
+                verify(megaApiGateway, times(1)).getMegaNodeByHandle(it)
+            }
+        }
+
+    @Test
+    fun `test that node and children subscriptions do not resolve any ancestor`() = runTest {
+        collect(
+            NodeUpdateSubscription.Node(NodeId(4L)),
+            NodeUpdateSubscription.Children(NodeId(1L)),
+        )
+
+        verify(megaApiGateway, times(0)).getMegaNodeByHandle(any())
+    }
+
+    private suspend fun TestScope.collect(
+        vararg subscriptions: NodeUpdateSubscription,
+        updates: List<NodeUpdate> = listOf(update),
+    ): List<NodeUpdate> {
+        val appScope = CoroutineScope(UnconfinedTestDispatcher(testScheduler))
+        val underTest = NodeUpdateRouter(
+            sharedNodeUpdates = sharedNodeUpdates,
+            megaApiGateway = megaApiGateway,
+            ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+            appScope = appScope,
+        )
+        val received = mutableListOf<NodeUpdate>()
+        subscriptions.forEach { subscription ->
+            appScope.launch { underTest.monitor(subscription).collect { received.add(it) } }
+        }
+        runCurrent()
+
+        updates.forEach {
+            nodeUpdates.emit(it)
+            runCurrent()
+        }
+
+        appScope.cancel()
+        return received
+    }
+
+    private fun createNode(id: Long, parentId: Long) = mock<Node> {
+        on { this.id }.thenReturn(NodeId(id))
+        on { this.parentId }.thenReturn(NodeId(parentId))
+    }
+
+    companion object {
+        private const val INVALID_HANDLE = -1L
+    }
+}
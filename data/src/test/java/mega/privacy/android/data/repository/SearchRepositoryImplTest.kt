@@ -5,6 +5,7 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.SearchResultsCache
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
@@ -12,6 +13,7 @@ import mega.privacy.android.data.mapper.search.SearchCategoryIntMapper
 import mega.privacy.android.data.mapper.search.SearchCategoryMapper
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.repository.SearchRepository
 import mega.privacy.android.domain.usecase.GetLinksSortOrder
@@ -23,6 +25,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
@@ -37,6 +40,7 @@ class SearchRepositoryImplTest {
     private val getLinksSortOrder: GetLinksSortOrder = mock()
     private val sortOrderIntMapper: SortOrderIntMapper = mock()
     private val megaCancelToken: MegaCancelToken = mock()
+    private val searchResultsCache: SearchResultsCache = mock()
 
     @BeforeAll
     fun setUp() {
@@ -48,7 +52,8 @@ class SearchRepositoryImplTest {
             ioDispatcher = ioDispatcher,
             cancelTokenProvider = cancelTokenProvider,
             getLinksSortOrder = getLinksSortOrder,
-            sortOrderIntMapper = sortOrderIntMapper
+            sortOrderIntMapper = sortOrderIntMapper,
+            searchResultsCache = searchResultsCache,
         )
     }
 
@@ -218,6 +223,121 @@ class SearchRepositoryImplTest {
             )
         }
 
+    @Test
+    fun `test that searchInSharesPages cancels the previous search and maps only the requested page`() =
+        runTest {
+            val query = "Paged query"
+            val order = SortOrder.ORDER_NONE
+            val pagesCancelToken: MegaCancelToken = mock()
+            val nodes = List(120) { mock<MegaNode>() }
+            val untypedNode: UnTypedNode = mock()
+            var mappedNodes = 0
+
+            whenever(sortOrderIntMapper(order)).thenReturn(0)
+            whenever(cancelTokenProvider.cancelAndCreateNewToken()).thenReturn(pagesCancelToken)
+            whenever(megaApiGateway.searchOnInShares(query, pagesCancelToken, 0))
+                .thenReturn(nodes)
+            whenever(nodeMapper.mapNodes(any(), any(), any())).thenAnswer {
+                val megaNodes = it.getArgument<List<MegaNode>>(0)
+                mappedNodes += megaNodes.size
+                megaNodes.map { untypedNode }
+            }
+
+            val pages = underTest.searchInSharesPages(query = query, order = order, pageSize = 50)
+
+            verify(cancelTokenProvider).cancelAndCreateNewToken()
+            assertThat(pages.size).isEqualTo(120)
+            assertThat(pages.pageCount).isEqualTo(3)
+            assertThat(mappedNodes).isEqualTo(0)
+            assertThat(pages.getPage(2)).hasSize(20)
+            assertThat(mappedNodes).isEqualTo(20)
+            assertThat(pages.getPage(2)).hasSize(20)
+            assertThat(mappedNodes).isEqualTo(20)
+        }
+
+    @Test
+    fun `test that requesting a page out of range of searchInSharesPages returns an empty list`() =
+        runTest {
+            val query = "Empty query"
+            val order = SortOrder.ORDER_NONE
+            val pagesCancelToken: MegaCancelToken = mock()
+
+            whenever(sortOrderIntMapper(order)).thenReturn(0)
+            whenever(cancelTokenProvider.cancelAndCreateNewToken()).thenReturn(pagesCancelToken)
+            whenever(megaApiGateway.searchOnInShares(query, pagesCancelToken, 0))
+                .thenReturn(emptyList())
+
+            val pages = underTest.searchInSharesPages(query = query, order = order)
+
+            assertThat(pages.pageCount).isEqualTo(0)
+            assertThat(pages.getPage(0)).isEmpty()
+            assertThat(pages.getPage(-1)).isEmpty()
+        }
+
+    @Test
+    fun `test that search returns the cached results without searching again`() = runTest {
+        val nodeID = NodeId(-1L)
+        val megaNode: MegaNode = mock()
+        val cachedNode: MegaNode = mock()
+        val untypedNode: UnTypedNode = mock()
+        val query = "Cached query"
+        val order = SortOrder.ORDER_NONE
+        val key = SearchResultsCache.Key(
+            parentHandle = -1L,
+            category = SearchCategory.ALL,
+            query = query,
+            order = 0
+        )
+
+        whenever(sortOrderIntMapper(any())).thenReturn(0)
+        whenever(megaNode.handle).thenReturn(-1L)
+        whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
+        whenever(megaApiGateway.getMegaNodeByHandle(nodeID.longValue)).thenReturn(megaNode)
+        whenever(searchResultsCache.get(key)).thenReturn(listOf(cachedNode))
+        whenever(nodeMapper(cachedNode)).thenReturn(untypedNode)
+
+        val actual = underTest.search(
+            nodeId = nodeID,
+            searchCategory = SearchCategory.ALL,
+            query = query,
+            order = order
+        )
+
+        assertThat(actual).containsExactly(untypedNode)
+        verify(megaApiGateway, never()).search(any(), any(), any(), any())
+    }
+
+    @Test
+    fun `test that the results of a search are cached`() = runTest {
+        val nodeID = NodeId(-1L)
+        val megaNode: MegaNode = mock()
+        val foundNodes = listOf<MegaNode>(mock())
+        val query = "Query to cache"
+        val order = SortOrder.ORDER_NONE
+        val key = SearchResultsCache.Key(
+            parentHandle = -1L,
+            category = SearchCategory.ALL,
+            query = query,
+            order = 0
+        )
+
+        whenever(sortOrderIntMapper(any())).thenReturn(0)
+        whenever(megaNode.handle).thenReturn(-1L)
+        whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
+        whenever(megaApiGateway.getMegaNodeByHandle(nodeID.longValue)).thenReturn(megaNode)
+        whenever(searchResultsCache.generation).thenReturn(3L)
+        whenever(megaApiGateway.search(megaNode, query, megaCancelToken, 0)).thenReturn(foundNodes)
+
+        underTest.search(
+            nodeId = nodeID,
+            searchCategory = SearchCategory.ALL,
+            query = query,
+            order = order
+        )
+
+        verify(searchResultsCache).put(key, foundNodes, 3L)
+    }
+
     companion object {
         private const val nodeHandle = 1L
         private val nodeId = NodeId(nodeHandle)
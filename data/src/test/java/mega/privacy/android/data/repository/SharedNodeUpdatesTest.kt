@@ -0,0 +1,145 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.flow.MutableSharedFlow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.NodeUpdateMapper
+import mega.privacy.android.data.mapper.node.NodeMapper
+import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.NodeChanges
+import mega.privacy.android.domain.entity.node.NodeUpdate
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SharedNodeUpdatesTest {
+    private val globalUpdates = MutableSharedFlow<GlobalUpdate>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val nodeMapper = mock<NodeMapper>()
+    private val nodeUpdateMapper = mock<NodeUpdateMapper>()
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(megaApiGateway, nodeMapper, nodeUpdateMapper)
+        whenever(megaApiGateway.globalUpdates).thenReturn(globalUpdates)
+        whenever(nodeUpdateMapper(any())).thenReturn(listOf(NodeChanges.Attributes))
+    }
+
+    @ParameterizedTest(name = "with {0} collectors")
+    @ValueSource(ints = [1, 10, 50])
+    fun `test that each node update is mapped once whatever the number of collectors`(
+        collectors: Int,
+    ) = runTest {
+        val appScope = CoroutineScope(UnconfinedTestDispatcher(testScheduler))
+        val underTest = createUnderTest(appScope)
+        val megaNodes = (1..100).map { mock<MegaNode>() }
+        whenever(nodeMapper.mapNodes(megaNodes)).thenReturn(megaNodes.map { mock<FileNode>() })
+        val received = List(collectors) { mutableListOf<NodeUpdate>() }
+        received.forEach { updates ->
+            appScope.launch { underTest.nodeUpdates.collect { updates.add(it) } }
+        }
+        runCurrent()
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(ArrayList(megaNodes)))
+        runCurrent()
+
+        val expected = received.first().single()
+        assertThat(expected.changes).hasSize(megaNodes.size)
+        received.forEach { assertThat(it.single()).isSameInstanceAs(expected) }
+        verify(nodeMapper, times(1)).mapNodes(megaNodes)
+        verify(nodeUpdateMapper, times(megaNodes.size)).invoke(any())
+        appScope.cancel()
+    }
+
+    @Test
+    fun `test that the node updates are not mapped while there are no collectors`() = runTest {
+        val appScope = CoroutineScope(UnconfinedTestDispatcher(testScheduler))
+        val underTest = createUnderTest(appScope)
+        val megaNodes = listOf(mock<MegaNode>())
+        val job = appScope.launch { underTest.nodeUpdates.collect {} }
+        runCurrent()
+        job.cancel()
+        runCurrent()
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(ArrayList(megaNodes)))
+        runCurrent()
+
+        verify(nodeUpdateMapper, times(0)).invoke(any())
+        appScope.cancel()
+    }
+
+    @Test
+    fun `test that an update which cannot be mapped does not stop the next ones`() = runTest {
+        val appScope = CoroutineScope(UnconfinedTestDispatcher(testScheduler))
+        val underTest = createUnderTest(appScope)
+        val failing = listOf(mock<MegaNode>())
+        val megaNodes = listOf(mock<MegaNode>())
+        whenever(nodeMapper.mapNodes(failing)).thenThrow(RuntimeException("Mapping failed"))
+        whenever(nodeMapper.mapNodes(megaNodes)).thenReturn(listOf(mock<FileNode>()))
+        val received = mutableListOf<NodeUpdate>()
+        appScope.launch { underTest.nodeUpdates.collect { received.add(it) } }
+        runCurrent()
+
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(ArrayList(failing)))
+        globalUpdates.emit(GlobalUpdate.OnNodesUpdate(ArrayList(megaNodes)))
+        runCurrent()
+
+        assertThat(received.single().changes).hasSize(1)
+        appScope.cancel()
+    }
+
+    @Test
+    fun `test that the node updates are collected again after an error of the SDK updates`() =
+        runTest {
+            var attempts = 0
+            whenever(megaApiGateway.globalUpdates).thenReturn(flow {
+                if (attempts++ == 0) throw IllegalStateException("Updates failed")
+                emitAll(globalUpdates)
+            })
+            val appScope = CoroutineScope(UnconfinedTestDispatcher(testScheduler))
+            val underTest = createUnderTest(appScope)
+            val megaNodes = listOf(mock<MegaNode>())
+            whenever(nodeMapper.mapNodes(megaNodes)).thenReturn(listOf(mock<FileNode>()))
+            val received = mutableListOf<NodeUpdate>()
+            appScope.launch { underTest.nodeUpdates.collect { received.add(it) } }
+            advanceUntilIdle()
+
+            globalUpdates.emit(GlobalUpdate.OnNodesUpdate(ArrayList(megaNodes)))
+            runCurrent()
+
+            assertThat(attempts).isEqualTo(2)
+            assertThat(received.single().changes).hasSize(1)
+            appScope.cancel()
+        }
+
+    private fun TestScope.createUnderTest(appScope: CoroutineScope) = SharedNodeUpdates(
+        megaApiGateway = megaApiGateway,
+        nodeMapper = nodeMapper,
+        nodeUpdateMapper = nodeUpdateMapper,
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+        appScope = appScope,
+    )
+}
@@ -5,6 +5,7 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.cache.ThumbnailPreviewCache
 import mega.privacy.android.data.constant.CacheFolderConstant
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
@@ -30,6 +31,7 @@ import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.io.File
+import java.nio.file.Files
 
 @OptIn(ExperimentalCoroutinesApi::class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -58,6 +60,7 @@ class ThumbnailPreviewRepositoryImplTest {
             ioDispatcher = UnconfinedTestDispatcher(),
             cacheGateway = cacheGateway,
             stringWrapper = stringWrapper,
+            thumbnailPreviewCache = ThumbnailPreviewCache(UnconfinedTestDispatcher()),
         )
     }
 
@@ -307,4 +310,32 @@ class ThumbnailPreviewRepositoryImplTest {
         underTest.setPreview(nodeHandle, any())
         verify(megaApi, never()).setPreview(any(), any(), any())
     }
+
+    @Test
+    fun `test that get thumbnails to download returns the nodes with a thumbnail not downloaded`() =
+        runTest {
+            val thumbnailFolder = Files.createTempDirectory(CacheFolderConstant.THUMBNAIL_FOLDER)
+                .toFile().apply { deleteOnExit() }
+            val downloaded = mock<MegaNode> {
+                on { hasThumbnail() }.thenReturn(true)
+                on { base64Handle }.thenReturn("downloaded")
+            }
+            val notDownloaded = mock<MegaNode> {
+                on { hasThumbnail() }.thenReturn(true)
+                on { base64Handle }.thenReturn("notDownloaded")
+            }
+            val withoutThumbnail = mock<MegaNode> {
+                on { hasThumbnail() }.thenReturn(false)
+            }
+            File(thumbnailFolder, "downloaded.jpg").apply { writeText("") }.deleteOnExit()
+            whenever(cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER))
+                .thenReturn(thumbnailFolder)
+            whenever(megaApi.getMegaNodeByHandle(1L)).thenReturn(downloaded)
+            whenever(megaApi.getMegaNodeByHandle(2L)).thenReturn(notDownloaded)
+            whenever(megaApi.getMegaNodeByHandle(3L)).thenReturn(withoutThumbnail)
+            whenever(megaApi.getMegaNodeByHandle(4L)).thenReturn(null)
+
+            assertThat(underTest.getThumbnailsToDownload(listOf(1L, 2L, 3L, 4L)))
+                .containsExactly(2L)
+        }
 }
@@ -36,6 +36,18 @@ sealed interface VideoCompressionState {
          * path of the output file
          */
         val path: String,
+        /**
+         * frames transcoded per second for the current file
+         */
+        val framesPerSecond: Double = 0.0,
+        /**
+         * bytes read from the original file so far
+         */
+        val bytesRead: Long = 0,
+        /**
+         * bytes written to the output file so far
+         */
+        val bytesWritten: Long = 0,
     ) : VideoCompressionState
 
     /**
@@ -0,0 +1,28 @@
+package mega.privacy.android.domain.entity.node
+
+/**
+ * Nodes whose changes a node update subscriber wants to receive
+ */
+sealed interface NodeUpdateSubscription {
+
+    /**
+     * Changes of a single node
+     *
+     * @property nodeId id of the node
+     */
+    data class Node(val nodeId: NodeId) : NodeUpdateSubscription
+
+    /**
+     * Changes of the direct children of a node
+     *
+     * @property parentId id of the parent node
+     */
+    data class Children(val parentId: NodeId) : NodeUpdateSubscription
+
+    /**
+     * Changes of all the descendants of a node
+     *
+     * @property rootId id of the root node of the subtree, its own changes are not included
+     */
+    data class Subtree(val rootId: NodeId) : NodeUpdateSubscription
+}
@@ -0,0 +1,75 @@
+package mega.privacy.android.domain.entity.search
+
+/**
+ * Results of a search split in pages
+ *
+ * The results are only prepared when a page is requested, so showing the first results of a big
+ * search does not need to prepare all of them.
+ */
+interface SearchResultPages<out T> {
+
+    /**
+     * Number of results
+     */
+    val size: Int
+
+    /**
+     * Number of results of each page, except the last one
+     */
+    val pageSize: Int
+
+    /**
+     * Number of pages
+     */
+    val pageCount: Int
+        get() = (size + pageSize - 1) / pageSize
+
+    /**
+     * Get the results of a page
+     *
+     * @param page index of the page, from 0 to [pageCount] - 1
+     * @return the results of the page, or an empty list if the page does not exist
+     */
+    suspend fun getPage(page: Int): List<T>
+
+    companion object {
+        /**
+         * Default number of results of each page
+         */
+        const val DEFAULT_PAGE_SIZE = 50
+    }
+}
+
+/**
+ * Transform the results of each page when the page is requested
+ *
+ * @param transform transformation of each result
+ */
+fun <T, R> SearchResultPages<T>.mapPages(
+    transform: suspend (T) -> R,
+): SearchResultPages<R> = object : SearchResultPages<R> {
+    override val size = this@mapPages.size
+    override val pageSize = this@mapPages.pageSize
+    override suspend fun getPage(page: Int) = this@mapPages.getPage(page).map { transform(it) }
+}
+
+/**
+ * Split results that are already prepared in pages
+ *
+ * @param pageSize number of results of each page
+ */
+fun <T> List<T>.toSearchResultPages(
+    pageSize: Int = SearchResultPages.DEFAULT_PAGE_SIZE,
+): SearchResultPages<T> {
+    val results = this
+    val resultsPerPage = pageSize
+    return object : SearchResultPages<T> {
+        override val size = results.size
+        override val pageSize = resultsPerPage
+        override suspend fun getPage(page: Int) = if (page in 0 until pageCount) {
+            results.subList(page * pageSize, minOf((page + 1) * pageSize, size))
+        } else {
+            emptyList()
+        }
+    }
+}
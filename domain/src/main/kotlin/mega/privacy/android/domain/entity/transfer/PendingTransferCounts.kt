@@ -0,0 +1,44 @@
+package mega.privacy.android.domain.entity.transfer
+
+/**
+ * Number of pending (not finished) transfers of each category
+ *
+ * @param downloads non-background downloads
+ * @param backgroundDownloads background downloads
+ * @param generalUploads uploads that are not Camera Uploads nor chat uploads
+ * @param cameraUploads Camera Uploads
+ * @param chatUploads chat uploads
+ * @param pausedDownloads paused non-background downloads
+ * @param pausedGeneralUploads paused general uploads
+ * @param pausedCameraUploads paused Camera Uploads
+ * @param pausedChatUploads paused chat uploads
+ */
+data class PendingTransferCounts(
+    val downloads: Int = 0,
+    val backgroundDownloads: Int = 0,
+    val generalUploads: Int = 0,
+    val cameraUploads: Int = 0,
+    val chatUploads: Int = 0,
+    val pausedDownloads: Int = 0,
+    val pausedGeneralUploads: Int = 0,
+    val pausedCameraUploads: Int = 0,
+    val pausedChatUploads: Int = 0,
+) {
+    /**
+     * All the pending uploads
+     */
+    val uploads: Int
+        get() = generalUploads + cameraUploads + chatUploads
+
+    /**
+     * All the paused uploads
+     */
+    val pausedUploads: Int
+        get() = pausedGeneralUploads + pausedCameraUploads + pausedChatUploads
+
+    /**
+     * Pending non-background downloads and all the pending uploads
+     */
+    val transfers: Int
+        get() = downloads + uploads
+}
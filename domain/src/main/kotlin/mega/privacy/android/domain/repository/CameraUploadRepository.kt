@@ -207,6 +207,18 @@ interface CameraUploadRepository {
         isSecondary: Boolean,
     ): Boolean
 
+    /**
+     * Get the local paths that already have a sync record
+     *
+     * @param localPaths the local paths to look for
+     * @param isSecondary true if the paths belong to the secondary folder
+     * @return the subset of [localPaths] that already have a sync record
+     */
+    suspend fun getExistingLocalPaths(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String>
+
     /**
      * Does local path exist
      *
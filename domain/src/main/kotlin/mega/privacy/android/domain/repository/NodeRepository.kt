@@ -9,6 +9,7 @@ import mega.privacy.android.domain.entity.node.FolderNode
 import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.offline.OfflineNodeInformation
@@ -151,6 +152,15 @@ interface NodeRepository {
      */
     fun monitorNodeUpdates(): Flow<NodeUpdate>
 
+    /**
+     * Monitor the node updates of a subscription
+     *
+     * @param subscription nodes whose changes are wanted
+     * @return a flow of the node updates with only the changes of the subscribed nodes,
+     * updates without any of them are not emitted
+     */
+    fun monitorNodeUpdates(subscription: NodeUpdateSubscription): Flow<NodeUpdate>
+
     /**
      * Check if node is in rubbish or deleted
      */
@@ -83,7 +83,7 @@ interface PhotosRepository {
     /**
      * Clear all photos cache
      */
-    fun clearCache()
+    suspend fun clearCache()
 
     /**
      * Get Chat Photos by chatId and message Id
@@ -4,6 +4,7 @@ import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchResultPages
 
 /**
  * Search Repository
@@ -64,4 +65,55 @@ interface SearchRepository {
         order: SortOrder,
         isFirstLevelNavigation: Boolean,
     ): List<UnTypedNode>
-}
\ No newline at end of file
+
+    /**
+     * Search nodes, mapping them page by page when requested
+     *
+     * Starting a search cancels the previous one, if it is still in progress.
+     *
+     * @param nodeId [NodeId] place where needed to be searched
+     * @param searchCategory Search Category for search
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param pageSize number of nodes of each page
+     */
+    suspend fun searchPages(
+        nodeId: NodeId?,
+        searchCategory: SearchCategory = SearchCategory.ALL,
+        query: String,
+        order: SortOrder,
+        pageSize: Int = SearchResultPages.DEFAULT_PAGE_SIZE,
+    ): SearchResultPages<UnTypedNode>
+
+    /**
+     * Search nodes in incoming shares, mapping them page by page when requested
+     *
+     * Starting a search cancels the previous one, if it is still in progress.
+     *
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param pageSize number of nodes of each page
+     */
+    suspend fun searchInSharesPages(
+        query: String,
+        order: SortOrder,
+        pageSize: Int = SearchResultPages.DEFAULT_PAGE_SIZE,
+    ): SearchResultPages<UnTypedNode>
+
+    /**
+     * Search nodes in links, mapping them page by page when requested
+     *
+     * Starting a search cancels the previous one, if it is still in progress.
+     *
+     * @param query string to be search
+     * @param order oder in which result should be there
+     * @param isFirstLevelNavigation first level navigation
+     * @param pageSize number of nodes of each page
+     */
+    suspend fun searchLinkSharesPages(
+        query: String,
+        order: SortOrder,
+        isFirstLevelNavigation: Boolean,
+        pageSize: Int = SearchResultPages.DEFAULT_PAGE_SIZE,
+    ): SearchResultPages<UnTypedNode>
+}
@@ -7,6 +7,7 @@ import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
+import mega.privacy.android.domain.entity.transfer.PendingTransferCounts
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferAppData
 import mega.privacy.android.domain.entity.transfer.TransferData
@@ -25,6 +26,15 @@ interface TransferRepository {
      */
     fun monitorTransferEvents(): Flow<TransferEvent>
 
+    /**
+     * Monitor the start, finish and temporary error events of the transfers
+     *
+     * These events are never delayed behind the progress events of other transfers.
+     *
+     * @return flow of transfer event
+     */
+    fun monitorTransferLifecycleEvents(): Flow<TransferEvent>
+
     /**
      * Gets the number of pending download transfers that are not background transfers.
      *
@@ -209,12 +219,27 @@ interface TransferRepository {
      */
     fun monitorPausedTransfers(): StateFlow<Boolean>
 
+    /**
+     * Monitors the number of pending transfers of each category
+     *
+     * The counts are kept up to date with the transfer events, without getting all the transfers.
+     */
+    fun monitorPendingTransferCounts(): StateFlow<PendingTransferCounts>
+
     /**
      * Get in progress transfers
      *
      */
     suspend fun getInProgressTransfers(): List<Transfer>
 
+    /**
+     * Get in progress transfers from the SDK
+     *
+     * Unlike [getInProgressTransfers], the transfers are not kept up to date with the transfer
+     * events, so they can be used to correct a state built from them.
+     */
+    suspend fun getInProgressTransfersFromSdk(): List<Transfer>
+
     /**
      * Monitor completed transfers
      *
@@ -30,6 +30,13 @@ interface ThumbnailPreviewRepository {
     @Throws(MegaException::class)
     suspend fun getThumbnailFromServer(handle: Long): File?
 
+    /**
+     * Get the nodes whose thumbnail has not been downloaded yet, resolving all of them at once
+     * @param handles node handles
+     * @return the handles of the nodes with a thumbnail not available locally, in the same order
+     */
+    suspend fun getThumbnailsToDownload(handles: List<Long>): List<Long>
+
     /**
      * Check public node thumbnail from server
      * @param handle node handle
@@ -1,9 +1,7 @@
 package mega.privacy.android.domain.usecase
 
-import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.mapNotNull
 import mega.privacy.android.domain.entity.node.NodeId
-import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
 import mega.privacy.android.domain.repository.NodeRepository
 import javax.inject.Inject
 
@@ -14,18 +12,5 @@ class DefaultMonitorChildrenUpdates @Inject constructor(
     private val nodeRepository: NodeRepository,
 ) : MonitorChildrenUpdates {
     override fun invoke(nodeId: NodeId) =
-        nodeRepository.monitorNodeUpdates().mapNotNull { update ->
-            update.changes.filter {
-                var parent = nodeRepository.getNodeById(it.key.parentId)
-                while (parent != null) {
-                    if (parent.id == nodeId) {
-                        return@filter true
-                    }
-                    parent = nodeRepository.getNodeById(parent.parentId)
-                }
-                return@filter false
-            }.takeIf { it.isNotEmpty() }?.let {
-                NodeUpdate(it)
-            }
-        }
-}
\ No newline at end of file
+        nodeRepository.monitorNodeUpdates(NodeUpdateSubscription.Subtree(nodeId))
+}
@@ -4,6 +4,7 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.mapNotNull
 import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
 import mega.privacy.android.domain.repository.NodeRepository
 import javax.inject.Inject
 
@@ -11,7 +12,7 @@ class DefaultMonitorNodeUpdatesById @Inject constructor(
     private val nodeRepository: NodeRepository,
 ) : MonitorNodeUpdatesById {
     override fun invoke(nodeId: NodeId): Flow<List<NodeChanges>> =
-        nodeRepository.monitorNodeUpdates().mapNotNull { update ->
-            update.changes.entries.firstOrNull { it.key.id == nodeId }?.value
+        nodeRepository.monitorNodeUpdates(NodeUpdateSubscription.Node(nodeId)).mapNotNull { update ->
+            update.changes.values.firstOrNull()
         }
-}
\ No newline at end of file
+}
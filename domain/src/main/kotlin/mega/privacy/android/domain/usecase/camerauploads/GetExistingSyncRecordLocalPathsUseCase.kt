@@ -0,0 +1,27 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import javax.inject.Inject
+
+/**
+ * Get the local paths that are already saved as sync records
+ */
+class GetExistingSyncRecordLocalPathsUseCase @Inject constructor(
+    private val cameraUploadRepository: CameraUploadRepository,
+) {
+
+    /**
+     * Get the local paths that are already saved as sync records, resolving the whole list at once
+     *
+     * @param localPaths the local paths to look for
+     * @param isSecondary true if the paths belong to the secondary folder
+     * @return the subset of [localPaths] that are already saved as sync records
+     */
+    suspend operator fun invoke(
+        localPaths: List<String>,
+        isSecondary: Boolean,
+    ): Set<String> = cameraUploadRepository.getExistingLocalPaths(
+        localPaths = localPaths,
+        isSecondary = isSecondary,
+    )
+}
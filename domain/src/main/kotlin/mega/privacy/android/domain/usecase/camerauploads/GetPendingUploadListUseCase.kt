@@ -12,7 +12,6 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.usecase.GetParentNodeUseCase
 import mega.privacy.android.domain.usecase.IsNodeInRubbish
-import mega.privacy.android.domain.usecase.MediaLocalPathExists
 import mega.privacy.android.domain.usecase.ShouldCompressVideo
 import mega.privacy.android.domain.usecase.file.GetFingerprintUseCase
 import mega.privacy.android.domain.usecase.file.GetGPSCoordinatesUseCase
@@ -28,7 +27,7 @@ class GetPendingUploadListUseCase @Inject constructor(
     private val getPrimarySyncHandleUseCase: GetPrimarySyncHandleUseCase,
     private val getSecondarySyncHandleUseCase: GetSecondarySyncHandleUseCase,
     private val getFingerprintUseCase: GetFingerprintUseCase,
-    private val mediaLocalPathExists: MediaLocalPathExists,
+    private val getExistingSyncRecordLocalPathsUseCase: GetExistingSyncRecordLocalPathsUseCase,
     private val shouldCompressVideo: ShouldCompressVideo,
     private val getGPSCoordinatesUseCase: GetGPSCoordinatesUseCase,
     private val isNodeInRubbish: IsNodeInRubbish,
@@ -58,15 +57,15 @@ class GetPendingUploadListUseCase @Inject constructor(
             if (isSecondary) getSecondarySyncHandleUseCase() else getPrimarySyncHandleUseCase()
         val type = if (isVideo) SyncRecordType.TYPE_VIDEO else SyncRecordType.TYPE_PHOTO
 
-        mediaList.map { media ->
+        // Check which files are already inserted in the database, in a single lookup
+        val existingLocalPaths =
+            getExistingSyncRecordLocalPathsUseCase(mediaList.map { it.filePath }, isSecondary)
+
+        mediaList.filterNot { it.filePath in existingLocalPaths }.map { media ->
             async {
                 semaphore.acquire()
                 yield()
                 val syncRecord = runCatching {
-                    // Check if the file is already inserted in the database
-                    if (mediaLocalPathExists(media.filePath, isSecondary))
-                        return@runCatching null
-
                     val localFingerPrint =
                         getFingerprintUseCase(media.filePath) ?: return@runCatching null
 
@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import javax.inject.Inject
+
+/**
+ * UseCase for getting the nodes of a list whose thumbnail has not been downloaded yet
+ */
+class GetThumbnailsToDownloadUseCase @Inject constructor(
+    private val thumbnailPreviewRepository: ThumbnailPreviewRepository,
+) {
+
+    /**
+     * invoke
+     * @param handles node handles, in priority order
+     * @return the handles of the nodes whose thumbnail has to be downloaded, in the same order
+     */
+    suspend operator fun invoke(handles: List<Long>): List<Long> =
+        if (handles.isEmpty()) emptyList()
+        else thumbnailPreviewRepository.getThumbnailsToDownload(handles)
+}
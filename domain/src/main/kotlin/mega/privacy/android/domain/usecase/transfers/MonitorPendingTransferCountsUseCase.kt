@@ -0,0 +1,19 @@
+package mega.privacy.android.domain.usecase.transfers
+
+import mega.privacy.android.domain.repository.TransferRepository
+import javax.inject.Inject
+
+/**
+ * Use case for monitoring the number of pending transfers of each category.
+ */
+class MonitorPendingTransferCountsUseCase @Inject constructor(
+    private val transferRepository: TransferRepository,
+) {
+
+    /**
+     * Invoke.
+     *
+     * @return StateFlow with the number of pending transfers of each category.
+     */
+    operator fun invoke() = transferRepository.monitorPendingTransferCounts()
+}
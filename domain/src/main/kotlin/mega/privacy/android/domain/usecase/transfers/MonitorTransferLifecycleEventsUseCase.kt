@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.transfers
+
+import mega.privacy.android.domain.repository.TransferRepository
+import javax.inject.Inject
+
+/**
+ * Monitor the start, finish and temporary error events of the transfers
+ *
+ * For the callers which ignore the update and data events, so they are not woken up by them.
+ *
+ * @property repository
+ */
+class MonitorTransferLifecycleEventsUseCase @Inject constructor(
+    private val repository: TransferRepository,
+) {
+    /**
+     * Invoke
+     *
+     */
+    operator fun invoke() = repository.monitorTransferLifecycleEvents()
+}
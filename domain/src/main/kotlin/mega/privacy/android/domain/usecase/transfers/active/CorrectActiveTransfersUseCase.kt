@@ -3,7 +3,6 @@ package mega.privacy.android.domain.usecase.transfers.active
 import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.TransferType
 import mega.privacy.android.domain.repository.TransferRepository
-import mega.privacy.android.domain.usecase.transfers.GetInProgressTransfersUseCase
 import javax.inject.Inject
 
 /**
@@ -12,7 +11,6 @@ import javax.inject.Inject
  * we need to fix it to avoid outdated counters in [ActiveTransferTotals]
  */
 class CorrectActiveTransfersUseCase @Inject constructor(
-    private val getInProgressTransfersUseCase: GetInProgressTransfersUseCase,
     private val transferRepository: TransferRepository,
 ) {
     /**
@@ -21,7 +19,7 @@ class CorrectActiveTransfersUseCase @Inject constructor(
      */
     suspend operator fun invoke(transferType: TransferType) {
         val activeTransfers = transferRepository.getCurrentActiveTransfersByType(transferType)
-        val inProgressTransfers = getInProgressTransfersUseCase()
+        val inProgressTransfers = transferRepository.getInProgressTransfersFromSdk()
 
         //set not-in-progress active transfers as finished, this can happen if we missed a finish event from SDK
         val notInProgressActiveTransfersTags = activeTransfers
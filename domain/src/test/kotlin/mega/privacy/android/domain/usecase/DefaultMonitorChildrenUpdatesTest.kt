@@ -10,10 +10,14 @@ import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
 import mega.privacy.android.domain.repository.NodeRepository
 import org.junit.Before
 import org.junit.Test
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -28,9 +32,6 @@ class DefaultMonitorChildrenUpdatesTest {
         on { id }.thenReturn(childId)
         on { parentId }.thenReturn(folderId)
     }
-    private val otherNode = mock<Node> {
-        on { id }.thenReturn(NodeId(2L))
-    }
 
     @Before
     fun setUp() {
@@ -39,35 +40,18 @@ class DefaultMonitorChildrenUpdatesTest {
 
 
     @Test
-    fun `test only child node updates are emitted`() = runTest {
-        val expectedChanges1 = listOf(NodeChanges.Name, NodeChanges.Parent)
-        val expectedChanges2 = listOf(NodeChanges.Owner, NodeChanges.Parent)
-        val otherChanges1 = listOf(NodeChanges.Name, NodeChanges.Owner)
-        val otherChanges2 = listOf(NodeChanges.Owner, NodeChanges.Favourite)
-        val expectedUpdate1 = mapOf(childNode to expectedChanges1, otherNode to otherChanges1)
-        val filteredUpdate1 = mapOf(otherNode to otherChanges1)
-        val filteredUpdate2 = mapOf(folder as Node to otherChanges2)
-        val expectedUpdate2 = mapOf(childNode to expectedChanges2, otherNode to otherChanges2)
-        whenever(nodeRepository.getNodeById(folderId)).thenReturn(folder)
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
-            flowOf(
-                NodeUpdate(expectedUpdate1),
-                NodeUpdate(filteredUpdate1),
-                NodeUpdate(expectedUpdate2),
-                NodeUpdate(filteredUpdate2),
-            )
-        )
+    fun `test that the updates of the subtree of the node are emitted`() = runTest {
+        val expectedUpdate1 = NodeUpdate(mapOf(childNode to listOf(NodeChanges.Name)))
+        val expectedUpdate2 = NodeUpdate(mapOf(childNode to listOf(NodeChanges.Owner)))
+        whenever(
+            nodeRepository.monitorNodeUpdates(NodeUpdateSubscription.Subtree(folderId))
+        ).thenReturn(flowOf(expectedUpdate1, expectedUpdate2))
         underTest.invoke(folder.id).test {
-            val firstChange = awaitItem()
-            Truth.assertThat(firstChange.changes.values).containsExactly(expectedChanges1)
-            Truth.assertThat(firstChange.changes.keys).hasSize(1)
-            Truth.assertThat(firstChange.changes.keys.first().id).isEqualTo(childId)
-            val secondChange = awaitItem()
-            Truth.assertThat(secondChange.changes.values).containsExactly(expectedChanges2)
-            Truth.assertThat(secondChange.changes.keys).hasSize(1)
-            Truth.assertThat(secondChange.changes.keys.first().id).isEqualTo(childId)
+            Truth.assertThat(awaitItem()).isEqualTo(expectedUpdate1)
+            Truth.assertThat(awaitItem()).isEqualTo(expectedUpdate2)
             awaitComplete()
         }
+        verify(nodeRepository, never()).getNodeById(any())
     }
 
     private companion object {
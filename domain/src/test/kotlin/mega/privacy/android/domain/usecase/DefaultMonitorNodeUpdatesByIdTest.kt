@@ -9,6 +9,7 @@ import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeUpdate
+import mega.privacy.android.domain.entity.node.NodeUpdateSubscription
 import mega.privacy.android.domain.repository.NodeRepository
 import org.junit.Before
 import org.junit.Test
@@ -23,9 +24,6 @@ class DefaultMonitorNodeUpdatesByIdTest {
     private val node = mock<Node> {
         on { id }.thenReturn(id)
     }
-    private val otherNode = mock<Node> {
-        on { id }.thenReturn(NodeId(2L))
-    }
 
     @Before
     fun setUp() {
@@ -37,16 +35,10 @@ class DefaultMonitorNodeUpdatesByIdTest {
     fun `test only selected node updates are emitted`() = runTest {
         val expectedChanges1 = listOf(NodeChanges.Name, NodeChanges.Parent)
         val expectedChanges2 = listOf(NodeChanges.Owner, NodeChanges.Parent)
-        val otherChanges1 = listOf(NodeChanges.Name, NodeChanges.Owner)
-        val otherChanges2 = listOf(NodeChanges.Owner, NodeChanges.Favourite)
-        val expectedUpdate1 = mapOf(node to expectedChanges1, otherNode to otherChanges1)
-        val filteredUpdate = mapOf(otherNode to otherChanges2)
-        val expectedUpdate2 = mapOf(node to expectedChanges2)
-        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(
+        whenever(nodeRepository.monitorNodeUpdates(NodeUpdateSubscription.Node(id))).thenReturn(
             flowOf(
-                NodeUpdate(expectedUpdate1),
-                NodeUpdate(filteredUpdate),
-                NodeUpdate(expectedUpdate2)
+                NodeUpdate(mapOf(node to expectedChanges1)),
+                NodeUpdate(mapOf(node to expectedChanges2)),
             )
         )
         underTest.invoke(id).test {
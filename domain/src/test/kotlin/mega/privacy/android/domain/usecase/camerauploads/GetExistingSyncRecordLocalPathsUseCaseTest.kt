@@ -0,0 +1,59 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.CameraUploadRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+
+/**
+ * Test class for [GetExistingSyncRecordLocalPathsUseCase]
+ */
+@ExperimentalCoroutinesApi
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetExistingSyncRecordLocalPathsUseCaseTest {
+
+    private lateinit var underTest: GetExistingSyncRecordLocalPathsUseCase
+
+    private val cameraUploadRepository = mock<CameraUploadRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = GetExistingSyncRecordLocalPathsUseCase(
+            cameraUploadRepository = cameraUploadRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(cameraUploadRepository)
+    }
+
+    @ParameterizedTest(name = "is secondary: {0}")
+    @ValueSource(booleans = [true, false])
+    fun `test that the existing local paths are returned`(isSecondary: Boolean) = runTest {
+        val localPaths = listOf("/path/1.jpg", "/path/2.jpg", "/path/3.jpg")
+        val expected = setOf("/path/2.jpg")
+        whenever(cameraUploadRepository.getExistingLocalPaths(localPaths, isSecondary))
+            .thenReturn(expected)
+
+        assertThat(underTest(localPaths, isSecondary)).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that an empty set is returned if no local path exists`() = runTest {
+        val localPaths = listOf("/path/1.jpg")
+        whenever(cameraUploadRepository.getExistingLocalPaths(localPaths, false))
+            .thenReturn(emptySet())
+
+        assertThat(underTest(localPaths, false)).isEmpty()
+    }
+}
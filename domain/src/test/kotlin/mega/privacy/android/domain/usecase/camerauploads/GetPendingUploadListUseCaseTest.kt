@@ -12,7 +12,6 @@ import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.usecase.GetParentNodeUseCase
 import mega.privacy.android.domain.usecase.IsNodeInRubbish
-import mega.privacy.android.domain.usecase.MediaLocalPathExists
 import mega.privacy.android.domain.usecase.ShouldCompressVideo
 import mega.privacy.android.domain.usecase.file.GetFingerprintUseCase
 import mega.privacy.android.domain.usecase.file.GetGPSCoordinatesUseCase
@@ -20,6 +19,7 @@ import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import java.io.File
 import java.util.LinkedList
@@ -34,7 +34,8 @@ class GetPendingUploadListUseCaseTest {
     private val getPrimarySyncHandleUseCase: GetPrimarySyncHandleUseCase = mock()
     private val getSecondarySyncHandleUseCase: GetSecondarySyncHandleUseCase = mock()
     private val getFingerprintUseCase: GetFingerprintUseCase = mock()
-    private val mediaLocalPathExists: MediaLocalPathExists = mock()
+    private val getExistingSyncRecordLocalPathsUseCase: GetExistingSyncRecordLocalPathsUseCase =
+        mock()
     private val shouldCompressVideo: ShouldCompressVideo = mock()
     private val getGPSCoordinatesUseCase: GetGPSCoordinatesUseCase = mock()
     private val isNodeInRubbishBin: IsNodeInRubbish = mock()
@@ -118,7 +119,7 @@ class GetPendingUploadListUseCaseTest {
             getPrimarySyncHandleUseCase,
             getSecondarySyncHandleUseCase,
             getFingerprintUseCase,
-            mediaLocalPathExists,
+            getExistingSyncRecordLocalPathsUseCase,
             shouldCompressVideo,
             getGPSCoordinatesUseCase,
             isNodeInRubbishBin,
@@ -134,7 +135,7 @@ class GetPendingUploadListUseCaseTest {
             whenever(getSecondarySyncHandleUseCase()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeFromCloudUseCase("", NodeId(1L))).thenReturn(null)
-            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(getExistingSyncRecordLocalPathsUseCase(any(), any())).thenReturn(emptySet())
             whenever(getGPSCoordinatesUseCase(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(getNodeGPSCoordinatesUseCase(NodeId(1L))).thenReturn(Pair(0.0, 0.0))
             val queue = LinkedList<CameraUploadsMedia>()
@@ -146,6 +147,18 @@ class GetPendingUploadListUseCaseTest {
             )
         }
 
+    @Test
+    fun `test that media already saved as sync records are skipped`() =
+        runTest {
+            whenever(getPrimarySyncHandleUseCase()).thenReturn(1L)
+            whenever(getExistingSyncRecordLocalPathsUseCase(listOf(uploadMedia.filePath), false))
+                .thenReturn(setOf(uploadMedia.filePath))
+            val queue = LinkedList<CameraUploadsMedia>()
+            queue.add(uploadMedia)
+            assertThat(underTest(queue, isSecondary = false, isVideo = false)).isEmpty()
+            verifyNoInteractions(getFingerprintUseCase, getNodeFromCloudUseCase)
+        }
+
     @Test
     fun `test that correct sync record list is returned if node does not exist for secondary photo media`() =
         runTest {
@@ -159,7 +172,7 @@ class GetPendingUploadListUseCaseTest {
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeFromCloudUseCase("", NodeId(1L))).thenReturn(null)
             whenever(getParentNodeUseCase(NodeId(handle))).thenReturn(node)
-            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(getExistingSyncRecordLocalPathsUseCase(any(), any())).thenReturn(emptySet())
             whenever(getGPSCoordinatesUseCase(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(getNodeGPSCoordinatesUseCase(NodeId(1L))).thenReturn(Pair(0.0, 0.0))
             val queue = LinkedList<CameraUploadsMedia>()
@@ -183,7 +196,7 @@ class GetPendingUploadListUseCaseTest {
             whenever(getSecondarySyncHandleUseCase()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(true)
             whenever(getNodeFromCloudUseCase("", NodeId(1L))).thenReturn(null)
-            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(getExistingSyncRecordLocalPathsUseCase(any(), any())).thenReturn(emptySet())
             whenever(getParentNodeUseCase(NodeId(handle))).thenReturn(node)
             whenever(getGPSCoordinatesUseCase(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(getNodeGPSCoordinatesUseCase(NodeId(1L))).thenReturn(Pair(0.0, 0.0))
@@ -204,7 +217,7 @@ class GetPendingUploadListUseCaseTest {
             whenever(getSecondarySyncHandleUseCase()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeFromCloudUseCase("", NodeId(1L))).thenReturn(null)
-            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(getExistingSyncRecordLocalPathsUseCase(any(), any())).thenReturn(emptySet())
             whenever(getGPSCoordinatesUseCase(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(getNodeGPSCoordinatesUseCase(NodeId(1L))).thenReturn(Pair(0.0, 0.0))
             val queue = LinkedList<CameraUploadsMedia>()
@@ -228,7 +241,7 @@ class GetPendingUploadListUseCaseTest {
             whenever(getSecondarySyncHandleUseCase()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeFromCloudUseCase("", NodeId(1L))).thenReturn(node)
-            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(getExistingSyncRecordLocalPathsUseCase(any(), any())).thenReturn(emptySet())
             whenever(getParentNodeUseCase(NodeId(handle))).thenReturn(node)
             whenever(getGPSCoordinatesUseCase(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(isNodeInRubbishBin(any())).thenReturn(false)
@@ -251,7 +264,7 @@ class GetPendingUploadListUseCaseTest {
             whenever(getSecondarySyncHandleUseCase()).thenReturn(1L)
             whenever(shouldCompressVideo()).thenReturn(false)
             whenever(getNodeFromCloudUseCase("", NodeId(1L))).thenReturn(node)
-            whenever(mediaLocalPathExists(any(), any())).thenReturn(false)
+            whenever(getExistingSyncRecordLocalPathsUseCase(any(), any())).thenReturn(emptySet())
             whenever(getParentNodeUseCase(NodeId(handle))).thenReturn(node)
             whenever(getGPSCoordinatesUseCase(any(), any())).thenReturn(Pair(0F, 1F))
             whenever(getNodeGPSCoordinatesUseCase(NodeId(1L))).thenReturn(Pair(0.0, 0.0))
@@ -0,0 +1,71 @@
+package mega.privacy.android.domain.usecase.search
+
+import com.google.common.truth.Truth
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFolderNode
+import mega.privacy.android.domain.entity.search.toSearchResultPages
+import mega.privacy.android.domain.repository.SearchRepository
+import mega.privacy.android.domain.usecase.AddNodeType
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import org.junit.Before
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class LinkSharesTabSearchPagesUseCaseTest {
+    private lateinit var underTest: LinkSharesTabSearchPagesUseCase
+    private val addNodeType: AddNodeType = mock()
+    private val searchRepository: SearchRepository = mock()
+    private val getCloudSortOrder: GetCloudSortOrder = mock()
+
+    @Before
+    fun setUp() {
+        underTest = LinkSharesTabSearchPagesUseCase(
+            addNodeType = addNodeType,
+            searchRepository = searchRepository,
+            getCloudSortOrder = getCloudSortOrder
+        )
+    }
+
+    @Test
+    fun `test that when invoke is called it returns pages of typed nodes`() = runTest {
+        val query = "Some thing"
+        val nodeHandles = listOf(1L, 2L)
+        val nodeName = listOf("abc", "xyz")
+        val folderNodes = nodeHandles.mapIndexed { index, nodeId ->
+            mock<FolderNode> {
+                on { id }.thenReturn(NodeId(nodeId))
+                on { name }.thenReturn(nodeName[index])
+            }
+        }
+        val typedFolderNodes = nodeHandles.mapIndexed { index, nodeId ->
+            mock<TypedFolderNode> {
+                on { id }.thenReturn(NodeId(nodeId))
+                on { name }.thenReturn(nodeName[index])
+            }
+        }
+        folderNodes.forEachIndexed { index, node ->
+            whenever(addNodeType(node)).thenReturn(typedFolderNodes[index])
+        }
+        whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_DEFAULT_DESC)
+        whenever(
+            searchRepository.searchLinkSharesPages(
+                query = query,
+                order = getCloudSortOrder(),
+                isFirstLevelNavigation = true
+            )
+        ).thenReturn(folderNodes.toSearchResultPages())
+        val actual = underTest(query = query, isFirstLevel = true)
+        verify(addNodeType, never()).invoke(any())
+        Truth.assertThat(actual.size).isEqualTo(folderNodes.size)
+        Truth.assertThat(actual.getPage(0)).isEqualTo(typedFolderNodes)
+    }
+}
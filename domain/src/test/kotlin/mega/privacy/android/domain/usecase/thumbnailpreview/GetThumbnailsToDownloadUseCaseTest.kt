@@ -0,0 +1,55 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+/**
+ * Test class for [GetThumbnailsToDownloadUseCase]
+ */
+@ExperimentalCoroutinesApi
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetThumbnailsToDownloadUseCaseTest {
+
+    private lateinit var underTest: GetThumbnailsToDownloadUseCase
+
+    private val thumbnailPreviewRepository = mock<ThumbnailPreviewRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = GetThumbnailsToDownloadUseCase(
+            thumbnailPreviewRepository = thumbnailPreviewRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(thumbnailPreviewRepository)
+    }
+
+    @Test
+    fun `test that the handles returned by the repository are returned`() = runTest {
+        val handles = listOf(1L, 2L, 3L)
+        whenever(thumbnailPreviewRepository.getThumbnailsToDownload(handles))
+            .thenReturn(listOf(1L, 3L))
+
+        assertThat(underTest(handles)).containsExactly(1L, 3L).inOrder()
+    }
+
+    @Test
+    fun `test that the repository is not called for an empty list`() = runTest {
+        assertThat(underTest(emptyList())).isEmpty()
+        verify(thumbnailPreviewRepository, never()).getThumbnailsToDownload(any())
+    }
+}
@@ -0,0 +1,39 @@
+package mega.privacy.android.domain.usecase.transfers
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.MutableStateFlow
+import mega.privacy.android.domain.entity.transfer.PendingTransferCounts
+import mega.privacy.android.domain.repository.TransferRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+/**
+ * Test class for [MonitorPendingTransferCountsUseCase]
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonitorPendingTransferCountsUseCaseTest {
+
+    private lateinit var underTest: MonitorPendingTransferCountsUseCase
+
+    private val transferRepository = mock<TransferRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = MonitorPendingTransferCountsUseCase(
+            transferRepository = transferRepository,
+        )
+    }
+
+    @Test
+    fun `test that the counts of the repository are returned`() {
+        val counts = MutableStateFlow(PendingTransferCounts(downloads = 2, chatUploads = 3))
+        whenever(transferRepository.monitorPendingTransferCounts()).thenReturn(counts)
+
+        val actual = underTest()
+
+        assertThat(actual.value.transfers).isEqualTo(5)
+    }
+}
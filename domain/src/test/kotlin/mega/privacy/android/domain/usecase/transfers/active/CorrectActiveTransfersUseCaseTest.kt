@@ -7,7 +7,6 @@ import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferType
 import mega.privacy.android.domain.repository.TransferRepository
-import mega.privacy.android.domain.usecase.transfers.GetInProgressTransfersUseCase
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -28,14 +27,12 @@ internal class CorrectActiveTransfersUseCaseTest {
     private lateinit var underTest: CorrectActiveTransfersUseCase
 
     private val transferRepository = mock<TransferRepository>()
-    private val getInProgressTransfersUseCase = mock<GetInProgressTransfersUseCase>()
     private val mockedActiveTransfers = (0..10).map { mock<ActiveTransfer>() }
     private val mockedTransfers = (0..10).map { mock<Transfer>() }
 
     @BeforeAll
     fun setUp() {
         underTest = CorrectActiveTransfersUseCase(
-            getInProgressTransfersUseCase = getInProgressTransfersUseCase,
             transferRepository = transferRepository,
         )
     }
@@ -44,7 +41,6 @@ internal class CorrectActiveTransfersUseCaseTest {
     fun resetMocks() {
         reset(
             transferRepository,
-            getInProgressTransfersUseCase,
             *mockedActiveTransfers.toTypedArray(),
             *mockedTransfers.toTypedArray(),
         )
@@ -74,7 +70,7 @@ internal class CorrectActiveTransfersUseCaseTest {
             whenever(transferRepository.getCurrentActiveTransfersByType(any()))
                 .thenReturn(mockedActiveTransfers)
             val inProgress = subSetTransfers()
-            whenever(getInProgressTransfersUseCase()).thenReturn(inProgress)
+            whenever(transferRepository.getInProgressTransfersFromSdk()).thenReturn(inProgress)
             val expected =
                 mockedActiveTransfers.map { it.tag } - inProgress.map { it.tag }.toSet()
             Truth.assertThat(expected).isNotEmpty()
@@ -90,7 +86,7 @@ internal class CorrectActiveTransfersUseCaseTest {
             val inProgress = subSetTransfers()
             whenever(transferRepository.getCurrentActiveTransfersByType(any()))
                 .thenReturn(mockedActiveTransfers)
-            whenever(getInProgressTransfersUseCase()).thenReturn(inProgress)
+            whenever(transferRepository.getInProgressTransfersFromSdk()).thenReturn(inProgress)
             underTest(TransferType.GENERAL_UPLOAD)
             verify(transferRepository, never()).setActiveTransferAsFinishedByTag(anyOrNull())
         }
@@ -104,7 +100,7 @@ internal class CorrectActiveTransfersUseCaseTest {
             val notInDataBase = mockedActiveTransfers - alreadyInDataBase.toSet()
             whenever(transferRepository.getCurrentActiveTransfersByType(any()))
                 .thenReturn(alreadyInDataBase)
-            whenever(getInProgressTransfersUseCase()).thenReturn(mockedTransfers)
+            whenever(transferRepository.getInProgressTransfersFromSdk()).thenReturn(mockedTransfers)
             underTest(TransferType.GENERAL_UPLOAD)
             verify(transferRepository, times(notInDataBase.size))
                 .insertOrUpdateActiveTransfer(any())
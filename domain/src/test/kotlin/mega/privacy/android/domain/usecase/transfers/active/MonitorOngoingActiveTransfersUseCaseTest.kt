@@ -6,10 +6,12 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.test.currentTime
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.MonitorOngoingActiveTransfersResult
 import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.usecase.transfers.TransfersConstants.ON_TRANSFER_UPDATE_REFRESH_MILLIS
 import mega.privacy.android.domain.usecase.transfers.paused.MonitorDownloadTransfersPausedUseCase
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -108,6 +110,32 @@ class MonitorOngoingActiveTransfersUseCaseTest {
         }
     }
 
+    @ParameterizedTest
+    @EnumSource(TransferType::class)
+    fun `test that active transfer totals are emitted at most once per refresh interval`(
+        transferType: TransferType,
+    ) = runTest {
+        val initial = mockActiveTransfersTotals(true)
+        val first = mockActiveTransfersTotals(true)
+        val second = mockActiveTransfersTotals(true)
+        val totalsFlow = MutableStateFlow(first)
+        whenever(monitorActiveTransferTotalsUseCase(transferType))
+            .thenReturn(totalsFlow)
+        whenever(monitorDownloadTransfersPausedUseCase())
+            .thenReturn(flowOf(false))
+        whenever(getActiveTransferTotalsUseCase(transferType))
+            .thenReturn(initial)
+        underTest(transferType).test {
+            assertThat(awaitItem().activeTransferTotals).isEqualTo(initial)
+            assertThat(awaitItem().activeTransferTotals).isEqualTo(first)
+            assertThat(currentTime).isEqualTo(ON_TRANSFER_UPDATE_REFRESH_MILLIS)
+            totalsFlow.value = second
+            assertThat(awaitItem().activeTransferTotals).isEqualTo(second)
+            assertThat(currentTime).isEqualTo(2 * ON_TRANSFER_UPDATE_REFRESH_MILLIS)
+            cancelAndIgnoreRemainingEvents()
+        }
+    }
+
     private fun mockActiveTransfersTotals(hasOngoingTransfers: Boolean) =
         mock<ActiveTransferTotals> {
             on { hasOngoingTransfers() }.thenReturn(hasOngoingTransfers)